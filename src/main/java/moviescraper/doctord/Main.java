@@ -4,6 +4,9 @@ import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
 
 import org.apache.commons.cli.BasicParser;
 import org.apache.commons.cli.CommandLine;
@@ -14,9 +17,17 @@ import org.apache.commons.cli.OptionBuilder;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 
-import moviescraper.doctord.controller.Renamer;
+import moviescraper.doctord.controller.BatchRenamer;
+import moviescraper.doctord.controller.BatchScraper;
+import moviescraper.doctord.controller.DownloadManager;
+import moviescraper.doctord.controller.LibraryScanner;
+import moviescraper.doctord.controller.LibraryWatcher;
+import moviescraper.doctord.controller.RenameJournal;
+import moviescraper.doctord.controller.amalgamation.AllAmalgamationOrderingPreferences;
+import moviescraper.doctord.controller.releaserenamer.BulkFileNameCleanup;
 import moviescraper.doctord.controller.releaserenamer.WebReleaseRenamer;
 import moviescraper.doctord.controller.siteparsingprofile.SiteParsingProfile;
+import moviescraper.doctord.controller.siteparsingprofile.SiteParsingProfile.ScraperGroupName;
 import moviescraper.doctord.controller.siteparsingprofile.specific.ActionJavParsingProfile;
 import moviescraper.doctord.controller.siteparsingprofile.specific.AvEntertainmentParsingProfile;
 import moviescraper.doctord.controller.siteparsingprofile.specific.CaribbeancomParsingProfile;
@@ -36,7 +47,9 @@ import moviescraper.doctord.controller.siteparsingprofile.specific.R18ParsingPro
 import moviescraper.doctord.controller.siteparsingprofile.specific.TheMovieDatabaseParsingProfile;
 import moviescraper.doctord.controller.siteparsingprofile.specific.TokyoHotParsingProfile;
 import moviescraper.doctord.model.Movie;
+import moviescraper.doctord.model.catalog.MovieCatalog;
 import moviescraper.doctord.model.preferences.MoviescraperPreferences;
+import moviescraper.doctord.scraper.HttpResponseCache;
 import moviescraper.doctord.view.GUIMain;
 import org.apache.commons.io.FileUtils;
 
@@ -74,6 +87,9 @@ public class Main {
 			                "Use given file argument(s) for file name cleanup process which will rename the file by expanding abbreviations and removing words which cause google scrapes to fail")
 			        .create("filenamecleanup");
 
+			Option recursive = new Option("recursive", false,
+			        "With -filenamecleanup, also cleans up the names of the movie files inside the given directories and their subdirectories, several directories at a time.");
+
 			@SuppressWarnings("static-access")
 			Option scrape = OptionBuilder.withArgName("ScraperName FilePath").hasArgs(2)
 			        .withDescription("Scrapes and writes metadata of the file located at <FilePath> with type of scraper specified by <ScraperName>.\n" + "Valid ScraperNames are: \n"
@@ -86,25 +102,69 @@ public class Main {
 
 			@SuppressWarnings("static-access")
 			Option rename = OptionBuilder.withArgName("FilePath").hasArgs(Option.UNLIMITED_VALUES)
-			        .withDescription("renames the file argument(s) and any associated metadata files if the file argument has a valid movie nfo using the file name format from settings.xml")
+			        .withDescription("renames the file argument(s) and any associated metadata files if the file argument has a valid movie nfo using the file name format from settings.xml.\n"
+			                + "Directories are searched recursively and renamed several at a time. A rename which stopped partway is finished the next time -rename is run.")
 			        .create("rename");
 
+			@SuppressWarnings("static-access")
+			Option batchScrape = OptionBuilder.withArgName("ScraperGroup|ScraperName FilePath").hasArgs(Option.UNLIMITED_VALUES)
+			        .withDescription("Scrapes and writes metadata of every movie file in the given file and directory argument(s), scraping several files at once.\n"
+			                + "Use a ScraperGroup of jav or american to amalgamate the results of all enabled scrapers in that group using the amalgamation settings, "
+			                + "or one of the ScraperNames listed for -scrape to only scrape from that site.\n" + "Directories are searched recursively.")
+			        .create("batchscrape");
+
+			@SuppressWarnings("static-access")
+			Option scrapeNew = OptionBuilder.withArgName("ScraperGroup|ScraperName LibraryRoot").hasArgs(Option.UNLIMITED_VALUES)
+			        .withDescription("Like -batchscrape, but only scrapes the movie files in the given library roots which were added or changed since the last -scrapenew "
+			                + "of that root, or which have no nfo. A snapshot of each root is kept in " + LibraryScanner.DEFAULT_SNAPSHOT_DIRECTORY_NAME + ".")
+			        .create("scrapenew");
+
+			@SuppressWarnings("static-access")
+			Option watch = OptionBuilder.withArgName("ScraperGroup|ScraperName LibraryRoot").hasArgs(Option.UNLIMITED_VALUES)
+			        .withDescription("Keeps running and scrapes the new movie files copied into the given library roots, or the roots in the watchFolderLibraryRoots "
+			                + "setting if none are given, once they stopped changing for " + LibraryWatcher.DEFAULT_STABLE_MILLIS / 1000 + " seconds. "
+			                + "-filethreads sets how many files of each root are scraped at once, default " + LibraryWatcher.DEFAULT_THREADS_PER_ROOT + ".")
+			        .create("watch");
+
+			@SuppressWarnings("static-access")
+			Option fileThreads = OptionBuilder.withArgName("Count").hasArgs(1)
+			        .withDescription("Number of files scraped at the same time with -batchscrape. Defaults to the settings.xml value, or " + BatchScraper.DEFAULT_FILE_PARALLELISM + ".")
+			        .create("filethreads");
+
+			@SuppressWarnings("static-access")
+			Option siteThreads = OptionBuilder.withArgName("Count").hasArgs(1)
+			        .withDescription("Number of scrapes of a single site running at the same time with -batchscrape. Defaults to the settings.xml value, or "
+			                + BatchScraper.DEFAULT_SITE_PARALLELISM + ".")
+			        .create("sitethreads");
+
+			Option cacheOnly = new Option("cacheonly", false, "Only use pages already in the http cache and do not connect to any site. Pages which were never downloaded are not found.");
+
 			options.addOption(filenamecleanup);
+			options.addOption(recursive);
 			options.addOption(scrape);
+			options.addOption(batchScrape);
+			options.addOption(scrapeNew);
+			options.addOption(watch);
+			options.addOption(fileThreads);
+			options.addOption(siteThreads);
 			options.addOption(scrapeUrl);
 			options.addOption(rename);
+			options.addOption(cacheOnly);
 
 			CommandLineParser parser = new BasicParser();
 			try {
 				CommandLine line = parser.parse(options, args);
 
+				if (line.hasOption("cacheonly"))
+					HttpResponseCache.getInstance().setCacheOnly(true);
+
 				//-help
 				if (line.hasOption("help")) {
 					printHelpMessage(options);
 				}
 				//-filenamecleanup
 				else if (line.hasOption("filenamecleanup")) {
-					runFileNameCleanup(line.getOptionValues("filenamecleanup"));
+					runFileNameCleanup(line.getOptionValues("filenamecleanup"), line.hasOption("recursive"));
 				}
 				//-scrape
 				else if (line.hasOption("scrape")) {
@@ -113,6 +173,12 @@ public class Main {
 					} else {
 						runScrape(line.getOptionValues("scrape"), null);
 					}
+				} else if (line.hasOption("batchscrape")) {
+					runBatchScrape(line.getOptionValues("batchscrape"), line.getOptionValue("filethreads"), line.getOptionValue("sitethreads"));
+				} else if (line.hasOption("scrapenew")) {
+					runScrapeNew(line.getOptionValues("scrapenew"), line.getOptionValue("filethreads"), line.getOptionValue("sitethreads"));
+				} else if (line.hasOption("watch")) {
+					runWatch(line.getOptionValues("watch"), line.getOptionValue("filethreads"), line.getOptionValue("sitethreads"));
 				} else if (line.hasOption("rename")) {
 					runRename(line.getOptionValues("rename"));
 				}
@@ -127,24 +193,21 @@ public class Main {
 	}
 
 	private static void runRename(String[] optionValues) {
-		for (String fileName : optionValues) {
-			File currentFile = new File(fileName);
-			if (!currentFile.exists()) {
-				System.err.println(currentFile + " does not exist.");
-			} else {
-				System.out.println("Trying to rename " + currentFile);
-				MoviescraperPreferences preferences = MoviescraperPreferences.getInstance();
-				System.out.println("Renaming with these preferences:");
-				System.out.println(preferences);
-				try {
-					Renamer.rename(currentFile, preferences);
-				} catch (IOException e) {
-					// TODO Auto-generated catch block
-					e.printStackTrace();
-				}
-			}
+		List<File> paths = new ArrayList<>(optionValues.length);
+		for (String fileName : optionValues)
+			paths.add(new File(fileName));
+		MoviescraperPreferences preferences = MoviescraperPreferences.getInstance();
+		System.out.println("Renaming with these preferences:");
+		System.out.println(preferences);
+		BatchRenamer batchRenamer = new BatchRenamer(preferences, new RenameJournal(new File(RenameJournal.DEFAULT_JOURNAL_FILE_NAME)), BatchRenamer.DEFAULT_THREADS);
+		try {
+			batchRenamer.renameAll(paths);
+		} catch (IOException e) {
+			e.printStackTrace();
+		} catch (InterruptedException e) {
+			System.err.println("Rename was interrupted");
+			Thread.currentThread().interrupt();
 		}
-
 	}
 
 	private static void printHelpMessage(Options options) {
@@ -153,24 +216,19 @@ public class Main {
 		formatter.printHelp("JAVMovieScraper", options);
 	}
 
-	private static void runFileNameCleanup(String[] optionValues) {
-		for (String fileName : optionValues) {
-			File currentFile = new File(fileName);
-			if (!currentFile.exists()) {
-				System.err.println(currentFile + " does not exist.");
-			} else {
-				try {
-					WebReleaseRenamer renamer = new WebReleaseRenamer();
-					File newFile = renamer.newFileName(currentFile);
-					boolean renameStatus = currentFile.renameTo(newFile);
-					if (renameStatus)
-						System.out.println("Renamed " + currentFile + " to " + newFile);
-					else
-						System.err.println("Rename failed! Perhaps a file name already exists with that name?");
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
-			}
+	private static void runFileNameCleanup(String[] optionValues, boolean recursive) {
+		List<File> paths = new ArrayList<>(optionValues.length);
+		for (String fileName : optionValues)
+			paths.add(new File(fileName));
+		try {
+			//one renamer is shared by all the files, as reading its word lists is the slow part of setting it up
+			BulkFileNameCleanup cleanup = new BulkFileNameCleanup(new WebReleaseRenamer(), BulkFileNameCleanup.DEFAULT_THREADS);
+			cleanup.cleanUp(paths, recursive);
+		} catch (IOException e) {
+			e.printStackTrace();
+		} catch (InterruptedException e) {
+			System.err.println("File name cleanup was interrupted");
+			Thread.currentThread().interrupt();
 		}
 	}
 
@@ -239,6 +297,154 @@ public class Main {
 		}
 	}
 
+	private static void runBatchScrape(String[] optionValues, String fileThreadsOption, String siteThreadsOption) {
+		if (optionValues == null || optionValues.length < 2) {
+			System.err.println("you need to pass a valid scraper group or scraper and at least one file or directory");
+			return;
+		}
+		BatchScraper batchScraper = createBatchScraper(optionValues[0], fileThreadsOption, siteThreadsOption);
+		if (batchScraper == null)
+			return;
+
+		List<File> paths = new ArrayList<>();
+		for (int i = 1; i < optionValues.length; i++) {
+			File currentPath = new File(optionValues[i]);
+			if (currentPath.exists())
+				paths.add(currentPath);
+			else
+				System.err.println(currentPath + " does not exist.");
+		}
+		batchScraper.scrapeFiles(BatchScraper.findMovieFiles(paths));
+	}
+
+	private static void runScrapeNew(String[] optionValues, String fileThreadsOption, String siteThreadsOption) {
+		if (optionValues == null || optionValues.length < 2) {
+			System.err.println("you need to pass a valid scraper group or scraper and at least one library directory");
+			return;
+		}
+		BatchScraper batchScraper = createBatchScraper(optionValues[0], fileThreadsOption, siteThreadsOption);
+		if (batchScraper == null)
+			return;
+
+		MoviescraperPreferences preferences = MoviescraperPreferences.getInstance();
+		LibraryScanner scanner = new LibraryScanner(new File(LibraryScanner.DEFAULT_SNAPSHOT_DIRECTORY_NAME), preferences.getNfoNamedMovieDotNfo(), LibraryScanner.DEFAULT_THREADS);
+		for (int i = 1; i < optionValues.length; i++) {
+			File currentRoot = new File(optionValues[i]);
+			if (!currentRoot.isDirectory()) {
+				System.err.println(currentRoot + " is not a directory.");
+				continue;
+			}
+			try {
+				long scanStart = System.nanoTime();
+				LibraryScanner.ScanResult scanResult = scanner.scan(currentRoot);
+				System.out.println("Scanned " + scanResult + " in " + (System.nanoTime() - scanStart) / 1000000 + " ms");
+				List<File> moviesToScrape = scanResult.getMoviesToScrape();
+				if (!moviesToScrape.isEmpty())
+					batchScraper.scrapeFiles(moviesToScrape);
+				scanner.saveSnapshot(scanResult);
+			} catch (IOException e) {
+				e.printStackTrace();
+			} catch (InterruptedException e) {
+				System.err.println("Scan of " + currentRoot + " was interrupted");
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private static void runWatch(String[] optionValues, String fileThreadsOption, String siteThreadsOption) {
+		if (optionValues == null || optionValues.length < 1) {
+			System.err.println("you need to pass a valid scraper group or scraper");
+			return;
+		}
+		MoviescraperPreferences preferences = MoviescraperPreferences.getInstance();
+		List<String> rootNames = new ArrayList<>();
+		for (int i = 1; i < optionValues.length; i++)
+			rootNames.add(optionValues[i]);
+		if (rootNames.isEmpty()) {
+			for (String currentRootName : preferences.getWatchFolderLibraryRoots().split(Pattern.quote(File.pathSeparator))) {
+				if (currentRootName.trim().length() > 0)
+					rootNames.add(currentRootName.trim());
+			}
+		}
+		List<File> roots = new ArrayList<>();
+		for (String currentRootName : rootNames) {
+			File currentRoot = new File(currentRootName);
+			if (currentRoot.isDirectory())
+				roots.add(currentRoot);
+			else
+				System.err.println(currentRoot + " is not a directory.");
+		}
+		if (roots.isEmpty()) {
+			System.err.println("you need to pass at least one library directory or set watchFolderLibraryRoots in settings.xml");
+			return;
+		}
+
+		//the batch scraper's file threads are not used, each root gets its own
+		BatchScraper batchScraper = createBatchScraper(optionValues[0], null, siteThreadsOption);
+		if (batchScraper == null)
+			return;
+		int threadsPerRoot = LibraryWatcher.DEFAULT_THREADS_PER_ROOT;
+		try {
+			if (fileThreadsOption != null)
+				threadsPerRoot = Integer.parseInt(fileThreadsOption);
+		} catch (NumberFormatException e) {
+			System.err.println("Thread counts must be numbers");
+			return;
+		}
+		LibraryWatcher libraryWatcher = new LibraryWatcher(batchScraper, preferences.getNfoNamedMovieDotNfo(), threadsPerRoot, LibraryWatcher.DEFAULT_QUEUE_CAPACITY,
+		        LibraryWatcher.DEFAULT_STABLE_MILLIS);
+		try {
+			libraryWatcher.watch(roots);
+		} catch (IOException e) {
+			e.printStackTrace();
+		} catch (InterruptedException e) {
+			System.out.println("Stopped watching " + roots);
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return a batch scraper for the scraper group or scraper named on the command line, or null if the arguments are not valid
+	 */
+	private static BatchScraper createBatchScraper(String scraperName, String fileThreadsOption, String siteThreadsOption) {
+		MoviescraperPreferences preferences = MoviescraperPreferences.getInstance();
+		int fileThreads = preferences.getBatchScrapeFileThreads();
+		int siteThreads = preferences.getBatchScrapeSiteThreads();
+		try {
+			if (fileThreadsOption != null)
+				fileThreads = Integer.parseInt(fileThreadsOption);
+			if (siteThreadsOption != null)
+				siteThreads = Integer.parseInt(siteThreadsOption);
+		} catch (NumberFormatException e) {
+			System.err.println("Thread counts must be numbers");
+			return null;
+		}
+
+		ScraperGroupName scraperGroupName = returnScraperGroupFromCommandLineOption(scraperName);
+		if (scraperGroupName != null) {
+			AllAmalgamationOrderingPreferences allAmalgamationOrderingPreferences = new AllAmalgamationOrderingPreferences().initializeValuesFromPreferenceFile();
+			return new BatchScraper(allAmalgamationOrderingPreferences.getScraperGroupAmalgamationPreference(scraperGroupName), fileThreads, siteThreads);
+		}
+		SiteParsingProfile parsingProfile = returnParsingProfileFromCommandLineOption(scraperName);
+		if (parsingProfile == null) {
+			System.err.println("Unsupported scraper group or parsing profile passed in");
+			return null;
+		}
+		return new BatchScraper(parsingProfile, fileThreads, siteThreads);
+	}
+
+	private static ScraperGroupName returnScraperGroupFromCommandLineOption(String scraperGroupName) {
+		switch (scraperGroupName) {
+			case "jav":
+				return ScraperGroupName.JAV_CENSORED_SCRAPER_GROUP;
+			case "american":
+				return ScraperGroupName.AMERICAN_ADULT_DVD_SCRAPER_GROUP;
+			default:
+				return null;
+		}
+	}
+
 	private static void writeMovieToFile(Movie scrapedMovie, File scrapeTarget) {
 		MoviescraperPreferences preferences = MoviescraperPreferences.getInstance();
 
@@ -252,11 +458,16 @@ public class Main {
 
 		try {
 			scrapedMovie.writeToFile(nfoFile, posterFile, fanartFile, currentlySelectedFolderJpgFile, extraFanartFolder, trailerFile, preferences);
+			MovieCatalog.getInstance().record(scrapeTarget, scrapedMovie, nfoFile, posterFile, fanartFile, currentlySelectedFolderJpgFile, extraFanartFolder, trailerFile);
+			//the trailer is downloaded in the background, and the download threads don't keep the program running
+			DownloadManager.getInstance().awaitIdle();
 
 			//TODO: write out trailers, actor images
 		} catch (IOException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
 	}
 
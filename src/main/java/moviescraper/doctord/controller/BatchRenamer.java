@@ -0,0 +1,139 @@
+package moviescraper.doctord.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import moviescraper.doctord.model.Movie;
+import moviescraper.doctord.model.MovieFilenameFilter;
+import moviescraper.doctord.model.preferences.MoviescraperPreferences;
+
+/**
+ * Renames the scraped movies in many files and directories for -rename, using the rename strings from the preferences.
+ * The movies are grouped by their directory, which is listed once to find both its movies and their stacked parts.
+ * Directories are renamed in parallel, while the movies of one directory are renamed one after the other.
+ * Moves are recorded in a {@link RenameJournal} so a rename which stopped partway is finished the next time.
+ */
+public class BatchRenamer {
+
+	public static final int DEFAULT_THREADS = 4;
+
+	private final MoviescraperPreferences preferences;
+	private final RenameJournal journal;
+	private final int threads;
+	private final AtomicInteger renamedCount = new AtomicInteger();
+	private final AtomicInteger skippedCount = new AtomicInteger();
+	private final AtomicInteger failedCount = new AtomicInteger();
+
+	public BatchRenamer(MoviescraperPreferences preferences, RenameJournal journal, int threads) {
+		this.preferences = preferences;
+		this.journal = journal;
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Renames the movies in paths. Blocks until all of them are done.
+	 *
+	 * @param paths - movie files, directories of movies which are searched recursively, or directories which are a movie themselves,
+	 *            see {@link #isMovieDirectory(File)}
+	 */
+	public void renameAll(List<File> paths) throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		journal.open();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Map<File, List<File>> moviesByDirectory = findMoviesByDirectory(paths);
+			List<Future<?>> directoryFutures = new ArrayList<>(moviesByDirectory.size());
+			for (final Map.Entry<File, List<File>> currentDirectory : moviesByDirectory.entrySet()) {
+				directoryFutures.add(executor.submit(() -> renameDirectory(currentDirectory.getKey(), currentDirectory.getValue())));
+			}
+			for (Future<?> currentFuture : directoryFutures) {
+				try {
+					currentFuture.get();
+				} catch (ExecutionException e) {
+					e.printStackTrace();
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+			journal.close();
+		}
+		System.out.println("Renamed " + renamedCount + " movies, skipped " + skippedCount + " and failed on " + failedCount + " in " + (System.nanoTime() - start) / 1000000 + " ms");
+	}
+
+	/**
+	 * @return the movies to rename, grouped by the directory they are in
+	 */
+	private Map<File, List<File>> findMoviesByDirectory(List<File> paths) {
+		Map<File, List<File>> moviesByDirectory = new LinkedHashMap<>();
+		LinkedList<File> directoriesToVisit = new LinkedList<>();
+		for (File currentPath : paths) {
+			currentPath = currentPath.getAbsoluteFile();
+			if (!currentPath.exists()) {
+				System.err.println(currentPath + " does not exist.");
+				failedCount.incrementAndGet();
+			} else if (currentPath.isDirectory() && !isMovieDirectory(currentPath)) {
+				directoriesToVisit.add(currentPath);
+			} else {
+				moviesByDirectory.computeIfAbsent(currentPath.getParentFile(), directory -> new ArrayList<>()).add(currentPath);
+			}
+		}
+		MovieFilenameFilter movieFilenameFilter = new MovieFilenameFilter();
+		while (!directoriesToVisit.isEmpty()) {
+			File currentDirectory = directoriesToVisit.removeFirst();
+			File[] directoryContents = currentDirectory.listFiles();
+			if (directoryContents == null)
+				continue;
+			for (File currentChild : directoryContents) {
+				if (currentChild.isDirectory())
+					directoriesToVisit.add(currentChild);
+				else if (movieFilenameFilter.accept(currentDirectory, currentChild.getName()))
+					moviesByDirectory.computeIfAbsent(currentDirectory, directory -> new ArrayList<>()).add(currentChild);
+			}
+		}
+		return moviesByDirectory;
+	}
+
+	/**
+	 * @return true if the directory is a movie itself, like a DVD folder: it has an nfo, but not for any of the movie files in it
+	 */
+	private boolean isMovieDirectory(File directory) {
+		if (!new File(Movie.getFileNameOfNfo(directory, preferences.getNfoNamedMovieDotNfo())).exists())
+			return false;
+		File[] movieFiles = directory.listFiles(new MovieFilenameFilter());
+		if (movieFiles != null) {
+			for (File currentMovieFile : movieFiles) {
+				if (currentMovieFile.isFile() && new File(Movie.getFileNameOfNfo(currentMovieFile, preferences.getNfoNamedMovieDotNfo())).exists())
+					return false;
+			}
+		}
+		return true;
+	}
+
+	private void renameDirectory(File directory, List<File> movieFiles) {
+		File[] directoryContents = directory != null ? directory.listFiles() : null;
+		for (File currentMovieFile : movieFiles) {
+			//the other parts of a stacked movie are renamed along with its first part
+			if (!currentMovieFile.exists())
+				continue;
+			try {
+				if (Renamer.rename(currentMovieFile, preferences, Renamer.findStackedFiles(currentMovieFile, directoryContents), journal))
+					renamedCount.incrementAndGet();
+				else
+					skippedCount.incrementAndGet();
+			} catch (IOException e) {
+				e.printStackTrace();
+				failedCount.incrementAndGet();
+			}
+		}
+	}
+}
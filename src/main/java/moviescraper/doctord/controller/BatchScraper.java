@@ -0,0 +1,324 @@
+package moviescraper.doctord.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import moviescraper.doctord.controller.amalgamation.MovieScrapeResultGroup;
+import moviescraper.doctord.controller.amalgamation.ScraperGroupAmalgamationPreference;
+import moviescraper.doctord.controller.siteparsingprofile.SiteParsingProfile;
+import moviescraper.doctord.model.Movie;
+import moviescraper.doctord.model.MovieFilenameFilter;
+import moviescraper.doctord.model.catalog.MovieCatalog;
+import moviescraper.doctord.model.dataitem.DataItemSource;
+import moviescraper.doctord.model.preferences.MoviescraperPreferences;
+
+/**
+ * Scrapes and writes the metadata of many files without any GUI involvement.
+ * Files are scraped concurrently on a pool of {@link #getFileParallelism()} threads. Each file fans out one scrape per
+ * site in the scraper group, and each site gets its own pool of {@link #getSiteParallelism()} threads so that
+ * no single site is hit by more requests at once than that limit, no matter how many files are in flight.
+ */
+public class BatchScraper {
+
+	public static final int DEFAULT_FILE_PARALLELISM = 4;
+	public static final int DEFAULT_SITE_PARALLELISM = 2;
+
+	private final ScraperGroupAmalgamationPreference scraperGroupAmalgamationPreference;
+	private final List<SiteParsingProfile> scrapers;
+	private final MoviescraperPreferences preferences;
+	private final int fileParallelism;
+	private final int siteParallelism;
+
+	private volatile ExecutorService fileExecutor;
+	private volatile Map<String, ExecutorService> siteExecutors;
+
+	private final AtomicInteger filesScraped = new AtomicInteger();
+	private final AtomicInteger filesNotFound = new AtomicInteger();
+	private final AtomicInteger filesFailed = new AtomicInteger();
+
+	/**
+	 * @param scraperGroupAmalgamationPreference - the scrapers to run on each file and the ordering used to amalgamate their results
+	 * @param fileParallelism - how many files are scraped at the same time
+	 * @param siteParallelism - how many scrapes of a single site can run at the same time
+	 */
+	public BatchScraper(ScraperGroupAmalgamationPreference scraperGroupAmalgamationPreference, int fileParallelism, int siteParallelism) {
+		this(scraperGroupAmalgamationPreference, getScrapersOfGroup(scraperGroupAmalgamationPreference), fileParallelism, siteParallelism);
+	}
+
+	/**
+	 * Batch scraper which only scrapes from one site
+	 *
+	 * @param scraper - the site to scrape from
+	 * @param fileParallelism - how many files are scraped at the same time
+	 * @param siteParallelism - how many scrapes of a single site can run at the same time
+	 */
+	public BatchScraper(SiteParsingProfile scraper, int fileParallelism, int siteParallelism) {
+		this(null, singletonScraperList(scraper), fileParallelism, siteParallelism);
+	}
+
+	private BatchScraper(ScraperGroupAmalgamationPreference scraperGroupAmalgamationPreference, List<SiteParsingProfile> scrapers, int fileParallelism, int siteParallelism) {
+		this.scraperGroupAmalgamationPreference = scraperGroupAmalgamationPreference;
+		this.scrapers = scrapers;
+		this.preferences = MoviescraperPreferences.getInstance();
+		this.fileParallelism = Math.max(1, fileParallelism);
+		this.siteParallelism = Math.max(1, siteParallelism);
+	}
+
+	private static List<SiteParsingProfile> getScrapersOfGroup(ScraperGroupAmalgamationPreference scraperGroupAmalgamationPreference) {
+		List<SiteParsingProfile> scrapers = new LinkedList<>();
+		for (DataItemSource currentScraper : scraperGroupAmalgamationPreference.getActiveScrapersUsedInOverallPreference()) {
+			if (currentScraper instanceof SiteParsingProfile)
+				scrapers.add((SiteParsingProfile) currentScraper);
+		}
+		return scrapers;
+	}
+
+	private static List<SiteParsingProfile> singletonScraperList(SiteParsingProfile scraper) {
+		List<SiteParsingProfile> scrapers = new LinkedList<>();
+		scrapers.add(scraper);
+		return scrapers;
+	}
+
+	/**
+	 * Expands the given paths into the movie files to scrape. Directories are walked recursively and every movie file
+	 * found underneath them is used. Stacked files like "ABC-123 CD1.avi" and "ABC-123 CD2.avi" are only returned once, since
+	 * they share the same metadata files.
+	 *
+	 * @param paths - files or directories to scrape
+	 * @return the movie files to scrape, in the order they were found
+	 */
+	public static List<File> findMovieFiles(List<File> paths) {
+		Map<String, File> unstackedNameToFile = new LinkedHashMap<>();
+		LinkedList<File> filesToVisit = new LinkedList<>(paths);
+		MovieFilenameFilter movieFilenameFilter = new MovieFilenameFilter();
+		while (!filesToVisit.isEmpty()) {
+			File currentFile = filesToVisit.removeFirst();
+			if (currentFile.isDirectory()) {
+				File[] directoryContents = currentFile.listFiles();
+				if (directoryContents != null) {
+					for (File currentChild : directoryContents)
+						filesToVisit.add(currentChild);
+				}
+			} else if (currentFile.isFile() && movieFilenameFilter.accept(currentFile.getParentFile(), currentFile.getName())) {
+				String unstackedName = Movie.getUnstackedMovieName(currentFile);
+				if (!unstackedNameToFile.containsKey(unstackedName))
+					unstackedNameToFile.put(unstackedName, currentFile);
+			}
+		}
+		return new ArrayList<>(unstackedNameToFile.values());
+	}
+
+	/**
+	 * Scrapes and writes the metadata of every file in filesToScrape. Blocks until all files are done.
+	 *
+	 * @param filesToScrape - movie files to scrape; see {@link #findMovieFiles(List)}
+	 */
+	public void scrapeFiles(List<File> filesToScrape) {
+		if (scrapers.isEmpty()) {
+			System.err.println("No enabled scrapers to batch scrape with");
+			return;
+		}
+		System.out.println("Batch scraping " + filesToScrape.size() + " files with " + scrapers + " using " + fileParallelism + " file threads and " + siteParallelism
+		        + " threads per site");
+		fileExecutor = Executors.newFixedThreadPool(fileParallelism, new BatchThreadFactory("batch-file"));
+		startSiteExecutors();
+		try {
+			List<Future<?>> fileFutures = new ArrayList<>(filesToScrape.size());
+			for (final File currentFile : filesToScrape) {
+				fileFutures.add(fileExecutor.submit(new Runnable() {
+					@Override
+					public void run() {
+						scrapeAndWriteFile(currentFile);
+					}
+				}));
+			}
+			for (Future<?> currentFuture : fileFutures) {
+				try {
+					currentFuture.get();
+				} catch (ExecutionException e) {
+					e.printStackTrace();
+				}
+			}
+			//trailers are downloaded in the background, and the download threads don't keep the program running
+			DownloadManager downloadManager = DownloadManager.getInstance();
+			if (downloadManager.getDownloadsInFlightCount() > 0) {
+				System.out.println("Waiting for " + downloadManager.getDownloadsInFlightCount() + " trailer downloads to finish. Downloads: " + DownloadScheduler.getInstance().getQueueDepthSummary());
+				downloadManager.awaitIdle();
+			}
+		} catch (InterruptedException e) {
+			System.err.println("Batch scrape was interrupted");
+			Thread.currentThread().interrupt();
+		} finally {
+			shutdown();
+		}
+		System.out.println("Batch scrape finished. Scraped: " + filesScraped.get() + ", no match found: " + filesNotFound.get() + ", failed: " + filesFailed.get());
+	}
+
+	/**
+	 * Starts the site thread pools used by {@link #scrapeAndWriteFile(File)}, for callers which bring their own file threads.
+	 * The pools run until {@link #shutdown()}.
+	 */
+	public void start() {
+		if (scrapers.isEmpty())
+			System.err.println("No enabled scrapers to scrape with");
+		startSiteExecutors();
+	}
+
+	private void startSiteExecutors() {
+		Map<String, ExecutorService> executors = new HashMap<>();
+		for (SiteParsingProfile currentScraper : scrapers) {
+			executors.put(currentScraper.getDataItemSourceName(), Executors.newFixedThreadPool(siteParallelism, new BatchThreadFactory("batch-" + currentScraper.getDataItemSourceName())));
+		}
+		siteExecutors = executors;
+	}
+
+	/**
+	 * Cancels any scrapes and downloads which have not started yet and interrupts the ones which are running
+	 */
+	public void shutdown() {
+		if (fileExecutor != null)
+			fileExecutor.shutdownNow();
+		if (siteExecutors != null) {
+			for (ExecutorService currentExecutor : siteExecutors.values())
+				currentExecutor.shutdownNow();
+		}
+		DownloadScheduler.getInstance().cancelAll();
+	}
+
+	/**
+	 * Scrapes and writes the metadata of one file on the calling thread, fanning out to the site pools. Outside of {@link #scrapeFiles(List)},
+	 * {@link #start()} must be called first.
+	 *
+	 * @return true if the metadata was written
+	 */
+	public boolean scrapeAndWriteFile(File fileToScrape) {
+		try {
+			Movie scrapedMovie = scrapeFile(fileToScrape);
+			if (scrapedMovie == null || !scrapedMovie.hasValidTitle()) {
+				System.err.println("No movie found for " + fileToScrape);
+				filesNotFound.incrementAndGet();
+				return false;
+			}
+			writeMovie(scrapedMovie, fileToScrape);
+			filesScraped.incrementAndGet();
+			System.out.println("Wrote metadata for " + fileToScrape);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException | RuntimeException e) {
+			System.err.println("Failed to scrape " + fileToScrape);
+			e.printStackTrace();
+			filesFailed.incrementAndGet();
+		}
+		return false;
+	}
+
+	/**
+	 * Runs every scraper on the file in parallel and amalgamates the results
+	 *
+	 * @param fileToScrape - the movie file
+	 * @return the amalgamated movie or null if no scraper found a match
+	 * @throws InterruptedException
+	 */
+	private Movie scrapeFile(final File fileToScrape) throws InterruptedException {
+		List<CompletableFuture<Movie>> siteFutures = new ArrayList<>(scrapers.size());
+		for (SiteParsingProfile currentScraper : scrapers) {
+			//each file gets fresh instances since the parsing profiles keep the document being scraped as local state
+			SiteParsingProfile siteScraper = (SiteParsingProfile) currentScraper.createInstanceOfSameType();
+			siteFutures.add(Movie.scrapeMovieAsync(fileToScrape, siteScraper, "", false, siteExecutors.get(currentScraper.getDataItemSourceName())));
+		}
+		List<Movie> scrapedMovies = new LinkedList<>();
+		try {
+			for (CompletableFuture<Movie> currentFuture : siteFutures) {
+				try {
+					Movie currentMovie = currentFuture.get();
+					if (currentMovie != null)
+						scrapedMovies.add(currentMovie);
+				} catch (ExecutionException | CancellationException e) {
+					System.err.println("A scraper failed on " + fileToScrape + ": " + e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			for (CompletableFuture<Movie> currentFuture : siteFutures)
+				currentFuture.cancel(true);
+			throw e;
+		}
+		if (scraperGroupAmalgamationPreference == null)
+			return scrapedMovies.isEmpty() ? null : scrapedMovies.get(0);
+		return new MovieScrapeResultGroup(scrapedMovies, scraperGroupAmalgamationPreference).amalgamateMovie();
+	}
+
+	private void writeMovie(Movie scrapedMovie, File scrapeTarget) throws IOException {
+		File nfoFile = new File(Movie.getFileNameOfNfo(scrapeTarget, preferences.getNfoNamedMovieDotNfo()));
+		File posterFile = new File(Movie.getFileNameOfPoster(scrapeTarget, preferences.getNoMovieNameInImageFiles()));
+		File fanartFile = new File(Movie.getFileNameOfFanart(scrapeTarget, preferences.getNoMovieNameInImageFiles()));
+		File folderJpgFile = new File(Movie.getFileNameOfFolderJpg(scrapeTarget));
+		File extraFanartFolder = new File(Movie.getFileNameOfExtraFanartFolderName(scrapeTarget));
+		File trailerFile = new File(Movie.getFileNameOfTrailer(scrapeTarget));
+		try {
+			scrapedMovie.writeToFile(nfoFile, posterFile, fanartFile, folderJpgFile, extraFanartFolder, trailerFile, preferences);
+			MovieCatalog.getInstance().record(scrapeTarget, scrapedMovie, nfoFile, posterFile, fanartFile, folderJpgFile, extraFanartFolder, trailerFile);
+		} catch (IOException | RuntimeException e) {
+			//without its nfo the movie is skipped, so the rest of its files are not worth downloading
+			if (!nfoFile.exists()) {
+				int cancelledDownloads = DownloadScheduler.getInstance().cancelMovie(nfoFile.getAbsolutePath());
+				if (cancelledDownloads > 0)
+					System.err.println("Cancelled " + cancelledDownloads + " downloads of " + scrapeTarget);
+			}
+			throw e;
+		}
+	}
+
+	public int getFileParallelism() {
+		return fileParallelism;
+	}
+
+	public int getSiteParallelism() {
+		return siteParallelism;
+	}
+
+	public int getFilesScraped() {
+		return filesScraped.get();
+	}
+
+	public int getFilesNotFound() {
+		return filesNotFound.get();
+	}
+
+	public int getFilesFailed() {
+		return filesFailed.get();
+	}
+
+	/**
+	 * Names the batch threads so they can be told apart in thread dumps and makes them daemons so a stuck site does not keep the JVM alive
+	 */
+	private static class BatchThreadFactory implements ThreadFactory {
+		private final String namePrefix;
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		BatchThreadFactory(String namePrefix) {
+			this.namePrefix = namePrefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, namePrefix + "-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
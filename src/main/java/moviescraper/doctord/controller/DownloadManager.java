@@ -0,0 +1,529 @@
+package moviescraper.doctord.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+
+import moviescraper.doctord.controller.DownloadScheduler.Priority;
+import moviescraper.doctord.model.preferences.MoviescraperPreferences;
+import moviescraper.doctord.scraper.BandwidthLimiter;
+import moviescraper.doctord.scraper.RateGovernor;
+
+/**
+ * Downloads large files like trailers in the background. When the server supports range requests, a file is split into chunks of
+ * {@link #CHUNK_SIZE_BYTES} which are fetched over {@link #CONNECTIONS_PER_DOWNLOAD} connections at once and written at their
+ * position in a .part file next to the target. Finished chunks are recorded in a .part.progress file, so a download which failed
+ * or was cut off by closing the program continues where it stopped the next time. The target file only appears once it is complete.
+ * All downloads share a {@link BandwidthLimiter} set from the preferences, and each request goes through the {@link RateGovernor}.
+ */
+public class DownloadManager {
+
+	public static final long CHUNK_SIZE_BYTES = 8L * 1024 * 1024;
+	public static final int CONNECTIONS_PER_DOWNLOAD = 4;
+	//downloads running at once; more of them wait in the DownloadScheduler
+	public static final int CONCURRENT_DOWNLOADS = 2;
+	private static final int CONNECT_TIMEOUT = 10000;
+	private static final int READ_TIMEOUT = 30000;
+	private static final int MAX_CHUNK_ATTEMPTS = 3;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int PROGRESS_REPORT_PERCENT = 25;
+	private static final Pattern CONTENT_RANGE_PATTERN = Pattern.compile("bytes\\s+\\d+-\\d+/(\\d+)");
+
+	private static DownloadManager instance;
+
+	private final ExecutorService chunkExecutor;
+	private final BandwidthLimiter bandwidthLimiter;
+	private final Map<String, CompletableFuture<File>> downloadsInFlight = new ConcurrentHashMap<>();
+
+	DownloadManager(BandwidthLimiter bandwidthLimiter) {
+		this.bandwidthLimiter = bandwidthLimiter;
+		AtomicInteger threadNumber = new AtomicInteger(1);
+		this.chunkExecutor = Executors.newFixedThreadPool(CONCURRENT_DOWNLOADS * CONNECTIONS_PER_DOWNLOAD, runnable -> {
+			Thread thread = new Thread(runnable, "download-chunk-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public static synchronized DownloadManager getInstance() {
+		if (instance == null) {
+			MoviescraperPreferences preferences = MoviescraperPreferences.getInstance();
+			instance = new DownloadManager(new BandwidthLimiter(preferences.getDownloadMaxKilobytesPerSecond() * 1024L, preferences.getDownloadMaxKilobytesPerSecondPerHost() * 1024L));
+		}
+		return instance;
+	}
+
+	/**
+	 * Queues a download to run in the background, after the more important downloads waiting in the {@link DownloadScheduler}.
+	 * Queuing a target which is already being downloaded returns the download in progress.
+	 *
+	 * @param movieKey - identifies the movie the file belongs to, so {@link DownloadScheduler#cancelMovie(String)} cancels it
+	 * @return a future completed with the target once it is written. Cancelling it stops the download, keeping what was downloaded for later.
+	 */
+	public CompletableFuture<File> enqueue(URL url, File target, String movieKey) {
+		String targetKey = target.getAbsolutePath();
+		CompletableFuture<File> queuedDownload = new CompletableFuture<>();
+		CompletableFuture<File> existingDownload = downloadsInFlight.putIfAbsent(targetKey, queuedDownload);
+		if (existingDownload != null)
+			return existingDownload;
+		CompletableFuture<File> runningDownload = DownloadScheduler.getInstance().submit(movieKey, Priority.TRAILER, () -> {
+			try {
+				runDownload(url, target);
+				return target;
+			} catch (IOException | RuntimeException e) {
+				System.err.println("Failed to download " + url + " into " + target + ": " + e);
+				throw e;
+			}
+		});
+		runningDownload.whenComplete((file, throwable) -> {
+			downloadsInFlight.remove(targetKey, queuedDownload);
+			if (throwable != null)
+				queuedDownload.completeExceptionally(throwable);
+			else
+				queuedDownload.complete(file);
+		});
+		queuedDownload.whenComplete((file, throwable) -> {
+			if (queuedDownload.isCancelled())
+				runningDownload.cancel(true);
+		});
+		return queuedDownload;
+	}
+
+	/**
+	 * Downloads in the calling thread, or waits for the download of the same target if one is already in progress
+	 *
+	 * @throws IOException if the download failed or was interrupted
+	 */
+	public File download(URL url, File target) throws IOException {
+		String targetKey = target.getAbsolutePath();
+		CompletableFuture<File> ownDownload = new CompletableFuture<>();
+		CompletableFuture<File> existingDownload = downloadsInFlight.putIfAbsent(targetKey, ownDownload);
+		if (existingDownload != null)
+			return await(existingDownload);
+		try {
+			runDownload(url, target);
+			ownDownload.complete(target);
+			return target;
+		} catch (IOException | RuntimeException e) {
+			ownDownload.completeExceptionally(e);
+			throw e;
+		} finally {
+			downloadsInFlight.remove(targetKey, ownDownload);
+		}
+	}
+
+	/**
+	 * @return the number of downloads queued or running
+	 */
+	public int getDownloadsInFlightCount() {
+		return downloadsInFlight.size();
+	}
+
+	/**
+	 * Waits until no download is queued or running, including downloads queued while waiting.
+	 * Used before the program exits, since the download threads do not keep it running.
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void awaitIdle() throws InterruptedException {
+		while (!downloadsInFlight.isEmpty()) {
+			for (CompletableFuture<File> currentDownload : new ArrayList<>(downloadsInFlight.values())) {
+				try {
+					currentDownload.get();
+				} catch (ExecutionException | CancellationException e) {
+					//already reported by the download itself
+				}
+			}
+		}
+	}
+
+	private static File await(CompletableFuture<File> download) throws IOException {
+		try {
+			return download.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a download");
+		} catch (CancellationException e) {
+			throw new IOException("Download was cancelled", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			throw new IOException(e.getCause());
+		}
+	}
+
+	private void runDownload(URL url, File target) throws IOException {
+		File targetFolder = target.getAbsoluteFile().getParentFile();
+		FileUtils.forceMkdir(targetFolder);
+		File partFile = new File(targetFolder, target.getName() + ".part");
+		File progressFile = new File(targetFolder, target.getName() + ".part.progress");
+		DownloadJob job = new DownloadJob(url, target);
+
+		//asking for the first byte tells us the size of the file and whether the server can send it in chunks
+		HttpURLConnection probeConnection = openConnection(url);
+		probeConnection.setRequestProperty("Range", "bytes=0-0");
+		RateGovernor.Permit permit = RateGovernor.getInstance().acquire(url.toString());
+		boolean streamedWholeFile = false;
+		String validator = null;
+		try {
+			int responseCode = probeConnection.getResponseCode();
+			permit.responseReceived();
+			if (responseCode == HttpURLConnection.HTTP_PARTIAL) {
+				job.totalBytes = parseContentLength(probeConnection.getHeaderField("Content-Range"));
+				validator = getValidator(probeConnection);
+				drainAndClose(probeConnection);
+			} else {
+				//no range support: the server is already sending the whole file on this connection
+				checkResponseCode(responseCode, HttpURLConnection.HTTP_OK, url);
+				job.totalBytes = probeConnection.getContentLengthLong();
+				streamToPartFile(job, probeConnection, partFile);
+				streamedWholeFile = true;
+			}
+		} finally {
+			//given back before the chunks are downloaded, since they need the host's permits themselves
+			FileDownloaderUtilities.reportToGovernor(permit, probeConnection);
+		}
+		if (!streamedWholeFile) {
+			if (job.totalBytes >= 0) {
+				downloadInChunks(job, partFile, progressFile, validator);
+			} else {
+				//the server does not say how big the file is, so ask for all of it
+				HttpURLConnection wholeFileConnection = openConnection(url);
+				RateGovernor.Permit wholeFilePermit = RateGovernor.getInstance().acquire(url.toString());
+				try {
+					checkResponseCode(wholeFileConnection.getResponseCode(), HttpURLConnection.HTTP_OK, url);
+					wholeFilePermit.responseReceived();
+					streamToPartFile(job, wholeFileConnection, partFile);
+				} finally {
+					FileDownloaderUtilities.reportToGovernor(wholeFilePermit, wholeFileConnection);
+				}
+			}
+		}
+		moveAtomically(partFile, target);
+		FileUtils.deleteQuietly(progressFile);
+		System.out.println("Finished downloading " + url + " into " + target);
+	}
+
+	private void downloadInChunks(DownloadJob job, File partFile, File progressFile, String validator) throws IOException {
+		int chunkCount = (int) ((job.totalBytes + CHUNK_SIZE_BYTES - 1) / CHUNK_SIZE_BYTES);
+		DownloadProgress progress = DownloadProgress.load(progressFile, job.totalBytes, validator);
+		if (progress == null || !partFile.exists()) {
+			progress = new DownloadProgress(progressFile, job.totalBytes, validator);
+			Files.deleteIfExists(partFile.toPath());
+		} else {
+			int completedChunks = progress.completedChunks.cardinality();
+			if (completedChunks > 0)
+				System.out.println("Resuming download of " + job.url + " with " + completedChunks + " of " + chunkCount + " chunks already downloaded");
+			for (int i = progress.completedChunks.nextSetBit(0); i >= 0; i = progress.completedChunks.nextSetBit(i + 1))
+				job.addProgress(getChunkEnd(i, job.totalBytes) - getChunkStart(i) + 1);
+		}
+		DownloadProgress savedProgress = progress;
+		AtomicInteger nextChunk = new AtomicInteger(0);
+		try (FileChannel channel = FileChannel.open(partFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			List<Future<?>> workers = new ArrayList<>();
+			int workerCount = Math.max(1, Math.min(CONNECTIONS_PER_DOWNLOAD, chunkCount - progress.completedChunks.cardinality()));
+			for (int i = 0; i < workerCount; i++) {
+				workers.add(chunkExecutor.submit(() -> {
+					int chunkIndex;
+					while ((chunkIndex = nextChunk.getAndIncrement()) < chunkCount) {
+						if (savedProgress.isCompleted(chunkIndex))
+							continue;
+						downloadChunkWithRetries(job, channel, chunkIndex, validator);
+						channel.force(false);
+						savedProgress.markCompleted(chunkIndex);
+					}
+					return null;
+				}));
+			}
+			awaitWorkers(workers);
+			if (channel.size() > job.totalBytes)
+				channel.truncate(job.totalBytes);
+		}
+	}
+
+	private void awaitWorkers(List<Future<?>> workers) throws IOException {
+		try {
+			for (Future<?> currentWorker : workers)
+				currentWorker.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while downloading");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			throw new IOException(e.getCause());
+		} finally {
+			for (Future<?> currentWorker : workers)
+				currentWorker.cancel(true);
+		}
+	}
+
+	private void downloadChunkWithRetries(DownloadJob job, FileChannel channel, int chunkIndex, String validator) throws IOException {
+		for (int attempt = 1;; attempt++) {
+			try {
+				downloadChunk(job, channel, chunkIndex, validator);
+				return;
+			} catch (InterruptedIOException e) {
+				throw e;
+			} catch (IOException e) {
+				if (attempt >= MAX_CHUNK_ATTEMPTS)
+					throw e;
+				System.err.println("Retrying chunk " + chunkIndex + " of " + job.url + ": " + e.getMessage());
+			}
+		}
+	}
+
+	private void downloadChunk(DownloadJob job, FileChannel channel, int chunkIndex, String validator) throws IOException {
+		long chunkStart = getChunkStart(chunkIndex);
+		long chunkEnd = getChunkEnd(chunkIndex, job.totalBytes);
+		HttpURLConnection connection = openConnection(job.url);
+		connection.setRequestProperty("Range", "bytes=" + chunkStart + "-" + chunkEnd);
+		if (validator != null)
+			connection.setRequestProperty("If-Range", validator);
+		RateGovernor.Permit permit = RateGovernor.getInstance().acquire(job.url.toString());
+		try {
+			int responseCode = connection.getResponseCode();
+			permit.responseReceived();
+			//a 200 here means the file changed since the download started, since If-Range asks for the whole file then
+			checkResponseCode(responseCode, HttpURLConnection.HTTP_PARTIAL, job.url);
+			long position = chunkStart;
+			try (InputStream inputStream = connection.getInputStream()) {
+				byte[] buffer = new byte[BUFFER_SIZE];
+				int bytesRead;
+				while (position <= chunkEnd && (bytesRead = inputStream.read(buffer, 0, (int) Math.min(buffer.length, chunkEnd - position + 1))) >= 0) {
+					writeFully(channel, ByteBuffer.wrap(buffer, 0, bytesRead), position);
+					position += bytesRead;
+					job.addProgress(bytesRead);
+					bandwidthLimiter.acquire(job.url.getHost(), bytesRead);
+					if (Thread.currentThread().isInterrupted())
+						throw new InterruptedIOException("Interrupted while downloading");
+				}
+				if (position <= chunkEnd)
+					throw new IOException("Connection closed after " + (position - chunkStart) + " of " + (chunkEnd - chunkStart + 1) + " bytes");
+			} catch (IOException e) {
+				//the chunk is downloaded again from its start, so its bytes no longer count
+				job.addProgress(chunkStart - position);
+				throw e;
+			}
+		} finally {
+			FileDownloaderUtilities.reportToGovernor(permit, connection);
+		}
+	}
+
+	private void streamToPartFile(DownloadJob job, HttpURLConnection connection, File partFile) throws IOException {
+		try (InputStream inputStream = connection.getInputStream();
+		        FileChannel channel = FileChannel.open(partFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int bytesRead;
+			while ((bytesRead = inputStream.read(buffer)) >= 0) {
+				ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, bytesRead);
+				while (byteBuffer.hasRemaining())
+					channel.write(byteBuffer);
+				job.addProgress(bytesRead);
+				bandwidthLimiter.acquire(job.url.getHost(), bytesRead);
+				if (Thread.currentThread().isInterrupted())
+					throw new InterruptedIOException("Interrupted while downloading");
+			}
+			if (job.totalBytes >= 0 && channel.size() != job.totalBytes)
+				throw new IOException("Connection closed after " + channel.size() + " of " + job.totalBytes + " bytes");
+		}
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer byteBuffer, long position) throws IOException {
+		while (byteBuffer.hasRemaining())
+			position += channel.write(byteBuffer, position);
+	}
+
+	private static long getChunkStart(int chunkIndex) {
+		return chunkIndex * CHUNK_SIZE_BYTES;
+	}
+
+	private static long getChunkEnd(int chunkIndex, long totalBytes) {
+		return Math.min(totalBytes, (chunkIndex + 1) * CHUNK_SIZE_BYTES) - 1;
+	}
+
+	private static HttpURLConnection openConnection(URL url) throws IOException {
+		URLConnection connection = FileDownloaderUtilities.getDefaultUrlConnection(url);
+		if (!(connection instanceof HttpURLConnection))
+			throw new IOException("Not an http url: " + url);
+		connection.setConnectTimeout(CONNECT_TIMEOUT);
+		connection.setReadTimeout(READ_TIMEOUT);
+		return (HttpURLConnection) connection;
+	}
+
+	private static void checkResponseCode(int responseCode, int expectedResponseCode, URL url) throws IOException {
+		if (responseCode != expectedResponseCode)
+			throw new IOException("Unexpected response " + responseCode + " for " + url);
+	}
+
+	/**
+	 * @return the total size from a header like "bytes 0-0/12345", or -1 if it is unknown
+	 */
+	static long parseContentLength(String contentRange) {
+		if (contentRange == null)
+			return -1;
+		Matcher matcher = CONTENT_RANGE_PATTERN.matcher(contentRange.trim());
+		return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+	}
+
+	/**
+	 * @return the strong ETag of the response, or its Last-Modified date, to check the file has not changed when resuming
+	 */
+	private static String getValidator(HttpURLConnection connection) {
+		String eTag = connection.getHeaderField("ETag");
+		if (eTag != null && !eTag.startsWith("W/"))
+			return eTag;
+		return connection.getHeaderField("Last-Modified");
+	}
+
+	private static void drainAndClose(HttpURLConnection connection) {
+		try (InputStream inputStream = connection.getInputStream()) {
+			while (inputStream.read() >= 0) {
+				//a single byte
+			}
+		} catch (IOException e) {
+			connection.disconnect();
+		}
+	}
+
+	private static void moveAtomically(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Counts the bytes downloaded so far and prints how far along a download is every {@link #PROGRESS_REPORT_PERCENT} percent
+	 */
+	private static class DownloadJob {
+		final URL url;
+		final File target;
+		final AtomicLong downloadedBytes = new AtomicLong();
+		final AtomicInteger lastReportedPercent = new AtomicInteger();
+		volatile long totalBytes = -1;
+
+		DownloadJob(URL url, File target) {
+			this.url = url;
+			this.target = target;
+		}
+
+		void addProgress(long bytes) {
+			long downloaded = downloadedBytes.addAndGet(bytes);
+			if (totalBytes <= 0)
+				return;
+			int percent = (int) (downloaded * 100 / totalBytes) / PROGRESS_REPORT_PERCENT * PROGRESS_REPORT_PERCENT;
+			int lastPercent = lastReportedPercent.get();
+			if (percent > lastPercent && percent < 100 && lastReportedPercent.compareAndSet(lastPercent, percent))
+				System.out.println("Downloaded " + percent + "% of " + FileUtils.byteCountToDisplaySize(totalBytes) + " from " + url + " into " + target);
+		}
+	}
+
+	/**
+	 * Which chunks of a download are already in its .part file, kept in a properties file next to it
+	 */
+	private static class DownloadProgress {
+		private static final String LENGTH = "length";
+		private static final String CHUNK_SIZE = "chunkSize";
+		private static final String VALIDATOR = "validator";
+		private static final String COMPLETED_CHUNKS = "completedChunks";
+
+		final File progressFile;
+		final long length;
+		final String validator;
+		final BitSet completedChunks = new BitSet();
+
+		DownloadProgress(File progressFile, long length, String validator) {
+			this.progressFile = progressFile;
+			this.length = length;
+			this.validator = validator;
+		}
+
+		/**
+		 * @return the progress saved for a file with the same size, chunk size and validator, or null if there is none
+		 */
+		static DownloadProgress load(File progressFile, long length, String validator) {
+			if (!progressFile.exists() || validator == null)
+				return null;
+			Properties properties = new Properties();
+			try (Reader reader = new InputStreamReader(Files.newInputStream(progressFile.toPath()), StandardCharsets.UTF_8)) {
+				properties.load(reader);
+				if (Long.parseLong(properties.getProperty(LENGTH, "-1")) != length || Long.parseLong(properties.getProperty(CHUNK_SIZE, "-1")) != CHUNK_SIZE_BYTES
+				        || !validator.equals(properties.getProperty(VALIDATOR))) {
+					System.out.println("The file at " + progressFile.getName() + " changed since it was partially downloaded, starting over");
+					return null;
+				}
+				DownloadProgress progress = new DownloadProgress(progressFile, length, validator);
+				for (String chunkIndex : properties.getProperty(COMPLETED_CHUNKS, "").split(",")) {
+					if (!chunkIndex.isEmpty())
+						progress.completedChunks.set(Integer.parseInt(chunkIndex));
+				}
+				return progress;
+			} catch (IOException | NumberFormatException e) {
+				System.err.println("Could not read download progress " + progressFile + ": " + e.getMessage());
+				return null;
+			}
+		}
+
+		synchronized boolean isCompleted(int chunkIndex) {
+			return completedChunks.get(chunkIndex);
+		}
+
+		synchronized void markCompleted(int chunkIndex) throws IOException {
+			completedChunks.set(chunkIndex);
+			//without a validator there is no telling whether the file changed before resuming, so nothing is saved
+			if (validator == null)
+				return;
+			StringBuilder chunkIndexes = new StringBuilder();
+			for (int i = completedChunks.nextSetBit(0); i >= 0; i = completedChunks.nextSetBit(i + 1)) {
+				if (chunkIndexes.length() > 0)
+					chunkIndexes.append(',');
+				chunkIndexes.append(i);
+			}
+			Properties properties = new Properties();
+			properties.setProperty(LENGTH, Long.toString(length));
+			properties.setProperty(CHUNK_SIZE, Long.toString(CHUNK_SIZE_BYTES));
+			properties.setProperty(VALIDATOR, validator);
+			properties.setProperty(COMPLETED_CHUNKS, chunkIndexes.toString());
+			File temporaryFile = new File(progressFile.getPath() + ".tmp");
+			try (Writer writer = new OutputStreamWriter(Files.newOutputStream(temporaryFile.toPath()), StandardCharsets.UTF_8)) {
+				properties.store(writer, "Chunks of " + CHUNK_SIZE_BYTES + " bytes already downloaded");
+			}
+			moveAtomically(temporaryFile, progressFile);
+		}
+	}
+}
@@ -0,0 +1,289 @@
+package moviescraper.doctord.controller;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the downloads which write a movie's files, like its images and trailer, on a shared set of threads in order of importance.
+ * A free thread always takes a download of the highest {@link Priority} waiting, so when a batch writes many movies at once,
+ * every movie gets its poster before any thread starts on the bulky extrafanart and trailers.
+ * Within a priority the movies take turns, so one movie with dozens of extrafanart does not hold up the others.
+ * The downloads of a movie can be cancelled together when the movie is skipped.
+ * Downloads should not wait on other downloads of the scheduler, since all its threads could be taken by waiting downloads.
+ */
+public class DownloadScheduler {
+
+	public static final int DOWNLOAD_THREADS = 8;
+
+	/**
+	 * The kinds of downloads, most important first
+	 */
+	public enum Priority {
+		POSTER(DOWNLOAD_THREADS), FANART(DOWNLOAD_THREADS), ACTOR_IMAGE(DOWNLOAD_THREADS), EXTRA_FANART(DOWNLOAD_THREADS),
+		//trailers take minutes each, so they never get all the threads
+		TRAILER(DownloadManager.CONCURRENT_DOWNLOADS);
+
+		private final int maxRunning;
+
+		private Priority(int maxRunning) {
+			this.maxRunning = maxRunning;
+		}
+
+		public int getMaxRunning() {
+			return maxRunning;
+		}
+	}
+
+	private static DownloadScheduler instance;
+
+	private final Object lock = new Object();
+	//for each priority, the waiting downloads of each movie in the order the movies take turns
+	private final Map<Priority, LinkedHashMap<String, ArrayDeque<ScheduledDownload<?>>>> queuedDownloads = new EnumMap<>(Priority.class);
+	private final Set<ScheduledDownload<?>> runningDownloads = new HashSet<>();
+	private final int[] queuedCounts = new int[Priority.values().length];
+	private final int[] runningCounts = new int[Priority.values().length];
+	private final AtomicLong[] completedCounts = new AtomicLong[Priority.values().length];
+
+	DownloadScheduler(int threads) {
+		for (Priority currentPriority : Priority.values()) {
+			queuedDownloads.put(currentPriority, new LinkedHashMap<>());
+			completedCounts[currentPriority.ordinal()] = new AtomicLong();
+		}
+		for (int i = 1; i <= threads; i++) {
+			Thread thread = new Thread(this::runDownloads, "download-scheduler-" + i);
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	public static synchronized DownloadScheduler getInstance() {
+		if (instance == null) {
+			instance = new DownloadScheduler(DOWNLOAD_THREADS);
+		}
+		return instance;
+	}
+
+	/**
+	 * Queues a download
+	 *
+	 * @param movieKey - identifies the movie the download belongs to, for taking turns and {@link #cancelMovie(String)}
+	 * @param priority - how important the download is
+	 * @param download - the download to run
+	 * @return a future completed with the result of the download. Cancelling it with cancel(true) interrupts the download if it is running.
+	 */
+	public <T> CompletableFuture<T> submit(String movieKey, Priority priority, Callable<T> download) {
+		ScheduledDownload<T> scheduledDownload = new ScheduledDownload<>(movieKey, priority, download);
+		synchronized (lock) {
+			queuedDownloads.get(priority).computeIfAbsent(movieKey, key -> new ArrayDeque<>()).add(scheduledDownload);
+			queuedCounts[priority.ordinal()]++;
+			lock.notifyAll();
+		}
+		scheduledDownload.result.whenComplete((value, throwable) -> {
+			if (scheduledDownload.result.isCancelled())
+				cancel(scheduledDownload);
+		});
+		return scheduledDownload.result;
+	}
+
+	/**
+	 * Cancels the queued downloads of a movie and interrupts its running ones
+	 *
+	 * @return the number of downloads cancelled
+	 */
+	public int cancelMovie(String movieKey) {
+		List<ScheduledDownload<?>> downloadsToCancel = new ArrayList<>();
+		synchronized (lock) {
+			for (LinkedHashMap<String, ArrayDeque<ScheduledDownload<?>>> currentQueue : queuedDownloads.values()) {
+				ArrayDeque<ScheduledDownload<?>> movieDownloads = currentQueue.get(movieKey);
+				if (movieDownloads != null)
+					downloadsToCancel.addAll(movieDownloads);
+			}
+			for (ScheduledDownload<?> currentDownload : runningDownloads) {
+				if (currentDownload.movieKey.equals(movieKey))
+					downloadsToCancel.add(currentDownload);
+			}
+		}
+		return cancelAll(downloadsToCancel);
+	}
+
+	/**
+	 * Cancels every queued download and interrupts the running ones
+	 *
+	 * @return the number of downloads cancelled
+	 */
+	public int cancelAll() {
+		List<ScheduledDownload<?>> downloadsToCancel = new ArrayList<>();
+		synchronized (lock) {
+			for (LinkedHashMap<String, ArrayDeque<ScheduledDownload<?>>> currentQueue : queuedDownloads.values()) {
+				for (ArrayDeque<ScheduledDownload<?>> movieDownloads : currentQueue.values())
+					downloadsToCancel.addAll(movieDownloads);
+			}
+			downloadsToCancel.addAll(runningDownloads);
+		}
+		return cancelAll(downloadsToCancel);
+	}
+
+	private static int cancelAll(List<ScheduledDownload<?>> downloadsToCancel) {
+		int cancelledCount = 0;
+		for (ScheduledDownload<?> currentDownload : downloadsToCancel) {
+			if (currentDownload.result.cancel(true))
+				cancelledCount++;
+		}
+		return cancelledCount;
+	}
+
+	/**
+	 * @return the number of downloads of the priority waiting for a thread
+	 */
+	public int getQueuedCount(Priority priority) {
+		synchronized (lock) {
+			return queuedCounts[priority.ordinal()];
+		}
+	}
+
+	/**
+	 * @return the number of downloads of the priority running now
+	 */
+	public int getRunningCount(Priority priority) {
+		synchronized (lock) {
+			return runningCounts[priority.ordinal()];
+		}
+	}
+
+	/**
+	 * @return the number of downloads of the priority which finished, failed or were cancelled since the program started
+	 */
+	public long getCompletedCount(Priority priority) {
+		return completedCounts[priority.ordinal()].get();
+	}
+
+	/**
+	 * @return the queued and running downloads of each priority, like "POSTER 0 queued/2 running, FANART 3 queued/4 running, ..."
+	 */
+	public String getQueueDepthSummary() {
+		StringBuilder summary = new StringBuilder();
+		synchronized (lock) {
+			for (Priority currentPriority : Priority.values()) {
+				if (summary.length() > 0)
+					summary.append(", ");
+				summary.append(currentPriority).append(' ').append(queuedCounts[currentPriority.ordinal()]).append(" queued/").append(runningCounts[currentPriority.ordinal()])
+				        .append(" running");
+			}
+		}
+		return summary.toString();
+	}
+
+	private void runDownloads() {
+		while (true) {
+			ScheduledDownload<?> nextDownload;
+			synchronized (lock) {
+				while ((nextDownload = takeNext()) == null) {
+					try {
+						lock.wait();
+					} catch (InterruptedException e) {
+						//the threads live as long as the program
+					}
+				}
+				runningDownloads.add(nextDownload);
+				runningCounts[nextDownload.priority.ordinal()]++;
+			}
+			try {
+				nextDownload.run();
+			} finally {
+				synchronized (lock) {
+					runningDownloads.remove(nextDownload);
+					runningCounts[nextDownload.priority.ordinal()]--;
+					//a priority which was at its limit may have a download to start now
+					lock.notifyAll();
+				}
+				completedCounts[nextDownload.priority.ordinal()].incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * @return the next download to run, taken from the first movie in line of the most important priority which may run more downloads,
+	 *         or null if there is none. Must hold the lock.
+	 */
+	private ScheduledDownload<?> takeNext() {
+		for (Priority currentPriority : Priority.values()) {
+			if (runningCounts[currentPriority.ordinal()] >= currentPriority.maxRunning)
+				continue;
+			LinkedHashMap<String, ArrayDeque<ScheduledDownload<?>>> movieQueues = queuedDownloads.get(currentPriority);
+			Iterator<Map.Entry<String, ArrayDeque<ScheduledDownload<?>>>> movieIterator = movieQueues.entrySet().iterator();
+			if (!movieIterator.hasNext())
+				continue;
+			Map.Entry<String, ArrayDeque<ScheduledDownload<?>>> firstMovie = movieIterator.next();
+			ScheduledDownload<?> nextDownload = firstMovie.getValue().poll();
+			//the movie goes to the back of the line, or leaves it when it has nothing more to download
+			movieIterator.remove();
+			if (!firstMovie.getValue().isEmpty())
+				movieQueues.put(firstMovie.getKey(), firstMovie.getValue());
+			queuedCounts[currentPriority.ordinal()]--;
+			return nextDownload;
+		}
+		return null;
+	}
+
+	private void cancel(ScheduledDownload<?> scheduledDownload) {
+		synchronized (lock) {
+			LinkedHashMap<String, ArrayDeque<ScheduledDownload<?>>> movieQueues = queuedDownloads.get(scheduledDownload.priority);
+			ArrayDeque<ScheduledDownload<?>> movieDownloads = movieQueues.get(scheduledDownload.movieKey);
+			if (movieDownloads != null && movieDownloads.remove(scheduledDownload)) {
+				queuedCounts[scheduledDownload.priority.ordinal()]--;
+				if (movieDownloads.isEmpty())
+					movieQueues.remove(scheduledDownload.movieKey);
+				completedCounts[scheduledDownload.priority.ordinal()].incrementAndGet();
+			}
+		}
+		scheduledDownload.interrupt();
+	}
+
+	private static class ScheduledDownload<T> {
+		final String movieKey;
+		final Priority priority;
+		final Callable<T> download;
+		final CompletableFuture<T> result = new CompletableFuture<>();
+		private Thread runningThread;
+
+		ScheduledDownload(String movieKey, Priority priority, Callable<T> download) {
+			this.movieKey = movieKey;
+			this.priority = priority;
+			this.download = download;
+		}
+
+		void run() {
+			synchronized (this) {
+				if (result.isDone())
+					return;
+				runningThread = Thread.currentThread();
+			}
+			try {
+				result.complete(download.call());
+			} catch (Throwable t) {
+				result.completeExceptionally(t);
+			} finally {
+				synchronized (this) {
+					runningThread = null;
+					//an interrupt meant for this download must not hit the next one run on the thread
+					Thread.interrupted();
+				}
+			}
+		}
+
+		synchronized void interrupt() {
+			if (runningThread != null)
+				runningThread.interrupt();
+		}
+	}
+}
@@ -1,18 +1,31 @@
 package moviescraper.doctord.controller;
 
 import java.awt.Image;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.awt.image.BufferedImage;
 
 import javax.imageio.ImageIO;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 
 import moviescraper.doctord.model.dataitem.Thumb;
+import moviescraper.doctord.scraper.RateGovernor;
 
 /**
  * Wrapper class around standard methods to download images from urls or write a url to a file
@@ -21,7 +34,10 @@ import moviescraper.doctord.model.dataitem.Thumb;
  */
 public class FileDownloaderUtilities {
 
-	private static URLConnection getDefaultUrlConnection(URL url) throws IOException {
+	private static final int magicBytesLength = 12;
+	private static final long transferChunkSize = 64 * 1024;
+
+	static URLConnection getDefaultUrlConnection(URL url) throws IOException {
 		final URLConnection connection = (URLConnection) url.openConnection();
 		connection.setRequestProperty("User-Agent", "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_7_5) AppleWebKit/537.31 (KHTML, like Gecko) Chrome/26.0.1410.65 Safari/537.31");
 		return connection;
@@ -37,9 +53,46 @@ public class FileDownloaderUtilities {
 		if (viewerURL != null) {
 			urlConnectionToUse.setRequestProperty("Referer", viewerURL.toString());
 		}
+		RateGovernor.Permit permit = RateGovernor.getInstance().acquire(url.toString());
 		try (InputStream inputStreamToUse = urlConnectionToUse.getInputStream();) {
+			permit.responseReceived();
 			Image imageFromUrl = ImageIO.read(inputStreamToUse);
 			return imageFromUrl;
+		} finally {
+			reportToGovernor(permit, urlConnectionToUse);
+		}
+	}
+
+	/**
+	 * @return the undecoded bytes at the url, for example to keep the original of an image
+	 */
+	public static byte[] getBytesFromUrl(URL url, URL viewerURL) throws IOException {
+		URLConnection urlConnectionToUse = FileDownloaderUtilities.getDefaultUrlConnection(url);
+		if (viewerURL != null) {
+			urlConnectionToUse.setRequestProperty("Referer", viewerURL.toString());
+		}
+		RateGovernor.Permit permit = RateGovernor.getInstance().acquire(url.toString());
+		try (InputStream inputStreamToUse = urlConnectionToUse.getInputStream();) {
+			permit.responseReceived();
+			return IOUtils.toByteArray(inputStreamToUse);
+		} finally {
+			reportToGovernor(permit, urlConnectionToUse);
+		}
+	}
+
+	/**
+	 * Tells the {@link RateGovernor} how the download went, so image hosts are paced like the scraped pages
+	 */
+	static void reportToGovernor(RateGovernor.Permit permit, URLConnection connection) {
+		if (connection instanceof HttpURLConnection) {
+			try {
+				HttpURLConnection httpConnection = (HttpURLConnection) connection;
+				permit.completed(httpConnection.getResponseCode(), httpConnection.getHeaderField("Retry-After"), false);
+			} catch (IOException e) {
+				permit.failed(e instanceof SocketTimeoutException);
+			}
+		} else {
+			permit.failed(false);
 		}
 	}
 
@@ -59,19 +112,82 @@ public class FileDownloaderUtilities {
 		FileUtils.copyInputStreamToFile(FileDownloaderUtilities.getDefaultUrlConnection(url).getInputStream(), file);
 	}
 
+	/**
+	 * Writes the image at the url to a jpg file. JPEG images are streamed straight to disk as they were downloaded; anything
+	 * else is decoded and reencoded as jpg. The download goes to a temporary file next to the target which is then renamed over it,
+	 * so a failed download never leaves a truncated image behind. Responses which are not images, like the HTML error pages some
+	 * sites send with a 200 status, are not written.
+	 *
+	 * @throws IOException if the download failed, was interrupted or did not return an image. Nothing is written then.
+	 */
 	public static void writeURLToFile(URL url, File file, URL viewerUrl) throws IOException {
+		File temporaryFile = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".part");
+		RateGovernor.Permit permit = null;
+		URLConnection imageConnection = null;
 		try {
-			URLConnection imageConnection = url.openConnection();
-			imageConnection.setRequestProperty("User-Agent", "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_7_5) AppleWebKit/537.31 (KHTML, like Gecko) Chrome/26.0.1410.65 Safari/537.31");
+			imageConnection = FileDownloaderUtilities.getDefaultUrlConnection(url);
 			if (viewerUrl != null) {
 				imageConnection.setRequestProperty("Referer", viewerUrl.toString());
 			}
-			BufferedImage pictureLoaded = ImageIO.read(imageConnection.getInputStream());
-			ImageIO.write(pictureLoaded, "jpg", file);
+			permit = RateGovernor.getInstance().acquire(url.toString());
+			try (BufferedInputStream imageInputStream = new BufferedInputStream(imageConnection.getInputStream())) {
+				permit.responseReceived();
+				String contentType = imageConnection.getContentType();
+				if (contentType != null && (contentType.startsWith("text/") || contentType.contains("html")))
+					throw new IOException(url + " returned " + contentType + " instead of an image");
+				imageInputStream.mark(magicBytesLength);
+				byte[] magicBytes = new byte[magicBytesLength];
+				int magicBytesRead = IOUtils.read(imageInputStream, magicBytes);
+				imageInputStream.reset();
+				if (isJpeg(magicBytes, magicBytesRead)) {
+					FileUtils.forceMkdir(temporaryFile.getParentFile());
+					try (ReadableByteChannel sourceChannel = Channels.newChannel(imageInputStream);
+					        FileChannel targetChannel = FileChannel.open(temporaryFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+						long position = 0;
+						long transferred;
+						while ((transferred = targetChannel.transferFrom(sourceChannel, position, transferChunkSize)) > 0) {
+							position += transferred;
+						}
+					}
+				} else if (isImage(magicBytes, magicBytesRead)) {
+					BufferedImage pictureLoaded = ImageIO.read(imageInputStream);
+					if (pictureLoaded == null || !ImageIO.write(pictureLoaded, "jpg", temporaryFile))
+						throw new IOException("Could not convert the image at " + url + " to jpg");
+				} else {
+					throw new IOException(url + " is not an image");
+				}
+			}
+			moveAtomically(temporaryFile, file);
+		} finally {
+			if (permit != null)
+				reportToGovernor(permit, imageConnection);
+			FileUtils.deleteQuietly(temporaryFile);
+		}
+	}
 
-		} catch (Throwable t) {
-			System.out.println("Cannot write file: " + t.getMessage());
+	/**
+	 * Replaces the target with the source in one step, so readers see the old file or the new one but never half of it.
+	 * Some network shares and FUSE file systems can not do this, in which case the file is moved the plain way.
+	 */
+	public static void moveAtomically(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
 		}
+	}
+
+	private static boolean isJpeg(byte[] magicBytes, int length) {
+		return length >= 3 && (magicBytes[0] & 0xFF) == 0xFF && (magicBytes[1] & 0xFF) == 0xD8 && (magicBytes[2] & 0xFF) == 0xFF;
+	}
 
+	/**
+	 * @return true if the bytes start like a JPEG, PNG, GIF, BMP or WebP file
+	 */
+	private static boolean isImage(byte[] magicBytes, int length) {
+		if (isJpeg(magicBytes, length))
+			return true;
+		String start = new String(magicBytes, 0, Math.max(0, length), StandardCharsets.ISO_8859_1);
+		return start.startsWith("\u0089PNG") || start.startsWith("GIF8") || start.startsWith("BM") || (start.startsWith("RIFF") && start.startsWith("WEBP", 8));
 	}
 }
@@ -0,0 +1,284 @@
+package moviescraper.doctord.controller;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringEscapeUtils;
+
+import moviescraper.doctord.model.Movie;
+import moviescraper.doctord.model.MovieFilenameFilter;
+
+/**
+ * Finds the movies of a library which need scraping: the ones added or changed since the last scan, and the ones without an nfo.
+ * The size, modification time and nfo presence of every movie file under a library root are kept in a snapshot file per root,
+ * and a scan compares the tree with it. The subdirectories of the root are walked in parallel, and the walk reads the attributes
+ * it needs with the directory entries, so a scan costs one pass over the directories and no reads of nfo files.
+ */
+public class LibraryScanner {
+
+	public static final String DEFAULT_SNAPSHOT_DIRECTORY_NAME = "cache" + File.separator + "library";
+	public static final int DEFAULT_THREADS = 4;
+	private static final String snapshotExtension = ".snapshot";
+	private static final MovieFilenameFilter movieFilenameFilter = new MovieFilenameFilter();
+
+	private final File snapshotDirectory;
+	private final boolean nfoNamedMovieDotNfo;
+	private final int threads;
+
+	/**
+	 * @param snapshotDirectory - where the snapshot of each library root is stored
+	 * @param nfoNamedMovieDotNfo - whether nfo files are named movie.nfo, as set in the preferences
+	 * @param threads - how many directories are walked at the same time
+	 */
+	public LibraryScanner(File snapshotDirectory, boolean nfoNamedMovieDotNfo, int threads) {
+		this.snapshotDirectory = snapshotDirectory;
+		this.nfoNamedMovieDotNfo = nfoNamedMovieDotNfo;
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Walks the library root and compares it with the snapshot of its last scan. Nothing is stored until {@link #saveSnapshot(ScanResult)}.
+	 */
+	public ScanResult scan(File root) throws IOException, InterruptedException {
+		long scanStartTime = System.currentTimeMillis();
+		Path rootPath = root.getAbsoluteFile().toPath();
+		Map<String, FileState> previousFiles = readSnapshot(rootPath);
+		Map<String, BasicFileAttributes> movieFiles = new ConcurrentHashMap<>();
+		Set<String> allFiles = ConcurrentHashMap.newKeySet();
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> walkFutures = new ArrayList<>();
+			try (DirectoryStream<Path> rootContents = Files.newDirectoryStream(rootPath)) {
+				for (Path currentChild : rootContents) {
+					BasicFileAttributes attributes = Files.readAttributes(currentChild, BasicFileAttributes.class);
+					if (attributes.isDirectory())
+						walkFutures.add(executor.submit(() -> {
+							walk(currentChild, movieFiles, allFiles);
+							return null;
+						}));
+					else
+						visitFile(currentChild, attributes, movieFiles, allFiles);
+				}
+			}
+			for (Future<?> currentFuture : walkFutures) {
+				try {
+					currentFuture.get();
+				} catch (ExecutionException e) {
+					System.err.println("Could not scan part of " + root + ": " + e.getCause());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		ScanResult result = new ScanResult(rootPath, scanStartTime);
+		for (Map.Entry<String, BasicFileAttributes> currentMovie : new TreeMap<>(movieFiles).entrySet()) {
+			String path = currentMovie.getKey();
+			FileState state = new FileState(currentMovie.getValue().size(), currentMovie.getValue().lastModifiedTime().toMillis(), allFiles.contains(getNfoPath(path)));
+			result.currentFiles.put(path, state);
+			FileState previousState = previousFiles.get(path);
+			if (previousState == null)
+				result.added.add(new File(path));
+			else if (previousState.size != state.size || previousState.lastModified != state.lastModified)
+				result.changed.add(new File(path));
+			else if (!state.hasNfo)
+				result.missingMetadata.add(new File(path));
+		}
+		for (String currentPreviousPath : previousFiles.keySet()) {
+			if (!result.currentFiles.containsKey(currentPreviousPath))
+				result.removedCount++;
+		}
+		return result;
+	}
+
+	private static void walk(Path directory, Map<String, BasicFileAttributes> movieFiles, Set<String> allFiles) throws IOException {
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+				LibraryScanner.visitFile(file, attributes, movieFiles, allFiles);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException e) {
+				System.err.println("Could not scan " + file + ": " + e.getMessage());
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private static void visitFile(Path file, BasicFileAttributes attributes, Map<String, BasicFileAttributes> movieFiles, Set<String> allFiles) {
+		if (!attributes.isRegularFile())
+			return;
+		String path = file.toString();
+		allFiles.add(path);
+		if (movieFilenameFilter.accept(null, file.getFileName().toString()))
+			movieFiles.put(path, attributes);
+	}
+
+	/**
+	 * @return the path of the nfo of a movie file, as {@link Movie#getFileNameOfNfo(File, Boolean)} names it but without touching the disk
+	 */
+	private String getNfoPath(String movieFilePath) {
+		File movieFile = new File(movieFilePath);
+		if (nfoNamedMovieDotNfo)
+			return movieFile.getParent() + File.separator + "movie.nfo";
+		return Movie.getUnstackedMovieName(movieFile) + ".nfo";
+	}
+
+	private File getSnapshotFile(Path root) {
+		return new File(snapshotDirectory, DigestUtils.md5Hex(root.toString()) + snapshotExtension);
+	}
+
+	private Map<String, FileState> readSnapshot(Path root) throws IOException {
+		File snapshotFile = getSnapshotFile(root);
+		if (!snapshotFile.exists())
+			return Collections.emptyMap();
+		Map<String, FileState> files = new HashMap<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(snapshotFile), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split("\t");
+				if (fields.length != 4)
+					continue;
+				try {
+					files.put(StringEscapeUtils.unescapeJava(fields[0]), new FileState(Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[3].equals("1")));
+				} catch (NumberFormatException e) {
+					System.err.println("Skipping bad line in library snapshot " + snapshotFile + ": " + line);
+				}
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Stores the files found by a scan as the snapshot the next scan of the root is compared with. Call it after scraping the movies
+	 * of the scan: a changed movie whose nfo was not written since the scan started is left out, so the next scan finds it again.
+	 */
+	public void saveSnapshot(ScanResult result) throws IOException {
+		Map<String, FileState> filesToSave = new LinkedHashMap<>(result.currentFiles);
+		for (File currentChangedFile : result.changed) {
+			File nfoFile = new File(getNfoPath(currentChangedFile.getPath()));
+			if (nfoFile.lastModified() < result.scanStartTime)
+				filesToSave.remove(currentChangedFile.getPath());
+		}
+		snapshotDirectory.mkdirs();
+		File snapshotFile = getSnapshotFile(result.root);
+		File temporaryFile = new File(snapshotFile.getPath() + ".tmp");
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temporaryFile), StandardCharsets.UTF_8))) {
+			for (Map.Entry<String, FileState> currentFile : filesToSave.entrySet()) {
+				FileState state = currentFile.getValue();
+				writer.write(StringEscapeUtils.escapeJava(currentFile.getKey()) + "\t" + state.size + "\t" + state.lastModified + "\t" + (state.hasNfo ? "1" : "0") + "\n");
+			}
+		}
+		Files.move(temporaryFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static class FileState {
+		final long size;
+		final long lastModified;
+		final boolean hasNfo;
+
+		FileState(long size, long lastModified, boolean hasNfo) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.hasNfo = hasNfo;
+		}
+	}
+
+	/**
+	 * The movie files of a library root which need scraping, found by {@link LibraryScanner#scan(File)}
+	 */
+	public static class ScanResult {
+		private final Path root;
+		private final long scanStartTime;
+		private final Map<String, FileState> currentFiles = new LinkedHashMap<>();
+		private final List<File> added = new ArrayList<>();
+		private final List<File> changed = new ArrayList<>();
+		private final List<File> missingMetadata = new ArrayList<>();
+		private int removedCount;
+
+		ScanResult(Path root, long scanStartTime) {
+			this.root = root;
+			this.scanStartTime = scanStartTime;
+		}
+
+		/**
+		 * @return movie files which were not in the last scan
+		 */
+		public List<File> getAdded() {
+			return added;
+		}
+
+		/**
+		 * @return movie files whose size or modification time changed since the last scan
+		 */
+		public List<File> getChanged() {
+			return changed;
+		}
+
+		/**
+		 * @return movie files which did not change since the last scan but have no nfo
+		 */
+		public List<File> getMissingMetadata() {
+			return missingMetadata;
+		}
+
+		public int getRemovedCount() {
+			return removedCount;
+		}
+
+		public int getFileCount() {
+			return currentFiles.size();
+		}
+
+		/**
+		 * @return the added, changed and missing metadata movies, with only the first part of a stacked movie, as they share their metadata files
+		 */
+		public List<File> getMoviesToScrape() {
+			Map<String, File> unstackedNameToFile = new LinkedHashMap<>();
+			for (List<File> currentList : Arrays.asList(added, changed, missingMetadata)) {
+				for (File currentFile : currentList)
+					unstackedNameToFile.putIfAbsent(Movie.getUnstackedMovieName(currentFile), currentFile);
+			}
+			return new ArrayList<>(unstackedNameToFile.values());
+		}
+
+		@Override
+		public String toString() {
+			return root + ": " + currentFiles.size() + " movie files, " + added.size() + " added, " + changed.size() + " changed, " + missingMetadata.size()
+			        + " without metadata, " + removedCount + " removed";
+		}
+	}
+}
@@ -0,0 +1,282 @@
+package moviescraper.doctord.controller;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FilenameUtils;
+
+import moviescraper.doctord.model.Movie;
+import moviescraper.doctord.model.MovieFilenameFilter;
+
+/**
+ * Watches library roots for new movie files and scrapes them as they arrive, for -watch.
+ * A movie file is only scraped once its size and modification time stayed the same for a while, so files which are still being copied are
+ * left alone. Each root has its own scrape threads and a bounded queue. When a queue is full, new files wait with the files still being
+ * copied and are offered again on the next check, so a burst of arrivals never grows a queue past its limit.
+ */
+public class LibraryWatcher {
+
+	public static final int DEFAULT_THREADS_PER_ROOT = 2;
+	public static final int DEFAULT_QUEUE_CAPACITY = 50;
+	public static final long DEFAULT_STABLE_MILLIS = 30000;
+	private static final long POLL_MILLIS = 1000;
+	private static final MovieFilenameFilter movieFilenameFilter = new MovieFilenameFilter();
+
+	private final BatchScraper batchScraper;
+	private final boolean nfoNamedMovieDotNfo;
+	private final int threadsPerRoot;
+	private final int queueCapacity;
+	private final long stableMillis;
+
+	//only used by the thread running watch()
+	private WatchService watchService;
+	private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+	private final Map<Path, ThreadPoolExecutor> rootExecutors = new LinkedHashMap<>();
+	private final Map<Path, PendingFile> pendingFiles = new LinkedHashMap<>();
+
+	//unstacked names of the movies queued or being scraped, so the parts of a stacked movie are scraped once
+	private final Set<String> scrapesInFlight = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * @param batchScraper - scrapes and writes the movies. It is started by {@link #watch(List)}.
+	 * @param nfoNamedMovieDotNfo - whether nfo files are named movie.nfo, as set in the preferences
+	 * @param threadsPerRoot - how many movies of one root are scraped at the same time
+	 * @param queueCapacity - how many movies of one root can wait for a scrape thread
+	 * @param stableMillis - how long a movie file must stay unchanged before it is scraped
+	 */
+	public LibraryWatcher(BatchScraper batchScraper, boolean nfoNamedMovieDotNfo, int threadsPerRoot, int queueCapacity, long stableMillis) {
+		this.batchScraper = batchScraper;
+		this.nfoNamedMovieDotNfo = nfoNamedMovieDotNfo;
+		this.threadsPerRoot = Math.max(1, threadsPerRoot);
+		this.queueCapacity = Math.max(1, queueCapacity);
+		this.stableMillis = stableMillis;
+	}
+
+	/**
+	 * Watches the roots and all directories under them until the thread is interrupted. Movies already in the roots are not scraped,
+	 * use {@link LibraryScanner} for them.
+	 */
+	public void watch(List<File> roots) throws IOException, InterruptedException {
+		watchService = FileSystems.getDefault().newWatchService();
+		batchScraper.start();
+		try {
+			for (File currentRoot : roots) {
+				Path rootPath = currentRoot.getAbsoluteFile().toPath();
+				rootExecutors.put(rootPath, createRootExecutor(rootPath));
+				registerTree(rootPath, false);
+			}
+			System.out.println("Watching " + watchedDirectories.size() + " directories in " + rootExecutors.keySet() + " for new movies");
+			while (!Thread.currentThread().isInterrupted()) {
+				WatchKey key = watchService.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				while (key != null) {
+					handleEvents(key);
+					key = watchService.poll();
+				}
+				submitStableFiles(System.currentTimeMillis());
+			}
+			throw new InterruptedException();
+		} finally {
+			for (ThreadPoolExecutor currentExecutor : rootExecutors.values())
+				currentExecutor.shutdownNow();
+			batchScraper.shutdown();
+			watchService.close();
+		}
+	}
+
+	private ThreadPoolExecutor createRootExecutor(Path root) {
+		AtomicInteger threadNumber = new AtomicInteger(1);
+		//the default abort policy lets submitStableFiles() know the queue is full
+		return new ThreadPoolExecutor(threadsPerRoot, threadsPerRoot, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+			Thread thread = new Thread(runnable, "watch-" + root.getFileName() + "-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Watches the directory and every directory under it, as a watch service only reports changes to the direct children of a directory
+	 *
+	 * @param addMovies - also add the unscraped movie files found to the pending files, for directories which were copied in or events which were missed
+	 */
+	private void registerTree(Path directory, boolean addMovies) throws IOException {
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path currentDirectory, BasicFileAttributes attributes) throws IOException {
+				//registering a directory again returns its existing key
+				watchedDirectories.put(currentDirectory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY), currentDirectory);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+				if (addMovies && attributes.isRegularFile() && isMovieFile(file) && !hasNfo(file))
+					addPendingFile(file, attributes);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException e) {
+				System.err.println("Could not watch " + file + ": " + e.getMessage());
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void handleEvents(WatchKey key) {
+		Path directory = watchedDirectories.get(key);
+		for (WatchEvent<?> currentEvent : key.pollEvents()) {
+			try {
+				if (currentEvent.kind() == OVERFLOW) {
+					for (Path currentDirectory : directory != null ? Collections.singletonList(directory) : new ArrayList<>(rootExecutors.keySet())) {
+						System.err.println("Missed changes to " + currentDirectory + ", looking for unscraped movies in it");
+						registerTree(currentDirectory, true);
+					}
+					continue;
+				}
+				if (directory == null)
+					continue;
+				Path child = directory.resolve((Path) currentEvent.context());
+				BasicFileAttributes attributes = Files.readAttributes(child, BasicFileAttributes.class);
+				if (attributes.isDirectory() && currentEvent.kind() == ENTRY_CREATE)
+					registerTree(child, true);
+				else if (attributes.isRegularFile() && isMovieFile(child))
+					addPendingFile(child, attributes);
+			} catch (IOException e) {
+				//the file was moved or deleted again before it could be looked at
+			}
+		}
+		if (!key.reset())
+			watchedDirectories.remove(key);
+	}
+
+	private static boolean isMovieFile(Path file) {
+		String fileName = file.getFileName().toString();
+		//trailers are written next to the movies they belong to
+		return movieFilenameFilter.accept(null, fileName) && !FilenameUtils.getBaseName(fileName).endsWith("-trailer");
+	}
+
+	private boolean hasNfo(Path movieFile) {
+		return new File(Movie.getFileNameOfNfo(movieFile.toFile(), nfoNamedMovieDotNfo)).exists();
+	}
+
+	private void addPendingFile(Path file, BasicFileAttributes attributes) {
+		PendingFile pendingFile = pendingFiles.get(file);
+		long size = attributes.size();
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		if (pendingFile == null)
+			pendingFiles.put(file, new PendingFile(size, lastModified, System.currentTimeMillis()));
+		else
+			pendingFile.update(size, lastModified, System.currentTimeMillis());
+	}
+
+	/**
+	 * Queues the pending files which did not change for {@link #stableMillis}. Files which did not fit in the queue of their root stay pending.
+	 */
+	private void submitStableFiles(long now) {
+		Iterator<Map.Entry<Path, PendingFile>> pendingIterator = pendingFiles.entrySet().iterator();
+		while (pendingIterator.hasNext()) {
+			Map.Entry<Path, PendingFile> currentEntry = pendingIterator.next();
+			Path file = currentEntry.getKey();
+			PendingFile pendingFile = currentEntry.getValue();
+			BasicFileAttributes attributes;
+			try {
+				attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			} catch (IOException e) {
+				pendingIterator.remove();
+				continue;
+			}
+			pendingFile.update(attributes.size(), attributes.lastModifiedTime().toMillis(), now);
+			if (now - pendingFile.changedAt >= stableMillis && submit(file))
+				pendingIterator.remove();
+		}
+	}
+
+	/**
+	 * @return false if the queue of the file's root is full and the file must be offered again later
+	 */
+	private boolean submit(Path movieFile) {
+		//a movie moved in with its nfo, like by a rename, is already scraped
+		if (hasNfo(movieFile))
+			return true;
+		ThreadPoolExecutor executor = getRootExecutor(movieFile);
+		if (executor == null)
+			return true;
+		File file = movieFile.toFile();
+		String unstackedName = Movie.getUnstackedMovieName(file);
+		if (!scrapesInFlight.add(unstackedName))
+			return true;
+		try {
+			executor.execute(() -> {
+				try {
+					System.out.println("Scraping new movie " + file);
+					batchScraper.scrapeAndWriteFile(file);
+				} finally {
+					scrapesInFlight.remove(unstackedName);
+				}
+			});
+			return true;
+		} catch (RejectedExecutionException e) {
+			scrapesInFlight.remove(unstackedName);
+			return false;
+		}
+	}
+
+	private ThreadPoolExecutor getRootExecutor(Path file) {
+		ThreadPoolExecutor longestMatch = null;
+		int longestMatchLength = -1;
+		for (Map.Entry<Path, ThreadPoolExecutor> currentRoot : rootExecutors.entrySet()) {
+			if (file.startsWith(currentRoot.getKey()) && currentRoot.getKey().getNameCount() > longestMatchLength) {
+				longestMatch = currentRoot.getValue();
+				longestMatchLength = currentRoot.getKey().getNameCount();
+			}
+		}
+		return longestMatch;
+	}
+
+	private static class PendingFile {
+		long size;
+		long lastModified;
+		long changedAt;
+
+		PendingFile(long size, long lastModified, long changedAt) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.changedAt = changedAt;
+		}
+
+		void update(long newSize, long newLastModified, long now) {
+			if (newSize != size || newLastModified != lastModified) {
+				size = newSize;
+				lastModified = newLastModified;
+				changedAt = now;
+			}
+		}
+	}
+}
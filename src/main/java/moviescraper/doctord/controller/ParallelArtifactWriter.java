@@ -0,0 +1,101 @@
+package moviescraper.doctord.controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import moviescraper.doctord.controller.DownloadScheduler.Priority;
+
+/**
+ * Writes the independent files belonging to a movie (poster, fanart, extrafanart, actor images) at the same time.
+ * The writes of all movies go through the {@link DownloadScheduler}, so writing many movies at once, as the batch scraper does,
+ * does not open an unbounded number of downloads, and every movie gets its poster before the less important files are written.
+ */
+public class ParallelArtifactWriter {
+
+	private final String movieKey;
+	private final Map<String, Future<?>> pendingWrites = new LinkedHashMap<>();
+
+	/**
+	 * Writes one artifact, like a single image file
+	 */
+	public interface ArtifactWrite {
+		void write() throws IOException;
+	}
+
+	/**
+	 * @param movieKey - identifies the movie being written, like the path of its nfo, so its writes can be cancelled with
+	 *            {@link DownloadScheduler#cancelMovie(String)}
+	 */
+	public ParallelArtifactWriter(String movieKey) {
+		this.movieKey = movieKey;
+	}
+
+	/**
+	 * Starts writing an artifact in the background. Nothing is done if an artifact with the same name was already submitted,
+	 * so two writes never race on the same file.
+	 *
+	 * @param artifactName - description of what is written, used when reporting the result
+	 * @param priority - how important the artifact is compared to the other files being written
+	 * @param artifactWrite - the write to do
+	 */
+	public void submit(String artifactName, Priority priority, ArtifactWrite artifactWrite) {
+		if (pendingWrites.containsKey(artifactName))
+			return;
+		pendingWrites.put(artifactName, DownloadScheduler.getInstance().submit(movieKey, priority, () -> {
+			artifactWrite.write();
+			return null;
+		}));
+	}
+
+	/**
+	 * Waits for every submitted write to finish, reporting each one that failed
+	 *
+	 * @return the names of the artifacts which failed to write; empty if all of them were written
+	 * @throws InterruptedException if interrupted while waiting. Writes still running are cancelled.
+	 */
+	public List<String> awaitCompletion() throws InterruptedException {
+		List<String> failedArtifacts = new ArrayList<>();
+		try {
+			for (Map.Entry<String, Future<?>> currentWrite : pendingWrites.entrySet()) {
+				try {
+					currentWrite.getValue().get();
+				} catch (ExecutionException e) {
+					System.err.println("Failed to write " + currentWrite.getKey() + ": " + e.getCause());
+					failedArtifacts.add(currentWrite.getKey());
+				} catch (CancellationException e) {
+					System.err.println("Cancelled writing " + currentWrite.getKey());
+					failedArtifacts.add(currentWrite.getKey());
+				}
+			}
+		} catch (InterruptedException e) {
+			for (Future<?> currentWrite : pendingWrites.values())
+				currentWrite.cancel(true);
+			throw e;
+		} finally {
+			pendingWrites.clear();
+		}
+		return failedArtifacts;
+	}
+
+	/**
+	 * Waits for every submitted write to finish
+	 *
+	 * @throws IOException if any of the writes failed or the wait was interrupted
+	 */
+	public void awaitCompletionOrThrow() throws IOException {
+		try {
+			List<String> failedArtifacts = awaitCompletion();
+			if (!failedArtifacts.isEmpty())
+				throw new IOException("Failed to write " + failedArtifacts);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while writing files", e);
+		}
+	}
+}
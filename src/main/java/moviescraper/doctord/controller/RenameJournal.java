@@ -0,0 +1,186 @@
+package moviescraper.doctord.controller;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileExistsException;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringEscapeUtils;
+
+/**
+ * Records the moves of a batch rename in a file, so a rename of thousands of files which stops partway, like when the program is killed,
+ * can be finished the next time. All moves of a movie are recorded before the first of them is made, and each one is marked done once it
+ * is made, so when the journal is opened again the moves of half renamed movies are finished first. The journal file is deleted once all
+ * recorded moves are done.
+ */
+public class RenameJournal implements Closeable {
+
+	public static final String DEFAULT_JOURNAL_FILE_NAME = "renamejournal.txt";
+
+	private static final String MOVE = "MOVE";
+	private static final String DONE = "DONE";
+
+	private final File journalFile;
+	private Writer writer;
+	private int nextMoveNumber;
+	private int unfinishedMoveCount;
+
+	public RenameJournal(File journalFile) {
+		this.journalFile = journalFile;
+	}
+
+	/**
+	 * Finishes the moves left unfinished in the journal by an earlier rename, then starts a new journal. Moves which still cannot be
+	 * made are recorded in the new journal, so they are tried again the next time.
+	 *
+	 * @return the number of moves which were finished
+	 */
+	public synchronized int open() throws IOException {
+		int finishedCount = 0;
+		List<Move> stillUnfinishedMoves = new ArrayList<>();
+		if (journalFile.exists()) {
+			Map<Integer, Move> unfinishedMoves = readUnfinishedMoves();
+			if (!unfinishedMoves.isEmpty())
+				System.out.println("Finishing " + unfinishedMoves.size() + " moves of an earlier rename recorded in " + journalFile);
+			for (Move currentMove : unfinishedMoves.values()) {
+				if (currentMove.getFrom().exists() && !currentMove.getTo().exists()) {
+					System.out.println("Renaming " + currentMove.getFrom() + " to " + currentMove.getTo());
+					try {
+						currentMove.perform();
+						finishedCount++;
+					} catch (IOException e) {
+						e.printStackTrace();
+						stillUnfinishedMoves.add(currentMove);
+					}
+				} else if (!currentMove.getTo().exists()) {
+					//like a file on a drive which is not connected right now
+					System.err.println("Could not finish renaming " + currentMove.getFrom() + " to " + currentMove.getTo() + " as neither exists");
+					stillUnfinishedMoves.add(currentMove);
+				}
+			}
+		}
+		writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(journalFile), StandardCharsets.UTF_8));
+		nextMoveNumber = 0;
+		unfinishedMoveCount = 0;
+		record(stillUnfinishedMoves);
+		return finishedCount;
+	}
+
+	private Map<Integer, Move> readUnfinishedMoves() throws IOException {
+		Map<Integer, Move> unfinishedMoves = new LinkedHashMap<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(journalFile), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split("\t");
+				try {
+					if (fields.length == 4 && fields[0].equals(MOVE)) {
+						Move move = new Move(new File(StringEscapeUtils.unescapeJava(fields[2])), new File(StringEscapeUtils.unescapeJava(fields[3])));
+						unfinishedMoves.put(Integer.valueOf(fields[1]), move);
+					} else if (fields.length == 2 && fields[0].equals(DONE)) {
+						unfinishedMoves.remove(Integer.valueOf(fields[1]));
+					}
+				} catch (NumberFormatException e) {
+					//a line cut off when the rename stopped
+				}
+			}
+		}
+		return unfinishedMoves;
+	}
+
+	/**
+	 * Records moves which are about to be made. Each one must be marked done with {@link #markDone(Move)} once it is made.
+	 */
+	public synchronized void record(List<Move> moves) throws IOException {
+		checkOpen();
+		for (Move currentMove : moves) {
+			currentMove.number = nextMoveNumber++;
+			writer.write(MOVE + "\t" + currentMove.number + "\t" + StringEscapeUtils.escapeJava(currentMove.getFrom().getAbsolutePath()) + "\t"
+			        + StringEscapeUtils.escapeJava(currentMove.getTo().getAbsolutePath()) + "\n");
+			unfinishedMoveCount++;
+		}
+		writer.flush();
+	}
+
+	public synchronized void markDone(Move move) throws IOException {
+		checkOpen();
+		writer.write(DONE + "\t" + move.number + "\n");
+		writer.flush();
+		unfinishedMoveCount--;
+	}
+
+	private void checkOpen() {
+		if (writer == null)
+			throw new IllegalStateException("Rename journal " + journalFile + " is not open");
+	}
+
+	/**
+	 * Closes the journal, deleting it if all the moves recorded in it were made
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (writer == null)
+			return;
+		writer.close();
+		writer = null;
+		if (unfinishedMoveCount == 0)
+			Files.deleteIfExists(journalFile.toPath());
+		else
+			System.err.println(unfinishedMoveCount + " moves did not finish. They are retried the next time a rename is run, see " + journalFile);
+	}
+
+	/**
+	 * A file or directory to move to a new path
+	 */
+	public static class Move {
+		private final File from;
+		private final File to;
+		private int number = -1;
+
+		public Move(File from, File to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		public File getFrom() {
+			return from;
+		}
+
+		public File getTo() {
+			return to;
+		}
+
+		/**
+		 * Makes the move, creating the parent directories of the new path if needed. An existing file is never replaced,
+		 * except by itself in a rename which only changes the case of the name.
+		 */
+		public void perform() throws IOException {
+			if (to.exists() && !Files.isSameFile(from.toPath(), to.toPath()))
+				throw new FileExistsException("Destination '" + to + "' already exists");
+			if (from.renameTo(to))
+				return;
+			if (from.isDirectory())
+				FileUtils.moveDirectory(from, to);
+			else
+				FileUtils.moveFile(from, to);
+		}
+
+		@Override
+		public String toString() {
+			return from + " -> " + to;
+		}
+	}
+}
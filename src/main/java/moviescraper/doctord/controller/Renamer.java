@@ -2,15 +2,19 @@ package moviescraper.doctord.controller;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import moviescraper.doctord.controller.siteparsingprofile.SiteParsingProfile;
 import moviescraper.doctord.model.Movie;
+import moviescraper.doctord.model.catalog.MovieCatalog;
 import moviescraper.doctord.model.dataitem.Actor;
 import moviescraper.doctord.model.dataitem.Genre;
 import moviescraper.doctord.model.dataitem.Title;
@@ -18,16 +22,18 @@ import moviescraper.doctord.model.preferences.MoviescraperPreferences;
 
 public class Renamer {
 
-	private String fileNameRenameString;
-	private String folderNameRenameString;
+	private RenameTemplate fileNameTemplate;
+	private RenameTemplate folderNameTemplate;
 	private Movie movie;
 	private Title originalTitle;
-	private String sanitizer;
+	private Pattern sanitizer;
 	private File oldFile;
 
 	private String extension;
 	private String filename;
 	private String path;
+	private String appendix;
+	private String posterFanartTrailerEnder;
 	private static final int maxFileNameLength = 248;
 	private static final int extraFlexForFileNameLength = 25; //a folder can't be so long in name that it can't have a reasonable file inside it, so we're giving ourselves some extra flex
 
@@ -49,10 +55,16 @@ public class Renamer {
 	private final static String PATHSEPERATOR = "<PATHSEPERATOR>";
 	private final static String[] availableFolderRenameTags = { BASEDIRECTORY, PATHSEPERATOR, ID, TITLE, ACTORS, GENRES, SET, STUDIO, YEAR, RELEASEDATE, ORIGINALTITLE };
 
+	//the same few rename strings and sanitizers are used for every file, so each is only compiled once
+	private static final Map<String, RenameTemplate> compiledTemplates = new ConcurrentHashMap<>();
+	private static final Map<String, Pattern> compiledSanitizers = new ConcurrentHashMap<>();
+	private static final Pattern EMPTY_BRACKETS = Pattern.compile("\\[\\]|\\(\\)");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
 	public Renamer(String fileNameRenameString, String folderNameRenameString, String sanitizer, Movie toRename, File oldFile) {
-		this.fileNameRenameString = fileNameRenameString;
-		this.folderNameRenameString = folderNameRenameString;
-		this.sanitizer = sanitizer;
+		this.fileNameTemplate = compiledTemplates.computeIfAbsent(String.valueOf(fileNameRenameString), RenameTemplate::new);
+		this.folderNameTemplate = compiledTemplates.computeIfAbsent(String.valueOf(folderNameRenameString), RenameTemplate::new);
+		this.sanitizer = compiledSanitizers.computeIfAbsent(sanitizer, Pattern::compile);
 		this.movie = toRename;
 		this.originalTitle = movie.getTitle();
 		this.oldFile = oldFile;
@@ -69,16 +81,18 @@ public class Renamer {
 		if (oldFile.isDirectory())
 			extension = "";
 		filename = FilenameUtils.getBaseName(oldFile.toString());
+		appendix = getAppendix();
+		posterFanartTrailerEnder = getPosterFanartTrailerEnder();
 		path = FilenameUtils.getFullPath(oldFile.toString());
 		path = getRenamedFolderPath(path);
 		String dot = ".";
 		if (oldFile.isDirectory())
 			dot = "";
-		String newName = getSanitizedString(replace(fileNameRenameString));
+		String newName = getSanitizedString(replace(fileNameTemplate));
 		if (isFolderName) {
 			newName = path + newName;
 		} else {
-			newName = path + newName + getAppendix() + getPosterFanartTrailerEnder() + dot + extension;
+			newName = path + newName + appendix + posterFanartTrailerEnder + dot + extension;
 			System.out.println("Was file, new name = " + newName);
 		}
 
@@ -98,7 +112,7 @@ public class Renamer {
 
 	private String getRenamedFolderPath(String path) {
 		//System.out.println("Old Path: " + path);
-		String newPath = replace(folderNameRenameString);
+		String newPath = replace(folderNameTemplate);
 		//Make sure we don't have any double path separators caused by things like an empty field.
 		//However, if this is a network share, it's OK for the path to start with \\, so we will add it back in later
 		String doublePathSeperator = File.separator + File.separator;
@@ -115,61 +129,47 @@ public class Renamer {
 		return newPath;
 	}
 
-	private String replace(String target) {
-		String movieID = movie.getId().getId();
-		String movieTitle = movie.getTitle().getTitle();
-		List<Actor> movieActorsList = movie.getActors();
-		String movieActors = combineActorList(movieActorsList);
-		String movieYear = movie.getYear().getYear();
-		String movieReleaseDate = movie.getReleaseDate().getReleaseDate();
-		String movieOriginalTitle = movie.getOriginalTitle().getOriginalTitle();
-		String movieSet = movie.getSet().getSet();
-		String movieStudio = movie.getStudio().getStudio();
-		String movieGenres = combineGenreList(movie.getGenres());
-		String baseDirectory = oldFile.getParent();
-		String pathSeperator = File.separator;
-		String newName = target;
-
-		//path stuff
-		newName = renameReplaceAll(newName, BASEDIRECTORY, baseDirectory);
-		newName = renameReplaceAll(newName, PATHSEPERATOR, pathSeperator);
-
-		//metadata stuff
-		newName = renameReplaceAll(newName, ID, movieID);
-		newName = renameReplaceAll(newName, TITLE, movieTitle);
-		newName = renameReplaceAll(newName, YEAR, movieYear);
-		newName = renameReplaceAll(newName, RELEASEDATE, movieReleaseDate);
-		newName = renameReplaceAll(newName, ORIGINALTITLE, movieOriginalTitle);
-		newName = renameReplaceAll(newName, SET, movieSet);
-		newName = renameReplaceAll(newName, STUDIO, movieStudio);
-		newName = renameReplaceAll(newName, GENRES, movieGenres);
+	private String replace(RenameTemplate template) {
+		Map<String, String> tagValues = new HashMap<>();
+		tagValues.put(BASEDIRECTORY, oldFile.getParent());
+		tagValues.put(PATHSEPERATOR, File.separator);
+		tagValues.put(ID, movie.getId().getId());
+		tagValues.put(TITLE, movie.getTitle().getTitle());
+		tagValues.put(YEAR, movie.getYear().getYear());
+		tagValues.put(RELEASEDATE, movie.getReleaseDate().getReleaseDate());
+		tagValues.put(ORIGINALTITLE, movie.getOriginalTitle().getOriginalTitle());
+		tagValues.put(SET, movie.getSet().getSet());
+		tagValues.put(STUDIO, movie.getStudio().getStudio());
+		tagValues.put(GENRES, combineGenreList(movie.getGenres()));
+		tagValues.put(ACTORS, combineActorList(movie.getActors()));
+		boolean hasBlankTag = false;
+		for (String currentValue : tagValues.values()) {
+			if (currentValue == null || currentValue.trim().equals(""))
+				hasBlankTag = true;
+		}
 
 		//we need to watch out when renaming a file that a large number of actors doesn't create
 		//a movie name that is too long
-		String potentialNameWithActors = renameReplaceAll(newName, ACTORS, movieActors);
-		if (potentialNameWithActors.length() + path.length() + getAppendix().length() + getPosterFanartTrailerEnder().length() + period.length() + extension.length() < maxFileNameLength)
-			newName = potentialNameWithActors;
-		else
-			newName = renameReplaceAll(newName, ACTORS, "");
-
+		String newName = removeEmptyBrackets(template.render(tagValues), hasBlankTag);
+		if (newName.length() + path.length() + appendix.length() + posterFanartTrailerEnder.length() + period.length() + extension.length() >= maxFileNameLength) {
+			tagValues.put(ACTORS, "");
+			newName = removeEmptyBrackets(template.render(tagValues), true);
+		}
 		return newName.trim();
 	}
 
-	private String renameReplaceAll(String replacementString, String tagName, String movieContentOfTag) {
-		String replacedString = replacementString;
-		//Remove's stuff like <RELEASEDATE> when this field is null
-		if (movieContentOfTag == null) {
-			replacedString = replacedString.replace(tagName, "");
-		}
-
-		if (replacedString.contains(tagName)) {
-			replacedString = StringUtils.replace(replacedString, tagName, movieContentOfTag);
-		}
-		//Get rid of empty parens that are left over from blank field replacements like these : ()
-		if (movieContentOfTag == null || movieContentOfTag.trim().equals("")) {
-			replacedString = replacedString.replaceAll("\\[\\]|\\(\\)", "");
+	/**
+	 * Get rid of empty parens that are left over from blank field replacements like these : ()
+	 */
+	private static String removeEmptyBrackets(String name, boolean hasBlankTag) {
+		if (!hasBlankTag)
+			return name;
+		String removed = EMPTY_BRACKETS.matcher(name).replaceAll("");
+		while (!removed.equals(name)) {
+			name = removed;
+			removed = EMPTY_BRACKETS.matcher(name).replaceAll("");
 		}
-		return replacedString;
+		return removed;
 	}
 
 	private String combineActorList(List<Actor> actors) {
@@ -183,6 +183,18 @@ public class Renamer {
 	}
 
 	public static void rename(File fileToRename, MoviescraperPreferences preferences) throws IOException {
+		rename(fileToRename, preferences, findStackedFiles(fileToRename, fileToRename.getParentFile() != null ? fileToRename.getParentFile().listFiles() : null), null);
+	}
+
+	/**
+	 * Renames a movie and its metadata files using the rename strings from the preferences.
+	 *
+	 * @param stackedFiles - the files of the movie's directory which are part of its stack, see {@link #findStackedFiles(File, File[])}.
+	 *            Passed in so a directory only needs to be listed once when renaming all the movies in it.
+	 * @param journal - the journal to record the moves in, or null to not record them
+	 * @return true if the movie had an nfo to rename it with
+	 */
+	public static boolean rename(File fileToRename, MoviescraperPreferences preferences, List<File> stackedFiles, RenameJournal journal) throws IOException {
 		File nfoFile = new File(Movie.getFileNameOfNfo(fileToRename, preferences.getNfoNamedMovieDotNfo()));
 		File posterFile = new File(Movie.getFileNameOfPoster(fileToRename, preferences.getNoMovieNameInImageFiles()));
 		File fanartFile = new File(Movie.getFileNameOfFanart(fileToRename, preferences.getNoMovieNameInImageFiles()));
@@ -190,70 +202,81 @@ public class Renamer {
 		if (nfoFile.exists() && fileToRename.exists()) {
 			Movie movieReadFromNfo = Movie.createMovieFromNfo(nfoFile);
 			if (movieReadFromNfo != null && movieReadFromNfo.getTitle() != null) {
-				Renamer renamer = new Renamer(MoviescraperPreferences.getRenamerString(), MoviescraperPreferences.getRenamerString(), MoviescraperPreferences.getSanitizerForFilename(),
+				Renamer renamer = new Renamer(MoviescraperPreferences.getRenamerString(), MoviescraperPreferences.getFolderRenamerString(), MoviescraperPreferences.getSanitizerForFilename(),
 				        movieReadFromNfo, fileToRename);
 
-				//Figure out all the new names
-				File newMovieFilename = new File(renamer.getNewFileName(fileToRename.isDirectory()));
-
+				//Figure out all the new names before moving anything, so they can be recorded in the journal together
+				List<RenameJournal.Move> moves = new ArrayList<>();
+				RenameJournal.Move movieMove = new RenameJournal.Move(fileToRename, new File(renamer.getNewFileName(fileToRename.isDirectory())));
+				moves.add(movieMove);
 				renamer.setOldFilename(nfoFile);
-				File newNfoFilename = new File(renamer.getNewFileName(false));
-
-				renamer.setOldFilename(posterFile);
-				File newPosterFilename = new File(renamer.getNewFileName(false));
-
-				renamer.setOldFilename(fanartFile);
-				File newFanartFilename = new File(renamer.getNewFileName(false));
-
-				renamer.setOldFilename(trailerFile);
-				File newTrailerFilename = new File(renamer.getNewFileName(false));
-
-				//Do All the Renames
-				if (fileToRename.exists()) {
-					System.out.println("Renaming " + fileToRename.getPath() + " to " + newMovieFilename);
-					fileToRename.renameTo(newMovieFilename);
-				}
-
-				if (nfoFile.exists()) {
-					System.out.println("Renaming " + nfoFile.getPath() + " to " + newNfoFilename);
-					FileUtils.moveFile(nfoFile, newNfoFilename);
-				}
-
-				if (posterFile.exists()) {
-					System.out.println("Renaming " + posterFile.getPath() + " to " + newPosterFilename);
-					FileUtils.moveFile(posterFile, newPosterFilename);
+				RenameJournal.Move nfoMove = new RenameJournal.Move(nfoFile, new File(renamer.getNewFileName(false)));
+				moves.add(nfoMove);
+				for (File currentFile : new File[] { posterFile, fanartFile, trailerFile }) {
+					if (currentFile.exists()) {
+						renamer.setOldFilename(currentFile);
+						moves.add(new RenameJournal.Move(currentFile, new File(renamer.getNewFileName(false))));
+					}
 				}
 
-				if (fanartFile.exists()) {
-					System.out.println("Renaming " + fanartFile.getPath() + " to " + newFanartFilename);
-					FileUtils.moveFile(fanartFile, newFanartFilename);
+				//In case of stacked movie files (Movies which are split into multiple files such AS CD1, CD2, etc) also rename
+				//the other files which are part of this movie's stack
+				for (File currentFile : stackedFiles) {
+					if (!isMoved(currentFile, moves) && currentFile.isFile()) {
+						renamer.setOldFilename(currentFile);
+						moves.add(new RenameJournal.Move(currentFile, new File(renamer.getNewFileName(false))));
+					}
 				}
 
-				if (trailerFile.exists()) {
-					System.out.println("Renaming " + trailerFile.getPath() + " to " + newTrailerFilename);
-					FileUtils.moveFile(trailerFile, newTrailerFilename);
-				}
+				//a movie which is a directory holds the other files, so it is moved after them
+				if (fileToRename.isDirectory())
+					moves.add(moves.remove(0));
 
-				//In case of stacked movie files (Movies which are split into multiple files such AS CD1, CD2, etc) get the list of all files
-				//which are part of this movie's stack
-				File currentDirectory = fileToRename.getParentFile();
-				String currentlySelectedMovieFileWihoutStackSuffix = SiteParsingProfile.stripDiscNumber(FilenameUtils.removeExtension(fileToRename.getName()));
-				if (currentDirectory != null) {
-
-					for (File currentFile : currentDirectory.listFiles()) {
-						String currentFileNameWithoutStackSuffix = SiteParsingProfile.stripDiscNumber(FilenameUtils.removeExtension(currentFile.getName()));
-						if (currentFile.isFile() && currentFileNameWithoutStackSuffix.equals(currentlySelectedMovieFileWihoutStackSuffix)) {
-							renamer.setOldFilename(currentFile);
-							File newStackedFilename = new File(renamer.getNewFileName(false));
-							System.out.println("Renaming " + currentFile.getPath() + " to " + newStackedFilename);
-							FileUtils.moveFile(currentFile, newStackedFilename);
-						}
+				//Do All the Renames
+				if (journal != null)
+					journal.record(moves);
+				for (RenameJournal.Move currentMove : moves) {
+					if (!currentMove.getFrom().equals(currentMove.getTo())) {
+						System.out.println("Renaming " + currentMove.getFrom().getPath() + " to " + currentMove.getTo());
+						currentMove.perform();
 					}
+					if (journal != null)
+						journal.markDone(currentMove);
 				}
+				Map<File, File> movedFiles = new HashMap<>();
+				for (RenameJournal.Move currentMove : moves)
+					movedFiles.put(currentMove.getFrom(), currentMove.getTo());
+				MovieCatalog.getInstance().move(fileToRename, movieMove.getTo(), movedFiles);
+				return true;
 			}
 		} else if (!nfoFile.exists()) {
 			System.err.println("No scraped nfo file found for: " + fileToRename + "  - skipping rename.");
 		}
+		return false;
+	}
+
+	/**
+	 * @param directoryContents - the files in the directory of the movie, or null if it could not be listed
+	 * @return the files in directoryContents with the same name as the movie once the disc number and extension are taken off
+	 */
+	public static List<File> findStackedFiles(File movieFile, File[] directoryContents) {
+		List<File> stackedFiles = new ArrayList<>();
+		if (directoryContents == null)
+			return stackedFiles;
+		String movieFileWithoutStackSuffix = SiteParsingProfile.stripDiscNumber(FilenameUtils.removeExtension(movieFile.getName()));
+		for (File currentFile : directoryContents) {
+			if (SiteParsingProfile.stripDiscNumber(FilenameUtils.removeExtension(currentFile.getName())).equals(movieFileWithoutStackSuffix))
+				stackedFiles.add(currentFile);
+		}
+		return stackedFiles;
+	}
+
+	private static boolean isMoved(File file, List<RenameJournal.Move> moves) {
+		for (RenameJournal.Move currentMove : moves) {
+			if (currentMove.getFrom().getAbsoluteFile().equals(file.getAbsoluteFile()))
+				return true;
+		}
+		return false;
 	}
 
 	private String combineGenreList(List<Genre> genres) {
@@ -266,73 +289,55 @@ public class Renamer {
 		return genresString;
 	}
 
+	/**
+	 * @return the highest disc number from CD1 to CD14 in the file name, like " CD2" for "movie CD 2"; an empty string if there is none
+	 */
 	private String getAppendix() {
-		//TODO: make this method more flexible to check all the possible types of disc names
-		//(I already have a method somewhere else in this project which has a good regular expression to use)
-		String appendix = "";
-		boolean hasAppendix = filename.matches(".*CD\\s?1.*");
-		if (hasAppendix)
-			appendix = " CD1";
-		hasAppendix = filename.matches(".*CD\\s?2.*");
-		if (hasAppendix)
-			appendix = " CD2";
-		hasAppendix = filename.matches(".*CD\\s?3.*");
-		if (hasAppendix)
-			appendix = " CD3";
-		hasAppendix = filename.matches(".*CD\\s?4.*");
-		if (hasAppendix)
-			appendix = " CD4";
-		hasAppendix = filename.matches(".*CD\\s?5.*");
-		if (hasAppendix)
-			appendix = " CD5";
-		hasAppendix = filename.matches(".*CD\\s?6.*");
-		if (hasAppendix)
-			appendix = " CD6";
-		hasAppendix = filename.matches(".*CD\\s?7.*");
-		if (hasAppendix)
-			appendix = " CD7";
-		hasAppendix = filename.matches(".*CD\\s?8.*");
-		if (hasAppendix)
-			appendix = " CD8";
-		hasAppendix = filename.matches(".*CD\\s?9.*");
-		if (hasAppendix)
-			appendix = " CD9";
-		hasAppendix = filename.matches(".*CD\\s?10.*");
-		if (hasAppendix)
-			appendix = " CD10";
-		hasAppendix = filename.matches(".*CD\\s?11.*");
-		if (hasAppendix)
-			appendix = " CD11";
-		hasAppendix = filename.matches(".*CD\\s?12.*");
-		if (hasAppendix)
-			appendix = " CD12";
-		hasAppendix = filename.matches(".*CD\\s?13.*");
-		if (hasAppendix)
-			appendix = " CD13";
-		hasAppendix = filename.matches(".*CD\\s?14.*");
-		if (hasAppendix)
-			appendix = " CD14";
-		return appendix;
+		int highestDisc = 0;
+		for (int i = filename.indexOf("CD"); i >= 0; i = filename.indexOf("CD", i + 1)) {
+			int position = i + 2;
+			if (position < filename.length() && isWhitespace(filename.charAt(position)) && position + 1 < filename.length() && isDigit(filename.charAt(position + 1)))
+				position++;
+			if (position >= filename.length() || filename.charAt(position) < '1' || filename.charAt(position) > '9')
+				continue;
+			int disc = filename.charAt(position) - '0';
+			//CD1 is also found in CD10 to CD14, and those win
+			if (disc == 1 && position + 1 < filename.length() && filename.charAt(position + 1) >= '0' && filename.charAt(position + 1) <= '4')
+				disc = 10 + filename.charAt(position + 1) - '0';
+			highestDisc = Math.max(highestDisc, disc);
+		}
+		return highestDisc > 0 ? " CD" + highestDisc : "";
+	}
+
+	private static boolean isWhitespace(char character) {
+		return character == ' ' || character == '\t' || character == '\n' || character == '\u000B' || character == '\f' || character == '\r';
+	}
+
+	private static boolean isDigit(char character) {
+		return character >= '0' && character <= '9';
 	}
 
 	private String getPosterFanartTrailerEnder() {
-		String fileNameEnder = "";
-		boolean hasFileNameEnder = oldFile.getPath().matches(".*-poster[\\.].+");
-		if (hasFileNameEnder)
-			fileNameEnder = "-poster";
-		hasFileNameEnder = oldFile.getPath().matches(".*-trailer[\\.].+");
-		if (hasFileNameEnder)
-			fileNameEnder = "-trailer";
-		hasFileNameEnder = oldFile.getPath().matches(".*-fanart[\\.].+");
-		if (hasFileNameEnder)
-			fileNameEnder = "-fanart";
-
-		return fileNameEnder;
+		String oldPath = oldFile.getPath();
+		if (hasFileNameEnder(oldPath, "-fanart."))
+			return "-fanart";
+		if (hasFileNameEnder(oldPath, "-trailer."))
+			return "-trailer";
+		if (hasFileNameEnder(oldPath, "-poster."))
+			return "-poster";
+		return "";
+	}
+
+	/**
+	 * @return true if the ender is in the path with something after it
+	 */
+	private static boolean hasFileNameEnder(String path, String ender) {
+		int enderPosition = path.indexOf(ender);
+		return enderPosition >= 0 && enderPosition + ender.length() < path.length();
 	}
 
 	private String getSanitizedString(String fileName) {
-		final Pattern ILLEGAL_CHARACTERS = Pattern.compile(sanitizer);
-		String sanitizedFileName = ILLEGAL_CHARACTERS.matcher(fileName).replaceAll("").replaceAll("\\s+", " ").trim();
+		String sanitizedFileName = WHITESPACE.matcher(sanitizer.matcher(fileName).replaceAll("")).replaceAll(" ").trim();
 		return sanitizedFileName;
 	}
 
@@ -359,4 +364,54 @@ public class Renamer {
 	public void setOldFilename(File oldFile) {
 		this.oldFile = oldFile;
 	}
+
+	/**
+	 * A rename string like "<TITLE> [<ACTORS>]" compiled into its text and tags, so renaming a file doesn't search the whole string for every tag
+	 */
+	private static class RenameTemplate {
+		//texts[i] comes before tags[i], and the last text comes after the last tag
+		private final List<String> texts = new ArrayList<>();
+		private final List<String> tags = new ArrayList<>();
+
+		RenameTemplate(String template) {
+			StringBuilder text = new StringBuilder();
+			int position = 0;
+			while (position < template.length()) {
+				String tag = template.charAt(position) == '<' ? findTag(template, position) : null;
+				if (tag != null) {
+					texts.add(text.toString());
+					tags.add(tag);
+					text.setLength(0);
+					position += tag.length();
+				} else {
+					text.append(template.charAt(position));
+					position++;
+				}
+			}
+			texts.add(text.toString());
+		}
+
+		private static String findTag(String template, int position) {
+			for (String currentTag : availableFolderRenameTags) {
+				if (template.startsWith(currentTag, position))
+					return currentTag;
+			}
+			return null;
+		}
+
+		/**
+		 * @param tagValues - the value of each tag; a tag with a null value is removed
+		 */
+		String render(Map<String, String> tagValues) {
+			StringBuilder rendered = new StringBuilder();
+			for (int i = 0; i < tags.size(); i++) {
+				rendered.append(texts.get(i));
+				String tagValue = tagValues.get(tags.get(i));
+				if (tagValue != null)
+					rendered.append(tagValue);
+			}
+			rendered.append(texts.get(texts.size() - 1));
+			return rendered.toString();
+		}
+	}
 }
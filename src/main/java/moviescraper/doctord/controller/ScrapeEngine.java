@@ -0,0 +1,76 @@
+package moviescraper.doctord.controller;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the blocking scraping work behind the asynchronous API of {@link moviescraper.doctord.controller.siteparsingprofile.SiteParsingProfile}
+ * and {@link moviescraper.doctord.model.Movie}, so the GUI and the batch scraper share the same threads instead of each GUI scrape
+ * taking one of SwingWorker's 10 threads.
+ * Unlike CompletableFuture.supplyAsync, cancelling a returned future with cancel(true) interrupts the scrape if it is running.
+ */
+public class ScrapeEngine {
+
+	public static final int SCRAPE_THREADS = 32;
+	private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60;
+
+	private static ScrapeEngine instance;
+
+	private final ExecutorService executor;
+
+	private ScrapeEngine() {
+		AtomicInteger threadNumber = new AtomicInteger(1);
+		ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(SCRAPE_THREADS, SCRAPE_THREADS, IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+		        runnable -> {
+			        Thread thread = new Thread(runnable, "scrape-engine-" + threadNumber.getAndIncrement());
+			        thread.setDaemon(true);
+			        return thread;
+		        });
+		//threads are only kept around while there is scraping to do
+		threadPoolExecutor.allowCoreThreadTimeOut(true);
+		executor = threadPoolExecutor;
+	}
+
+	public static synchronized ScrapeEngine getInstance() {
+		if (instance == null) {
+			instance = new ScrapeEngine();
+		}
+		return instance;
+	}
+
+	/**
+	 * Runs the task on the engine's threads. Tasks should not wait on other tasks of the engine, since all its threads could be taken by waiting tasks.
+	 *
+	 * @return a future completed with the task's result, or exceptionally with what it threw
+	 */
+	public <T> CompletableFuture<T> submit(Callable<T> task) {
+		return submit(task, executor);
+	}
+
+	/**
+	 * Runs the task on the given executor, for callers which need their own limits like the batch scraper's per site pools
+	 *
+	 * @return a future completed with the task's result, or exceptionally with what it threw
+	 */
+	public static <T> CompletableFuture<T> submit(Callable<T> task, ExecutorService executor) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		Future<?> runningTask = executor.submit(() -> {
+			try {
+				result.complete(task.call());
+			} catch (Throwable t) {
+				result.completeExceptionally(t);
+			}
+		});
+		result.whenComplete((value, throwable) -> {
+			if (result.isCancelled())
+				runningTask.cancel(true);
+		});
+		return result;
+	}
+}
@@ -12,6 +12,7 @@ import org.apache.commons.io.FileExistsException;
 import org.apache.commons.io.FileUtils;
 
 import moviescraper.doctord.model.Movie;
+import moviescraper.doctord.model.catalog.MovieCatalog;
 import moviescraper.doctord.model.preferences.MoviescraperPreferences;
 import moviescraper.doctord.view.GUIMain;
 
@@ -97,17 +98,28 @@ public class WriteFileDataAction implements ActionListener {
 									System.out.println("A file or directory already exists at " + newMovieFile + " - skipping overwrite or creation of new folder.");
 								}
 
-								guiMain.movieToWriteToDiskList.get(movieNumberInList).writeToFile(new File(Movie.getFileNameOfNfo(newMovieFile, guiMain.getPreferences().getNfoNamedMovieDotNfo())),
-								        new File(Movie.getFileNameOfPoster(newMovieFile, guiMain.getPreferences().getNoMovieNameInImageFiles())),
-								        new File(Movie.getFileNameOfFanart(newMovieFile, guiMain.getPreferences().getNoMovieNameInImageFiles())), new File(Movie.getFileNameOfFolderJpg(newMovieFile)),
-								        new File(Movie.getFileNameOfExtraFanartFolderName(newMovieFile)), new File(Movie.getFileNameOfTrailer(newMovieFile)), guiMain.getPreferences());
+								File nfoFile = new File(Movie.getFileNameOfNfo(newMovieFile, guiMain.getPreferences().getNfoNamedMovieDotNfo()));
+								File posterFile = new File(Movie.getFileNameOfPoster(newMovieFile, guiMain.getPreferences().getNoMovieNameInImageFiles()));
+								File fanartFile = new File(Movie.getFileNameOfFanart(newMovieFile, guiMain.getPreferences().getNoMovieNameInImageFiles()));
+								File folderJpgFile = new File(Movie.getFileNameOfFolderJpg(newMovieFile));
+								File extraFanartFolder = new File(Movie.getFileNameOfExtraFanartFolderName(newMovieFile));
+								File trailerFile = new File(Movie.getFileNameOfTrailer(newMovieFile));
+								movie.writeToFile(nfoFile, posterFile, fanartFile, folderJpgFile, extraFanartFolder, trailerFile, guiMain.getPreferences());
+								MovieCatalog.getInstance().record(newMovieFile, movie, nfoFile, posterFile, fanartFile, folderJpgFile, extraFanartFolder, trailerFile);
+								if (!newMovieFile.getAbsoluteFile().equals(oldMovieFile.getAbsoluteFile()))
+									MovieCatalog.getInstance().remove(oldMovieFile);
 							} else {
 								//save without renaming movie
-								guiMain.movieToWriteToDiskList.get(movieNumberInList).writeToFile(guiMain.getCurrentlySelectedNfoFileList().get(movieNumberInList),
-								        guiMain.getCurrentlySelectedPosterFileList().get(movieNumberInList), guiMain.getCurrentlySelectedFanartFileList().get(movieNumberInList),
-								        guiMain.getCurrentlySelectedFolderJpgFileList().get(movieNumberInList),
-								        new File(Movie.getFileNameOfExtraFanartFolderName(guiMain.getCurrentlySelectedMovieFileList().get(movieNumberInList))),
-								        new File(Movie.getFileNameOfTrailer(guiMain.getCurrentlySelectedMovieFileList().get(movieNumberInList))), guiMain.getPreferences());
+								File movieFile = guiMain.getCurrentlySelectedMovieFileList().get(movieNumberInList);
+								File nfoFile = guiMain.getCurrentlySelectedNfoFileList().get(movieNumberInList);
+								File posterFile = guiMain.getCurrentlySelectedPosterFileList().get(movieNumberInList);
+								File fanartFile = guiMain.getCurrentlySelectedFanartFileList().get(movieNumberInList);
+								File folderJpgFile = guiMain.getCurrentlySelectedFolderJpgFileList().get(movieNumberInList);
+								File extraFanartFolder = new File(Movie.getFileNameOfExtraFanartFolderName(movieFile));
+								File trailerFile = new File(Movie.getFileNameOfTrailer(movieFile));
+								Movie movie = guiMain.movieToWriteToDiskList.get(movieNumberInList);
+								movie.writeToFile(nfoFile, posterFile, fanartFile, folderJpgFile, extraFanartFolder, trailerFile, guiMain.getPreferences());
+								MovieCatalog.getInstance().record(movieFile, movie, nfoFile, posterFile, fanartFile, folderJpgFile, extraFanartFolder, trailerFile);
 							}
 
 							//we can only output extra fanart if we're scraping a folder, because otherwise the extra fanart will get mixed in with other files
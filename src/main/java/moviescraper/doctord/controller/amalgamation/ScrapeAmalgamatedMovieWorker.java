@@ -1,14 +1,19 @@
 package moviescraper.doctord.controller.amalgamation;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javax.swing.SwingUtilities;
 import javax.swing.SwingWorker;
 
+import moviescraper.doctord.controller.ScrapeEngine;
 import moviescraper.doctord.controller.siteparsingprofile.SiteParsingProfile;
 import moviescraper.doctord.controller.siteparsingprofile.SiteParsingProfile.ScraperGroupName;
 import moviescraper.doctord.model.Movie;
@@ -26,7 +31,7 @@ public class ScrapeAmalgamatedMovieWorker extends SwingWorker<Void, Map<SitePars
 	private List<Map<SiteParsingProfile, Movie>> currentPublishedMovies;
 	int numberOfScrapesToRun = 0;
 	int numberOfScrapesFinished = 0;
-	private Map<String, SwingWorker<Void, Void>> runningWorkers;
+	private Map<String, CompletableFuture<Movie>> runningWorkers;
 	private File fileToScrape;
 
 	private AllAmalgamationOrderingPreferences allAmalgamationOrderingPreferences;
@@ -41,7 +46,7 @@ public class ScrapeAmalgamatedMovieWorker extends SwingWorker<Void, Map<SitePars
 	 */
 	public ScrapeAmalgamatedMovieWorker(AllAmalgamationOrderingPreferences allAmalgamationOrderingPreferences, ScraperGroupAmalgamationPreference scraperGroupAmalgamationPreference, File fileToScrape,
 	        ScrapeAmalgamatedProgressDialog parent) {
-		runningWorkers = new HashMap<>();
+		runningWorkers = new ConcurrentHashMap<>();
 		progress = 0;
 		amountOfProgressPerSubtask = 0;
 		scrapeCanceled = false;
@@ -51,13 +56,13 @@ public class ScrapeAmalgamatedMovieWorker extends SwingWorker<Void, Map<SitePars
 		this.allAmalgamationOrderingPreferences = allAmalgamationOrderingPreferences;
 	}
 
-	SwingWorker<Void, Void> getWorkerByScraperName(SiteParsingProfile scraper) {
-		SwingWorker<Void, Void> worker = runningWorkers.get(scraper.getDataItemSourceName());
+	CompletableFuture<Movie> getWorkerByScraperName(SiteParsingProfile scraper) {
+		CompletableFuture<Movie> worker = runningWorkers.get(scraper.getDataItemSourceName());
 		return worker;
 	}
 
 	public void cancelRunningScraper(SiteParsingProfile scraper) {
-		SwingWorker<Void, Void> scraperToCancel = runningWorkers.get(scraper.getDataItemSourceName());
+		CompletableFuture<Movie> scraperToCancel = runningWorkers.get(scraper.getDataItemSourceName());
 		if (scraperToCancel != null) {
 			System.out.println("Canceling " + scraper + " + thread.");
 			boolean wasThreadCanceled = scraperToCancel.cancel(true);
@@ -68,7 +73,7 @@ public class ScrapeAmalgamatedMovieWorker extends SwingWorker<Void, Map<SitePars
 	}
 
 	public void cancelAllRunningScrapers() {
-		for (SwingWorker<Void, Void> currentWorker : runningWorkers.values()) {
+		for (CompletableFuture<Movie> currentWorker : runningWorkers.values()) {
 			if (currentWorker != null) {
 				System.out.println("Canceling " + currentWorker);
 				currentWorker.cancel(true);
@@ -166,43 +171,33 @@ public class ScrapeAmalgamatedMovieWorker extends SwingWorker<Void, Map<SitePars
 
 			System.out.println(fileToScrapeFinal);
 
-			SwingWorker<Void, Void> scraperWorker = new SwingWorker<Void, Void>() {
-				Movie returnMovie;
-
-				@Override
-				protected Void doInBackground() throws Exception {
-					try {
-						//delegate back to the parent, if we have one, to override the URL we are going to scrape with a custom URL provided by the user.
-						boolean customURLSet = false;
-						if (parent != null) {
-							customURLSet = parent.showPromptForUserProvidedURL(siteScraper, fileToScrapeFinal);
-						}
-						returnMovie = Movie.scrapeMovie(fileToScrapeFinal, siteScraper, "", customURLSet);
-
-						return null;
-					} catch (IOException e) {
-						// TODO Auto-generated catch block
-						e.printStackTrace();
-					}
-					return null;
+			//the scrape runs on the shared scrape engine, the result is handed back on the event dispatch thread like a SwingWorker's done()
+			CompletableFuture<Movie> scraperWorker = ScrapeEngine.getInstance().submit(() -> {
+				//delegate back to the parent, if we have one, to override the URL we are going to scrape with a custom URL provided by the user.
+				boolean customURLSet = false;
+				if (parent != null) {
+					customURLSet = parent.showPromptForUserProvidedURL(siteScraper, fileToScrapeFinal);
 				}
-
-				@Override
-				protected void done() {
-
+				return Movie.scrapeMovie(fileToScrapeFinal, siteScraper, "", customURLSet);
+			});
+			self.runningWorkers.put(scraper.getDataItemSourceName(), scraperWorker);
+			scraperWorker.whenComplete((returnMovie, throwable) -> {
+				if (throwable instanceof CompletionException)
+					throwable = throwable.getCause();
+				if (throwable != null && !(throwable instanceof CancellationException))
+					throwable.printStackTrace();
+				Movie scrapedMovie = throwable == null ? returnMovie : null;
+				SwingUtilities.invokeLater(() -> {
 					self.numberOfScrapesFinished++;
-					//System.out.println("Movie scraped = " + returnMovie);
 					Map<SiteParsingProfile, Movie> resultToPublish = new HashMap<>();
-					resultToPublish.put(siteScraper, returnMovie);
+					resultToPublish.put(siteScraper, scrapedMovie);
 					self.publish(resultToPublish);
 					self.progress = amtOfProgressFinal + self.progress;
 					self.setProgress(self.progress);
 					System.out.println("Scraping complete of siteScraper = " + siteScraper);
-					self.runningWorkers.remove(siteScraper);
-				}
-			};
-			self.runningWorkers.put(scraper.getDataItemSourceName(), scraperWorker);
-			scraperWorker.execute();
+					self.runningWorkers.remove(siteScraper.getDataItemSourceName(), scraperWorker);
+				});
+			});
 		}
 
 		// failIfInterrupted();
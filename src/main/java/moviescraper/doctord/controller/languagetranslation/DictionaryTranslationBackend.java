@@ -0,0 +1,38 @@
+package moviescraper.doctord.controller.languagetranslation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates from a fixed dictionary without going online. Used for tests and for running offline.
+ * Strings which are not in the dictionary are returned unchanged.
+ */
+public class DictionaryTranslationBackend implements TranslationBackend {
+
+	private final Map<String, String> dictionary;
+	private int translateCallCount;
+
+	public DictionaryTranslationBackend(Map<String, String> dictionary) {
+		this.dictionary = new HashMap<>(dictionary);
+	}
+
+	@Override
+	public synchronized List<String> translate(List<String> japaneseStrings) {
+		translateCallCount++;
+		List<String> translations = new ArrayList<>(japaneseStrings.size());
+		for (String currentString : japaneseStrings) {
+			String translation = dictionary.get(currentString);
+			translations.add(translation != null ? translation : currentString);
+		}
+		return translations;
+	}
+
+	/**
+	 * @return how many times translate() was called, i.e. how many requests an online backend would have made
+	 */
+	public synchronized int getTranslateCallCount() {
+		return translateCallCount;
+	}
+}
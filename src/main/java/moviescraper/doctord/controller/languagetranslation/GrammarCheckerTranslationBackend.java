@@ -0,0 +1,96 @@
+package moviescraper.doctord.controller.languagetranslation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+
+import moviescraper.doctord.controller.siteparsingprofile.SiteParsingProfile;
+import moviescraper.doctord.scraper.HttpTransport;
+
+/**
+ * Translates using grammarchecker.net. Several strings are sent in one request, one per line, and the translated
+ * lines are matched back up with the strings. If the site merges or splits lines so they no longer match up,
+ * the strings of that request are translated one at a time instead.
+ */
+public class GrammarCheckerTranslationBackend implements TranslationBackend {
+
+	//stay well under the length the site accepts in one request
+	private static final int MAX_REQUEST_LENGTH = 4000;
+
+	@Override
+	public List<String> translate(List<String> japaneseStrings) throws IOException {
+		List<String> translations = new ArrayList<>(japaneseStrings.size());
+		List<String> currentRequest = new ArrayList<>();
+		int currentRequestLength = 0;
+		for (String currentString : japaneseStrings) {
+			String singleLine = currentString.replaceAll("[\\r\\n]+", " ");
+			if (!currentRequest.isEmpty() && currentRequestLength + singleLine.length() + 1 > MAX_REQUEST_LENGTH) {
+				translations.addAll(translateLines(currentRequest));
+				currentRequest.clear();
+				currentRequestLength = 0;
+			}
+			currentRequest.add(singleLine);
+			currentRequestLength += singleLine.length() + 1;
+		}
+		if (!currentRequest.isEmpty())
+			translations.addAll(translateLines(currentRequest));
+		return translations;
+	}
+
+	private List<String> translateLines(List<String> lines) throws IOException {
+		String translatedText = post(String.join("\n", lines));
+		String[] translatedLines = translatedText.split("\\r?\\n");
+		List<String> translations = new ArrayList<>(lines.size());
+		if (translatedLines.length == lines.size()) {
+			for (String currentLine : translatedLines)
+				translations.add(currentLine.trim());
+		} else if (lines.size() == 1) {
+			translations.add(translatedText.replaceAll("\\s*\\r?\\n\\s*", " ").trim());
+		} else {
+			System.err.println("Translation of " + lines.size() + " lines came back as " + translatedLines.length + " lines, translating them one at a time");
+			for (String currentLine : lines)
+				translations.add(post(currentLine).trim());
+		}
+		return translations;
+	}
+
+	private static String post(String japaneseText) throws IOException {
+		Map<String, String> data = new HashMap<>();
+		data.put("text", japaneseText);
+		data.put("lang_from", "ja");
+		data.put("resulsts", "");
+		data.put("lang", "en");
+		Document doc = HttpTransport.connect("https://grammarchecker.net/translate/ajax.php").referrer("https://grammarchecker.net/translate/")
+		        .userAgent("Mozilla/5.0 (Windows NT 6.1; WOW64; rv:5.0) Gecko/20100101 Firefox/5.0").timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).data(data).post();
+		Element resultsElement = doc.select("#results").first();
+		if (resultsElement == null)
+			throw new IOException("No translation in the response");
+		StringBuilder translatedText = new StringBuilder();
+		appendTextKeepingLineBreaks(resultsElement, translatedText);
+		return translatedText.toString().trim();
+	}
+
+	/**
+	 * Like Element.text(), but keeps the line breaks which separate the strings of a batch
+	 */
+	private static void appendTextKeepingLineBreaks(Element element, StringBuilder text) {
+		for (Node childNode : element.childNodes()) {
+			if (childNode instanceof TextNode) {
+				text.append(((TextNode) childNode).getWholeText().replaceAll("[ \\t]+", " "));
+			} else if (childNode instanceof Element) {
+				Element childElement = (Element) childNode;
+				if (childElement.tagName().equals("br"))
+					text.append('\n');
+				else
+					appendTextKeepingLineBreaks(childElement, text);
+			}
+		}
+	}
+}
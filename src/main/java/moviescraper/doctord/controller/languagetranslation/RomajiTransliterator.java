@@ -0,0 +1,212 @@
+package moviescraper.doctord.controller.languagetranslation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * Writes Japanese person names in romaji (Hepburn) without going online.
+ * Kana are looked up in a trie holding every kana and kana combination like きゃ or ファ, so combinations come out as "kya" and "fa"
+ * rather than "kiya" and "fua". Kanji are looked up in a dictionary of name readings read from {@link #kanjiNameReadingsFile};
+ * a name with kanji which are not in the dictionary cannot be transliterated.
+ * Both tables are built once, and transliterating a name only allocates its output.
+ */
+public class RomajiTransliterator {
+
+	private static final String kanjiNameReadingsFile = "/res/languagetranslation/KanjiNameReadings.csv";
+	private static final char SMALL_TSU = 'っ';
+	private static final char LONG_VOWEL_MARK = 'ー';
+
+	private static RomajiTransliterator instance;
+
+	private final TransliterationTrie kanaTrie;
+	private final TransliterationTrie kanjiNameTrie;
+
+	private static final String[][] kanaRomaji = {
+	        //single kana
+	        { "あ", "a" }, { "い", "i" }, { "う", "u" }, { "え", "e" }, { "お", "o" }, { "ぁ", "a" }, { "ぃ", "i" }, { "ぅ", "u" }, { "ぇ", "e" }, { "ぉ", "o" },
+	        { "か", "ka" }, { "き", "ki" }, { "く", "ku" }, { "け", "ke" }, { "こ", "ko" }, { "が", "ga" }, { "ぎ", "gi" }, { "ぐ", "gu" }, { "げ", "ge" }, { "ご", "go" },
+	        { "さ", "sa" }, { "し", "shi" }, { "す", "su" }, { "せ", "se" }, { "そ", "so" }, { "ざ", "za" }, { "じ", "ji" }, { "ず", "zu" }, { "ぜ", "ze" }, { "ぞ", "zo" },
+	        { "た", "ta" }, { "ち", "chi" }, { "つ", "tsu" }, { "て", "te" }, { "と", "to" }, { "だ", "da" }, { "ぢ", "ji" }, { "づ", "zu" }, { "で", "de" }, { "ど", "do" },
+	        { "な", "na" }, { "に", "ni" }, { "ぬ", "nu" }, { "ね", "ne" }, { "の", "no" },
+	        { "は", "ha" }, { "ひ", "hi" }, { "ふ", "fu" }, { "へ", "he" }, { "ほ", "ho" }, { "ば", "ba" }, { "び", "bi" }, { "ぶ", "bu" }, { "べ", "be" }, { "ぼ", "bo" },
+	        { "ぱ", "pa" }, { "ぴ", "pi" }, { "ぷ", "pu" }, { "ぺ", "pe" }, { "ぽ", "po" },
+	        { "ま", "ma" }, { "み", "mi" }, { "む", "mu" }, { "め", "me" }, { "も", "mo" },
+	        { "や", "ya" }, { "ゆ", "yu" }, { "よ", "yo" }, { "ゃ", "ya" }, { "ゅ", "yu" }, { "ょ", "yo" },
+	        { "ら", "ra" }, { "り", "ri" }, { "る", "ru" }, { "れ", "re" }, { "ろ", "ro" },
+	        { "わ", "wa" }, { "ゎ", "wa" }, { "ゐ", "i" }, { "ゑ", "e" }, { "を", "o" }, { "ん", "n" }, { "ゔ", "vu" }, { "ゕ", "ka" }, { "ゖ", "ke" },
+	        //combinations with a small ya, yu or yo
+	        { "きゃ", "kya" }, { "きゅ", "kyu" }, { "きょ", "kyo" }, { "ぎゃ", "gya" }, { "ぎゅ", "gyu" }, { "ぎょ", "gyo" },
+	        { "しゃ", "sha" }, { "しゅ", "shu" }, { "しょ", "sho" }, { "じゃ", "ja" }, { "じゅ", "ju" }, { "じょ", "jo" },
+	        { "ちゃ", "cha" }, { "ちゅ", "chu" }, { "ちょ", "cho" }, { "ぢゃ", "ja" }, { "ぢゅ", "ju" }, { "ぢょ", "jo" },
+	        { "にゃ", "nya" }, { "にゅ", "nyu" }, { "にょ", "nyo" }, { "ひゃ", "hya" }, { "ひゅ", "hyu" }, { "ひょ", "hyo" },
+	        { "びゃ", "bya" }, { "びゅ", "byu" }, { "びょ", "byo" }, { "ぴゃ", "pya" }, { "ぴゅ", "pyu" }, { "ぴょ", "pyo" },
+	        { "みゃ", "mya" }, { "みゅ", "myu" }, { "みょ", "myo" }, { "りゃ", "rya" }, { "りゅ", "ryu" }, { "りょ", "ryo" },
+	        //combinations used to write foreign sounds, mostly in katakana
+	        { "しぇ", "she" }, { "じぇ", "je" }, { "ちぇ", "che" }, { "いぇ", "ye" },
+	        { "ふぁ", "fa" }, { "ふぃ", "fi" }, { "ふぇ", "fe" }, { "ふぉ", "fo" }, { "ふゅ", "fyu" },
+	        { "てぃ", "ti" }, { "でぃ", "di" }, { "とぅ", "tu" }, { "どぅ", "du" }, { "てゅ", "tyu" }, { "でゅ", "dyu" },
+	        { "うぃ", "wi" }, { "うぇ", "we" }, { "うぉ", "wo" }, { "つぁ", "tsa" }, { "つぃ", "tsi" }, { "つぇ", "tse" }, { "つぉ", "tso" },
+	        { "ゔぁ", "va" }, { "ゔぃ", "vi" }, { "ゔぇ", "ve" }, { "ゔぉ", "vo" }, { "くぁ", "kwa" }, { "ぐぁ", "gwa" },
+	        //katakana without a hiragana equivalent
+	        { "ヷ", "va" }, { "ヸ", "vi" }, { "ヹ", "ve" }, { "ヺ", "vo" } };
+
+	private RomajiTransliterator() {
+		kanaTrie = new TransliterationTrie();
+		for (String[] currentKana : kanaRomaji) {
+			kanaTrie.put(currentKana[0], currentKana[1]);
+		}
+		kanaTrie.compile();
+
+		kanjiNameTrie = new TransliterationTrie();
+		try {
+			for (CSVRecord currentRecord : readKanjiNameReadings()) {
+				if (currentRecord.size() < 2)
+					continue;
+				String reading = transliterateKana(currentRecord.get(1).trim());
+				if (reading != null)
+					kanjiNameTrie.put(currentRecord.get(0).trim(), reading);
+			}
+		} catch (IOException | RuntimeException e) {
+			System.err.println("Could not read kanji name readings from " + kanjiNameReadingsFile + ": " + e.getMessage());
+		}
+		kanjiNameTrie.compile();
+	}
+
+	public static synchronized RomajiTransliterator getInstance() {
+		if (instance == null) {
+			instance = new RomajiTransliterator();
+		}
+		return instance;
+	}
+
+	private static Iterable<CSVRecord> readKanjiNameReadings() throws IOException {
+		CSVFormat format = CSVFormat.RFC4180.withDelimiter(',').withCommentMarker('#');
+		try (InputStream inputStream = RomajiTransliterator.class.getResourceAsStream(kanjiNameReadingsFile);
+		        CSVParser parser = new CSVParser(new InputStreamReader(inputStream, StandardCharsets.UTF_8), format);) {
+			return parser.getRecords();
+		}
+	}
+
+	/**
+	 * @param japaneseName - a name written in kana, kanji from the name dictionary or a mix of both
+	 * @return the name in romaji with each word capitalized, or null if it contains kanji which are not in the name dictionary
+	 */
+	public String transliterate(String japaneseName) {
+		return transliterate(japaneseName, true);
+	}
+
+	private String transliterateKana(String kana) {
+		return transliterate(kana, false);
+	}
+
+	private String transliterate(String japaneseName, boolean capitalize) {
+		char[] text = toHiragana(japaneseName);
+		StringBuilder romaji = new StringBuilder(text.length * 3);
+		boolean doubleNextConsonant = false;
+		boolean startOfWord = true;
+		boolean lastWasKanji = false;
+		int i = 0;
+		while (i < text.length) {
+			char currentChar = text[i];
+			boolean isKana = currentChar >= 'ぁ' && currentChar <= 'ヺ';
+			if (currentChar == SMALL_TSU) {
+				doubleNextConsonant = true;
+				i++;
+				continue;
+			}
+			if (currentChar == LONG_VOWEL_MARK) {
+				if (romaji.length() > 0 && isVowel(romaji.charAt(romaji.length() - 1)))
+					romaji.append(Character.toLowerCase(romaji.charAt(romaji.length() - 1)));
+				i++;
+				continue;
+			}
+			if (!isKana && isWordSeparator(currentChar)) {
+				endWord(romaji);
+				startOfWord = true;
+				doubleNextConsonant = false;
+				i++;
+				continue;
+			}
+
+			boolean isKanji = !isKana && JapaneseCharacter.isKanji(currentChar);
+			int node = isKanji ? kanjiNameTrie.findLongest(text, i) : kanaTrie.findLongest(text, i);
+			if (node < 0) {
+				if (isKanji)
+					return null;
+				romaji.append(currentChar);
+				startOfWord = false;
+				doubleNextConsonant = false;
+				i++;
+				continue;
+			}
+			//each dictionary name is its own word, and so is kana following a name
+			if (isKanji || lastWasKanji) {
+				endWord(romaji);
+				startOfWord = true;
+			}
+			String syllable = (isKanji ? kanjiNameTrie : kanaTrie).valueOf(node);
+			int syllableStart = romaji.length();
+			if (doubleNextConsonant && !isVowel(syllable.charAt(0)) && syllable.charAt(0) != 'n')
+				romaji.append(syllable.startsWith("ch") ? 't' : syllable.charAt(0));
+			romaji.append(syllable);
+			if (capitalize && startOfWord)
+				romaji.setCharAt(syllableStart, Character.toUpperCase(romaji.charAt(syllableStart)));
+			startOfWord = false;
+			doubleNextConsonant = false;
+			lastWasKanji = isKanji;
+			i += (isKanji ? kanjiNameTrie : kanaTrie).lengthOf(node);
+		}
+		int end = romaji.length();
+		while (end > 0 && romaji.charAt(end - 1) == ' ')
+			end--;
+		romaji.setLength(end);
+		return romaji.toString();
+	}
+
+	/**
+	 * @return the name with katakana changed to hiragana, so one table covers both
+	 */
+	private static char[] toHiragana(String japaneseName) {
+		char[] text = japaneseName.toCharArray();
+		for (int i = 0; i < text.length; i++) {
+			char currentChar = text[i];
+			//ァ to ヶ have hiragana equivalents at the same position in the hiragana block
+			if (currentChar >= 'ァ' && currentChar <= 'ヶ') {
+				text[i] = (char) (currentChar - 0x60);
+			} else if (currentChar >= 'ｦ' && currentChar <= 'ﾟ') {
+				//combines half width katakana and their separate voicing marks into full width katakana, then starts over
+				return toHiragana(Normalizer.normalize(japaneseName, Normalizer.Form.NFKC));
+			}
+		}
+		return text;
+	}
+
+	private static void endWord(StringBuilder romaji) {
+		if (romaji.length() > 0 && romaji.charAt(romaji.length() - 1) != ' ')
+			romaji.append(' ');
+	}
+
+	private static boolean isWordSeparator(char c) {
+		return Character.isWhitespace(c) || c == '　' || c == '・' || c == '･';
+	}
+
+	private static boolean isVowel(char c) {
+		switch (Character.toLowerCase(c)) {
+			case 'a':
+			case 'i':
+			case 'u':
+			case 'e':
+			case 'o':
+				return true;
+			default:
+				return false;
+		}
+	}
+}
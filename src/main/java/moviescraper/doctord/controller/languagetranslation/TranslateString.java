@@ -1,49 +1,34 @@
 package moviescraper.doctord.controller.languagetranslation;
 
-import java.io.IOException;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.Map;
 
-import moviescraper.doctord.controller.siteparsingprofile.SiteParsingProfile;
-
-import org.apache.commons.lang3.text.WordUtils;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-
 public class TranslateString {
 	/**
-	 * @param japanesePersonName - Name of the person to translate. Method works best if the name is hiragana or katakana
+	 * @param japanesePersonName - Name of the person to translate. Method works best if the name is kana or the kanji are in the name dictionary
 	 * @return The name of person in Romaji
 	 */
 	public static String translateJapanesePersonNameToRomaji(String japanesePersonName) {
-		//if we have any kanji at all in the string, we'll have to use google translate
-		for (int i = 0; i < japanesePersonName.length(); i++) {
-			if (JapaneseCharacter.isKanji(japanesePersonName.charAt(i)))
-				return translateStringJapaneseToEnglish(japanesePersonName);
-		}
-		String romaji = JapaneseCharacter.convertToRomaji(japanesePersonName);
+		//names with kanji we don't know the reading of need an online translation
+		String romaji = RomajiTransliterator.getInstance().transliterate(japanesePersonName);
 		if (romaji != null) {
-			romaji = WordUtils.capitalize(romaji).trim();
-			return romaji;
+			return romaji.trim();
 		} else
 			return translateStringJapaneseToEnglish(japanesePersonName);
 	}
 
 	public static String translateStringJapaneseToEnglish(String japaneseKanjiString) {
-		StringBuilder englishStringBuilder = new StringBuilder();
-		try {
-			Map<String, String> data = new HashMap<>();
-			data.put("text", japaneseKanjiString);
-			data.put("lang_from", "ja");
-			data.put("resulsts", "");
-			data.put("lang", "en");
-			Document doc = Jsoup.connect("https://grammarchecker.net/translate/ajax.php").referrer("https://grammarchecker.net/translate/")
-			        .userAgent("Mozilla/5.0 (Windows NT 6.1; WOW64; rv:5.0) Gecko/20100101 Firefox/5.0").timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).data(data).post();
-			englishStringBuilder.append(doc.select("#results").first().text());
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		return englishStringBuilder.toString(); //return a blank translation in case of error for now
+		return TranslationService.getInstance().translate(japaneseKanjiString);
+	}
+
+	/**
+	 * Translates all the strings with as few requests as possible. Scrapers can call this with every string they will
+	 * translate for a movie up front, so the later calls to {@link #translateStringJapaneseToEnglish(String)} are answered
+	 * from the translation memory.
+	 *
+	 * @return each string mapped to its translation, which is blank if it could not be translated
+	 */
+	public static Map<String, String> translateStringsJapaneseToEnglish(Collection<String> japaneseStrings) {
+		return TranslationService.getInstance().translateAll(japaneseStrings);
 	}
 }
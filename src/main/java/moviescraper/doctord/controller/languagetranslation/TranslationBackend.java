@@ -0,0 +1,17 @@
+package moviescraper.doctord.controller.languagetranslation;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Something which can translate Japanese text to English, like an online translation site or a local dictionary
+ */
+public interface TranslationBackend {
+
+	/**
+	 * @param japaneseStrings - the strings to translate, all of which should be sent together if the backend allows it
+	 * @return the translations, in the same order as japaneseStrings. A string the backend could not translate is returned as an empty string.
+	 * @throws IOException if the backend could not be reached
+	 */
+	List<String> translate(List<String> japaneseStrings) throws IOException;
+}
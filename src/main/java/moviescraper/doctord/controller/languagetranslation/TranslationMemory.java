@@ -0,0 +1,123 @@
+package moviescraper.doctord.controller.languagetranslation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import moviescraper.doctord.controller.FileDownloaderUtilities;
+
+/**
+ * Remembers translations which were already done, so repeated strings like genres and studios are only translated once.
+ * Holds at most a fixed number of entries, dropping the least recently used ones first, and is saved to a file
+ * so it is kept between runs.
+ */
+public class TranslationMemory {
+
+	public static final int DEFAULT_MAX_ENTRIES = 50000;
+
+	private final File file;
+	private final LinkedHashMap<String, String> translations;
+	private boolean loaded;
+	private int unsavedChanges;
+
+	/**
+	 * @param file - where the translations are saved, or null to keep them in memory only
+	 * @param maxEntries - number of translations above which the least recently used ones are dropped
+	 */
+	public TranslationMemory(File file, int maxEntries) {
+		this.file = file;
+		this.translations = new LinkedHashMap<String, String>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * @return the remembered translation or null if the string was not translated before
+	 */
+	public synchronized String get(String japaneseString) {
+		loadIfNeeded();
+		return translations.get(japaneseString);
+	}
+
+	public synchronized void put(String japaneseString, String translation) {
+		loadIfNeeded();
+		translations.put(japaneseString, translation);
+		unsavedChanges++;
+	}
+
+	public synchronized int size() {
+		loadIfNeeded();
+		return translations.size();
+	}
+
+	public synchronized void clear() {
+		loaded = true;
+		translations.clear();
+		save();
+	}
+
+	/**
+	 * Saves the translations if at least minimumChanges translations were added since they were last saved
+	 */
+	public synchronized void saveIfChanged(int minimumChanges) {
+		if (unsavedChanges > 0 && unsavedChanges >= minimumChanges)
+			save();
+	}
+
+	/**
+	 * Writes the translations to the file. How recently each one was used is not saved.
+	 */
+	public synchronized void save() {
+		unsavedChanges = 0;
+		if (file == null)
+			return;
+		Properties properties = new Properties();
+		for (Map.Entry<String, String> currentTranslation : translations.entrySet()) {
+			properties.put(currentTranslation.getKey(), currentTranslation.getValue());
+		}
+		File temporaryFile = new File(file.getPath() + ".tmp");
+		try {
+			File parentDirectory = file.getAbsoluteFile().getParentFile();
+			if (parentDirectory != null)
+				parentDirectory.mkdirs();
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(temporaryFile), StandardCharsets.UTF_8)) {
+				properties.store(writer, "Japanese to English translations");
+			}
+			FileDownloaderUtilities.moveAtomically(temporaryFile, file);
+		} catch (IOException e) {
+			System.err.println("Could not save translations to " + file + ": " + e.getMessage());
+			temporaryFile.delete();
+		}
+	}
+
+	private void loadIfNeeded() {
+		if (loaded)
+			return;
+		loaded = true;
+		if (file == null || !file.exists())
+			return;
+		Properties properties = new Properties();
+		try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+			properties.load(reader);
+			for (String currentKey : properties.stringPropertyNames()) {
+				translations.put(currentKey, properties.getProperty(currentKey));
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			System.err.println("Could not read translations from " + file + ": " + e.getMessage());
+		}
+	}
+}
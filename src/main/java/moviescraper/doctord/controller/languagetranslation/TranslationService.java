@@ -0,0 +1,135 @@
+package moviescraper.doctord.controller.languagetranslation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Translates Japanese strings to English through a {@link TranslationBackend}, remembering every translation in a {@link TranslationMemory}.
+ * All the strings of one call which were not translated before are sent to the backend together, so a scraper can translate
+ * everything it needs for a movie with a single request. A string which another thread is already translating is not sent again;
+ * the call waits for that translation instead.
+ */
+public class TranslationService {
+
+	private static final String memoryFileName = "cache" + File.separator + "translations.properties";
+	//how many new translations to collect before the memory is written to disk; whatever is left is written on exit
+	private static final int SAVE_AFTER_CHANGES = 50;
+
+	private static TranslationService instance;
+
+	private final TranslationMemory memory;
+	private final Map<String, CompletableFuture<String>> translationsInProgress = new ConcurrentHashMap<>();
+	private volatile TranslationBackend backend;
+	private int backendRequestCount;
+
+	public TranslationService(TranslationBackend backend, TranslationMemory memory) {
+		this.backend = backend;
+		this.memory = memory;
+	}
+
+	public static synchronized TranslationService getInstance() {
+		if (instance == null) {
+			TranslationMemory memory = new TranslationMemory(new File(memoryFileName), TranslationMemory.DEFAULT_MAX_ENTRIES);
+			instance = new TranslationService(new GrammarCheckerTranslationBackend(), memory);
+			Runtime.getRuntime().addShutdownHook(new Thread(memory::save, "translation-memory-save"));
+		}
+		return instance;
+	}
+
+	/**
+	 * @param backend - the backend used from now on, for example a {@link DictionaryTranslationBackend} to work offline
+	 */
+	public void setBackend(TranslationBackend backend) {
+		this.backend = backend;
+	}
+
+	public TranslationMemory getMemory() {
+		return memory;
+	}
+
+	/**
+	 * @return how many times the backend was asked to translate something
+	 */
+	public synchronized int getBackendRequestCount() {
+		return backendRequestCount;
+	}
+
+	/**
+	 * @return the English translation, or an empty string if it could not be translated
+	 */
+	public String translate(String japaneseString) {
+		return translateAll(Collections.singletonList(japaneseString)).getOrDefault(japaneseString, "");
+	}
+
+	/**
+	 * Translates the strings, sending the ones which were not translated before to the backend in one batch
+	 *
+	 * @param japaneseStrings - the strings to translate. Duplicates are only translated once.
+	 * @return each string mapped to its translation, which is an empty string if it could not be translated
+	 */
+	public Map<String, String> translateAll(Collection<String> japaneseStrings) {
+		Map<String, String> translations = new LinkedHashMap<>();
+		Map<String, CompletableFuture<String>> translatingHere = new LinkedHashMap<>();
+		Map<String, CompletableFuture<String>> translatingElsewhere = new LinkedHashMap<>();
+		for (String currentString : japaneseStrings) {
+			if (currentString == null || translations.containsKey(currentString) || translatingHere.containsKey(currentString) || translatingElsewhere.containsKey(currentString))
+				continue;
+			if (currentString.trim().isEmpty()) {
+				translations.put(currentString, "");
+				continue;
+			}
+			String rememberedTranslation = memory.get(currentString);
+			if (rememberedTranslation != null) {
+				translations.put(currentString, rememberedTranslation);
+				continue;
+			}
+			CompletableFuture<String> translation = new CompletableFuture<>();
+			CompletableFuture<String> existingTranslation = translationsInProgress.putIfAbsent(currentString, translation);
+			if (existingTranslation != null)
+				translatingElsewhere.put(currentString, existingTranslation);
+			else
+				translatingHere.put(currentString, translation);
+		}
+
+		if (!translatingHere.isEmpty()) {
+			List<String> stringsToTranslate = new ArrayList<>(translatingHere.keySet());
+			List<String> backendTranslations = null;
+			try {
+				synchronized (this) {
+					backendRequestCount++;
+				}
+				backendTranslations = backend.translate(stringsToTranslate);
+				if (backendTranslations.size() != stringsToTranslate.size())
+					throw new IOException("Asked to translate " + stringsToTranslate.size() + " strings but got " + backendTranslations.size() + " translations");
+			} catch (IOException | RuntimeException e) {
+				e.printStackTrace();
+				backendTranslations = null;
+			} finally {
+				for (int i = 0; i < stringsToTranslate.size(); i++) {
+					String currentString = stringsToTranslate.get(i);
+					String currentTranslation = (backendTranslations != null && backendTranslations.get(i) != null) ? backendTranslations.get(i) : "";
+					//don't remember failed translations so they are tried again next time
+					if (currentTranslation.length() > 0)
+						memory.put(currentString, currentTranslation);
+					translations.put(currentString, currentTranslation);
+					translationsInProgress.remove(currentString);
+					translatingHere.get(currentString).complete(currentTranslation);
+				}
+			}
+			memory.saveIfChanged(SAVE_AFTER_CHANGES);
+		}
+
+		for (Map.Entry<String, CompletableFuture<String>> currentTranslation : translatingElsewhere.entrySet()) {
+			translations.put(currentTranslation.getKey(), currentTranslation.getValue().join());
+		}
+		return translations;
+	}
+}
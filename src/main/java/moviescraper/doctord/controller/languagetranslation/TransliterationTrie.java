@@ -0,0 +1,127 @@
+package moviescraper.doctord.controller.languagetranslation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps strings to their replacements and finds the longest key starting at a position in a text.
+ * Entries are added first and then the trie is compiled into flat arrays, after which lookups do not allocate.
+ * A node is identified by an int; a lookup returns the node where the longest matching key ends.
+ */
+class TransliterationTrie {
+
+	private static final int NO_MATCH = -1;
+
+	//children of each node as sorted keys and the matching child node numbers, only used while adding entries
+	private List<StringBuilder> buildingKeys = new ArrayList<>();
+	private List<List<Integer>> buildingChildren = new ArrayList<>();
+	private List<String> buildingValues = new ArrayList<>();
+
+	private char[][] childKeys;
+	private int[][] childNodes;
+	private String[] values;
+	private int[] depths;
+	//children of the root indexed by char - rootFirstChar, since every lookup starts there
+	private int[] rootChildren;
+	private char rootFirstChar;
+
+	TransliterationTrie() {
+		addNode();
+	}
+
+	private int addNode() {
+		buildingKeys.add(new StringBuilder());
+		buildingChildren.add(new ArrayList<>());
+		buildingValues.add(null);
+		return buildingValues.size() - 1;
+	}
+
+	/**
+	 * Adds an entry, replacing any entry with the same key. Only allowed before {@link #compile()}.
+	 */
+	void put(String key, String value) {
+		if (buildingValues == null)
+			throw new IllegalStateException("Entries cannot be added after the trie is compiled");
+		int node = 0;
+		for (int i = 0; i < key.length(); i++) {
+			char currentChar = key.charAt(i);
+			StringBuilder keys = buildingKeys.get(node);
+			int position = Arrays.binarySearch(keys.toString().toCharArray(), currentChar);
+			if (position >= 0) {
+				node = buildingChildren.get(node).get(position);
+			} else {
+				int child = addNode();
+				keys.insert(-position - 1, currentChar);
+				buildingChildren.get(node).add(-position - 1, child);
+				node = child;
+			}
+		}
+		buildingValues.set(node, value);
+	}
+
+	/**
+	 * Turns the entries into the flat arrays used for lookups
+	 */
+	TransliterationTrie compile() {
+		int nodeCount = buildingValues.size();
+		childKeys = new char[nodeCount][];
+		childNodes = new int[nodeCount][];
+		values = buildingValues.toArray(new String[nodeCount]);
+		depths = new int[nodeCount];
+		for (int node = 0; node < nodeCount; node++) {
+			childKeys[node] = buildingKeys.get(node).toString().toCharArray();
+			List<Integer> children = buildingChildren.get(node);
+			childNodes[node] = new int[children.size()];
+			for (int i = 0; i < children.size(); i++) {
+				childNodes[node][i] = children.get(i);
+				depths[children.get(i)] = depths[node] + 1;
+			}
+		}
+		char[] rootKeys = childKeys[0];
+		rootFirstChar = rootKeys.length > 0 ? rootKeys[0] : 0;
+		rootChildren = new int[rootKeys.length > 0 ? rootKeys[rootKeys.length - 1] - rootFirstChar + 1 : 0];
+		Arrays.fill(rootChildren, NO_MATCH);
+		for (int i = 0; i < rootKeys.length; i++) {
+			rootChildren[rootKeys[i] - rootFirstChar] = childNodes[0][i];
+		}
+		buildingKeys = null;
+		buildingChildren = null;
+		buildingValues = null;
+		return this;
+	}
+
+	/**
+	 * @return the node of the longest key which starts at start in text, or -1 if no key does
+	 */
+	int findLongest(char[] text, int start) {
+		int rootIndex = text[start] - rootFirstChar;
+		if (rootIndex < 0 || rootIndex >= rootChildren.length || rootChildren[rootIndex] == NO_MATCH)
+			return NO_MATCH;
+		int node = rootChildren[rootIndex];
+		int longestMatch = values[node] != null ? node : NO_MATCH;
+		for (int i = start + 1; i < text.length; i++) {
+			int position = Arrays.binarySearch(childKeys[node], text[i]);
+			if (position < 0)
+				break;
+			node = childNodes[node][position];
+			if (values[node] != null)
+				longestMatch = node;
+		}
+		return longestMatch;
+	}
+
+	/**
+	 * @return the replacement stored for the key ending at node
+	 */
+	String valueOf(int node) {
+		return values[node];
+	}
+
+	/**
+	 * @return the length of the key ending at node
+	 */
+	int lengthOf(int node) {
+		return depths[node];
+	}
+}
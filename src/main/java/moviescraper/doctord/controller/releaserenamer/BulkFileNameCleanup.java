@@ -0,0 +1,145 @@
+package moviescraper.doctord.controller.releaserenamer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import moviescraper.doctord.model.MovieFilenameFilter;
+
+/**
+ * Cleans up the names of many files at once for -filenamecleanup. The files are grouped by the directory they are in, and the directories
+ * are cleaned up in parallel while the files of one directory are renamed one after the other, so two files which clean up to the same
+ * name never race to take it. A file is never renamed over another one.
+ */
+public class BulkFileNameCleanup {
+
+	public static final int DEFAULT_THREADS = 8;
+
+	private final ReleaseRenamer renamer;
+	private final int threads;
+	private final AtomicInteger renamedCount = new AtomicInteger();
+	private final AtomicInteger unchangedCount = new AtomicInteger();
+	private final AtomicInteger failedCount = new AtomicInteger();
+
+	public BulkFileNameCleanup(ReleaseRenamer renamer, int threads) {
+		this.renamer = renamer;
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Cleans up the names of the given files and directories. Blocks until all of them are done.
+	 *
+	 * @param paths - files and directories to rename
+	 * @param recursive - also clean up the names of the movie files inside the given directories and their subdirectories. The given directories
+	 *            are renamed after their contents.
+	 */
+	public void cleanUp(List<File> paths, boolean recursive) throws InterruptedException {
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			if (recursive)
+				renameByDirectory(findMovieFiles(paths), executor);
+			renameByDirectory(paths, executor);
+		} finally {
+			executor.shutdownNow();
+		}
+		System.out.println("File name cleanup renamed " + renamedCount + " files, left " + unchangedCount + " unchanged and failed on " + failedCount + " in "
+		        + (System.nanoTime() - start) / 1000000 + " ms");
+	}
+
+	private static List<File> findMovieFiles(List<File> paths) {
+		List<File> movieFiles = new ArrayList<>();
+		LinkedList<File> directoriesToVisit = new LinkedList<>();
+		for (File currentPath : paths) {
+			if (currentPath.isDirectory())
+				directoriesToVisit.add(currentPath);
+		}
+		MovieFilenameFilter movieFilenameFilter = new MovieFilenameFilter();
+		while (!directoriesToVisit.isEmpty()) {
+			File[] directoryContents = directoriesToVisit.removeFirst().listFiles();
+			if (directoryContents == null)
+				continue;
+			for (File currentChild : directoryContents) {
+				if (currentChild.isDirectory())
+					directoriesToVisit.add(currentChild);
+				else if (movieFilenameFilter.accept(currentChild.getParentFile(), currentChild.getName()))
+					movieFiles.add(currentChild);
+			}
+		}
+		return movieFiles;
+	}
+
+	private void renameByDirectory(List<File> files, ExecutorService executor) throws InterruptedException {
+		Map<File, List<File>> filesByDirectory = new LinkedHashMap<>();
+		for (File currentFile : files)
+			filesByDirectory.computeIfAbsent(currentFile.getAbsoluteFile().getParentFile(), directory -> new ArrayList<>()).add(currentFile);
+		List<Future<?>> directoryFutures = new ArrayList<>(filesByDirectory.size());
+		for (final List<File> currentDirectoryFiles : filesByDirectory.values()) {
+			directoryFutures.add(executor.submit(() -> {
+				for (File currentFile : currentDirectoryFiles)
+					rename(currentFile);
+			}));
+		}
+		for (Future<?> currentFuture : directoryFutures) {
+			try {
+				currentFuture.get();
+			} catch (ExecutionException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private void rename(File currentFile) {
+		if (!currentFile.exists()) {
+			System.err.println(currentFile + " does not exist.");
+			failedCount.incrementAndGet();
+			return;
+		}
+		File newFile = renamer.newFileName(currentFile);
+		if (currentFile.getName().equals(newFile.getName())) {
+			unchangedCount.incrementAndGet();
+			return;
+		}
+		//a name differing only in case is the same file on some file systems
+		if (newFile.exists() && !isSameFile(currentFile, newFile)) {
+			System.err.println("Rename of " + currentFile + " failed! " + newFile + " already exists.");
+			failedCount.incrementAndGet();
+		} else if (currentFile.renameTo(newFile)) {
+			System.out.println("Renamed " + currentFile + " to " + newFile);
+			renamedCount.incrementAndGet();
+		} else {
+			System.err.println("Rename of " + currentFile + " to " + newFile + " failed!");
+			failedCount.incrementAndGet();
+		}
+	}
+
+	private static boolean isSameFile(File file, File otherFile) {
+		try {
+			return Files.isSameFile(file.toPath(), otherFile.toPath());
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	public int getRenamedCount() {
+		return renamedCount.get();
+	}
+
+	public int getUnchangedCount() {
+		return unchangedCount.get();
+	}
+
+	public int getFailedCount() {
+		return failedCount.get();
+	}
+}
@@ -2,13 +2,14 @@ package moviescraper.doctord.controller.releaserenamer;
 
 import java.io.File;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
 
 public abstract class ReleaseRenamer {
 
 	public abstract String getCleanName(String filename);
 
 	public String replaceSeperatorsWithSpaces(String name) {
-		return name.replaceAll("[\\._]", " ");
+		return StringUtils.replaceChars(name, "._", "  ");
 	}
 
 	public File newFileName(File fileToRename) {
@@ -3,22 +3,60 @@ package moviescraper.doctord.controller.releaserenamer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.lang3.text.WordUtils;
 
+/**
+ * Cleans up the names of web releases so they can be searched for. The word lists are read once into tries, so a name is cleaned
+ * in a single pass over its characters instead of running a regular expression per word. A renamer can be shared between threads.
+ */
 public class WebReleaseRenamer extends ReleaseRenamer {
 
-	private List<CSVRecord> removeTheseWords;
-	private List<CSVRecord> replaceFirstInstanceOfTheseWords;
+	//words which are removed, mapped to how many times each one may be removed
+	private final Trie wordsToRemove = new Trie();
+	private final int[] removalsPerWord;
+	//abbreviations at the start of a name, mapped to the full site names which replace them
+	private final Trie abbreviations = new Trie();
+	private final String[] fullSiteNames;
 
 	public WebReleaseRenamer() throws IOException {
-		removeTheseWords = readWordsToRemoveFromCSV();
-		replaceFirstInstanceOfTheseWords = readSiteNamesToReplaceFromCSV();
+		List<CSVRecord> removeTheseWords = readWordsToRemoveFromCSV();
+		Map<Integer, Integer> removals = new HashMap<>();
+		for (CSVRecord wordToRemove : removeTheseWords) {
+			//the names have their separators replaced by spaces before removing words, so the words get the same treatment
+			String word = replaceSeperatorsWithSpaces(wordToRemove.get(0).toLowerCase());
+			if (word.length() > 0)
+				removals.merge(wordsToRemove.add(word), 1, Integer::sum);
+		}
+		removalsPerWord = new int[wordsToRemove.size()];
+		for (Map.Entry<Integer, Integer> currentRemoval : removals.entrySet())
+			removalsPerWord[currentRemoval.getKey()] = currentRemoval.getValue();
+
+		List<CSVRecord> replaceFirstInstanceOfTheseWords = readSiteNamesToReplaceFromCSV();
+		Map<Integer, String> siteNames = new HashMap<>();
+		for (CSVRecord siteNameReplacement : replaceFirstInstanceOfTheseWords) {
+			/*
+			 * Our format in this file is that the first word on each line is the full name
+			 * of the abbreviation and each subsequent comma seperated entry on the line
+			 * is an abbreviation
+			 */
+			String fullSiteName = siteNameReplacement.get(0);
+			for (String abbreviation : siteNameReplacement) {
+				abbreviation = abbreviation.replace("\"", "").trim().toLowerCase();
+				//the first line with an abbreviation wins, as the file is read from the top
+				if (abbreviation.length() > 0)
+					siteNames.putIfAbsent(abbreviations.add(abbreviation), fullSiteName);
+			}
+		}
+		fullSiteNames = new String[abbreviations.size()];
+		for (Map.Entry<Integer, String> currentSiteName : siteNames.entrySet())
+			fullSiteNames[currentSiteName.getKey()] = currentSiteName.getValue();
 	}
 
 	@Override
@@ -29,46 +67,82 @@ public class WebReleaseRenamer extends ReleaseRenamer {
 		 * remove things from the filename which are usually not part of the
 		 * scene / movie name such as par2, xvid, divx, etc
 		 */
-		cleanFileName += " "; //add a space at the end so we our regex works in the next step for the last word
-		for (CSVRecord wordsToRemove : removeTheseWords) {
-			//putting spaces in front of it so we only get an actual word, not parts of a word
-			String wordToRemove = wordsToRemove.get(0).toLowerCase();
-			cleanFileName = cleanFileName.replaceFirst("\\b" + wordToRemove + "\\b", "");
-		}
-		cleanFileName = cleanFileName.trim();
+		cleanFileName = removeWords(cleanFileName).trim();
 		/*
 		 * often times files are released with abbreviations in their name which
 		 * messes up doing google searches on them, so we'll do a substitution to get the full name
 		 */
-		boolean doneReplacingabbreviation = false;
-		for (CSVRecord siteNameReplacement : replaceFirstInstanceOfTheseWords) {
-			/*
-			 * Our format in this file is that the first word on each line is the full name
-			 * of the abbreviation and each subsequent comma seperated entry on the line
-			 * is an abbreviation
-			 */
-			String fullSiteName = siteNameReplacement.get(0);
-			//WebReleaseRenamer.System.out.println("FullSiteName = " + fullSiteName);
-			for (String abbreviation : siteNameReplacement) {
-				abbreviation = abbreviation.replace("\"", "");
-				//System.out.println("abbreviation = " + abbreviation.trim().toLowerCase());
-				if (cleanFileName.startsWith(abbreviation.trim().toLowerCase() + " ") && abbreviation.trim().length() > 0) {
-					//System.out.println("Found match = " + abbreviation.trim().toLowerCase());
-					cleanFileName = cleanFileName.replaceFirst(Pattern.quote(abbreviation.trim().toLowerCase() + " "), fullSiteName + " ");
-					doneReplacingabbreviation = true;
-					break; //just assume we want to only replace one abbreviaton
-				}
-				//System.out.println("CFN: " + cleanFileName);
-			}
-			if (doneReplacingabbreviation)
-				break;
-			//System.out.println(siteNameReplacement);
-		}
+		cleanFileName = expandAbbreviation(cleanFileName);
 		//Fix up the case and trim it - not needed for search but it just looks better :)
 		cleanFileName = WordUtils.capitalize(cleanFileName).trim();
 		return cleanFileName;
 	}
 
+	/**
+	 * Removes the words to remove where they are whole words, each as many times as it is in the list.
+	 * Where several words start at the same place, the longest is removed, so MP4-KTR goes as a whole rather than just MP4.
+	 */
+	private String removeWords(String name) {
+		StringBuilder cleanName = new StringBuilder(name.length());
+		int[] removalsLeft = null;
+		int position = 0;
+		while (position < name.length()) {
+			char previousCharacter = cleanName.length() > 0 ? cleanName.charAt(cleanName.length() - 1) : ' ';
+			int matchedWord = -1;
+			int matchEnd = -1;
+			if (isWordBoundary(previousCharacter, name.charAt(position))) {
+				Trie.Node node = wordsToRemove.root;
+				for (int i = position; i < name.length() && (node = node.children.get(name.charAt(i))) != null; i++) {
+					char nextCharacter = i + 1 < name.length() ? name.charAt(i + 1) : ' ';
+					if (node.word >= 0 && isWordBoundary(name.charAt(i), nextCharacter) && (removalsLeft == null || removalsLeft[node.word] > 0)) {
+						matchedWord = node.word;
+						matchEnd = i + 1;
+					}
+				}
+			}
+			if (matchedWord >= 0) {
+				if (removalsLeft == null)
+					removalsLeft = removalsPerWord.clone();
+				removalsLeft[matchedWord]--;
+				position = matchEnd;
+			} else {
+				cleanName.append(name.charAt(position));
+				position++;
+			}
+		}
+		return cleanName.toString();
+	}
+
+	/**
+	 * @return the name with the abbreviation it starts with replaced by the full site name, or the name itself if it starts with none
+	 */
+	private String expandAbbreviation(String name) {
+		int matchedAbbreviation = -1;
+		int matchEnd = -1;
+		Trie.Node node = abbreviations.root;
+		for (int i = 0; i < name.length() && (node = node.children.get(name.charAt(i))) != null; i++) {
+			//an abbreviation must be a whole word, and the one nearest the top of the file wins
+			if (node.word >= 0 && (i + 1 == name.length() || name.charAt(i + 1) == ' ') && (matchedAbbreviation < 0 || node.word < matchedAbbreviation)) {
+				matchedAbbreviation = node.word;
+				matchEnd = i + 1;
+			}
+		}
+		if (matchedAbbreviation < 0)
+			return name;
+		return fullSiteNames[matchedAbbreviation] + name.substring(matchEnd);
+	}
+
+	/**
+	 * @return true if there is a word boundary between the two characters, the same as \b in a regular expression
+	 */
+	private static boolean isWordBoundary(char before, char after) {
+		return isWordCharacter(before) != isWordCharacter(after);
+	}
+
+	private static boolean isWordCharacter(char character) {
+		return character == '_' || Character.isLetterOrDigit(character);
+	}
+
 	public List<CSVRecord> readWordsToRemoveFromCSV() throws IOException {
 		return readFromCSVFile("/res/releaserenamer/WordsToRemove.csv");
 	}
@@ -85,4 +159,34 @@ public class WebReleaseRenamer extends ReleaseRenamer {
 		}
 	}
 
+	/**
+	 * Words stored by their characters, so all the words starting at a position of a name are found by reading the name once from there.
+	 * Each word gets a number in the order the words were first added.
+	 */
+	private static class Trie {
+		final Node root = new Node();
+		private int size;
+
+		/**
+		 * @return the number of the word
+		 */
+		int add(String word) {
+			Node node = root;
+			for (int i = 0; i < word.length(); i++)
+				node = node.children.computeIfAbsent(word.charAt(i), character -> new Node());
+			if (node.word < 0)
+				node.word = size++;
+			return node.word;
+		}
+
+		int size() {
+			return size;
+		}
+
+		static class Node {
+			final Map<Character, Node> children = new HashMap<>(4);
+			int word = -1;
+		}
+	}
+
 }
@@ -0,0 +1,52 @@
+package moviescraper.doctord.controller.siteparsingprofile;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import moviescraper.doctord.model.SearchResult;
+
+/**
+ * Search results which can be read before all of them are downloaded, for sites whose results are split into pages.
+ * Reading stops paging, so a caller which found what it was looking for on the first page never downloads the others.
+ * A caller which stops before the end should close the iterator, so pages downloaded ahead of it are not waited for.
+ */
+public interface SearchResultIterator extends Iterator<SearchResult>, AutoCloseable {
+
+	/**
+	 * @return true if there is a next result and it is already downloaded, so getting it costs no request
+	 */
+	boolean hasNextLoaded();
+
+	/**
+	 * Stops the downloads of pages which were started in the background and have not been read. No further pages are downloaded.
+	 */
+	@Override
+	default void close() {
+	}
+
+	/**
+	 * @return an iterator over results which are all downloaded already
+	 */
+	static SearchResultIterator of(SearchResult[] searchResults) {
+		return new SearchResultIterator() {
+			private int nextIndex;
+
+			@Override
+			public boolean hasNext() {
+				return nextIndex < searchResults.length;
+			}
+
+			@Override
+			public boolean hasNextLoaded() {
+				return hasNext();
+			}
+
+			@Override
+			public SearchResult next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return searchResults[nextIndex++];
+			}
+		};
+	}
+}
@@ -3,17 +3,18 @@ package moviescraper.doctord.controller.siteparsingprofile;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.SocketTimeoutException;
 import java.net.URL;
-import java.net.URLDecoder;
-import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -21,15 +22,14 @@ import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.imgscalr.Scalr;
 import org.imgscalr.Scalr.Method;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
 import moviescraper.doctord.controller.AbstractMovieScraper;
 import moviescraper.doctord.controller.GenericMovieScraper;
+import moviescraper.doctord.controller.ScrapeEngine;
 import moviescraper.doctord.controller.languagetranslation.Language;
 import moviescraper.doctord.model.Movie;
 import moviescraper.doctord.model.SearchResult;
@@ -56,10 +56,17 @@ import moviescraper.doctord.model.dataitem.Trailer;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
 import moviescraper.doctord.model.preferences.MoviescraperPreferences;
+import moviescraper.doctord.scraper.HttpResponseCache;
+import moviescraper.doctord.scraper.HttpTransport;
+import moviescraper.doctord.scraper.UrlProber;
+import moviescraper.doctord.scraper.WebSearch;
 import moviescraper.doctord.view.GUIMain;
 
 public abstract class SiteParsingProfile implements DataItemSource {
 
+	private static final Pattern DISC_NUMBER_PATTERN = Pattern.compile("(?i)[ _.]+(?:cd|dvd|p(?:ar)?t|dis[ck]|d)[ _.]*[0-9]+$");
+	private static final Pattern DISC_LETTER_PATTERN = Pattern.compile("(?i)[ _.]+(?:cd|dvd|p(?:ar)?t|dis[ck]|d)[ _.]*[a-d]$");
+
 	/*
 	 * Any group of SiteParsingProfiles which return the same type of information for a given file and which
 	 * will be compatible for amalgamation should return the same ScraperGroupName by implementing getScraperGroupName()
@@ -97,6 +104,8 @@ public abstract class SiteParsingProfile implements DataItemSource {
 
 	public Document document; // the base page to start parsing from
 
+	private transient Map<String, FutureTask<Object>> documentMemo; //values derived from the document, see memoize()
+
 	@Deprecated
 	public String overrideURLDMM; //TODO: no longer used variable - will be removed later
 
@@ -165,6 +174,51 @@ public abstract class SiteParsingProfile implements DataItemSource {
 
 	public void setDocument(Document document) {
 		this.document = document;
+		getDocumentMemo().clear();
+	}
+
+	/**
+	 * Computes a value derived from the current document only once, no matter how many scrape methods ask for it or
+	 * from how many threads. Callers asking while it is being computed wait for that computation instead of starting another.
+	 * Memoized values are forgotten when the document changes.
+	 *
+	 * @param key - name of the value, unique within this profile
+	 * @param valueSupplier - computes the value
+	 * @return the memoized value
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> T memoize(String key, Supplier<T> valueSupplier) {
+		FutureTask<Object> newComputation = new FutureTask<>(valueSupplier::get);
+		FutureTask<Object> computation = getDocumentMemo().putIfAbsent(key, newComputation);
+		if (computation == null) {
+			computation = newComputation;
+			computation.run();
+		}
+		try {
+			return (T) computation.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return valueSupplier.get();
+		} catch (ExecutionException e) {
+			getDocumentMemo().remove(key, computation);
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	//created lazily since profiles are also restored from the amalgamation settings file, which skips transient fields
+	private synchronized Map<String, FutureTask<Object>> getDocumentMemo() {
+		if (documentMemo == null)
+			documentMemo = new ConcurrentHashMap<>();
+		return documentMemo;
+	}
+
+	/**
+	 * @return the result of {@link #scrapeID()}, scraped once per document. Scrape methods which need the ID should use this instead of scraping it again.
+	 */
+	public ID getScrapedID() {
+		return memoize("id", this::scrapeID);
 	}
 
 	/**
@@ -223,19 +277,14 @@ public abstract class SiteParsingProfile implements DataItemSource {
 			lastWord = splitFileName[splitFileName.length - 1];
 
 		//Some people like to enclose the ID number in parenthesis or brackets like this (ABC-123) or this [ABC-123] so this gets rid of that
-		//TODO: Maybe consolidate these lines of code using a single REGEX?
-		lastWord = lastWord.replace("(", "");
-		lastWord = lastWord.replace(")", "");
-		lastWord = lastWord.replace("[", "");
-		lastWord = lastWord.replace("]", "");
-		return lastWord;
+		return StringUtils.replaceChars(lastWord, "()[]", "");
 	}
 
 	public static String stripDiscNumber(String fileNameNoExtension) {
 		//replace <cd/dvd/part/pt/disk/disc/d> <0-N>  (case insensitive) with empty
-		String discNumberStripped = fileNameNoExtension.replaceAll("(?i)[ _.]+(?:cd|dvd|p(?:ar)?t|dis[ck]|d)[ _.]*[0-9]+$", "");
+		String discNumberStripped = DISC_NUMBER_PATTERN.matcher(fileNameNoExtension).replaceFirst("");
 		//replace <cd/dvd/part/pt/disk/disc/d> <a-d> (case insensitive) with empty
-		discNumberStripped = discNumberStripped.replaceAll("(?i)[ _.]+(?:cd|dvd|p(?:ar)?t|dis[ck]|d)[ _.]*[a-d]$", "");
+		discNumberStripped = DISC_LETTER_PATTERN.matcher(discNumberStripped).replaceFirst("");
 		return discNumberStripped.trim();
 	}
 
@@ -295,73 +344,34 @@ public abstract class SiteParsingProfile implements DataItemSource {
 
 	public abstract SearchResult[] getSearchResults(String searchString) throws IOException;
 
-	public SearchResult[] getLinksFromGoogle(String searchQuery, String site) {
-		//System.out.println("calling get links from google with searchQuery = " + searchQuery);
-		ArrayList<SearchResult> linksToReturn = new ArrayList<>();
-		try {
-			String encodingScheme = "UTF-8";
-			String queryToEncode = "site:" + site + " " + searchQuery;
-			String encodedSearchQuery = URLEncoder.encode(queryToEncode, encodingScheme);
-			Document doc = Jsoup.connect("https://www.google.com/search?q=" + encodedSearchQuery).userAgent(getRandomUserAgent()).referrer("http://www.google.com").ignoreHttpErrors(true)
-			        .timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
-			Elements sorryLink = doc.select("form[action=CaptchaRedirect] input");
-			Map<String, String> captchaData = new HashMap<>();
-			for (Element element : sorryLink) {
-				String key = element.attr("name");
-				String value = element.attr("value");
-				captchaData.put(key, value);
-			}
-			if (captchaData.size() > 0) {
-				System.out.println("Found Captchadata : " + captchaData);
-				System.out.println("Google has temporarily blocked us. Trying on bing instead.");
-				return getLinksFromBing(searchQuery, site);
-			}
+	/**
+	 * Gets the search results as they are needed. Profiles of sites which split their results into pages override this
+	 * so that later pages are only downloaded if the caller reads that far.
+	 *
+	 * @throws IOException if the first results could not be downloaded
+	 */
+	public SearchResultIterator getSearchResultIterator(String searchString) throws IOException {
+		return SearchResultIterator.of(getSearchResults(searchString));
+	}
 
-			Elements links = doc.select("div.g");
-			for (Element link : links) {
-				Elements hrefs = link.select(".r a");
-				String href = hrefs.attr("href");
-				href = URLDecoder.decode(href, encodingScheme);
-				href = href.replaceFirst(Pattern.quote("/url?url="), "");
-				href = href.replaceFirst(Pattern.quote("/url?q="), "");
-				href = href.replaceFirst(Pattern.quote("http://www.google.com/url?url="), "");
-				//remove some junk referrer stuff
-				int startIndexToRemove = href.indexOf("&rct=");
-				if (startIndexToRemove > -1)
-					href = href.substring(0, startIndexToRemove);
-				linksToReturn.add(new SearchResult(href, hrefs.text()));
-			}
-			if (linksToReturn.size() == 0) {
-				//maybe we will have better luck with bing since we found nothing on google
-				return getLinksFromBing(encodedSearchQuery, site);
-			}
-			return linksToReturn.toArray(new SearchResult[linksToReturn.size()]);
-		} catch (IOException e) {
-			e.printStackTrace();
-			return linksToReturn.toArray(new SearchResult[linksToReturn.size()]);
-		}
+	/**
+	 * Runs {@link #getSearchResults(String)} on the {@link ScrapeEngine}
+	 *
+	 * @return a future completed with the search results, or exceptionally with the IOException
+	 */
+	public CompletableFuture<SearchResult[]> searchAsync(String searchString) {
+		return ScrapeEngine.getInstance().submit(() -> getSearchResults(searchString));
 	}
 
 	/**
-	 * A backup search provider in case google search fails. This method is marked private and is called from getLinksFromGoogle. It should not be called in any other class.
+	 * Searches Google for pages of the site, with Bing as the backup. See {@link WebSearch}.
+	 *
+	 * @param searchQuery - what to search for
+	 * @param site - only pages whose URL starts with this are returned, like "data18.com/movies/"
+	 * @return the pages found, best match first
 	 */
-	private SearchResult[] getLinksFromBing(String searchQuery, String site) {
-		ArrayList<SearchResult> linksToReturn = new ArrayList<>();
-		String encodingScheme = "UTF-8";
-		String queryToEncode = "site:" + site + " " + searchQuery;
-		String encodedSearchQuery;
-		try {
-			encodedSearchQuery = URLEncoder.encode(queryToEncode, encodingScheme);
-			Document bingResultDocument = Jsoup.connect("https://www.bing.com/search?q=" + encodedSearchQuery).userAgent(getRandomUserAgent()).referrer("http://www.bing.com").ignoreHttpErrors(true)
-			        .timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
-			Elements links = bingResultDocument.select("a[href*=" + site);
-			for (Element link : links) {
-				linksToReturn.add(new SearchResult(link.attr("href")));
-			}
-		} catch (IOException e) {
-			e.printStackTrace();
-			return linksToReturn.toArray(new SearchResult[linksToReturn.size()]);
-		}
+	public SearchResult[] getLinksFromGoogle(String searchQuery, String site) {
+		List<SearchResult> linksToReturn = WebSearch.getInstance().search(site, searchQuery);
 		return linksToReturn.toArray(new SearchResult[linksToReturn.size()]);
 	}
 
@@ -370,29 +380,17 @@ public abstract class SiteParsingProfile implements DataItemSource {
 	}
 
 	protected static boolean fileExistsAtURL(String URLName, Boolean allow_redirects) {
-		try {
-			HttpURLConnection.setFollowRedirects(allow_redirects);
-			// note : you may also need
-			//        HttpURLConnection.setInstanceFollowRedirects(false)
-			HttpURLConnection con = (HttpURLConnection) new URL(URLName).openConnection();
-			con.setInstanceFollowRedirects(allow_redirects);
-			con.setRequestMethod("HEAD");
-			con.setConnectTimeout(CONNECTION_TIMEOUT_VALUE);
-			con.setReadTimeout(CONNECTION_TIMEOUT_VALUE);
-			con.setRequestProperty("User-Agent", getRandomUserAgent());
-			if (!allow_redirects) {
-				return (con.getResponseCode() == HttpURLConnection.HTTP_OK);
-			} else {
-				return (con.getResponseCode() == HttpURLConnection.HTTP_OK || con.getResponseCode() == HttpURLConnection.HTTP_MOVED_TEMP);
-			}
-		} catch (SocketTimeoutException e) {
-			// Non-existing DMM trailers usually time out
-			System.err.println("Connection timed out: " + URLName);
-			return false;
-		} catch (Exception e) {
-			e.printStackTrace();
-			return false;
-		}
+		return UrlProber.getInstance().exists(URLName, allow_redirects, CONNECTION_TIMEOUT_VALUE);
+	}
+
+	/**
+	 * Checks all of the URLs at the same time instead of one after another
+	 *
+	 * @param URLNames - the URLs to check
+	 * @return the URLs which exist, in the order they were given
+	 */
+	protected static List<String> filesExistingAtURLs(Collection<String> URLNames) {
+		return UrlProber.getInstance().findExisting(URLNames, false, CONNECTION_TIMEOUT_VALUE);
 	}
 
 	public AbstractMovieScraper getMovieScraper() {
@@ -474,7 +472,7 @@ public abstract class SiteParsingProfile implements DataItemSource {
 	 * Maybe we are less likely to get blocked on google if we don't always use the same user agent when searching,
 	 * so this method is designed to pick a random one from a list of valid user agent strings
 	 * 
-	 * @return a random user agent string that can be passed to .userAgent() when calling Jsoup.connect
+	 * @return a random user agent string that can be passed to .userAgent() when calling HttpTransport.connect
 	 */
 	public static String getRandomUserAgent() {
 		String[] userAgent = { "Mozilla/5.0 (Windows; U; WindowsNT 5.1; en-US; rv1.8.1.6) Gecko/20070725 Firefox/2.0.0.6", "Mozilla/5.0 (Windows NT 6.3; rv:36.0) Gecko/20100101 Firefox/36.0",
@@ -516,9 +514,18 @@ public abstract class SiteParsingProfile implements DataItemSource {
 		isDisabled = value;
 	}
 
+	/**
+	 * @return milliseconds a downloaded page of this site is reused from the {@link HttpResponseCache} before asking the site whether it changed,
+	 *         or a negative value to never cache the site's pages. Override for sites whose pages change more or less often than the default
+	 *         from the preferences, or which must not be stored on disk.
+	 */
+	public long getResponseCacheTimeToLive() {
+		return HttpResponseCache.getInstance().getDefaultTimeToLiveMillis();
+	}
+
 	public static Document downloadDocumentFromURLString(String url) {
 		try {
-			return Jsoup.connect(url).userAgent("Mozilla").ignoreHttpErrors(true).timeout(CONNECTION_TIMEOUT_VALUE).get();
+			return HttpTransport.connect(url).userAgent("Mozilla").ignoreHttpErrors(true).timeout(CONNECTION_TIMEOUT_VALUE).get();
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
@@ -530,7 +537,7 @@ public abstract class SiteParsingProfile implements DataItemSource {
 			if (searchResult.isJSONSearchResult())
 				return SiteParsingProfileJSON.getDocument(searchResult.getUrlPath());
 			else
-				return Jsoup.connect(searchResult.getUrlPath()).userAgent("Mozilla").ignoreHttpErrors(true).timeout(CONNECTION_TIMEOUT_VALUE).get();
+				return HttpTransport.connect(searchResult.getUrlPath()).userAgent("Mozilla").ignoreHttpErrors(true).timeout(CONNECTION_TIMEOUT_VALUE).get();
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
@@ -542,13 +549,23 @@ public abstract class SiteParsingProfile implements DataItemSource {
 			if (searchResult.isJSONSearchResult())
 				return SiteParsingProfileJSON.getDocument(searchResult.getUrlPath());
 			else
-				return Jsoup.connect(searchResult.getUrlPath()).userAgent("Mozilla").ignoreHttpErrors(true).timeout(CONNECTION_TIMEOUT_VALUE).get();
+				return HttpTransport.connect(searchResult.getUrlPath()).userAgent("Mozilla").ignoreHttpErrors(true).timeout(CONNECTION_TIMEOUT_VALUE)
+				        .cacheTimeToLive(getResponseCacheTimeToLive()).get();
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 		return null;
 	}
 
+	/**
+	 * Runs {@link #downloadDocument(SearchResult)} on the {@link ScrapeEngine}
+	 *
+	 * @return a future completed with the document, which is null if it could not be downloaded
+	 */
+	public CompletableFuture<Document> fetchAsync(SearchResult searchResult) {
+		return ScrapeEngine.getInstance().submit(() -> downloadDocument(searchResult));
+	}
+
 	@Override
 	public ImageIcon getProfileIcon() {
 		if (profileIcon != null)
@@ -4,9 +4,10 @@ import java.io.IOException;
 
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 
+import moviescraper.doctord.scraper.HttpTransport;
+
 public abstract class SiteParsingProfileJSON extends SiteParsingProfile {
 	private JSONObject movieJSON;
 
@@ -23,7 +24,7 @@ public abstract class SiteParsingProfileJSON extends SiteParsingProfile {
 	}
 
 	public String getJSONStringFromURL(String url) throws IOException {
-		String json = Jsoup.connect(url).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).ignoreContentType(true).execute().body();
+		String json = HttpTransport.connect(url).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).ignoreContentType(true).execute().body();
 		return json;
 	}
 
@@ -37,7 +38,7 @@ public abstract class SiteParsingProfileJSON extends SiteParsingProfile {
 	}
 
 	public static Document getDocument(String url) throws IOException {
-		return Jsoup.connect(url).ignoreContentType(true).get();
+		return HttpTransport.connect(url).ignoreContentType(true).get();
 	}
 
 }
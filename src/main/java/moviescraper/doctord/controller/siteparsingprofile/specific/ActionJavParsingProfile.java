@@ -13,7 +13,6 @@ import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.text.WordUtils;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -40,10 +39,11 @@ import moviescraper.doctord.model.dataitem.Title;
 import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 public class ActionJavParsingProfile extends SiteParsingProfile implements SpecificProfile {
 
-	private static final SimpleDateFormat actionJavReleaseDateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.ENGLISH);
+	private static final ThreadLocal<SimpleDateFormat> actionJavReleaseDateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat("MMM dd, yyyy", Locale.ENGLISH));
 
 	@Override
 	public Title scrapeTitle() {
@@ -98,7 +98,7 @@ public class ActionJavParsingProfile extends SiteParsingProfile implements Speci
 			if (!Character.isAlphabetic(releaseDateText.charAt(0))) //fix for weird white space trim() is not getting rid of
 				releaseDateText = releaseDateText.substring(1);
 			if (releaseDateText.length() > 4)
-				return new ReleaseDate(releaseDateText.trim(), actionJavReleaseDateFormat);
+				return new ReleaseDate(releaseDateText.trim(), actionJavReleaseDateFormat.get());
 		}
 		return ReleaseDate.BLANK_RELEASEDATE;
 	}
@@ -305,7 +305,7 @@ public class ActionJavParsingProfile extends SiteParsingProfile implements Speci
 
 		LinkedList<SearchResult> searchItems = new LinkedList<>();
 		String searchId = searchString.replaceAll(".*searchterm=(\\D+)(\\d+)", "$1-$2").toUpperCase();
-		Document doc = Jsoup.connect(searchString).timeout(CONNECTION_TIMEOUT_VALUE).get();
+		Document doc = HttpTransport.connect(searchString).timeout(CONNECTION_TIMEOUT_VALUE).cacheTimeToLive(getResponseCacheTimeToLive()).get();
 		Elements rows = doc.select("table table table tr:has(a[href^=title.cfm?iid=])");
 
 		for (Element row : rows) {
@@ -15,7 +15,6 @@ import javax.imageio.ImageIO;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.text.WordUtils;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -43,10 +42,11 @@ import moviescraper.doctord.model.dataitem.Title;
 import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 public class AvEntertainmentParsingProfile extends SiteParsingProfile implements SpecificProfile {
 
-	private static final SimpleDateFormat avEntertainmentReleaseDateFormat = new SimpleDateFormat("MM/dd/yyyy", Locale.ENGLISH);
+	private static final ThreadLocal<SimpleDateFormat> avEntertainmentReleaseDateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat("MM/dd/yyyy", Locale.ENGLISH));
 
 	@Override
 	public Title scrapeTitle() {
@@ -87,7 +87,7 @@ public class AvEntertainmentParsingProfile extends SiteParsingProfile implements
 		Elements elements = document.select("div[id=titlebox] ul li:contains(Release Date:), div[id=titlebox] ul li:contains(発売日:)");
 		if (elements != null) {
 			String releaseDateText = elements.first().ownText();
-			return new ReleaseDate(releaseDateText, avEntertainmentReleaseDateFormat);
+			return new ReleaseDate(releaseDateText, avEntertainmentReleaseDateFormat.get());
 		}
 		return ReleaseDate.BLANK_RELEASEDATE;
 
@@ -234,7 +234,7 @@ public class AvEntertainmentParsingProfile extends SiteParsingProfile implements
 				String name = WordUtils.capitalize(element.text());
 				Thumb thumb = null;
 				try {
-					Document actorDoc = Jsoup.connect(href).userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+					Document actorDoc = HttpTransport.connect(href).userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
 					Element first = actorDoc.select("ul img[src~=ActressImage]").first();
 					if (first != null) {
 						String thumbURL = first.attr("src");
@@ -287,7 +287,8 @@ public class AvEntertainmentParsingProfile extends SiteParsingProfile implements
 
 	@Override
 	public SearchResult[] getSearchResults(String searchString) throws IOException {
-		Document doc = Jsoup.connect(searchString).userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+		Document doc = HttpTransport.connect(searchString).userAgent("Mozilla").ignoreHttpErrors(true)
+		        .timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).cacheTimeToLive(getResponseCacheTimeToLive()).get();
 		List<SearchResult> list = new ArrayList<>();
 		Elements elements = doc.select(".PPV-TOP");
 
@@ -51,7 +51,7 @@ public class CaribbeancomParsingProfile extends SiteParsingProfile implements Sp
 	String id;
 
 	boolean useTranslationOfJapanesePageForEnglishMetadata = true;
-	private static final SimpleDateFormat caribbeanReleaseDateFormat = new SimpleDateFormat("yyyy/mm/dd", Locale.ENGLISH);
+	private static final ThreadLocal<SimpleDateFormat> caribbeanReleaseDateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy/mm/dd", Locale.ENGLISH));
 
 	@Override
 	public String getParserName() {
@@ -61,7 +61,7 @@ public class CaribbeancomParsingProfile extends SiteParsingProfile implements Sp
 	/**
 	 * loads up the japanese version of this page into japaneseDocument
 	 */
-	private void initializeJapaneseDocument() {
+	private synchronized void initializeJapaneseDocument() {
 		if (document != null && japaneseDocument == null) {
 			String url = "http://www.caribbeancom.com/moviepages/" + id + "/index.html";
 			japaneseDocument = SiteParsingProfile.downloadDocumentFromURLString(url);
@@ -107,7 +107,7 @@ public class CaribbeancomParsingProfile extends SiteParsingProfile implements Sp
 	public ReleaseDate scrapeReleaseDate() {
 		try {
 			Element releaseDate = document.select(".movie-info [itemprop=datePublished]").first();
-			return new ReleaseDate(releaseDate.text(), caribbeanReleaseDateFormat);
+			return new ReleaseDate(releaseDate.text(), caribbeanReleaseDateFormat.get());
 		} catch (NullPointerException e) {
 			return ReleaseDate.BLANK_RELEASEDATE;
 		}
@@ -168,7 +168,7 @@ public class CaribbeancomParsingProfile extends SiteParsingProfile implements Sp
 
 	@Override
 	public Thumb[] scrapePosters() {
-		ID id = scrapeID();
+		ID id = getScrapedID();
 		ArrayList<Thumb> posters = new ArrayList<>();
 		try {
 			Thumb additionalThumb = new Thumb("https://en.caribbeancom.com/moviepages/" + id.getId() + "/images/poster_en.jpg");
@@ -181,7 +181,7 @@ public class CaribbeancomParsingProfile extends SiteParsingProfile implements Sp
 
 	@Override
 	public Thumb[] scrapeFanart() {
-		ID id = scrapeID();
+		ID id = getScrapedID();
 		ArrayList<Thumb> posters = new ArrayList<>();
 		for (Element anchor : document.select("a.fancy-gallery")) {
 			if (anchor.attr("data-is_sample").compareTo("1") == 0) {
@@ -266,7 +266,7 @@ public class CaribbeancomParsingProfile extends SiteParsingProfile implements Sp
 
 	@Override
 	public Trailer scrapeTrailer() {
-		ID id = scrapeID();
+		ID id = getScrapedID();
 		if (id != null && id.getId().length() > 0) {
 			String trailerPath = "http://smovie.caribbeancom.com/sample/movies/" + id.getId() + "/sample_m.mp4";
 			if (SiteParsingProfile.fileExistsAtURL(trailerPath))
@@ -17,7 +17,6 @@ import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.text.WordUtils;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -47,12 +46,13 @@ import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Trailer;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 public class CaribbeancomPremiumParsingProfile extends SiteParsingProfile implements SpecificProfile {
 
 	private Document japaneseDocument;
 	private Thumb[] scrapedPosters;
-	private static final SimpleDateFormat caribbeanReleaseDateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.ENGLISH);
+	private static final ThreadLocal<SimpleDateFormat> caribbeanReleaseDateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd", Locale.ENGLISH));
 	private static final Pattern videojsPoster = Pattern.compile("vgsPlayer\\.poster\\('([^']+)'");
 	private static final Pattern TRAILER_RE = Pattern.compile("(https:\\\\/\\\\/smovie.caribbeancompr.com\\\\/sample\\\\/movies\\\\/[0-9_]+\\\\/[0-9ip]+.mp4)");
 	private static final Pattern DOC_ID_RE = Pattern.compile("moviepages/([0-9_]+)/");
@@ -110,7 +110,7 @@ public class CaribbeancomPremiumParsingProfile extends SiteParsingProfile implem
 			Element releaseDateLabel = info_line.select("dt").first();
 			if (releaseDateLabel.text().equals("Release Date:")) {
 				Element releaseDateValue = releaseDateLabel.nextElementSibling();
-				return new ReleaseDate(releaseDateValue.text(), caribbeanReleaseDateFormat);
+				return new ReleaseDate(releaseDateValue.text(), caribbeanReleaseDateFormat.get());
 			}
 		}
 		return ReleaseDate.BLANK_RELEASEDATE;
@@ -168,7 +168,7 @@ public class CaribbeancomPremiumParsingProfile extends SiteParsingProfile implem
 	@Override
 	public Thumb[] scrapePosters() {
 		List<Thumb> posters = new LinkedList<>();
-		ID id = scrapeID();
+		ID id = getScrapedID();
 
 		try {
 			URL documentUrl = new URL(document.baseUri());
@@ -186,18 +186,19 @@ public class CaribbeancomPremiumParsingProfile extends SiteParsingProfile implem
 		//get the extra 3 free images they give
 
 		if (id != null) {
+			List<String> imagePaths = new LinkedList<>();
 			for (int i = 1; i <= 3; i++) {
-				String currentImagePath = "https://www.caribbeancompr.com/moviepages/" + id.getId() + "/images/l/00" + i + ".jpg";
-				String currentImagePathPreview = "https://www.caribbeancompr.com/moviepages/" + id.getId() + "/images/s/00" + i + ".jpg";
-				if (fileExistsAtURL(currentImagePath)) {
-					try {
-						Thumb currentImage = new Thumb(currentImagePath);
-						currentImage.setPreviewURL(new URL(currentImagePathPreview));
-						posters.add(currentImage);
-					} catch (MalformedURLException e) {
-						// TODO Auto-generated catch block
-						e.printStackTrace();
-					}
+				imagePaths.add("https://www.caribbeancompr.com/moviepages/" + id.getId() + "/images/l/00" + i + ".jpg");
+			}
+			for (String currentImagePath : filesExistingAtURLs(imagePaths)) {
+				String currentImagePathPreview = currentImagePath.replace("/images/l/", "/images/s/");
+				try {
+					Thumb currentImage = new Thumb(currentImagePath);
+					currentImage.setPreviewURL(new URL(currentImagePathPreview));
+					posters.add(currentImage);
+				} catch (MalformedURLException e) {
+					// TODO Auto-generated catch block
+					e.printStackTrace();
 				}
 			}
 		}
@@ -525,7 +526,7 @@ public class CaribbeancomPremiumParsingProfile extends SiteParsingProfile implem
 		return googleResults;
 	}
 
-	private void initializeJapaneseDocument() {
+	private synchronized void initializeJapaneseDocument() {
 		if (japaneseDocument == null) {
 			String urlOfCurrentPage = document.location();
 			if (urlOfCurrentPage != null && urlOfCurrentPage.contains("moviepages")) {
@@ -533,7 +534,7 @@ public class CaribbeancomPremiumParsingProfile extends SiteParsingProfile implem
 				urlOfCurrentPage = urlOfCurrentPage.replaceFirst(Pattern.quote("http://en.caribbeancompr.com/eng/"), "http://www.caribbeancompr.com/");
 				if (urlOfCurrentPage.length() > 1) {
 					try {
-						japaneseDocument = Jsoup.connect(urlOfCurrentPage).userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+						japaneseDocument = HttpTransport.connect(urlOfCurrentPage).userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
 					} catch (IOException e) {
 						// TODO Auto-generated catch block
 						e.printStackTrace();
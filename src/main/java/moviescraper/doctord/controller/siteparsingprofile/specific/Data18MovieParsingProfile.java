@@ -6,9 +6,10 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -16,7 +17,6 @@ import org.apache.commons.codec.EncoderException;
 import org.apache.commons.codec.net.URLCodec;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.ArrayUtils;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -45,6 +45,7 @@ import moviescraper.doctord.model.dataitem.Title;
 import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 public class Data18MovieParsingProfile extends SiteParsingProfile implements SpecificProfile, SecurityPassthrough {
 
@@ -56,7 +57,8 @@ public class Data18MovieParsingProfile extends SiteParsingProfile implements Spe
 
 	//I've unfortunately had to make this static due to the current mess of a way this type of scraping is done where the object used
 	//to create the search results is not the same as the object used to actually scrape the document.
-	private static HashMap<String, String> releaseDateMap;
+	//concurrent since the search results of one scrape can be stored while another scrape reads them
+	private static final Map<String, String> releaseDateMap = new ConcurrentHashMap<>();
 
 	@Override
 	public List<ScraperGroupName> getScraperGroupNames() {
@@ -271,7 +273,7 @@ public class Data18MovieParsingProfile extends SiteParsingProfile implements Spe
 			String currentGalleryURL = "http://www.data18.com/content/" + myID;
 			try {
 
-				Document galleryDocument = Jsoup.connect(currentGalleryURL).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE)
+				Document galleryDocument = HttpTransport.connect(currentGalleryURL).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE)
 				        .userAgent("Mozilla/5.0 (Windows NT 6.1; WOW64; rv:5.0) Gecko/20100101 Firefox/5.0").get();
 				if (galleryDocument != null) {
 					Elements galleryElement = galleryDocument.select("div a[href*=/viewer/]");
@@ -308,7 +310,7 @@ public class Data18MovieParsingProfile extends SiteParsingProfile implements Spe
 			for (int viewerPageNumber = 1; viewerPageNumber <= 15; viewerPageNumber++) {
 				String currentViewerPageURL = "http://www.data18.com/viewer/" + contentID + "/" + String.format("%02d", viewerPageNumber);
 				try {
-					Document viewerDocument = Jsoup.connect(currentViewerPageURL).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE)
+					Document viewerDocument = HttpTransport.connect(currentViewerPageURL).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE)
 					        .userAgent("Mozilla/5.0 (Windows NT 6.1; WOW64; rv:5.0) Gecko/20100101 Firefox/5.0").get();
 					if (viewerDocument != null) {
 						Element imgElement = viewerDocument.select("div#post_view a[href*=/viewer/] img").first();
@@ -463,8 +465,8 @@ public class Data18MovieParsingProfile extends SiteParsingProfile implements Spe
 		//System.out.println("Trying to scrape with URL = " + searchString);
 		if (useSiteSearch) {
 			ArrayList<SearchResult> linksList = new ArrayList<>();
-			Document doc = Jsoup.connect(searchString).userAgent("Mozilla/5.0 (Windows NT 6.1; WOW64; rv:5.0) Gecko/20100101 Firefox/5.0").ignoreHttpErrors(true)
-			        .timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+			Document doc = HttpTransport.connect(searchString).userAgent("Mozilla/5.0 (Windows NT 6.1; WOW64; rv:5.0) Gecko/20100101 Firefox/5.0").ignoreHttpErrors(true)
+			        .timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).cacheTimeToLive(getResponseCacheTimeToLive()).get();
 			Elements movieSearchResultElements = doc.select("div[style=float: left; padding: 6px; width: 130px;]");
 			if (movieSearchResultElements == null || movieSearchResultElements.size() == 0) {
 				this.useSiteSearch = false;
@@ -479,8 +481,6 @@ public class Data18MovieParsingProfile extends SiteParsingProfile implements Spe
 					Thumb currentMovieThumb = new Thumb(currentMovie.select("img").attr("src"));
 					currentMovieThumb.setViewerURL(new URL(currentMovieURL));
 					linksList.add(new SearchResult(currentMovieURL, currentMovieTitle, currentMovieThumb));
-					if (releaseDateMap == null)
-						releaseDateMap = new HashMap<>();
 					//I'm putting into a static variable that never gets freed, so this could be a potential memory leak
 					//TODO: find a better way to do this without a global variable
 					releaseDateMap.put(currentMovieURL, releaseDateText);
@@ -512,7 +512,7 @@ public class Data18MovieParsingProfile extends SiteParsingProfile implements Spe
 	public ReleaseDate scrapeReleaseDate() {
 		//Unfortunately this data is not available on full on the page we are scraping, so we store the info from the search result
 		//creation and retrieve it here
-		if (releaseDateMap != null && releaseDateMap.containsKey(document.location())) {
+		if (releaseDateMap.containsKey(document.location())) {
 			String releaseDate = releaseDateMap.get(document.location());
 			if (releaseDate != null && releaseDate.length() > 4)
 				return new ReleaseDate(releaseDate);
@@ -7,7 +7,9 @@ import java.net.URL;
 import java.text.DateFormatSymbols;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -35,11 +37,11 @@ import moviescraper.doctord.model.dataitem.Title;
 import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 import org.apache.commons.codec.EncoderException;
 import org.apache.commons.codec.net.URLCodec;
 import org.apache.commons.io.FilenameUtils;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -49,7 +51,7 @@ public class Data18WebContentParsingProfile extends SiteParsingProfile implement
 	String yearFromFilename = "";
 	String fileName;
 	Thumb[] scrapedPosters;
-	private static final SimpleDateFormat data18ReleaseDateFormat = new SimpleDateFormat("MMMM dd, yyyy", Locale.ENGLISH);
+	private static final ThreadLocal<SimpleDateFormat> data18ReleaseDateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat("MMMM dd, yyyy", Locale.ENGLISH));
 
 	@Override
 	public Title scrapeTitle() {
@@ -123,7 +125,7 @@ public class Data18WebContentParsingProfile extends SiteParsingProfile implement
 
 	@Override
 	public ReleaseDate scrapeReleaseDate() {
-		SimpleDateFormat dateFormatToUse = data18ReleaseDateFormat;
+		SimpleDateFormat dateFormatToUse = data18ReleaseDateFormat.get();
 		Element releaseDateElement = document.select("div p:contains(Date:) a").first();
 		//case where the date is not a hyperlink, but just a month and a year
 		if ((releaseDateElement != null && releaseDateElement.text() != null && releaseDateElement.text().contains("errors")) || releaseDateElement == null) {
@@ -179,7 +181,7 @@ public class Data18WebContentParsingProfile extends SiteParsingProfile implement
 						Data18MovieParsingProfile parser = new Data18MovieParsingProfile();
 						parser.setOverridenSearchResult(urlOfMovie);
 						try {
-							Document doc = Jsoup.connect(urlOfMovie).userAgent(getRandomUserAgent()).referrer("http://www.google.com").ignoreHttpErrors(true)
+							Document doc = HttpTransport.connect(urlOfMovie).userAgent(getRandomUserAgent()).referrer("http://www.google.com").ignoreHttpErrors(true)
 							        .timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
 							parser.setDocument(doc);
 							Plot data18FullMoviePlot = parser.scrapePlot();
@@ -278,7 +280,7 @@ public class Data18WebContentParsingProfile extends SiteParsingProfile implement
 				//System.out.println("currentVIewerPageURL + " + currentViewerPageURL);
 				try {
 
-					Document viewerDocument = Jsoup.connect(currentViewerPageURL).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE)
+					Document viewerDocument = HttpTransport.connect(currentViewerPageURL).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE)
 					        .userAgent("Mozilla/5.0 (Windows NT 6.1; WOW64; rv:5.0) Gecko/20100101 Firefox/5.0").get();
 					if (viewerDocument != null) {
 						Element imgElement = viewerDocument.select("div#post_view a[href*=/viewer/] img").first();
@@ -290,10 +292,11 @@ public class Data18WebContentParsingProfile extends SiteParsingProfile implement
 								Thumb thumbToAdd = new Thumb(mainImageUrl);
 								String previewURL = mainImageUrl.substring(0, mainImageUrl.length() - 6) + "th8/" + mainImageUrl.substring(mainImageUrl.length() - 6, mainImageUrl.length());
 								previewURL = fixIPAddressOfData18(previewURL);
-								if (!fileExistsAtURL(previewURL))
-									previewURL = mainImageUrl.substring(0, mainImageUrl.length() - 6) + "thumb2/" + mainImageUrl.substring(mainImageUrl.length() - 6, mainImageUrl.length());
-								if (fileExistsAtURL(previewURL))
-									thumbToAdd.setPreviewURL(new URL(previewURL));
+								String fallbackPreviewURL = mainImageUrl.substring(0, mainImageUrl.length() - 6) + "thumb2/" + mainImageUrl.substring(mainImageUrl.length() - 6, mainImageUrl.length());
+								//check both preview locations at once, preferring th8
+								List<String> existingPreviewURLs = filesExistingAtURLs(Arrays.asList(previewURL, fallbackPreviewURL));
+								if (existingPreviewURLs.size() > 0)
+									thumbToAdd.setPreviewURL(new URL(existingPreviewURLs.get(0)));
 								//System.out.println("previewURL : " + previewURL);
 								URL viewerPage = new URL(currentViewerPageURL);
 								thumbToAdd.setViewerURL(viewerPage);
@@ -418,7 +421,7 @@ public class Data18WebContentParsingProfile extends SiteParsingProfile implement
 				//Connect to the actor page to get the thumbnail
 				if (actorPageLink != null) {
 					try {
-						Document actorPage = Jsoup.connect(actorPageLink).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+						Document actorPage = HttpTransport.connect(actorPageLink).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
 						Element actorThumbnailElement = actorPage.select("div.imagepic a img[src*=/stars/]").first();
 						String actorThumbnail = null;
 						if (actorThumbnailElement != null) {
@@ -535,7 +538,8 @@ public class Data18WebContentParsingProfile extends SiteParsingProfile implement
 		scrapedPosters = null;
 		if (useSiteSearch) {
 			ArrayList<SearchResult> linksList = new ArrayList<>();
-			Document doc = Jsoup.connect(searchString).userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+			Document doc = HttpTransport.connect(searchString).userAgent("Mozilla").ignoreHttpErrors(true)
+			        .timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).cacheTimeToLive(getResponseCacheTimeToLive()).get();
 			Elements movieSearchResultElements = doc.select("div.bscene");
 			if (movieSearchResultElements == null || movieSearchResultElements.size() == 0) {
 				this.useSiteSearch = false;
@@ -2,19 +2,28 @@ package moviescraper.doctord.controller.siteparsingprofile.specific;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import moviescraper.doctord.controller.ScrapeEngine;
 import moviescraper.doctord.controller.languagetranslation.Language;
 import moviescraper.doctord.controller.languagetranslation.TranslateString;
+import moviescraper.doctord.controller.siteparsingprofile.SearchResultIterator;
 import moviescraper.doctord.controller.siteparsingprofile.SiteParsingProfile;
 import moviescraper.doctord.model.SearchResult;
 import moviescraper.doctord.model.dataitem.Actor;
@@ -38,6 +47,7 @@ import moviescraper.doctord.model.dataitem.Trailer;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
 import moviescraper.doctord.model.preferences.MoviescraperPreferences;
+import moviescraper.doctord.scraper.HttpTransport;
 
 import org.apache.commons.codec.net.URLCodec;
 import org.apache.commons.lang3.StringEscapeUtils;
@@ -106,6 +116,7 @@ public class DmmParsingProfile extends SiteParsingProfile implements SpecificPro
 		Element titleElement = document.select("[property=og:title]").first();
 		// run a google translate on the japanese title
 		if (doGoogleTranslation) {
+			translateAllUpFront();
 			return new Title(TranslateString.translateStringJapaneseToEnglish(titleElement.attr("content").toString()));
 		} else {
 			return new Title(titleElement.attr("content").toString());
@@ -128,10 +139,11 @@ public class DmmParsingProfile extends SiteParsingProfile implements SpecificPro
 
 	@Override
 	public Set scrapeSet() {
-		Element setElement = document.select("table.mg-b20 tr td a[href*=article=series/id=]").first();
+		Element setElement = selectSetElement();
 		if (setElement == null)
 			return Set.BLANK_SET;
 		else if (doGoogleTranslation) {
+			translateAllUpFront();
 			return new Set(TranslateString.translateStringJapaneseToEnglish(setElement.text()));
 		} else
 			return new Set(setElement.text());
@@ -186,14 +198,9 @@ public class DmmParsingProfile extends SiteParsingProfile implements SpecificPro
 
 	@Override
 	public Plot scrapePlot() {
-
-		//dvd mode
-		Element plotElement = document.select("p.mg-b20").first();
-		if (plotElement == null || document.baseUri().contains("/digital/video")) {
-			//video rental mode if it didnt find a match using above method
-			plotElement = document.select("tbody .mg-b20.lh4").first();
-		}
+		Element plotElement = selectPlotElement();
 		if (doGoogleTranslation) {
+			translateAllUpFront();
 			return new Plot(TranslateString.translateStringJapaneseToEnglish(plotElement.text()));
 		} else
 			return new Plot(plotElement.text());
@@ -242,16 +249,19 @@ public class DmmParsingProfile extends SiteParsingProfile implements SpecificPro
 					String cid = matcher.group(1);
 					int bitrates = Integer.parseInt(matcher.group(2));
 					String ratio = matcher.group(3);
-					String quality = (bitrates & 0b100) != 0 ? "dmb" : (bitrates & 0b010) != 0 ? "dm" : "sm";
 					String firstLetterOfCid = cid.substring(0, 1);
 					String threeLetterCidCode = cid.substring(0, 3);
 
-					String potentialTrailerURL = String.format("https://cc3001.dmm.co.jp/litevideo/freepv/%1$s/%2$s/%3$s/%3$s_%4$s_%5$s.mp4", firstLetterOfCid, threeLetterCidCode, cid, quality,
-					        ratio);
-
-					if (SiteParsingProfile.fileExistsAtURL(potentialTrailerURL)) {
-						System.out.println("Trailer existed at: " + potentialTrailerURL);
-						return new Trailer(potentialTrailerURL);
+					//check every quality the player offers at once and use the best one which exists
+					List<String> potentialTrailerURLs = new ArrayList<>();
+					for (String quality : getTrailerQualities(bitrates)) {
+						potentialTrailerURLs.add(String.format("https://cc3001.dmm.co.jp/litevideo/freepv/%1$s/%2$s/%3$s/%3$s_%4$s_%5$s.mp4", firstLetterOfCid, threeLetterCidCode, cid, quality,
+						        ratio));
+					}
+					List<String> existingTrailerURLs = SiteParsingProfile.filesExistingAtURLs(potentialTrailerURLs);
+					if (existingTrailerURLs.size() > 0) {
+						System.out.println("Trailer existed at: " + existingTrailerURLs.get(0));
+						return new Trailer(existingTrailerURLs.get(0));
 					}
 				}
 
@@ -264,6 +274,20 @@ public class DmmParsingProfile extends SiteParsingProfile implements SpecificPro
 		return Trailer.BLANK_TRAILER;
 	}
 
+	/**
+	 * @param bitrates - bit flags of the trailer qualities offered by the flash player
+	 * @return the trailer qualities to try, best first
+	 */
+	private static List<String> getTrailerQualities(int bitrates) {
+		List<String> qualities = new ArrayList<>(3);
+		if ((bitrates & 0b100) != 0)
+			qualities.add("dmb");
+		if ((bitrates & 0b010) != 0)
+			qualities.add("dm");
+		qualities.add("sm");
+		return qualities;
+	}
+
 	@Override
 	public Thumb[] scrapePosters() {
 		//don't crop the cover for videoc elements as it is a website release and does not have dvd art
@@ -315,16 +339,19 @@ public class DmmParsingProfile extends SiteParsingProfile implements SpecificPro
 			// maybe you're someone who doesn't want the movie poster as the cover.
 			// Include the extra art in case
 			// you want to use one of those
+			List<String> extraArtLinks = new ArrayList<>(extraArtElementsSmallSize.size());
 			for (Element item : extraArtElementsSmallSize) {
 
 				// We need to do some string manipulation and put a "jp" before the
 				// last dash in the URL to get the full size picture
 				String extraArtLinkSmall = item.attr("abs:src");
 				int indexOfLastDash = extraArtLinkSmall.lastIndexOf('-');
-				String URLpath = extraArtLinkSmall.substring(0, indexOfLastDash) + "jp" + extraArtLinkSmall.substring(indexOfLastDash);
+				extraArtLinks.add(extraArtLinkSmall.substring(0, indexOfLastDash) + "jp" + extraArtLinkSmall.substring(indexOfLastDash));
+			}
+			//check all of the full size links at once
+			for (String URLpath : SiteParsingProfile.filesExistingAtURLs(extraArtLinks)) {
 				try {
-					if (Thumb.fileExistsAtUrl(URLpath))
-						posters.add(new Thumb(URLpath));
+					posters.add(new Thumb(URLpath));
 				} catch (IOException e) {
 					// TODO Auto-generated catch block
 					e.printStackTrace();
@@ -392,7 +419,9 @@ public class DmmParsingProfile extends SiteParsingProfile implements SpecificPro
 
 	@Override
 	public ArrayList<Genre> scrapeGenres() {
-		Elements genreElements = document.select("table.mg-b12 tr td a[href*=article=keyword/id=]");
+		Elements genreElements = selectGenreElements();
+		if (doGoogleTranslation)
+			translateAllUpFront();
 		ArrayList<Genre> genres = new ArrayList<>(genreElements.size());
 		for (Element genreElement : genreElements) {
 			// get the link so we can examine the id and do some sanity cleanup
@@ -423,6 +452,53 @@ public class DmmParsingProfile extends SiteParsingProfile implements SpecificPro
 		return genres;
 	}
 
+	private Element selectSetElement() {
+		return document.select("table.mg-b20 tr td a[href*=article=series/id=]").first();
+	}
+
+	private Element selectPlotElement() {
+		//dvd mode
+		Element plotElement = document.select("p.mg-b20").first();
+		if (plotElement == null || document.baseUri().contains("/digital/video")) {
+			//video rental mode if it didnt find a match using above method
+			plotElement = document.select("tbody .mg-b20.lh4").first();
+		}
+		return plotElement;
+	}
+
+	private Elements selectGenreElements() {
+		return document.select("table.mg-b12 tr td a[href*=article=keyword/id=]");
+	}
+
+	private Element selectDirectorElement() {
+		return document.select("table.mg-b20 tr td a[href*=article=director/id=]").first();
+	}
+
+	private Element selectStudioElement() {
+		return document.select("table.mg-b20 tr td a[href*=article=label/id=]").first();
+	}
+
+	/**
+	 * Translates everything on the page which will need translating with one request, once per document.
+	 * The scrape methods then get their translations from the translation memory.
+	 */
+	private void translateAllUpFront() {
+		memoize("translations", () -> {
+			List<String> stringsToTranslate = new ArrayList<>();
+			Element titleElement = document.select("[property=og:title]").first();
+			if (titleElement != null)
+				stringsToTranslate.add(titleElement.attr("content"));
+			for (Element currentElement : Arrays.asList(selectSetElement(), selectPlotElement(), selectDirectorElement(), selectStudioElement())) {
+				if (currentElement != null)
+					stringsToTranslate.add(currentElement.text());
+			}
+			for (Element genreElement : selectGenreElements()) {
+				stringsToTranslate.add(genreElement.text());
+			}
+			return TranslateString.translateStringsJapaneseToEnglish(stringsToTranslate);
+		});
+	}
+
 	private String betterGenreTranslation(String text, String genreID) {
 		String betterGenreTranslatedString = "";
 		switch (genreID) {
@@ -533,7 +609,7 @@ public class DmmParsingProfile extends SiteParsingProfile implements SpecificPro
 			String actressID = actressIDHref.substring(actressIDHref.indexOf("id=") + 3, actressIDHref.length() - 1);
 			String actressPageURL = "https://actress.dmm.co.jp/-/detail/=/actress_id=" + actressID + "/";
 			try {
-				Document actressPage = Jsoup.connect(actressPageURL).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+				Document actressPage = HttpTransport.connect(actressPageURL).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
 				Element actressNameElement = actressPage.select("td.t1 h1").first();
 				Element actressThumbnailElement = actressPage.select("tr.area-av30.top td img").first();
 				String actressThumbnailPath = actressThumbnailElement.attr("abs:src");
@@ -618,11 +694,12 @@ public class DmmParsingProfile extends SiteParsingProfile implements SpecificPro
 	@Override
 	public ArrayList<Director> scrapeDirectors() {
 		ArrayList<Director> directors = new ArrayList<>();
-		Element directorElement = document.select("table.mg-b20 tr td a[href*=article=director/id=]").first();
+		Element directorElement = selectDirectorElement();
 		if (directorElement != null && directorElement.hasText()) {
-			if (doGoogleTranslation)
+			if (doGoogleTranslation) {
+				translateAllUpFront();
 				directors.add(new Director(TranslateString.translateStringJapaneseToEnglish(directorElement.text()), null));
-			else
+			} else
 				directors.add(new Director(directorElement.text(), null));
 		}
 		return directors;
@@ -630,11 +707,12 @@ public class DmmParsingProfile extends SiteParsingProfile implements SpecificPro
 
 	@Override
 	public Studio scrapeStudio() {
-		Element studioElement = document.select("table.mg-b20 tr td a[href*=article=label/id=]").first();
+		Element studioElement = selectStudioElement();
 		if (studioElement != null) {
-			if (doGoogleTranslation)
+			if (doGoogleTranslation) {
+				translateAllUpFront();
 				return new Studio(TranslateString.translateStringJapaneseToEnglish(studioElement.text()));
-			else
+			} else
 				return new Studio(studioElement.text());
 		} else
 			return Studio.BLANK_STUDIO;
@@ -664,70 +742,187 @@ public class DmmParsingProfile extends SiteParsingProfile implements SpecificPro
 	 */
 	@Override
 	public SearchResult[] getSearchResults(String searchString) throws IOException {
-		boolean firstPageScraping = true;
-		Document searchResultsPage = Jsoup.connect(searchString).timeout(CONNECTION_TIMEOUT_VALUE).get();
-		Element nextPageLink = searchResultsPage.select("div.list-capt div.list-boxcaptside.list-boxpagenation ul li:not(.terminal) a").last();
+		SearchResultIterator searchResultIterator = getSearchResultIterator(searchString);
 		ArrayList<SearchResult> searchResults = new ArrayList<>();
-		ArrayList<String> pagesVisited = new ArrayList<>();
-		while (firstPageScraping || nextPageLink != null) {
-			nextPageLink = searchResultsPage.select("div.list-capt div.list-boxcaptside.list-boxpagenation ul li:not(.terminal) a").last();
-			String currentPageURL = searchResultsPage.baseUri();
-			String nextPageURL = "";
-			if (nextPageLink != null)
-				nextPageURL = nextPageLink.attr("abs:href");
-			pagesVisited.add(currentPageURL);
-			//I can probably combine this into one selector, but it wasn't working when I tried it,
-			//so for now I'm making each its own variable and looping through and adding in all the elements seperately
-			Elements dvdLinks = searchResultsPage.select("p.tmb a[href*=/mono/dvd/");
-			Elements rentalElements = searchResultsPage.select("p.tmb a[href*=/rental/ppr/");
-			Elements digitalElements = searchResultsPage.select("p.tmb a[href*=/digital/videoa/], p.tmb a[href*=/digital/videoc/]");
-
-			//get /mono/dvd links
-			for (int i = 0; i < dvdLinks.size(); i++) {
-				String currentLink = dvdLinks.get(i).attr("abs:href");
-				Element imageLinkElement = dvdLinks.get(i).select("img").first();
-				if (imageLinkElement != null) {
-					Thumb currentPosterThumbnail = new Thumb(imageLinkElement.attr("abs:src"));
-					searchResults.add(new SearchResult(currentLink, "", currentPosterThumbnail));
-				} else {
-					searchResults.add(new SearchResult(currentLink));
-				}
+		try {
+			while (searchResultIterator.hasNext())
+				searchResults.add(searchResultIterator.next());
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			searchResultIterator.close();
+		}
+		return searchResults.toArray(new SearchResult[searchResults.size()]);
+	}
+
+	/**
+	 * Downloads the first page of search results right away and each following page only once the results before it are read.
+	 * The next page is downloaded in the background on the {@link ScrapeEngine} once the reader gets near the end of the current one.
+	 */
+	@Override
+	public SearchResultIterator getSearchResultIterator(String searchString) throws IOException {
+		Document firstSearchResultsPage = HttpTransport.connect(searchString).timeout(CONNECTION_TIMEOUT_VALUE).cacheTimeToLive(getResponseCacheTimeToLive()).get();
+		return new PagedSearchResultIterator(firstSearchResultsPage, getResponseCacheTimeToLive());
+	}
+
+	private static List<SearchResult> parseSearchResultsPage(Document searchResultsPage) throws IOException {
+		List<SearchResult> searchResults = new ArrayList<>();
+		//I can probably combine this into one selector, but it wasn't working when I tried it,
+		//so for now I'm making each its own variable and looping through and adding in all the elements seperately
+		Elements dvdLinks = searchResultsPage.select("p.tmb a[href*=/mono/dvd/");
+		Elements rentalElements = searchResultsPage.select("p.tmb a[href*=/rental/ppr/");
+		Elements digitalElements = searchResultsPage.select("p.tmb a[href*=/digital/videoa/], p.tmb a[href*=/digital/videoc/]");
+
+		//get /mono/dvd links
+		for (int i = 0; i < dvdLinks.size(); i++) {
+			String currentLink = dvdLinks.get(i).attr("abs:href");
+			Element imageLinkElement = dvdLinks.get(i).select("img").first();
+			if (imageLinkElement != null) {
+				Thumb currentPosterThumbnail = new Thumb(imageLinkElement.attr("abs:src"));
+				searchResults.add(new SearchResult(currentLink, "", currentPosterThumbnail));
+			} else {
+				searchResults.add(new SearchResult(currentLink));
 			}
-			//get /rental/ppr links
-			for (int i = 0; i < rentalElements.size(); i++) {
-				String currentLink = rentalElements.get(i).attr("abs:href");
-				Element imageLinkElement = rentalElements.get(i).select("img").first();
-				if (imageLinkElement != null) {
-					Thumb currentPosterThumbnail = new Thumb(imageLinkElement.attr("abs:src"));
-					searchResults.add(new SearchResult(currentLink, "", currentPosterThumbnail));
-				} else {
-					searchResults.add(new SearchResult(currentLink));
-				}
+		}
+		//get /rental/ppr links
+		for (int i = 0; i < rentalElements.size(); i++) {
+			String currentLink = rentalElements.get(i).attr("abs:href");
+			Element imageLinkElement = rentalElements.get(i).select("img").first();
+			if (imageLinkElement != null) {
+				Thumb currentPosterThumbnail = new Thumb(imageLinkElement.attr("abs:src"));
+				searchResults.add(new SearchResult(currentLink, "", currentPosterThumbnail));
+			} else {
+				searchResults.add(new SearchResult(currentLink));
 			}
-			//get /digital/videoa links
-			for (int i = 0; i < digitalElements.size(); i++) {
-				String currentLink = digitalElements.get(i).attr("abs:href");
-				System.out.println("currentLink = " + currentLink);
-				Element imageLinkElement = digitalElements.get(i).select("img").first();
-				if (imageLinkElement != null) {
-					Thumb currentPosterThumbnail = new Thumb(imageLinkElement.attr("abs:src"));
-					searchResults.add(new SearchResult(currentLink, "", currentPosterThumbnail));
-				} else {
-					searchResults.add(new SearchResult(currentLink));
-				}
+		}
+		//get /digital/videoa links
+		for (int i = 0; i < digitalElements.size(); i++) {
+			String currentLink = digitalElements.get(i).attr("abs:href");
+			System.out.println("currentLink = " + currentLink);
+			Element imageLinkElement = digitalElements.get(i).select("img").first();
+			if (imageLinkElement != null) {
+				Thumb currentPosterThumbnail = new Thumb(imageLinkElement.attr("abs:src"));
+				searchResults.add(new SearchResult(currentLink, "", currentPosterThumbnail));
+			} else {
+				searchResults.add(new SearchResult(currentLink));
 			}
-			firstPageScraping = false;
+		}
+		return searchResults;
+	}
+
+	/**
+	 * @return the URL of the "next page" link, or null if this is the last page
+	 */
+	private static String getNextPageURL(Document searchResultsPage) {
+		Element nextPageLink = searchResultsPage.select("div.list-capt div.list-boxcaptside.list-boxpagenation ul li:not(.terminal) a").last();
+		if (nextPageLink == null)
+			return null;
+		return nextPageLink.attr("abs:href");
+	}
+
+	/**
+	 * Reads DMM's search results page by page. A failure to download a later page ends the results instead of losing the ones already read.
+	 */
+	private static class PagedSearchResultIterator implements SearchResultIterator {
+		//results left on the current page when the download of the next page is started
+		private static final int PREFETCH_WHEN_RESULTS_LEFT = 5;
+
+		private final long cacheTimeToLive;
+		private final HashSet<String> pagesVisited = new HashSet<>();
+		private List<SearchResult> currentPageResults;
+		private int nextIndex;
+		private String nextPageURL;
+		private CompletableFuture<Document> nextPage;
+		//set by whichever starts downloading the next page first, the background download or a reader which cannot wait for it
+		private AtomicBoolean nextPageStarted;
+
+		PagedSearchResultIterator(Document firstSearchResultsPage, long cacheTimeToLive) throws IOException {
+			this.cacheTimeToLive = cacheTimeToLive;
+			showPage(firstSearchResultsPage);
+		}
+
+		private void showPage(Document searchResultsPage) throws IOException {
+			pagesVisited.add(searchResultsPage.baseUri());
+			currentPageResults = parseSearchResultsPage(searchResultsPage);
+			nextIndex = 0;
 			//get the next page of search results (if it exists) using the "next page" link, but only if we haven't visited that page before
 			//TODO this is really not the cleanest way of doing this - I can probably find some way to make the selector not send me in a loop
 			//of pages, but this will work for now
-			if (nextPageLink != null && !pagesVisited.contains(nextPageURL))
-				searchResultsPage = Jsoup.connect(nextPageURL).get();
-			else
-				break;
+			nextPageURL = getNextPageURL(searchResultsPage);
+			if (nextPageURL != null && pagesVisited.contains(nextPageURL))
+				nextPageURL = null;
+			nextPage = null;
+			nextPageStarted = null;
+		}
 
+		@Override
+		public boolean hasNextLoaded() {
+			return nextIndex < currentPageResults.size();
 		}
 
-		return searchResults.toArray(new SearchResult[searchResults.size()]);
+		/**
+		 * Also starts downloading the next page near the end of the current one, since a reader calling this instead of
+		 * {@link #hasNextLoaded()} is willing to read on to the next page
+		 */
+		@Override
+		public boolean hasNext() {
+			if (currentPageResults.size() - nextIndex <= PREFETCH_WHEN_RESULTS_LEFT)
+				startNextPageDownload();
+			//pages without any results are skipped
+			while (!hasNextLoaded() && nextPageURL != null) {
+				try {
+					showPage(readNextPage());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new UncheckedIOException(new InterruptedIOException("Interrupted while downloading " + nextPageURL));
+				} catch (ExecutionException | IOException e) {
+					System.err.println("Could not read the next page of search results " + nextPageURL + ": " + (e instanceof ExecutionException ? e.getCause() : e));
+					nextPageURL = null;
+				}
+			}
+			return hasNextLoaded();
+		}
+
+		@Override
+		public SearchResult next() {
+			if (!hasNextLoaded() && !hasNext())
+				throw new NoSuchElementException();
+			return currentPageResults.get(nextIndex++);
+		}
+
+		private void startNextPageDownload() {
+			if (nextPage != null || nextPageURL == null)
+				return;
+			String pageURL = nextPageURL;
+			AtomicBoolean started = new AtomicBoolean();
+			nextPageStarted = started;
+			nextPage = ScrapeEngine.getInstance().submit(() -> started.compareAndSet(false, true) ? downloadPage(pageURL) : null);
+		}
+
+		/**
+		 * Waits for the next page if its download is running. A download still queued for a thread is not waited for but done
+		 * here instead, as the reader may itself be running on one of the engine's threads.
+		 */
+		private Document readNextPage() throws InterruptedException, ExecutionException, IOException {
+			if (nextPage == null || nextPageStarted.compareAndSet(false, true)) {
+				if (nextPage != null)
+					nextPage.cancel(true);
+				return downloadPage(nextPageURL);
+			}
+			return nextPage.get();
+		}
+
+		private Document downloadPage(String pageURL) throws IOException {
+			return HttpTransport.connect(pageURL).timeout(CONNECTION_TIMEOUT_VALUE).cacheTimeToLive(cacheTimeToLive).get();
+		}
+
+		@Override
+		public void close() {
+			if (nextPage != null)
+				nextPage.cancel(true);
+			nextPage = null;
+			nextPageURL = null;
+		}
 	}
 
 	public SearchResult[] getSearchResultsWithoutDVDLinks(String dmmSearchString) throws IOException {
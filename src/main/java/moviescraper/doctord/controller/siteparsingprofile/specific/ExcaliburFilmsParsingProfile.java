@@ -15,7 +15,6 @@ import java.util.logging.Logger;
 import org.apache.commons.codec.EncoderException;
 import org.apache.commons.codec.net.URLCodec;
 import org.apache.commons.io.FilenameUtils;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -43,6 +42,7 @@ import moviescraper.doctord.model.dataitem.Title;
 import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 public class ExcaliburFilmsParsingProfile extends SiteParsingProfile implements SpecificProfile {
 
@@ -152,7 +152,7 @@ public class ExcaliburFilmsParsingProfile extends SiteParsingProfile implements
 
 	@Override
 	public Thumb[] scrapePosters() {
-		String movieID = scrapeID().getId();
+		String movieID = getScrapedID().getId();
 		String thumbPath = getPosterPathFromIDString(movieID);
 		if (thumbPath == null)
 			return new Thumb[0];
@@ -189,7 +189,7 @@ public class ExcaliburFilmsParsingProfile extends SiteParsingProfile implements
 	 */
 	@Override
 	public Thumb[] scrapeExtraFanart() {
-		String movieID = scrapeID().getId();
+		String movieID = getScrapedID().getId();
 		String thumbPath = "http://images.excaliburfilms.com/DVD/reviews/imagesBB020609/largemoviepic/dvd_" + movieID + "-b.jpg";
 		try {
 			Thumb posterThumb = new Thumb(thumbPath);
@@ -354,7 +354,7 @@ public class ExcaliburFilmsParsingProfile extends SiteParsingProfile implements
 	@Override
 	public SearchResult[] getSearchResults(String searchString) throws IOException {
 		System.out.println(searchString);
-		Document doc = Jsoup.connect(searchString).timeout(CONNECTION_TIMEOUT_VALUE).referrer("https://www.excaliburfilms.com").get();
+		Document doc = HttpTransport.connect(searchString).timeout(CONNECTION_TIMEOUT_VALUE).referrer("https://www.excaliburfilms.com").get();
 		boolean onSearchResultsPage = doc.location().contains("adultSearch.htm");
 		//found the movie without a search results page
 		if (doc.location() != null && !onSearchResultsPage) {
@@ -5,11 +5,11 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.io.FilenameUtils;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -38,6 +38,7 @@ import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Trailer;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 public class HeyzoParsingProfile extends SiteParsingProfile implements SpecificProfile {
 
@@ -57,12 +58,15 @@ public class HeyzoParsingProfile extends SiteParsingProfile implements SpecificP
 
 	@Override
 	public Title scrapeTitle() {
-		Element titleElement = document.select("div#movie h1").first();
+		return new Title(scrapeTitleFromDocument(document));
+	}
+
+	private static String scrapeTitleFromDocument(Document documentToScrape) {
+		Element titleElement = documentToScrape != null ? documentToScrape.select("div#movie h1").first() : null;
 		if (titleElement != null) {
-			String titleElementText = titleElement.text().trim().replaceAll("[ ]+", " ");
-			return new Title(titleElementText);
+			return titleElement.text().trim().replaceAll("[ ]+", " ");
 		}
-		return new Title("");
+		return "";
 	}
 
 	@Override
@@ -70,11 +74,8 @@ public class HeyzoParsingProfile extends SiteParsingProfile implements SpecificP
 		if (scrapingLanguage == Language.JAPANESE)
 			return new OriginalTitle(scrapeTitle().getTitle());
 		else {
-			Document originalDocument = document;
-			document = japaneseDocument;
-			OriginalTitle originalTitle = new OriginalTitle(scrapeTitle().getTitle());
-			document = originalDocument;
-			return originalTitle;
+			//read the japanese page directly rather than swapping out the document, which other scrape methods may be reading at the same time
+			return new OriginalTitle(scrapeTitleFromDocument(japaneseDocument));
 		}
 	}
 
@@ -168,18 +169,18 @@ public class HeyzoParsingProfile extends SiteParsingProfile implements SpecificP
 	@Override
 	public Thumb[] scrapePosters() {
 		ArrayList<Thumb> thumbList = new ArrayList<>();
-		String scrapedId = scrapeID().getId();
+		String scrapedId = getScrapedID().getId();
 		try {
-			//gallery links
+			//gallery links, all checked at once since most movies only have some of them
+			List<String> potentialGalleryImageURLs = new ArrayList<>();
 			for (int i = 1; i <= 21; i++) {
-				String potentialGalleryImageURL = "http://en.heyzo.com/contents/3000/" + scrapedId + "/gallery/0" + String.format("%02d", i) + ".jpg";
-				String potentialGalleryPreviewImageURL = "http://en.heyzo.com/contents/3000/" + scrapedId + "/gallery/thumbnail_0" + String.format("%02d", i) + ".jpg";
-				if (SiteParsingProfile.fileExistsAtURL(potentialGalleryImageURL)) {
-					Thumb thumbToAdd = new Thumb(potentialGalleryImageURL);
-					thumbToAdd.setPreviewURL(new URL(potentialGalleryPreviewImageURL));
-					thumbList.add(thumbToAdd);
-
-				}
+				potentialGalleryImageURLs.add("http://en.heyzo.com/contents/3000/" + scrapedId + "/gallery/0" + String.format("%02d", i) + ".jpg");
+			}
+			for (String galleryImageURL : SiteParsingProfile.filesExistingAtURLs(potentialGalleryImageURLs)) {
+				String galleryPreviewImageURL = galleryImageURL.replace("/gallery/0", "/gallery/thumbnail_0");
+				Thumb thumbToAdd = new Thumb(galleryImageURL);
+				thumbToAdd.setPreviewURL(new URL(galleryPreviewImageURL));
+				thumbList.add(thumbToAdd);
 			}
 			//image that is the preview of the trailer
 			Thumb trailerPreviewThumb = new Thumb("http://www.heyzo.com/contents/3000/" + scrapedId + "/images/player_thumbnail_450.jpg");
@@ -194,7 +195,7 @@ public class HeyzoParsingProfile extends SiteParsingProfile implements SpecificP
 
 	@Override
 	public Trailer scrapeTrailer() {
-		String scrapedId = scrapeID().getId();
+		String scrapedId = getScrapedID().getId();
 		String trailerURL = "http://sample.heyzo.com/contents/3000/" + scrapedId + "/heyzo_hd_0194_sample.mp4";
 		if (SiteParsingProfile.fileExistsAtURL(trailerURL))
 			return new Trailer(trailerURL);
@@ -295,7 +296,7 @@ public class HeyzoParsingProfile extends SiteParsingProfile implements SpecificP
 			englishPage = "http://en.heyzo.com/moviepages/" + fileID + "/index.html";
 			japanesePage = "http://www.heyzo.com/moviepages/" + fileID + "/index.html";
 			try {
-				japaneseDocument = Jsoup.connect(japanesePage).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+				japaneseDocument = HttpTransport.connect(japanesePage).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
 			} catch (IOException e) {
 				// TODO Auto-generated catch block
 				e.printStackTrace();
@@ -12,7 +12,6 @@ import org.apache.commons.codec.EncoderException;
 import org.apache.commons.codec.net.URLCodec;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -39,6 +38,7 @@ import moviescraper.doctord.model.dataitem.Title;
 import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 public class IAFDParsingProfile extends SiteParsingProfile implements SpecificProfile {
 
@@ -316,8 +316,8 @@ public class IAFDParsingProfile extends SiteParsingProfile implements SpecificPr
 	public SearchResult[] getSearchResults(String searchString) throws IOException {
 		if (useSiteSearch) {
 			ArrayList<SearchResult> linksList = new ArrayList<>();
-			Document doc = Jsoup.connect(searchString).userAgent(getRandomUserAgent()).referrer("http://www.iafd.com").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE)
-			        .get();
+			Document doc = HttpTransport.connect(searchString).userAgent(getRandomUserAgent()).referrer("http://www.iafd.com").ignoreHttpErrors(true)
+			        .timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
 			//check to see if we directly found the title
 			if (doc != null && doc.location().contains("title.asp?title=")) {
 				String title = doc.select(getTitleElementSelector()).first().text();
@@ -11,7 +11,6 @@ import java.util.regex.Pattern;
 
 import org.apache.commons.codec.net.URLCodec;
 import org.apache.commons.lang3.text.WordUtils;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -41,6 +40,7 @@ import moviescraper.doctord.model.dataitem.Title;
 import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 public class JavBusParsingProfile extends SiteParsingProfile implements SpecificProfile {
 
@@ -58,7 +58,7 @@ public class JavBusParsingProfile extends SiteParsingProfile implements Specific
 		return groupNames;
 	}
 
-	private void initializeJapaneseDocument() {
+	private synchronized void initializeJapaneseDocument() {
 		if (japaneseDocument == null) {
 			String urlOfCurrentPage = document.location();
 			if (urlOfCurrentPage != null && urlOfCurrentPage.contains("/en/")) {
@@ -66,7 +66,7 @@ public class JavBusParsingProfile extends SiteParsingProfile implements Specific
 				urlOfCurrentPage = urlOfCurrentPage.replaceFirst(Pattern.quote("http://www.javbus.com/en/"), "http://www.javbus.com/ja/");
 				if (urlOfCurrentPage.length() > 1) {
 					try {
-						japaneseDocument = Jsoup.connect(urlOfCurrentPage).userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+						japaneseDocument = HttpTransport.connect(urlOfCurrentPage).userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
 					} catch (IOException e) {
 						// TODO Auto-generated catch block
 						e.printStackTrace();
@@ -79,16 +79,13 @@ public class JavBusParsingProfile extends SiteParsingProfile implements Specific
 
 	@Override
 	public Title scrapeTitle() {
-		Element titleElement = document.select("title").first();
-		if (titleElement != null) {
-			String titleText = titleElement.text();
-			titleText = titleText.replace("- JavBus", "");
-			//Remove the ID from the front of the title
-			if (titleText.contains(" "))
-				titleText = titleText.substring(titleText.indexOf(" "), titleText.length());
+		String titleText = getTitleText(document);
+		if (titleText != null) {
 			//Translate the element using google translate if needed
-			if (scrapingLanguage == Language.ENGLISH && JapaneseCharacter.containsJapaneseLetter(titleText))
+			if (scrapingLanguage == Language.ENGLISH && JapaneseCharacter.containsJapaneseLetter(titleText)) {
+				translateAllUpFront();
 				titleText = TranslateString.translateStringJapaneseToEnglish(titleText);
+			}
 			return new Title(titleText);
 		} else
 			return new Title("");
@@ -98,19 +95,58 @@ public class JavBusParsingProfile extends SiteParsingProfile implements Specific
 	public OriginalTitle scrapeOriginalTitle() {
 		initializeJapaneseDocument();
 		if (japaneseDocument != null) {
-			Element titleElement = japaneseDocument.select("title").first();
-			if (titleElement != null) {
-				String titleText = titleElement.text();
-				titleText = titleText.replace("- JavBus", "");
-				//Remove the ID from the front of the title
-				if (titleText.contains(" "))
-					titleText = titleText.substring(titleText.indexOf(" "), titleText.length());
+			String titleText = getTitleText(japaneseDocument);
+			if (titleText != null)
 				return new OriginalTitle(titleText);
-			}
 		}
 		return OriginalTitle.BLANK_ORIGINALTITLE;
 	}
 
+	/**
+	 * @return the title of the page without the ID and site name, or null if the page has no title
+	 */
+	private static String getTitleText(Document documentToScrape) {
+		Element titleElement = documentToScrape.select("title").first();
+		if (titleElement == null)
+			return null;
+		String titleText = titleElement.text();
+		titleText = titleText.replace("- JavBus", "");
+		//Remove the ID from the front of the title
+		if (titleText.contains(" "))
+			titleText = titleText.substring(titleText.indexOf(" "), titleText.length());
+		return titleText;
+	}
+
+	private Element selectSetElement() {
+		String seriesWord = (scrapingLanguage == Language.ENGLISH) ? "Series:" : "シリーズ:";
+		return document.select("span.header:containsOwn(" + seriesWord + ") ~ a").first();
+	}
+
+	private Elements selectGenreElements() {
+		return document.select("span.genre a[href*=/genre/");
+	}
+
+	/**
+	 * Translates the Japanese text left on the English page with one request, once per document.
+	 * The scrape methods then get their translations from the translation memory.
+	 */
+	private void translateAllUpFront() {
+		memoize("translations", () -> {
+			List<String> stringsToTranslate = new ArrayList<>();
+			String titleText = getTitleText(document);
+			if (titleText != null)
+				stringsToTranslate.add(titleText);
+			Element setElement = selectSetElement();
+			if (setElement != null)
+				stringsToTranslate.add(setElement.text());
+			for (Element genreElement : selectGenreElements()) {
+				stringsToTranslate.add(genreElement.text());
+			}
+			stringsToTranslate.removeIf(currentString -> !JapaneseCharacter.containsJapaneseLetter(currentString));
+			return TranslateString.translateStringsJapaneseToEnglish(stringsToTranslate);
+		});
+	}
+
 	@Override
 	public SortTitle scrapeSortTitle() {
 		return SortTitle.BLANK_SORTTITLE;
@@ -118,11 +154,11 @@ public class JavBusParsingProfile extends SiteParsingProfile implements Specific
 
 	@Override
 	public Set scrapeSet() {
-		String seriesWord = (scrapingLanguage == Language.ENGLISH) ? "Series:" : "シリーズ:";
-		Element setElement = document.select("span.header:containsOwn(" + seriesWord + ") ~ a").first();
+		Element setElement = selectSetElement();
 		if (setElement != null && setElement.text().length() > 0) {
 			String setText = setElement.text();
 			if (scrapingLanguage == Language.ENGLISH && JapaneseCharacter.containsJapaneseLetter(setText)) {
+				translateAllUpFront();
 				setText = TranslateString.translateStringJapaneseToEnglish(setText);
 			}
 			return new Set(setText);
@@ -252,13 +288,14 @@ public class JavBusParsingProfile extends SiteParsingProfile implements Specific
 	@Override
 	public ArrayList<Genre> scrapeGenres() {
 		ArrayList<Genre> genreList = new ArrayList<>();
-		Elements genreElements = document.select("span.genre a[href*=/genre/");
+		Elements genreElements = selectGenreElements();
 		if (genreElements != null) {
 			for (Element genreElement : genreElements) {
 				String genreText = genreElement.text();
 				if (genreElement.text().length() > 0) {
 					//some genre elements are untranslated, even on the english site, so we need to do it ourselves
 					if (scrapingLanguage == Language.ENGLISH && JapaneseCharacter.containsJapaneseLetter(genreText)) {
+						translateAllUpFront();
 						genreText = TranslateString.translateStringJapaneseToEnglish(genreText);
 					}
 					genreList.add(new Genre(WordUtils.capitalize(genreText)));
@@ -342,14 +379,16 @@ public class JavBusParsingProfile extends SiteParsingProfile implements Specific
 	public SearchResult[] getSearchResults(String searchString) throws IOException {
 		ArrayList<SearchResult> linksList = new ArrayList<>();
 		try {
-			Document doc = Jsoup.connect(searchString).userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+			Document doc = HttpTransport.connect(searchString).userAgent("Mozilla").ignoreHttpErrors(true)
+			        .timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).cacheTimeToLive(getResponseCacheTimeToLive()).get();
 			Elements videoLinksElements = doc.select("div.item");
 			String secondPage = searchString;
 			if (videoLinksElements == null || videoLinksElements.size() == 0) {
 				secondPage = searchString.replace("/search/", "/uncensored/search/");
 				isCensoredSearch = false;
 			}
-			doc = Jsoup.connect(secondPage).userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+			doc = HttpTransport.connect(secondPage).userAgent("Mozilla").ignoreHttpErrors(true)
+			        .timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).cacheTimeToLive(getResponseCacheTimeToLive()).get();
 			videoLinksElements = doc.select("div.item");
 			if (videoLinksElements != null) {
 				for (Element videoLink : videoLinksElements) {
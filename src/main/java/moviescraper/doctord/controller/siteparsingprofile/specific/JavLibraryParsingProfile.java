@@ -58,7 +58,7 @@ public class JavLibraryParsingProfile extends SiteParsingProfile implements Spec
 	private String overrideURLJavLibrary;
 	private static DitzyHeadlessBrowser browser;
 
-	private static final SimpleDateFormat javLibraryReleaseDateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.ENGLISH);
+	private static final ThreadLocal<SimpleDateFormat> javLibraryReleaseDateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd", Locale.ENGLISH));
 
 	@Override
 	public List<ScraperGroupName> getScraperGroupNames() {
@@ -74,13 +74,21 @@ public class JavLibraryParsingProfile extends SiteParsingProfile implements Spec
 	@Override
 	public Document downloadDocument(SearchResult searchResult) {
 		try {
-			return browser.get(new URL(searchResult.getUrlPath()));
+			return browser.get(new URL(searchResult.getUrlPath()), getResponseCacheTimeToLive());
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 		return null;
 	}
 
+	/**
+	 * JavLibrary's pages are fetched with the Cloudflare clearance and session cookies of the cookie jar, so they are never stored on disk
+	 */
+	@Override
+	public long getResponseCacheTimeToLive() {
+		return -1;
+	}
+
 	public void setOverrideURLJavLibrary(String overrideURLJavLibrary) {
 		this.overrideURLJavLibrary = overrideURLJavLibrary;
 	}
@@ -94,7 +102,7 @@ public class JavLibraryParsingProfile extends SiteParsingProfile implements Spec
 		siteLanguageToScrape = determineLanguageToUse();
 	}
 
-	private void browserConfigure() {
+	private static synchronized void browserConfigure() {
 		if (browser == null) {
 			MoviescraperPreferences preferences = MoviescraperPreferences.getInstance();
 			browser = DitzyHeadlessBrowserSingle.getBrowser();
@@ -184,7 +192,7 @@ public class JavLibraryParsingProfile extends SiteParsingProfile implements Spec
 		//The dateText is in format YYYY-MM-DD
 		if (dateText.length() > 0) {
 			dateText = dateText.trim();
-			return new ReleaseDate(dateText, javLibraryReleaseDateFormat);
+			return new ReleaseDate(dateText, javLibraryReleaseDateFormat.get());
 		} else
 			return ReleaseDate.BLANK_RELEASEDATE;
 	}
@@ -390,7 +398,7 @@ public class JavLibraryParsingProfile extends SiteParsingProfile implements Spec
 		URL websiteURLBegin = new URL("http://www.javlibrary.com/" + siteLanguageToScrape);
 
 		try {
-			Document doc = browser.get(new URL(searchString));
+			Document doc = browser.get(new URL(searchString), getResponseCacheTimeToLive());
 			//The search found the page directly
 			if (doc.baseUri().contains("/?v=")) {
 				String linkTitle = doc.title().replaceAll(Pattern.quote(" - JAVLibrary"), "");
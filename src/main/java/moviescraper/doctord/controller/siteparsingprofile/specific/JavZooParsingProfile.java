@@ -11,7 +11,6 @@ import java.util.regex.Pattern;
 
 import org.apache.commons.codec.net.URLCodec;
 import org.apache.commons.lang3.StringUtils;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -40,6 +39,7 @@ import moviescraper.doctord.model.dataitem.Title;
 import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 public class JavZooParsingProfile extends SiteParsingProfile implements SpecificProfile {
 
@@ -104,7 +104,7 @@ public class JavZooParsingProfile extends SiteParsingProfile implements Specific
 				if (japaneseUrl.equals(document.location()))
 					return new OriginalTitle(titleElementText);
 
-				Document japaneseDoc = Jsoup.connect(japaneseUrl).timeout(CONNECTION_TIMEOUT_VALUE).get();
+				Document japaneseDoc = HttpTransport.connect(japaneseUrl).timeout(CONNECTION_TIMEOUT_VALUE).get();
 				JavZooParsingProfile spp = new JavZooParsingProfile(japaneseDoc);
 				return spp.scrapeOriginalTitle();
 			}
@@ -335,7 +335,8 @@ public class JavZooParsingProfile extends SiteParsingProfile implements Specific
 	public SearchResult[] getSearchResults(String searchString) throws IOException {
 		LinkedList<SearchResult> linksList = new LinkedList<>();
 		try {
-			Document doc = Jsoup.connect(searchString).userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+			Document doc = HttpTransport.connect(searchString).userAgent("Mozilla").ignoreHttpErrors(true)
+			        .timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).cacheTimeToLive(getResponseCacheTimeToLive()).get();
 			{
 				Elements divVideoLinksElements = doc.select("div.item:has(a[href*=/movie/])");
 
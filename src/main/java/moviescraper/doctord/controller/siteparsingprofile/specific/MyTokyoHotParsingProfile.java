@@ -12,7 +12,6 @@ import java.util.regex.Pattern;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.text.WordUtils;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -41,12 +40,13 @@ import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Trailer;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 public class MyTokyoHotParsingProfile extends SiteParsingProfile implements SpecificProfile {
 
 	private boolean scrapeInEnglish = true;
 	Document japaneseDocument;
-	private static final SimpleDateFormat myTokyoHotReleaseDateFormat = new SimpleDateFormat("yyyy/MM/dd", Locale.ENGLISH);
+	private static final ThreadLocal<SimpleDateFormat> myTokyoHotReleaseDateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy/MM/dd", Locale.ENGLISH));
 
 	@Override
 	public String getParserName() {
@@ -56,7 +56,7 @@ public class MyTokyoHotParsingProfile extends SiteParsingProfile implements Spec
 	/**
 	 * loads up the japanese version of this page into japaneseDocument
 	 */
-	private void initializeJapaneseDocument() {
+	private synchronized void initializeJapaneseDocument() {
 		if (document != null && japaneseDocument == null) {
 			String url = document.baseUri().replaceFirst(Pattern.quote("lang=en"), Pattern.quote("lang=ja"));
 			japaneseDocument = SiteParsingProfile.downloadDocumentFromURLString(url);
@@ -113,7 +113,7 @@ public class MyTokyoHotParsingProfile extends SiteParsingProfile implements Spec
 		Element releaseDateElement = document.select("dl.info dt:contains(Release Date) + dd, dl.info dt:contains(�?信開始日) + dd").first();
 		if (releaseDateElement != null && releaseDateElement.text().length() > 4) {
 			String releaseDateText = releaseDateElement.text().trim();
-			return new ReleaseDate(releaseDateText, myTokyoHotReleaseDateFormat);
+			return new ReleaseDate(releaseDateText, myTokyoHotReleaseDateFormat.get());
 		}
 		return ReleaseDate.BLANK_RELEASEDATE;
 	}
@@ -296,7 +296,8 @@ public class MyTokyoHotParsingProfile extends SiteParsingProfile implements Spec
 	public SearchResult[] getSearchResults(String searchString) throws IOException {
 		if (searchString == null)
 			return new SearchResult[0];
-		Document doc = Jsoup.connect(searchString).userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+		Document doc = HttpTransport.connect(searchString).userAgent("Mozilla").ignoreHttpErrors(true)
+		        .timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).cacheTimeToLive(getResponseCacheTimeToLive()).get();
 		Elements movieElements = doc.select("ul.list.slider.cf li.detail");
 		SearchResult[] searchResults = new SearchResult[movieElements.size()];
 		int indexNum = 0;
@@ -15,7 +15,6 @@ import moviescraper.doctord.controller.UtilityFunctions;
 
 import org.apache.commons.codec.EncoderException;
 import org.apache.commons.codec.net.URLCodec;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -43,11 +42,12 @@ import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Trailer;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 public class R18ParsingProfile extends SiteParsingProfile implements SpecificProfile {
 
-	private static final SimpleDateFormat r18ReleaseDateFormat = new SimpleDateFormat("MMM. dd,yyyy", Locale.ENGLISH);
-	private static final SimpleDateFormat r18ReleaseDateFormatAlternate = new SimpleDateFormat("MMM dd,yyyy", Locale.ENGLISH);
+	private static final ThreadLocal<SimpleDateFormat> r18ReleaseDateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat("MMM. dd,yyyy", Locale.ENGLISH));
+	private static final ThreadLocal<SimpleDateFormat> r18ReleaseDateFormatAlternate = ThreadLocal.withInitial(() -> new SimpleDateFormat("MMM dd,yyyy", Locale.ENGLISH));
 	private static final String[] TrailerAttrsOrder = { "data-video-high", "data-video-med", "data-video-low" };
 	private static final Pattern RuntimePattern = Pattern.compile("^([0-9]+)[^0-9].*");
 
@@ -133,10 +133,10 @@ public class R18ParsingProfile extends SiteParsingProfile implements SpecificPro
 			}
 
 			//months abbreviated e.g.: "Oct."
-			SimpleDateFormat formatToUse = r18ReleaseDateFormat;
+			SimpleDateFormat formatToUse = r18ReleaseDateFormat.get();
 			//month did not get abreviated
 			if (!releaseDateText.contains(".")) {
-				formatToUse = r18ReleaseDateFormatAlternate;
+				formatToUse = r18ReleaseDateFormatAlternate.get();
 			}
 
 			ReleaseDate releaseDate = new ReleaseDate(releaseDateText, formatToUse);
@@ -399,7 +399,7 @@ public class R18ParsingProfile extends SiteParsingProfile implements SpecificPro
 			searchWordURLEncoded = codec.encode(searchWord);
 			String searchPattern = "http://www.r18.com/common/search/floor=movies/searchword=" + searchWordURLEncoded + "/";
 			System.out.println("Searching on R18 with this URL:" + searchPattern);
-			Document searchResultsPage = Jsoup.connect(searchPattern).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+			Document searchResultsPage = HttpTransport.connect(searchPattern).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).cacheTimeToLive(getResponseCacheTimeToLive()).get();
 			Elements moviesFound = searchResultsPage.select(".cmn-list-product01 li");
 			if (moviesFound != null && moviesFound.size() > 0) {
 				SearchResult[] foundResults = new SearchResult[moviesFound.size()];
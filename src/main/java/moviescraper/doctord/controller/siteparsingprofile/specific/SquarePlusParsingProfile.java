@@ -32,16 +32,16 @@ import moviescraper.doctord.model.dataitem.Title;
 import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 import org.apache.commons.lang3.StringUtils;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
 public class SquarePlusParsingProfile extends SiteParsingProfile implements SpecificProfile {
 
-	private static final SimpleDateFormat squarePlusReleaseDateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.ENGLISH);
+	private static final ThreadLocal<SimpleDateFormat> squarePlusReleaseDateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat("MMM dd, yyyy", Locale.ENGLISH));
 
 	@Override
 	public List<ScraperGroupName> getScraperGroupNames() {
@@ -114,7 +114,7 @@ public class SquarePlusParsingProfile extends SiteParsingProfile implements Spec
 		Element releaseDateElement = document.select("th.label:containsOwn(Release date) ~ td").first();
 		if (releaseDateElement != null && releaseDateElement.text().length() > 4) {
 			String releaseDateText = releaseDateElement.text().trim();
-			return new ReleaseDate(releaseDateText, squarePlusReleaseDateFormat);
+			return new ReleaseDate(releaseDateText, squarePlusReleaseDateFormat.get());
 		}
 		return ReleaseDate.BLANK_RELEASEDATE;
 	}
@@ -259,7 +259,7 @@ public class SquarePlusParsingProfile extends SiteParsingProfile implements Spec
 		if (searchString == null)
 			return new SearchResult[0];
 
-		Document doc = Jsoup.connect(searchString).timeout(CONNECTION_TIMEOUT_VALUE).get();
+		Document doc = HttpTransport.connect(searchString).timeout(CONNECTION_TIMEOUT_VALUE).cacheTimeToLive(getResponseCacheTimeToLive()).get();
 		Elements foundMovies = doc.select("ul.products-grid>li");
 		String searchId = searchString.replaceAll(".*\\?q=(.*)$", "$1").replace("-", "").toLowerCase();
 		LinkedList<SearchResult> searchList = new LinkedList<>();
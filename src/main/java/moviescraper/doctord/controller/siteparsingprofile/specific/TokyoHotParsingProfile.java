@@ -11,7 +11,6 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.io.FilenameUtils;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -38,6 +37,7 @@ import moviescraper.doctord.model.dataitem.Title;
 import moviescraper.doctord.model.dataitem.Top250;
 import moviescraper.doctord.model.dataitem.Votes;
 import moviescraper.doctord.model.dataitem.Year;
+import moviescraper.doctord.scraper.HttpTransport;
 
 public class TokyoHotParsingProfile extends SiteParsingProfile implements SpecificProfile {
 
@@ -47,7 +47,7 @@ public class TokyoHotParsingProfile extends SiteParsingProfile implements Specif
 	private String siteLink;
 	private String imageLink;
 	private String id;
-	private static final SimpleDateFormat tokyoHotReleaseDateFormat = new SimpleDateFormat("dd-MMM-yyyy hh:mm", Locale.ENGLISH);
+	private static final ThreadLocal<SimpleDateFormat> tokyoHotReleaseDateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat("dd-MMM-yyyy hh:mm", Locale.ENGLISH));
 
 	public TokyoHotParsingProfile() {
 	}
@@ -106,7 +106,7 @@ public class TokyoHotParsingProfile extends SiteParsingProfile implements Specif
 					// date, but I'm not 100% sure what each of these dates
 					// represents
 					// since they seem to vary by a few days usually
-					releaseDate = new ReleaseDate(timecode, tokyoHotReleaseDateFormat);
+					releaseDate = new ReleaseDate(timecode, tokyoHotReleaseDateFormat.get());
 				}
 			}
 		}
@@ -243,7 +243,7 @@ public class TokyoHotParsingProfile extends SiteParsingProfile implements Specif
 
 		if (fileID != null) {
 			try {
-				Document doc = Jsoup.connect("http://cdn.www.tokyo-hot.com/igs/").userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
+				Document doc = HttpTransport.connect("http://cdn.www.tokyo-hot.com/igs/").userAgent("Mozilla").ignoreHttpErrors(true).timeout(SiteParsingProfile.CONNECTION_TIMEOUT_VALUE).get();
 				Elements select = doc.select("tr td a");
 				String foundLink = null;
 				for (Element element : select) {
@@ -26,13 +26,13 @@ public class IconCache {
 	// Internal interface used by IconCache
 	private interface IconProvider {
 		// return an icon for the specified file
-		Icon getIcon(File iconType) throws IOException;
+		Icon getIcon(File iconType, boolean isDirectory) throws IOException;
 	}
 
 	// Default icon provider implementation: get shell icons on windows, only folder or file on linux
 	private static class SystemIconProvider implements IconProvider {
 		@Override
-		public Icon getIcon(File iconType) throws IOException {
+		public Icon getIcon(File iconType, boolean isDirectory) throws IOException {
 			return FileSystemView.getFileSystemView().getSystemIcon(iconType);
 		}
 	}
@@ -44,11 +44,11 @@ public class IconCache {
 		}
 
 		@Override
-		public Icon getIcon(File iconType) throws IOException {
+		public Icon getIcon(File iconType, boolean isDirectory) throws IOException {
 
 			// return default icon for folders (no need for a custom png)
 
-			if (iconType.isDirectory())
+			if (isDirectory)
 				return FileSystemView.getFileSystemView().getSystemIcon(iconType);
 
 			// don't probe content type for files without extension as this icon will be cached for all of them,
@@ -109,12 +109,19 @@ public class IconCache {
 	}
 
 	public static Icon getIconFromCache(File iconType) throws IOException {
+		return getIconFromCache(iconType, iconType.isDirectory());
+	}
+
+	/**
+	 * Same as {@link #getIconFromCache(File)} for a file whose type is already known, so a cached icon is returned without touching the disk
+	 */
+	public static Icon getIconFromCache(File iconType, boolean isDirectory) throws IOException {
 		// use "." as key for folders so we don't get a cached folder icon for files without extension or vice versa
 		// use "" as key for dot files (hidden files on Linux), to prevent getting a cache entry per file
 
 		String name = FilenameUtils.getName(iconType.getName());
 		String ext = FilenameUtils.getExtension(iconType.getName());
-		String key = iconType.isDirectory() ? "." : name.startsWith(".") ? "" : ext;
+		String key = isDirectory ? "." : name.startsWith(".") ? "" : ext;
 
 		//Cache already contains the item, so just return it
 		if (cache.containsKey(key)) {
@@ -122,7 +129,7 @@ public class IconCache {
 		}
 		//we didn't find it, so read the Icon into the cache and also return it
 		else {
-			Icon iconToCache = iconProvider.getIcon(iconType);
+			Icon iconToCache = iconProvider.getIcon(iconType, isDirectory);
 			cache.put(key, iconToCache);
 
 			// System.err.println("[IconCache] Caching type " + key);
@@ -2,69 +2,133 @@ package moviescraper.doctord.model;
 
 import java.awt.Image;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
-import java.util.Collections;
-import java.util.HashMap;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
 
 import moviescraper.doctord.controller.FileDownloaderUtilities;
+import moviescraper.doctord.scraper.SingleFlight;
 
+/**
+ * Two tier cache of the images shown and written by the program.
+ * The memory tier holds decoded images and is bounded by the bytes their pixels take up rather than by a number of images,
+ * evicting the least recently used images first. It is split into independently locked segments so threads loading
+ * different images do not wait on each other.
+ * The disk tier holds the original encoded bytes of downloaded images, so an image evicted from memory or seen in an earlier
+ * run of the program is decoded from disk instead of being downloaded again.
+ * Modified (cropped) images share the memory tier under their own keys. They are never written to the disk tier since they
+ * can be recreated from the original.
+ */
 public class ImageCache {
-	private static final int initialCapacity = 200;
-	private static Map<URL, Image> cache = Collections.synchronizedMap(new HashMap<URL, Image>(initialCapacity));
-	private static Map<URL, Image> modifiedImageCache = Collections.synchronizedMap(new HashMap<URL, Image>(initialCapacity));
+	private static final int segmentCount = 8;
+	private static final long maxMemoryBytes = Runtime.getRuntime().maxMemory() / 4;
+	private static final long maxDiskBytes = 512L * 1024 * 1024;
+	private static final String diskCacheDirectoryName = "cache" + File.separator + "images";
+
+	private static final MemorySegment[] memorySegments = new MemorySegment[segmentCount];
+	private static final DiskTier diskTier = new DiskTier(new File(diskCacheDirectoryName), maxDiskBytes);
+
+	private static final AtomicLong hitCount = new AtomicLong();
+	private static final AtomicLong diskHitCount = new AtomicLong();
+	private static final AtomicLong missCount = new AtomicLong();
+	private static final AtomicLong evictionCount = new AtomicLong();
+	private static final SingleFlight<CacheKey, Image> imageLoadsInFlight = new SingleFlight<>();
+
+	static {
+		for (int i = 0; i < segmentCount; i++) {
+			memorySegments[i] = new MemorySegment(maxMemoryBytes / segmentCount);
+		}
+	}
 
 	public static Image getImageFromCache(URL url, boolean isImageModified, URL referrerURL) throws IOException {
-		Map<URL, Image> cacheToUse = isImageModified ? modifiedImageCache : cache;
+		if (url == null)
+			return createBlankImage();
+		CacheKey key = new CacheKey(url, isImageModified);
+		MemorySegment segment = getSegment(key);
 
 		//Cache already contains the item, so just return it
-		if (cacheToUse.containsKey(url)) {
-			return cacheToUse.get(url);
+		Image cachedImage = segment.get(key);
+		if (cachedImage != null) {
+			hitCount.incrementAndGet();
+			return cachedImage;
 		}
-		//we didn't find it, so read the Image into the cache and also return it
-		else {
-			try {
-				if (url != null) {
-					Image imageFromUrl = FileDownloaderUtilities.getImageFromUrl(url, referrerURL);
-					if (imageFromUrl != null) {
-						cacheToUse.put(url, imageFromUrl);
-						return imageFromUrl;
-					}
-				}
-
-				//we couldn't read in the image from the URL so just return a blank image
-
-				Image blankImage = createBlankImage();
-				cacheToUse.put(url, blankImage);
-				return blankImage;
-			} catch (OutOfMemoryError e) {
-				System.out.println("We ran out of memory..clearing the cache. It was size " + cache.size() + " before the clear");
-				cacheToUse.clear();
-				System.gc();
-				return FileDownloaderUtilities.getImageFromUrl(url);
-			} catch (IOException e) {
-				e.printStackTrace();
-				Image blankImage = createBlankImage();
-				cacheToUse.put(url, blankImage);
-				return blankImage;
+		//we didn't find it, so read the Image into the cache and also return it. Threads asking for the same image at the same time share one load.
+		missCount.incrementAndGet();
+		return imageLoadsInFlight.execute(key, () -> loadIntoCache(key, segment, url, referrerURL));
+	}
+
+	private static Image loadIntoCache(CacheKey key, MemorySegment segment, URL url, URL referrerURL) throws IOException {
+		//another thread may have finished loading it just before this load started
+		Image cachedImage = segment.get(key);
+		if (cachedImage != null)
+			return cachedImage;
+		try {
+			Image imageFromUrl = loadImage(url, referrerURL);
+			if (imageFromUrl != null) {
+				segment.put(key, imageFromUrl);
+				return imageFromUrl;
 			}
+
+			//we couldn't read in the image from the URL so just return a blank image
+			Image blankImage = createBlankImage();
+			segment.put(key, blankImage);
+			return blankImage;
+		} catch (OutOfMemoryError e) {
+			System.out.println("We ran out of memory..clearing the image cache. It was " + FileUtils.byteCountToDisplaySize(getMemorySizeBytes()) + " before the clear");
+			clearMemory();
+			System.gc();
+			return loadImage(url, referrerURL);
+		} catch (IOException e) {
+			e.printStackTrace();
+			Image blankImage = createBlankImage();
+			segment.put(key, blankImage);
+			return blankImage;
 		}
 	}
 
-	public static void putImageInCache(URL url, Image image, boolean isImageModified) {
-		Map<URL, Image> cacheToUse = isImageModified ? modifiedImageCache : cache;
-		//300 is arbitrary for now, but at some point we gotta boot stuff from cache or we will run out memory
-		//Ideally, I would boot out old items first, but I would need a new data structure to do this, probably
-		//by using a library already written that handles all the cache stuff rather than just using a map like I'm doing
-		//in this class
-
-		//TODO: purge old items instead of the whole world. get a real cache library from a 3rd party
-		if (cacheToUse.size() > 300) {
-			System.out.println("Clearing cache - cache had " + cacheToUse.size() + " items before clearing.");
-			cacheToUse.clear();
+	/**
+	 * Decodes the image from the disk tier if it is there, otherwise downloads it and keeps the downloaded bytes in the disk tier.
+	 * Local files are read directly.
+	 */
+	private static Image loadImage(URL url, URL referrerURL) throws IOException {
+		if (!isRemote(url))
+			return FileDownloaderUtilities.getImageFromUrl(url, referrerURL);
+		String diskKey = getDiskKey(url);
+		byte[] imageBytes = diskTier.get(diskKey);
+		if (imageBytes != null) {
+			Image imageFromDisk = ImageIO.read(new ByteArrayInputStream(imageBytes));
+			if (imageFromDisk != null) {
+				diskHitCount.incrementAndGet();
+				return imageFromDisk;
+			}
+			diskTier.remove(diskKey);
 		}
-		cacheToUse.put(url, image);
+		imageBytes = FileDownloaderUtilities.getBytesFromUrl(url, referrerURL);
+		Image imageFromUrl = ImageIO.read(new ByteArrayInputStream(imageBytes));
+		if (imageFromUrl != null)
+			diskTier.put(diskKey, imageBytes);
+		return imageFromUrl;
+	}
+
+	public static void putImageInCache(URL url, Image image, boolean isImageModified) {
+		if (url == null || image == null)
+			return;
+		CacheKey key = new CacheKey(url, isImageModified);
+		getSegment(key).put(key, image);
 	}
 
 	private static Image createBlankImage() {
@@ -72,12 +136,255 @@ public class ImageCache {
 	}
 
 	public static void removeImageFromCache(URL url, boolean isImageModified) {
-		Map<URL, Image> cacheToUse = isImageModified ? modifiedImageCache : cache;
-		cacheToUse.remove(url);
+		CacheKey key = new CacheKey(url, isImageModified);
+		getSegment(key).remove(key);
+		if (!isImageModified && isRemote(url))
+			diskTier.remove(getDiskKey(url));
 	}
 
 	public static boolean isImageCached(URL url, boolean isImageModified) {
-		Map<URL, Image> cacheToUse = isImageModified ? modifiedImageCache : cache;
-		return cacheToUse.containsKey(url);
+		CacheKey key = new CacheKey(url, isImageModified);
+		if (getSegment(key).contains(key))
+			return true;
+		return !isImageModified && isRemote(url) && diskTier.contains(getDiskKey(url));
+	}
+
+	/**
+	 * Empties the memory tier. The disk tier is kept.
+	 */
+	public static void clearMemory() {
+		for (MemorySegment currentSegment : memorySegments) {
+			currentSegment.clear();
+		}
+	}
+
+	/**
+	 * @return number of requests answered from memory
+	 */
+	public static long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * @return number of requests not in memory. Some of these are answered from the disk tier; see {@link #getDiskHitCount()}.
+	 */
+	public static long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * @return number of memory misses which were decoded from the disk tier instead of being downloaded
+	 */
+	public static long getDiskHitCount() {
+		return diskHitCount.get();
+	}
+
+	/**
+	 * @return number of memory misses which waited for the same image being loaded by another thread instead of loading it again
+	 */
+	public static long getCoalescedCount() {
+		return imageLoadsInFlight.getCoalescedCount();
+	}
+
+	/**
+	 * @return number of images evicted from memory to stay under the memory bound
+	 */
+	public static long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	public static long getMemorySizeBytes() {
+		long memorySizeBytes = 0;
+		for (MemorySegment currentSegment : memorySegments) {
+			memorySizeBytes += currentSegment.getSizeBytes();
+		}
+		return memorySizeBytes;
+	}
+
+	private static MemorySegment getSegment(CacheKey key) {
+		return memorySegments[(key.hashCode() & 0x7fffffff) % segmentCount];
+	}
+
+	private static boolean isRemote(URL url) {
+		return url != null && (url.getProtocol().equals("http") || url.getProtocol().equals("https"));
+	}
+
+	private static String getDiskKey(URL url) {
+		return DigestUtils.sha1Hex(url.toString());
+	}
+
+	/**
+	 * @return bytes taken up by the decoded pixels of the image
+	 */
+	private static long getSizeInBytes(Image image) {
+		if (image instanceof BufferedImage) {
+			BufferedImage bufferedImage = (BufferedImage) image;
+			int bytesPerPixel = Math.max(1, (bufferedImage.getColorModel().getPixelSize() + 7) / 8);
+			return (long) bufferedImage.getWidth() * bufferedImage.getHeight() * bytesPerPixel;
+		}
+		return (long) Math.max(1, image.getWidth(null)) * Math.max(1, image.getHeight(null)) * 4;
+	}
+
+	/**
+	 * Compares URLs by their string form. URL.equals and URL.hashCode resolve the host name, which blocks on DNS.
+	 */
+	private static class CacheKey {
+		private final String url;
+		private final boolean isImageModified;
+
+		CacheKey(URL url, boolean isImageModified) {
+			this.url = String.valueOf(url);
+			this.isImageModified = isImageModified;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof CacheKey))
+				return false;
+			CacheKey other = (CacheKey) obj;
+			return isImageModified == other.isImageModified && url.equals(other.url);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * url.hashCode() + (isImageModified ? 1 : 0);
+		}
+	}
+
+	/**
+	 * One independently locked part of the memory tier, with its own share of the byte bound
+	 */
+	private static class MemorySegment {
+		private final long maxSizeBytes;
+		private final LinkedHashMap<CacheKey, Image> images = new LinkedHashMap<>(16, 0.75f, true);
+		private long sizeBytes;
+
+		MemorySegment(long maxSizeBytes) {
+			this.maxSizeBytes = maxSizeBytes;
+		}
+
+		synchronized Image get(CacheKey key) {
+			return images.get(key);
+		}
+
+		synchronized boolean contains(CacheKey key) {
+			return images.containsKey(key);
+		}
+
+		synchronized void put(CacheKey key, Image image) {
+			Image oldImage = images.put(key, image);
+			if (oldImage != null)
+				sizeBytes -= getSizeInBytes(oldImage);
+			sizeBytes += getSizeInBytes(image);
+			Iterator<Map.Entry<CacheKey, Image>> leastRecentlyUsed = images.entrySet().iterator();
+			//the image just added is never evicted, even if it alone is over the bound
+			while (sizeBytes > maxSizeBytes && images.size() > 1) {
+				Map.Entry<CacheKey, Image> eldest = leastRecentlyUsed.next();
+				leastRecentlyUsed.remove();
+				sizeBytes -= getSizeInBytes(eldest.getValue());
+				evictionCount.incrementAndGet();
+			}
+		}
+
+		synchronized void remove(CacheKey key) {
+			Image removedImage = images.remove(key);
+			if (removedImage != null)
+				sizeBytes -= getSizeInBytes(removedImage);
+		}
+
+		synchronized void clear() {
+			images.clear();
+			sizeBytes = 0;
+		}
+
+		synchronized long getSizeBytes() {
+			return sizeBytes;
+		}
+	}
+
+	/**
+	 * Encoded image files named by the hash of their URL, bounded by their total size.
+	 * The modification time of a file is its last use, so the least recently used files are deleted first, also across runs.
+	 */
+	private static class DiskTier {
+		private final File directory;
+		private final long maxSizeBytes;
+		private final LinkedHashMap<String, Long> fileSizes = new LinkedHashMap<>(16, 0.75f, true);
+		private long sizeBytes;
+		private boolean indexLoaded;
+
+		DiskTier(File directory, long maxSizeBytes) {
+			this.directory = directory;
+			this.maxSizeBytes = maxSizeBytes;
+		}
+
+		synchronized byte[] get(String key) {
+			loadIndexIfNeeded();
+			//get rather than containsKey, so a hit also moves the file up in the least recently used order of this run
+			if (fileSizes.get(key) == null)
+				return null;
+			File imageFile = getFile(key);
+			try {
+				byte[] imageBytes = FileUtils.readFileToByteArray(imageFile);
+				imageFile.setLastModified(System.currentTimeMillis());
+				return imageBytes;
+			} catch (IOException e) {
+				remove(key);
+				return null;
+			}
+		}
+
+		synchronized boolean contains(String key) {
+			loadIndexIfNeeded();
+			return fileSizes.containsKey(key);
+		}
+
+		synchronized void put(String key, byte[] imageBytes) {
+			loadIndexIfNeeded();
+			try {
+				FileUtils.forceMkdir(directory);
+				File temporaryFile = new File(directory, key + ".tmp");
+				FileUtils.writeByteArrayToFile(temporaryFile, imageBytes);
+				Files.move(temporaryFile.toPath(), getFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				System.err.println("Could not write image to the disk cache: " + e.getMessage());
+				return;
+			}
+			Long oldSize = fileSizes.put(key, (long) imageBytes.length);
+			sizeBytes += imageBytes.length - (oldSize != null ? oldSize : 0);
+			Iterator<Map.Entry<String, Long>> leastRecentlyUsed = fileSizes.entrySet().iterator();
+			while (sizeBytes > maxSizeBytes && fileSizes.size() > 1) {
+				Map.Entry<String, Long> eldest = leastRecentlyUsed.next();
+				leastRecentlyUsed.remove();
+				sizeBytes -= eldest.getValue();
+				FileUtils.deleteQuietly(getFile(eldest.getKey()));
+			}
+		}
+
+		synchronized void remove(String key) {
+			Long size = fileSizes.remove(key);
+			if (size != null)
+				sizeBytes -= size;
+			FileUtils.deleteQuietly(getFile(key));
+		}
+
+		private void loadIndexIfNeeded() {
+			if (indexLoaded)
+				return;
+			indexLoaded = true;
+			File[] imageFiles = directory.listFiles((dir, name) -> name.endsWith(".img"));
+			if (imageFiles == null)
+				return;
+			Arrays.sort(imageFiles, Comparator.comparingLong(File::lastModified));
+			for (File currentImageFile : imageFiles) {
+				String key = currentImageFile.getName().substring(0, currentImageFile.getName().length() - ".img".length());
+				fileSizes.put(key, currentImageFile.length());
+				sizeBytes += currentImageFile.length();
+			}
+		}
+
+		private File getFile(String key) {
+			return new File(directory, key + ".img");
+		}
 	}
 }
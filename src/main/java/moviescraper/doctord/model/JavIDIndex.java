@@ -0,0 +1,86 @@
+package moviescraper.doctord.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import moviescraper.doctord.model.dataitem.JavIDKey;
+
+/**
+ * Finds things like search results or movies in a library by their JAV ID with a single hash lookup instead of comparing
+ * the ID with each of them. IDs are looked up by their {@link JavIDKey}, so ABC-001, abc1 and 73ABC-001SO all find the same entries.
+ * Not thread safe.
+ *
+ * @param <T> what is found by ID
+ */
+public class JavIDIndex<T> {
+
+	private final Map<JavIDKey, List<T>> entries = new HashMap<>();
+
+	/**
+	 * Adds an entry under an ID. Nothing is added if the ID does not look like a JAV ID.
+	 *
+	 * @return true if the entry was added
+	 */
+	public boolean add(String id, T entry) {
+		return add(JavIDKey.parse(id), entry);
+	}
+
+	public boolean add(JavIDKey key, T entry) {
+		if (key == null)
+			return false;
+		entries.computeIfAbsent(key, newKey -> new ArrayList<>(1)).add(entry);
+		return true;
+	}
+
+	/**
+	 * Adds an entry under every ID in a text like a URL, see {@link JavIDKey#findAll(CharSequence)}
+	 */
+	public void addAllIn(CharSequence text, T entry) {
+		for (JavIDKey currentKey : JavIDKey.findAll(text)) {
+			List<T> keyEntries = entries.computeIfAbsent(currentKey, newKey -> new ArrayList<>(1));
+			//a URL often has the ID twice, like in its path and its image
+			if (keyEntries.isEmpty() || keyEntries.get(keyEntries.size() - 1) != entry)
+				keyEntries.add(entry);
+		}
+	}
+
+	/**
+	 * @return the entries added under the same ID, in the order they were added; empty if there are none
+	 */
+	public List<T> get(String id) {
+		return get(JavIDKey.parse(id));
+	}
+
+	public List<T> get(JavIDKey key) {
+		if (key == null)
+			return Collections.emptyList();
+		List<T> keyEntries = entries.get(key);
+		return keyEntries != null ? Collections.unmodifiableList(keyEntries) : Collections.<T> emptyList();
+	}
+
+	/**
+	 * @return the first entry added under the same ID, or null if there is none
+	 */
+	public T getFirst(JavIDKey key) {
+		List<T> keyEntries = get(key);
+		return keyEntries.isEmpty() ? null : keyEntries.get(0);
+	}
+
+	public boolean contains(JavIDKey key) {
+		return key != null && entries.containsKey(key);
+	}
+
+	/**
+	 * @return the number of different IDs in the index
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+}
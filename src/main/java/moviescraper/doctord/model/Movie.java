@@ -5,14 +5,21 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
@@ -27,6 +34,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.jsoup.nodes.Document;
 
 import moviescraper.doctord.controller.FileDownloaderUtilities;
+import moviescraper.doctord.controller.DownloadScheduler.Priority;
+import moviescraper.doctord.controller.ParallelArtifactWriter;
+import moviescraper.doctord.controller.ScrapeEngine;
+import moviescraper.doctord.controller.siteparsingprofile.SearchResultIterator;
 import moviescraper.doctord.controller.siteparsingprofile.SecurityPassthrough;
 import moviescraper.doctord.controller.siteparsingprofile.SiteParsingProfile;
 import moviescraper.doctord.controller.siteparsingprofile.specific.Data18MovieParsingProfile;
@@ -113,31 +124,57 @@ public class Movie {
 	}
 
 	public Movie(SiteParsingProfile siteToScrapeFrom) {
-		title = siteToScrapeFrom.scrapeTitle();
+		//the ID is memoized by the profile and used by several of the other scrape methods, so get it before anything else
+		id = siteToScrapeFrom.getScrapedID();
+
+		//scrape independent groups of fields at the same time; fields within a group are scraped in order because they share state in the profile
+		List<FieldGroup> fieldGroups = Arrays.asList(new FieldGroup(() -> {
+			posters = siteToScrapeFrom.scrapePosters();
+			fanart = siteToScrapeFrom.scrapeFanart();
+			extraFanart = siteToScrapeFrom.scrapeExtraFanart();
+		}), new FieldGroup(() -> actors = siteToScrapeFrom.scrapeActors()),
+		        new FieldGroup(() -> trailer = siteToScrapeFrom.scrapeTrailer()), new FieldGroup(() -> {
+			rating = siteToScrapeFrom.scrapeRating();
+			year = siteToScrapeFrom.scrapeYear();
+			top250 = siteToScrapeFrom.scrapeTop250();
+			votes = siteToScrapeFrom.scrapeVotes();
+			studio = siteToScrapeFrom.scrapeStudio();
+			releaseDate = siteToScrapeFrom.scrapeReleaseDate();
+			runtime = siteToScrapeFrom.scrapeRuntime();
+			mpaa = siteToScrapeFrom.scrapeMPAA();
+			genres = siteToScrapeFrom.scrapeGenres();
+			tags = siteToScrapeFrom.scrapeTags();
+			directors = siteToScrapeFrom.scrapeDirectors();
+		}));
+		for (FieldGroup currentGroup : fieldGroups)
+			currentGroup.start();
 
+		title = siteToScrapeFrom.scrapeTitle();
 		originalTitle = siteToScrapeFrom.scrapeOriginalTitle();
 		sortTitle = siteToScrapeFrom.scrapeSortTitle();
 		set = siteToScrapeFrom.scrapeSet();
-		rating = siteToScrapeFrom.scrapeRating();
-		year = siteToScrapeFrom.scrapeYear();
-		top250 = siteToScrapeFrom.scrapeTop250();
-		trailer = siteToScrapeFrom.scrapeTrailer();
-		votes = siteToScrapeFrom.scrapeVotes();
 		outline = siteToScrapeFrom.scrapeOutline();
 		plot = siteToScrapeFrom.scrapePlot();
 		tagline = siteToScrapeFrom.scrapeTagline();
-		studio = siteToScrapeFrom.scrapeStudio();
-		releaseDate = siteToScrapeFrom.scrapeReleaseDate();
-		runtime = siteToScrapeFrom.scrapeRuntime();
-		posters = siteToScrapeFrom.scrapePosters();
-		fanart = siteToScrapeFrom.scrapeFanart();
-		extraFanart = siteToScrapeFrom.scrapeExtraFanart();
-		mpaa = siteToScrapeFrom.scrapeMPAA();
-		id = siteToScrapeFrom.scrapeID();
-		actors = siteToScrapeFrom.scrapeActors();
-		genres = siteToScrapeFrom.scrapeGenres();
-		tags = siteToScrapeFrom.scrapeTags();
-		directors = siteToScrapeFrom.scrapeDirectors();
+
+		//every group is finished before what one of them threw is rethrown, so none is still filling in fields afterwards
+		Throwable failure = null;
+		for (FieldGroup currentGroup : fieldGroups) {
+			try {
+				currentGroup.finish();
+			} catch (CompletionException e) {
+				failure = failure != null ? failure : e.getCause();
+			} catch (RuntimeException | Error e) {
+				failure = failure != null ? failure : e;
+			}
+		}
+		//rethrow what the scrape method threw, as if it had been called on this thread
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		if (failure instanceof Error)
+			throw (Error) failure;
+		if (failure != null)
+			throw new CompletionException(failure);
 
 		setAllDataItemSources(siteToScrapeFrom);
 
@@ -422,6 +459,12 @@ public class Movie {
 	}
 
 	public void writeExtraFanart(File directoryMovieIsIn) throws IOException {
+		ParallelArtifactWriter artifactWriter = new ParallelArtifactWriter(String.valueOf(directoryMovieIsIn));
+		submitExtraFanartWrites(directoryMovieIsIn, artifactWriter);
+		artifactWriter.awaitCompletionOrThrow();
+	}
+
+	private void submitExtraFanartWrites(File directoryMovieIsIn, ParallelArtifactWriter artifactWriter) throws IOException {
 		if (directoryMovieIsIn != null && directoryMovieIsIn.exists() && directoryMovieIsIn.isDirectory() && getExtraFanart().length > 0) {
 			File extraFanartFolder = new File(directoryMovieIsIn.getPath() + File.separator + "extrafanart");
 			FileUtils.forceMkdir(extraFanartFolder);
@@ -431,8 +474,10 @@ public class Movie {
 
 				//no need to overwrite perfectly good extra fanart since this stuff doesn't change. this will also save time when rescraping since extra IO isn't done.
 				if (!fileNameToWrite.exists()) {
-					System.out.println("Writing extrafanart to " + fileNameToWrite);
-					currentExtraFanart.writeImageToFile(fileNameToWrite);
+					artifactWriter.submit("extrafanart " + fileNameToWrite, Priority.EXTRA_FANART, () -> {
+						System.out.println("Writing extrafanart to " + fileNameToWrite);
+						currentExtraFanart.writeImageToFile(fileNameToWrite);
+					});
 				}
 				currentExtraFanartNumber++;
 			}
@@ -454,18 +499,73 @@ public class Movie {
 		xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\" ?>" + "\n" + xml;
 		//System.out.println("Xml I am writing to file: \n" + xml);
 
-		if (nfoFile != null && xml.length() > 0)
-			nfoFile.delete();
-		FileUtils.writeStringToFile(nfoFile, xml, org.apache.commons.lang3.CharEncoding.UTF_8);
+		//the images don't depend on each other, so they are all written at the same time, the most important ones first.
+		//the downloads are identified by the nfo path, which is what to pass to DownloadScheduler.cancelMovie to cancel them
+		String movieKey = nfoFile.getAbsolutePath();
+		ParallelArtifactWriter artifactWriter = new ParallelArtifactWriter(movieKey);
+		String posterArtifact = "poster " + posterFile;
+		String fanartArtifact = "fanart " + fanartFile;
+		artifactWriter.submit(posterArtifact, Priority.POSTER, () -> writePosterToFile(posterFile, currentlySelectedFolderJpgFile, preferences));
+		artifactWriter.submit(fanartArtifact, Priority.FANART, () -> writeFanartToFile(fanartFile, preferences));
+
+		//write out the extrafanart, if the preference for it is set
+		if (targetFolderForExtraFanartFolderAndActorFolder != null && preferences.getExtraFanartScrapingEnabledPreference()) {
+			System.out.println("Starting write of extra fanart into " + targetFolderForExtraFanartFolderAndActorFolder);
+			submitExtraFanartWrites(targetFolderForExtraFanartFolderAndActorFolder, artifactWriter);
+		}
+
+		//write the .actor images, if the preference for it is set
+		if (preferences.getDownloadActorImagesToActorFolderPreference() && targetFolderForExtraFanartFolderAndActorFolder != null) {
+			System.out.println("Writing .actor images into " + targetFolderForExtraFanartFolderAndActorFolder);
+			submitActorImageWrites(targetFolderForExtraFanartFolderAndActorFolder, artifactWriter);
+		}
+
+		//write out the trailer, if the preference for it is set. It is queued in the background since it can take minutes,
+		//so the nfo does not wait for it. The download resumes from its .part file if it does not finish.
+		Trailer trailerToWrite = getTrailer();
+		if (preferences.getWriteTrailerToFile() && trailerToWrite != null && trailerToWrite.getTrailer().length() > 0) {
+			trailerToWrite.writeTrailerToFileInBackground(trailerFile, movieKey);
+		}
+
+		List<String> failedArtifacts;
+		try {
+			failedArtifacts = artifactWriter.awaitCompletion();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while writing the files of " + nfoFile, e);
+		}
+
+		//the nfo goes after the images, so a movie with an nfo has had its poster and fanart written. Only the trailer may still be downloading.
+		//Without them the nfo is not written, so the movie still counts as unscraped and is scraped again later.
+		//A missing extrafanart or actor image is only reported, since a single dead link would otherwise keep the movie from ever being saved,
+		//so this throws exactly when the nfo was not written.
+		if (failedArtifacts.contains(posterArtifact) || failedArtifacts.contains(fanartArtifact))
+			throw new IOException("Not writing " + nfoFile + " since these files failed to write: " + failedArtifacts);
+
+		File temporaryNfoFile = new File(nfoFile.getPath() + ".tmp");
+		try {
+			FileUtils.writeStringToFile(temporaryNfoFile, xml, org.apache.commons.lang3.CharEncoding.UTF_8);
+			try {
+				Files.move(temporaryNfoFile.toPath(), nfoFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				//some network shares and FUSE file systems can not replace a file atomically
+				Files.move(temporaryNfoFile.toPath(), nfoFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporaryNfoFile.toPath());
+		}
 
+		if (!failedArtifacts.isEmpty())
+			System.err.println("Wrote " + nfoFile + " without " + failedArtifacts);
+	}
+
+	private void writePosterToFile(File posterFile, File currentlySelectedFolderJpgFile, MoviescraperPreferences preferences) throws IOException {
 		Thumb posterToSaveToDisk = null;
 		if (posters != null && posters.length > 0)
 			posterToSaveToDisk = posters[0];
 
 		boolean writePoster = preferences.getWriteFanartAndPostersPreference();
-		boolean writeFanart = preferences.getWriteFanartAndPostersPreference();
 		boolean writePosterIfAlreadyExists = preferences.getOverWriteFanartAndPostersPreference();
-		boolean writeFanartIfAlreadyExists = preferences.getOverWriteFanartAndPostersPreference();
 		boolean createFolderJpgEnabledPreference = preferences.getCreateFolderJpgEnabledPreference();
 
 		// save the first poster out
@@ -473,22 +573,9 @@ public class Movie {
 		if (this.getPosters().length > 0 && (writePoster || createFolderJpgEnabledPreference)
 		        && ((posterFile.exists() == writePosterIfAlreadyExists) || (!posterFile.exists() || (createFolderJpgEnabledPreference)))) {
 			if (posterToSaveToDisk != null && (posterToSaveToDisk.isModified() || createFolderJpgEnabledPreference || !posterFile.exists() || writePosterIfAlreadyExists)) {
-				//reencode the jpg since we probably did a resize
-				Iterator<ImageWriter> iter = ImageIO.getImageWritersByFormatName("jpeg");
-				ImageWriter writer = (ImageWriter) iter.next();
-				// instantiate an ImageWriteParam object with default compression options
-				ImageWriteParam iwp = writer.getDefaultWriteParam();
-				iwp.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
-				iwp.setCompressionQuality(1); // an float between 0 and 1
-				// 1 specifies minimum compression and maximum quality
-				IIOImage image = new IIOImage((RenderedImage) posterToSaveToDisk.getThumbImage(), null, null);
-
 				if (writePoster && posterToSaveToDisk.isModified()) {
 					System.out.println("Writing poster to " + posterFile);
-					try (FileImageOutputStream posterFileOutput = new FileImageOutputStream(posterFile);) {
-						writer.setOutput(posterFileOutput);
-						writer.write(null, image, iwp);
-					}
+					writeThumbAsJpeg(posterToSaveToDisk, posterFile);
 				}
 				//write out the poster file without reencoding it and resizing it
 				else if ((!posterFile.exists() || writePosterIfAlreadyExists) && posterToSaveToDisk.getThumbURL() != null) {
@@ -502,18 +589,19 @@ public class Movie {
 					} else {
 						if (!currentlySelectedFolderJpgFile.exists() || (currentlySelectedFolderJpgFile.exists() && writePosterIfAlreadyExists)) {
 							System.out.println("Writing folder to " + currentlySelectedFolderJpgFile);
-							try (FileImageOutputStream folderFileOutput = new FileImageOutputStream(currentlySelectedFolderJpgFile);) {
-								writer.setOutput(folderFileOutput);
-								writer.write(null, image, iwp);
-							}
+							writeThumbAsJpeg(posterToSaveToDisk, currentlySelectedFolderJpgFile);
 						} else {
 							System.out.println("Skipping overwrite of folder.jpg due to preference setting");
 						}
 					}
 				}
-				writer.dispose();
 			}
 		}
+	}
+
+	private void writeFanartToFile(File fanartFile, MoviescraperPreferences preferences) throws IOException {
+		boolean writeFanart = preferences.getWriteFanartAndPostersPreference();
+		boolean writeFanartIfAlreadyExists = preferences.getOverWriteFanartAndPostersPreference();
 
 		// save the first fanart out
 		// we didn't modify it so we can write it directly from the URL
@@ -527,40 +615,44 @@ public class Movie {
 				System.out.println("saving out first fanart to " + fanartFile);
 
 				//can save ourself redownloading the image if it's already in memory, but we dont want to reencode the image, so only do this if it's modified
-				if (fanartToSaveToDisk.getImageIconThumbImage() != null && fanartToSaveToDisk.isModified()) {
-					try {
-						ImageIO.write(fanartToSaveToDisk.toBufferedImage(), "jpg", fanartFile);
-					} catch (IOException e) {
-						System.err.println("Failed to write fanart due to io error");
-						e.printStackTrace();
-					}
+				if (fanartToSaveToDisk.isModified() && fanartToSaveToDisk.getImageIconThumbImage() != null) {
+					ImageIO.write(fanartToSaveToDisk.toBufferedImage(), "jpg", fanartFile);
 				}
 				//download the url and save it out to disk
 				else
 					FileDownloaderUtilities.writeURLToFile(fanartToSaveToDisk.getThumbURL(), fanartFile, fanartToSaveToDisk.getReferrerURL());
 			}
 		}
+	}
 
-		//write out the extrafanart, if the preference for it is set
-		if (targetFolderForExtraFanartFolderAndActorFolder != null && preferences.getExtraFanartScrapingEnabledPreference()) {
-			System.out.println("Starting write of extra fanart into " + targetFolderForExtraFanartFolderAndActorFolder);
-			writeExtraFanart(targetFolderForExtraFanartFolderAndActorFolder);
-		}
-
-		//write the .actor images, if the preference for it is set
-		if (preferences.getDownloadActorImagesToActorFolderPreference() && targetFolderForExtraFanartFolderAndActorFolder != null) {
-			System.out.println("Writing .actor images into " + targetFolderForExtraFanartFolderAndActorFolder);
-			writeActorImagesToFolder(targetFolderForExtraFanartFolderAndActorFolder);
-		}
-
-		//write out the trailer, if the preference for it is set
-		Trailer trailerToWrite = getTrailer();
-		if (preferences.getWriteTrailerToFile() && trailerToWrite != null && trailerToWrite.getTrailer().length() > 0) {
-			trailerToWrite.writeTrailerToFile(trailerFile);
+	/**
+	 * Reencodes the thumb's image at maximum jpg quality. Only needed for modified thumbs, like cropped posters,
+	 * since unmodified ones are written straight from their url without decoding them.
+	 */
+	private static void writeThumbAsJpeg(Thumb thumb, File fileToWrite) throws IOException {
+		Iterator<ImageWriter> iter = ImageIO.getImageWritersByFormatName("jpeg");
+		ImageWriter writer = (ImageWriter) iter.next();
+		// instantiate an ImageWriteParam object with default compression options
+		ImageWriteParam iwp = writer.getDefaultWriteParam();
+		iwp.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+		iwp.setCompressionQuality(1); // an float between 0 and 1
+		// 1 specifies minimum compression and maximum quality
+		IIOImage image = new IIOImage((RenderedImage) thumb.getThumbImage(), null, null);
+		try (FileImageOutputStream fileOutput = new FileImageOutputStream(fileToWrite);) {
+			writer.setOutput(fileOutput);
+			writer.write(null, image, iwp);
+		} finally {
+			writer.dispose();
 		}
 	}
 
 	public void writeActorImagesToFolder(File targetFolder) throws IOException {
+		ParallelArtifactWriter artifactWriter = new ParallelArtifactWriter(targetFolder.getAbsolutePath());
+		submitActorImageWrites(targetFolder, artifactWriter);
+		artifactWriter.awaitCompletionOrThrow();
+	}
+
+	private void submitActorImageWrites(File targetFolder, ParallelArtifactWriter artifactWriter) throws IOException {
 		File actorFolder = null;
 		if (targetFolder.isDirectory()) {
 			actorFolder = new File(targetFolder + File.separator + ".actors");
@@ -587,10 +679,12 @@ public class Movie {
 			for (Actor currentActor : this.getActors()) {
 				String currentActorToFileName = currentActor.getName().replace(' ', '_');
 				File fileNameToWrite = new File(actorFolder.getPath() + File.separator + currentActorToFileName + ".jpg");
-				currentActor.writeImageToFile(fileNameToWrite);
-				//reload from disk instead of cache since the cache is now pointing to the wrong image and the disk has the correct newly edited one
-				if (currentActor.isThumbEdited())
-					ImageCache.removeImageFromCache(fileNameToWrite.toURI().toURL(), false);
+				artifactWriter.submit("actor image " + fileNameToWrite, Priority.ACTOR_IMAGE, () -> {
+					currentActor.writeImageToFile(fileNameToWrite);
+					//reload from disk instead of cache since the cache is now pointing to the wrong image and the disk has the correct newly edited one
+					if (currentActor.isThumbEdited())
+						ImageCache.removeImageFromCache(fileNameToWrite.toURI().toURL(), false);
+				});
 			}
 
 		}
@@ -759,6 +853,24 @@ public class Movie {
 	 * }
 	 */
 
+	/**
+	 * Runs {@link #scrapeMovie(File, SiteParsingProfile, String, boolean)} on the {@link ScrapeEngine}.
+	 * Cancelling the returned future with cancel(true) interrupts the scrape.
+	 *
+	 * @return a future completed with the scraped movie, which is null if nothing was found or the results were discarded
+	 */
+	public static CompletableFuture<Movie> scrapeMovieAsync(File movieFile, SiteParsingProfile siteToParseFrom, String urlToScrapeFromDMM, boolean useURLtoScrapeFrom) {
+		return ScrapeEngine.getInstance().submit(() -> scrapeMovie(movieFile, siteToParseFrom, urlToScrapeFromDMM, useURLtoScrapeFrom));
+	}
+
+	/**
+	 * Same as {@link #scrapeMovieAsync(File, SiteParsingProfile, String, boolean)} but runs on the given executor
+	 */
+	public static CompletableFuture<Movie> scrapeMovieAsync(File movieFile, SiteParsingProfile siteToParseFrom, String urlToScrapeFromDMM, boolean useURLtoScrapeFrom,
+	        ExecutorService executor) {
+		return ScrapeEngine.submit(() -> scrapeMovie(movieFile, siteToParseFrom, urlToScrapeFromDMM, useURLtoScrapeFrom), executor);
+	}
+
 	//Version that allows us to update the GUI while scraping
 	public static Movie scrapeMovie(File movieFile, SiteParsingProfile siteToParseFrom, String urlToScrapeFromDMM, boolean useURLtoScrapeFrom) throws IOException {
 
@@ -770,25 +882,48 @@ public class Movie {
 		int searchResultNumberToUse = 0;
 		//no URL was passed in so we gotta figure it ourselves
 		if (!useURLtoScrapeFrom) {
-			searchResults = siteToParseFrom.getSearchResults(searchString);
+			SearchResultIterator searchResultIterator = siteToParseFrom.getSearchResultIterator(searchString);
+			List<SearchResult> searchResultsRead = new ArrayList<>();
 			int levDistanceOfCurrentMatch = 999999; // just some super high number
 			String idFromMovieFile = SiteParsingProfile.findIDTagFromFile(movieFile, siteToParseFrom.isFirstWordOfFileIsID());
+			String idFromMovieFileToMatch = StringUtils.remove(idFromMovieFile.toLowerCase(), '-');
+			JavIDKey idKeyFromMovieFile = JavIDKey.parse(idFromMovieFile);
+			//the IDs in the result URLs, for when the URL has the ID in another form, like DMM's abc00123 for ABC-123
+			JavIDIndex<Integer> searchResultIDs = new JavIDIndex<>();
+			boolean confidentMatchFound = false;
 
 			//loop through search results and see if URL happens to contain ID number in the URL. This will improve accuracy!
-			for (int i = 0; i < searchResults.length; i++) {
-				String urltoMatch = searchResults[i].getUrlPath().toLowerCase();
-				String idFromMovieFileToMatch = idFromMovieFile.toLowerCase().replaceAll("-", "");
-				//System.out.println("Comparing " + searchResults[i].toLowerCase() + " to " + idFromMovieFile.toLowerCase().replaceAll("-", ""));
-				if (urltoMatch.contains(idFromMovieFileToMatch)) {
-					//let's do some fuzzy logic searching to try to get the "best" match in case we got some that are pretty close
-					//and update the variables accordingly so we know what our best match so far is
-					int candidateLevDistanceOfCurrentMatch = StringUtils.getLevenshteinDistance(urltoMatch.toLowerCase(), idFromMovieFileToMatch);
-					if (candidateLevDistanceOfCurrentMatch < levDistanceOfCurrentMatch) {
-						levDistanceOfCurrentMatch = candidateLevDistanceOfCurrentMatch;
-						searchResultNumberToUse = i;
+			//once the ID is found in a URL, the rest of the page of results is still compared but no more pages are downloaded
+			try {
+				while (confidentMatchFound ? searchResultIterator.hasNextLoaded() : searchResultIterator.hasNext()) {
+					SearchResult currentSearchResult = searchResultIterator.next();
+					int i = searchResultsRead.size();
+					searchResultsRead.add(currentSearchResult);
+					String urltoMatch = currentSearchResult.getUrlPath().toLowerCase();
+					if (urltoMatch.contains(idFromMovieFileToMatch)) {
+						//the closest match is the shortest URL containing the ID: since the URL contains the ID, the Levenshtein distance
+						//between them is just the number of extra characters in the URL
+						int candidateLevDistanceOfCurrentMatch = urltoMatch.length() - idFromMovieFileToMatch.length();
+						if (candidateLevDistanceOfCurrentMatch < levDistanceOfCurrentMatch) {
+							levDistanceOfCurrentMatch = candidateLevDistanceOfCurrentMatch;
+							searchResultNumberToUse = i;
+						}
+						if (isWholeIDInURL(urltoMatch, idFromMovieFileToMatch))
+							confidentMatchFound = true;
+					} else if (idKeyFromMovieFile != null && levDistanceOfCurrentMatch == 999999) {
+						searchResultIDs.addAllIn(urltoMatch, i);
+						if (searchResultIDs.contains(idKeyFromMovieFile))
+							confidentMatchFound = true;
 					}
 				}
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			} finally {
+				searchResultIterator.close();
 			}
+			if (levDistanceOfCurrentMatch == 999999 && searchResultIDs.contains(idKeyFromMovieFile))
+				searchResultNumberToUse = searchResultIDs.getFirst(idKeyFromMovieFile);
+			searchResults = searchResultsRead.toArray(new SearchResult[searchResultsRead.size()]);
 		}
 		//just use the URL to parse from the parameter
 		else if (useURLtoScrapeFrom) {
@@ -833,6 +968,23 @@ public class Movie {
 		}
 	}
 
+	/**
+	 * @return true if the ID is in the URL and is not just part of a longer ID, like abp123 in abp1234 or xabp123.
+	 * Digits before the ID are allowed since sites like DMM prefix their IDs with a label number.
+	 */
+	private static boolean isWholeIDInURL(String url, String id) {
+		if (id.length() == 0)
+			return false;
+		for (int start = url.indexOf(id); start >= 0; start = url.indexOf(id, start + 1)) {
+			int end = start + id.length();
+			boolean letterBefore = start > 0 && Character.isLetter(url.charAt(start - 1));
+			boolean digitAfter = end < url.length() && Character.isDigit(url.charAt(end));
+			if (!letterBefore && !digitAfter)
+				return true;
+		}
+		return false;
+	}
+
 	public boolean hasAtLeastOneActorThumbnail() {
 		for (Actor currentActor : actors) {
 			if (currentActor.getThumb() != null && currentActor.getThumb().getThumbURL() != null && !currentActor.getThumb().getThumbURL().equals("")) {
@@ -966,4 +1118,41 @@ public class Movie {
 		return (title != null && title.getTitle() != null && title.getTitle().length() > 0);
 	}
 
+	/**
+	 * A group of fields scraped on the {@link ScrapeEngine} while the constructor scrapes the others. Kept out of Movie itself because
+	 * the amalgamation code reflects over the fields declared in Movie. A group which no engine thread has picked up by the time the
+	 * constructor is done with its own fields is scraped by the constructor's thread, so a movie scraped on a batch site thread or an
+	 * engine thread never waits for a free thread.
+	 */
+	private static class FieldGroup {
+		private final Runnable scrape;
+		private final AtomicBoolean started = new AtomicBoolean();
+		private CompletableFuture<Void> future;
+
+		FieldGroup(Runnable scrape) {
+			this.scrape = scrape;
+		}
+
+		void start() {
+			future = ScrapeEngine.getInstance().submit(() -> {
+				if (started.compareAndSet(false, true))
+					scrape.run();
+				return null;
+			});
+		}
+
+		/**
+		 * Waits for the group if an engine thread is scraping it, or else scrapes it on this thread
+		 *
+		 * @throws CompletionException wrapping what the scrape threw on an engine thread
+		 */
+		void finish() {
+			if (started.compareAndSet(false, true)) {
+				future.cancel(false);
+				scrape.run();
+			} else {
+				future.join();
+			}
+		}
+	}
 }
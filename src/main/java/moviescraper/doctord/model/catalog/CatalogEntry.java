@@ -0,0 +1,197 @@
+package moviescraper.doctord.model.catalog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.jsondb.annotation.Document;
+import io.jsondb.annotation.Id;
+import moviescraper.doctord.controller.xmlserialization.KodiXmlMovieBean;
+import moviescraper.doctord.model.Movie;
+
+/**
+ * A scraped movie as stored in the {@link MovieCatalog}: the fields which are searched on, where its files were written,
+ * the sites its data came from and the whole movie in the same xml as its nfo. Stored as json, so it only has plain fields.
+ */
+@Document(collection = "movies", schemaVersion = "1.0")
+public class CatalogEntry {
+
+	//absolute path of the movie file or directory
+	@Id
+	private String path;
+	private String id;
+	//the ID in the form used to find movies by ID, see MovieCatalog.normalizeID
+	private String normalizedId;
+	private String title;
+	private String year;
+	private String studio;
+	private String set;
+	private List<String> actors = new ArrayList<>();
+	private List<String> genres = new ArrayList<>();
+	private List<String> sources = new ArrayList<>();
+	private String nfoPath;
+	private String posterPath;
+	private String fanartPath;
+	private String folderJpgPath;
+	private String extraFanartFolderPath;
+	private String trailerPath;
+	private String nfoXml;
+	private long scrapedTime;
+
+	/**
+	 * @return the movie the entry was made from, read from its nfo xml
+	 */
+	public Movie toMovie() throws IOException {
+		KodiXmlMovieBean xmlMovieBean = KodiXmlMovieBean.makeFromXML(nfoXml);
+		return xmlMovieBean != null ? xmlMovieBean.toMovie() : null;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public void setPath(String path) {
+		this.path = path;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getNormalizedId() {
+		return normalizedId;
+	}
+
+	public void setNormalizedId(String normalizedId) {
+		this.normalizedId = normalizedId;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public String getYear() {
+		return year;
+	}
+
+	public void setYear(String year) {
+		this.year = year;
+	}
+
+	public String getStudio() {
+		return studio;
+	}
+
+	public void setStudio(String studio) {
+		this.studio = studio;
+	}
+
+	public String getSet() {
+		return set;
+	}
+
+	public void setSet(String set) {
+		this.set = set;
+	}
+
+	public List<String> getActors() {
+		return actors;
+	}
+
+	public void setActors(List<String> actors) {
+		this.actors = actors;
+	}
+
+	public List<String> getGenres() {
+		return genres;
+	}
+
+	public void setGenres(List<String> genres) {
+		this.genres = genres;
+	}
+
+	public List<String> getSources() {
+		return sources;
+	}
+
+	public void setSources(List<String> sources) {
+		this.sources = sources;
+	}
+
+	public String getNfoPath() {
+		return nfoPath;
+	}
+
+	public void setNfoPath(String nfoPath) {
+		this.nfoPath = nfoPath;
+	}
+
+	public String getPosterPath() {
+		return posterPath;
+	}
+
+	public void setPosterPath(String posterPath) {
+		this.posterPath = posterPath;
+	}
+
+	public String getFanartPath() {
+		return fanartPath;
+	}
+
+	public void setFanartPath(String fanartPath) {
+		this.fanartPath = fanartPath;
+	}
+
+	public String getFolderJpgPath() {
+		return folderJpgPath;
+	}
+
+	public void setFolderJpgPath(String folderJpgPath) {
+		this.folderJpgPath = folderJpgPath;
+	}
+
+	public String getExtraFanartFolderPath() {
+		return extraFanartFolderPath;
+	}
+
+	public void setExtraFanartFolderPath(String extraFanartFolderPath) {
+		this.extraFanartFolderPath = extraFanartFolderPath;
+	}
+
+	public String getTrailerPath() {
+		return trailerPath;
+	}
+
+	public void setTrailerPath(String trailerPath) {
+		this.trailerPath = trailerPath;
+	}
+
+	public String getNfoXml() {
+		return nfoXml;
+	}
+
+	public void setNfoXml(String nfoXml) {
+		this.nfoXml = nfoXml;
+	}
+
+	public long getScrapedTime() {
+		return scrapedTime;
+	}
+
+	public void setScrapedTime(long scrapedTime) {
+		this.scrapedTime = scrapedTime;
+	}
+
+	@Override
+	public String toString() {
+		return "CatalogEntry [path=" + path + ", id=" + id + ", title=" + title + "]";
+	}
+}
@@ -0,0 +1,456 @@
+package moviescraper.doctord.model.catalog;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.jsondb.JsonDBTemplate;
+import moviescraper.doctord.controller.xmlserialization.KodiXmlMovieBean;
+import moviescraper.doctord.model.Movie;
+import moviescraper.doctord.model.dataitem.Actor;
+import moviescraper.doctord.model.dataitem.DefaultDataItemSource;
+import moviescraper.doctord.model.dataitem.Genre;
+import moviescraper.doctord.model.dataitem.JavIDKey;
+import moviescraper.doctord.model.dataitem.MovieDataItem;
+import moviescraper.doctord.model.preferences.MoviescraperPreferences;
+
+/**
+ * A catalog of every movie written to disk, stored with jsondb in the catalog directory. Movies are recorded by their file path when
+ * their nfo is written, so whether a file was scraped, which files are the same movie and which movies have an actor, studio, genre or set
+ * are answered from indexes kept in memory instead of reading nfo files. The indexes are updated right away, while the changes are written
+ * to disk in the background a moment later, all of them in one jsondb write. As every jsondb write rewrites the whole collection file,
+ * which replaces it atomically, the catalog on disk never has half a movie in it, and a batch of movies costs one rewrite instead of one
+ * each. Changes not yet written when the program exits are written by a shutdown hook.
+ */
+public class MovieCatalog {
+
+	private static final String catalogDirectoryName = "catalog";
+
+	/**
+	 * How long a change waits before it is written, so the changes made meanwhile are written with it
+	 */
+	public static final long DEFAULT_FLUSH_DELAY_MILLIS = 2000;
+
+	private static MovieCatalog instance;
+
+	private final File directory;
+	private final boolean enabled;
+	private final long flushDelayMillis;
+	private JsonDBTemplate database;
+	//the changes not written yet, by path. Only the last change of a path is kept.
+	private final Map<String, CatalogEntry> pendingUpserts = new LinkedHashMap<>();
+	private final Map<String, CatalogEntry> pendingRemovals = new LinkedHashMap<>();
+	private boolean flushScheduled;
+	private ScheduledExecutorService flushExecutor;
+	//held while writing to disk, so the indexes stay usable during a write and writes happen in the order the changes were made
+	private final Object writeLock = new Object();
+	//the indexes, read from the database when the catalog is first used. The keys of the secondary indexes are lower case.
+	private final Map<String, CatalogEntry> entriesByPath = new HashMap<>();
+	private final Map<String, List<CatalogEntry>> entriesByID = new HashMap<>();
+	private final Map<String, List<CatalogEntry>> entriesByActor = new HashMap<>();
+	private final Map<String, List<CatalogEntry>> entriesByStudio = new HashMap<>();
+	private final Map<String, List<CatalogEntry>> entriesByGenre = new HashMap<>();
+	private final Map<String, List<CatalogEntry>> entriesBySet = new HashMap<>();
+
+	/**
+	 * @param directory - where the database files are stored
+	 * @param enabled - if false, nothing is recorded and every lookup finds nothing
+	 */
+	public MovieCatalog(File directory, boolean enabled) {
+		this(directory, enabled, DEFAULT_FLUSH_DELAY_MILLIS);
+	}
+
+	/**
+	 * @param directory - where the database files are stored
+	 * @param enabled - if false, nothing is recorded and every lookup finds nothing
+	 * @param flushDelayMillis - how long a change waits before it is written to disk
+	 */
+	public MovieCatalog(File directory, boolean enabled, long flushDelayMillis) {
+		this.directory = directory;
+		this.enabled = enabled;
+		this.flushDelayMillis = flushDelayMillis;
+	}
+
+	public static synchronized MovieCatalog getInstance() {
+		if (instance == null) {
+			instance = new MovieCatalog(new File(catalogDirectoryName), MoviescraperPreferences.getInstance().getMovieCatalogEnabled());
+			Runtime.getRuntime().addShutdownHook(new Thread(instance::flush, "movie-catalog-save"));
+		}
+		return instance;
+	}
+
+	/**
+	 * @return false if the catalog is disabled or could not be opened
+	 */
+	private boolean open() {
+		if (!enabled)
+			return false;
+		if (database != null)
+			return true;
+		try {
+			directory.mkdirs();
+			JsonDBTemplate openedDatabase = new JsonDBTemplate(directory.getAbsolutePath(), CatalogEntry.class.getPackage().getName());
+			if (!openedDatabase.collectionExists(CatalogEntry.class))
+				openedDatabase.createCollection(CatalogEntry.class);
+			for (CatalogEntry currentEntry : openedDatabase.findAll(CatalogEntry.class))
+				addToIndexes(currentEntry);
+			database = openedDatabase;
+			return true;
+		} catch (RuntimeException e) {
+			System.err.println("Could not open the movie catalog in " + directory + ": " + e.getMessage());
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Records a movie which was written to disk, replacing what was recorded for its file before
+	 *
+	 * @param movieFile - the movie file or directory the movie was scraped for
+	 * @return true if the movie was recorded. It is written to disk with the next {@link #flush()}.
+	 */
+	public boolean record(File movieFile, Movie movie, File nfoFile, File posterFile, File fanartFile, File folderJpgFile, File extraFanartFolder, File trailerFile) {
+		if (!enabled)
+			return false;
+		//the entry is made before locking, since turning the movie into xml is the slow part
+		CatalogEntry entry = new CatalogEntry();
+		entry.setPath(movieFile.getAbsolutePath());
+		entry.setId(movie.getId() != null ? movie.getId().getId() : null);
+		entry.setNormalizedId(normalizeID(entry.getId()));
+		entry.setTitle(movie.getTitle() != null ? movie.getTitle().getTitle() : null);
+		entry.setYear(movie.getYear() != null ? movie.getYear().getYear() : null);
+		entry.setStudio(movie.getStudio() != null ? movie.getStudio().getStudio() : null);
+		entry.setSet(movie.getSet() != null ? movie.getSet().getSet() : null);
+		LinkedHashSet<String> sources = new LinkedHashSet<>();
+		for (MovieDataItem currentItem : new MovieDataItem[] { movie.getId(), movie.getTitle(), movie.getOriginalTitle(), movie.getYear(), movie.getReleaseDate(), movie.getStudio(),
+		        movie.getSet(), movie.getPlot(), movie.getOutline() })
+			addSource(sources, currentItem);
+		if (movie.getActors() != null) {
+			for (Actor currentActor : movie.getActors()) {
+				entry.getActors().add(currentActor.getName());
+				addSource(sources, currentActor);
+			}
+		}
+		if (movie.getGenres() != null) {
+			for (Genre currentGenre : movie.getGenres()) {
+				entry.getGenres().add(currentGenre.getGenre());
+				addSource(sources, currentGenre);
+			}
+		}
+		entry.setSources(new ArrayList<>(sources));
+		entry.setNfoPath(getPath(nfoFile));
+		entry.setPosterPath(getPath(posterFile));
+		entry.setFanartPath(getPath(fanartFile));
+		entry.setFolderJpgPath(getPath(folderJpgFile));
+		entry.setExtraFanartFolderPath(getPath(extraFanartFolder));
+		entry.setTrailerPath(getPath(trailerFile));
+		entry.setNfoXml(new KodiXmlMovieBean(movie).toXML());
+		entry.setScrapedTime(System.currentTimeMillis());
+		synchronized (this) {
+			if (!open())
+				return false;
+			removeFromIndexes(entriesByPath.get(entry.getPath()));
+			addToIndexes(entry);
+			upsertLater(entry);
+		}
+		return true;
+	}
+
+	private static void addSource(LinkedHashSet<String> sources, MovieDataItem item) {
+		if (item != null && item.getDataItemSource() != null && item.getDataItemSource() != DefaultDataItemSource.DEFAULT_DATA_ITEM_SOURCE)
+			sources.add(item.getDataItemSource().getDataItemSourceName());
+	}
+
+	private static String getPath(File file) {
+		return file != null ? file.getAbsolutePath() : null;
+	}
+
+	/**
+	 * Forgets the movie recorded for a file, like when the file is deleted
+	 *
+	 * @return true if a movie was recorded for the file
+	 */
+	public synchronized boolean remove(File movieFile) {
+		if (!open())
+			return false;
+		CatalogEntry entry = entriesByPath.get(movieFile.getAbsolutePath());
+		if (entry == null)
+			return false;
+		removeFromIndexes(entry);
+		removeLater(entry);
+		return true;
+	}
+
+	/**
+	 * Moves what was recorded for a movie file to the file's new path after it was renamed. The entry is written under the new path
+	 * in the same write which removes the old one, so the movie is never missing from the catalog.
+	 *
+	 * @param movedFiles - the new path of each file or directory of the movie which was moved, by its old path. The paths of the movie's nfo,
+	 *            images and trailer are updated from it, including the ones inside a moved directory.
+	 */
+	public synchronized void move(File oldMovieFile, File newMovieFile, Map<File, File> movedFiles) {
+		if (!open())
+			return;
+		CatalogEntry oldEntry = entriesByPath.get(oldMovieFile.getAbsolutePath());
+		if (oldEntry == null || oldMovieFile.getAbsolutePath().equals(newMovieFile.getAbsolutePath()))
+			return;
+		CatalogEntry newEntry = copyOf(oldEntry);
+		newEntry.setPath(newMovieFile.getAbsolutePath());
+		newEntry.setNfoPath(getMovedPath(oldEntry.getNfoPath(), movedFiles));
+		newEntry.setPosterPath(getMovedPath(oldEntry.getPosterPath(), movedFiles));
+		newEntry.setFanartPath(getMovedPath(oldEntry.getFanartPath(), movedFiles));
+		newEntry.setFolderJpgPath(getMovedPath(oldEntry.getFolderJpgPath(), movedFiles));
+		newEntry.setExtraFanartFolderPath(getMovedPath(oldEntry.getExtraFanartFolderPath(), movedFiles));
+		newEntry.setTrailerPath(getMovedPath(oldEntry.getTrailerPath(), movedFiles));
+		removeFromIndexes(entriesByPath.get(newEntry.getPath()));
+		addToIndexes(newEntry);
+		upsertLater(newEntry);
+		removeFromIndexes(oldEntry);
+		removeLater(oldEntry);
+	}
+
+	private void upsertLater(CatalogEntry entry) {
+		pendingRemovals.remove(entry.getPath());
+		pendingUpserts.put(entry.getPath(), entry);
+		scheduleFlush();
+	}
+
+	private void removeLater(CatalogEntry entry) {
+		pendingUpserts.remove(entry.getPath());
+		pendingRemovals.put(entry.getPath(), entry);
+		scheduleFlush();
+	}
+
+	private void scheduleFlush() {
+		if (flushScheduled)
+			return;
+		if (flushExecutor == null) {
+			flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "movie-catalog-flush");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		flushScheduled = true;
+		flushExecutor.schedule(this::flush, flushDelayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Writes the changes made since the last flush to disk, in a single write. This is done in the background a moment after a change,
+	 * and when the program exits, so it only needs to be called to have the changes on disk right away.
+	 */
+	public void flush() {
+		synchronized (writeLock) {
+			JsonDBTemplate flushedDatabase;
+			List<CatalogEntry> upserts;
+			List<CatalogEntry> removals;
+			synchronized (this) {
+				flushScheduled = false;
+				if (database == null || (pendingUpserts.isEmpty() && pendingRemovals.isEmpty()))
+					return;
+				flushedDatabase = database;
+				upserts = new ArrayList<>(pendingUpserts.values());
+				removals = new ArrayList<>(pendingRemovals.values());
+				pendingUpserts.clear();
+				pendingRemovals.clear();
+			}
+			try {
+				//the upserts go first, so a moved movie is never missing from the catalog on disk
+				if (!upserts.isEmpty())
+					flushedDatabase.upsert(upserts, CatalogEntry.class);
+				if (!removals.isEmpty())
+					flushedDatabase.remove(removals, CatalogEntry.class);
+			} catch (RuntimeException e) {
+				System.err.println("Could not write " + (upserts.size() + removals.size()) + " changes to the movie catalog in " + directory + ": " + e.getMessage());
+				e.printStackTrace();
+				//kept for the next flush, unless the movie was changed again meanwhile
+				synchronized (this) {
+					for (CatalogEntry currentEntry : upserts) {
+						if (!pendingUpserts.containsKey(currentEntry.getPath()) && !pendingRemovals.containsKey(currentEntry.getPath()))
+							pendingUpserts.put(currentEntry.getPath(), currentEntry);
+					}
+					for (CatalogEntry currentEntry : removals) {
+						if (!pendingUpserts.containsKey(currentEntry.getPath()) && !pendingRemovals.containsKey(currentEntry.getPath()))
+							pendingRemovals.put(currentEntry.getPath(), currentEntry);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the path after the moves, which is the path itself if neither it nor a directory it is in was moved
+	 */
+	private static String getMovedPath(String path, Map<File, File> movedFiles) {
+		if (path == null)
+			return null;
+		for (Map.Entry<File, File> currentMove : movedFiles.entrySet()) {
+			String oldPath = currentMove.getKey().getAbsolutePath();
+			if (path.equals(oldPath))
+				return currentMove.getValue().getAbsolutePath();
+			if (path.startsWith(oldPath + File.separator))
+				return currentMove.getValue().getAbsolutePath() + path.substring(oldPath.length());
+		}
+		return path;
+	}
+
+	private static CatalogEntry copyOf(CatalogEntry entry) {
+		CatalogEntry copy = new CatalogEntry();
+		copy.setPath(entry.getPath());
+		copy.setId(entry.getId());
+		copy.setNormalizedId(entry.getNormalizedId());
+		copy.setTitle(entry.getTitle());
+		copy.setYear(entry.getYear());
+		copy.setStudio(entry.getStudio());
+		copy.setSet(entry.getSet());
+		copy.setActors(new ArrayList<>(entry.getActors()));
+		copy.setGenres(new ArrayList<>(entry.getGenres()));
+		copy.setSources(new ArrayList<>(entry.getSources()));
+		copy.setNfoPath(entry.getNfoPath());
+		copy.setPosterPath(entry.getPosterPath());
+		copy.setFanartPath(entry.getFanartPath());
+		copy.setFolderJpgPath(entry.getFolderJpgPath());
+		copy.setExtraFanartFolderPath(entry.getExtraFanartFolderPath());
+		copy.setTrailerPath(entry.getTrailerPath());
+		copy.setNfoXml(entry.getNfoXml());
+		copy.setScrapedTime(entry.getScrapedTime());
+		return copy;
+	}
+
+	/**
+	 * @return the ID in the form movies are found by: the series and number of a JAV ID like abc-1 for ABC-001, or else the ID in lower case
+	 */
+	public static String normalizeID(String id) {
+		if (id == null)
+			return "";
+		JavIDKey key = JavIDKey.parse(id);
+		return key != null ? key.getNormalizedID() : id.trim().toLowerCase();
+	}
+
+	private void addToIndexes(CatalogEntry entry) {
+		entriesByPath.put(entry.getPath(), entry);
+		addToIndex(entriesByID, entry.getNormalizedId(), entry);
+		if (entry.getActors() != null) {
+			for (String currentActor : entry.getActors())
+				addToIndex(entriesByActor, currentActor, entry);
+		}
+		addToIndex(entriesByStudio, entry.getStudio(), entry);
+		if (entry.getGenres() != null) {
+			for (String currentGenre : entry.getGenres())
+				addToIndex(entriesByGenre, currentGenre, entry);
+		}
+		addToIndex(entriesBySet, entry.getSet(), entry);
+	}
+
+	private void removeFromIndexes(CatalogEntry entry) {
+		if (entry == null)
+			return;
+		entriesByPath.remove(entry.getPath());
+		removeFromIndex(entriesByID, entry.getNormalizedId(), entry);
+		if (entry.getActors() != null) {
+			for (String currentActor : entry.getActors())
+				removeFromIndex(entriesByActor, currentActor, entry);
+		}
+		removeFromIndex(entriesByStudio, entry.getStudio(), entry);
+		if (entry.getGenres() != null) {
+			for (String currentGenre : entry.getGenres())
+				removeFromIndex(entriesByGenre, currentGenre, entry);
+		}
+		removeFromIndex(entriesBySet, entry.getSet(), entry);
+	}
+
+	private static void addToIndex(Map<String, List<CatalogEntry>> index, String key, CatalogEntry entry) {
+		if (key == null || key.trim().isEmpty())
+			return;
+		List<CatalogEntry> keyEntries = index.computeIfAbsent(key.trim().toLowerCase(), newKey -> new ArrayList<>(1));
+		if (!keyEntries.contains(entry))
+			keyEntries.add(entry);
+	}
+
+	private static void removeFromIndex(Map<String, List<CatalogEntry>> index, String key, CatalogEntry entry) {
+		if (key == null || key.trim().isEmpty())
+			return;
+		String indexKey = key.trim().toLowerCase();
+		List<CatalogEntry> keyEntries = index.get(indexKey);
+		if (keyEntries != null) {
+			keyEntries.remove(entry);
+			if (keyEntries.isEmpty())
+				index.remove(indexKey);
+		}
+	}
+
+	private static List<CatalogEntry> find(Map<String, List<CatalogEntry>> index, String key) {
+		if (key == null)
+			return Collections.emptyList();
+		List<CatalogEntry> keyEntries = index.get(key.trim().toLowerCase());
+		return keyEntries != null ? new ArrayList<>(keyEntries) : Collections.<CatalogEntry> emptyList();
+	}
+
+	/**
+	 * @return what was recorded for the movie file, or null if it was never written
+	 */
+	public synchronized CatalogEntry findByPath(File movieFile) {
+		return open() ? entriesByPath.get(movieFile.getAbsolutePath()) : null;
+	}
+
+	/**
+	 * @return true if metadata was written for the movie file
+	 */
+	public synchronized boolean isScraped(File movieFile) {
+		return findByPath(movieFile) != null;
+	}
+
+	/**
+	 * @return the movies with the same ID, written in any way which {@link #normalizeID(String)} treats the same
+	 */
+	public synchronized List<CatalogEntry> findByID(String id) {
+		return open() ? find(entriesByID, normalizeID(id)) : Collections.<CatalogEntry> emptyList();
+	}
+
+	public synchronized List<CatalogEntry> findByActor(String actorName) {
+		return open() ? find(entriesByActor, actorName) : Collections.<CatalogEntry> emptyList();
+	}
+
+	public synchronized List<CatalogEntry> findByStudio(String studio) {
+		return open() ? find(entriesByStudio, studio) : Collections.<CatalogEntry> emptyList();
+	}
+
+	public synchronized List<CatalogEntry> findByGenre(String genre) {
+		return open() ? find(entriesByGenre, genre) : Collections.<CatalogEntry> emptyList();
+	}
+
+	public synchronized List<CatalogEntry> findBySet(String set) {
+		return open() ? find(entriesBySet, set) : Collections.<CatalogEntry> emptyList();
+	}
+
+	/**
+	 * @return the IDs which more than one file was scraped as, each with the movies scraped as it, sorted by ID
+	 */
+	public synchronized Map<String, List<CatalogEntry>> findDuplicates() {
+		Map<String, List<CatalogEntry>> duplicates = new TreeMap<>();
+		if (!open())
+			return duplicates;
+		for (Map.Entry<String, List<CatalogEntry>> currentID : entriesByID.entrySet()) {
+			if (currentID.getValue().size() > 1)
+				duplicates.put(currentID.getKey(), new ArrayList<>(currentID.getValue()));
+		}
+		return duplicates;
+	}
+
+	public synchronized List<CatalogEntry> getAll() {
+		return open() ? new ArrayList<>(entriesByPath.values()) : Collections.<CatalogEntry> emptyList();
+	}
+
+	public synchronized int size() {
+		return open() ? entriesByPath.size() : 0;
+	}
+}
@@ -33,9 +33,9 @@ public class Actor extends Person {
 	}
 
 	public void writeImageToFile(File fileNameToWrite) throws IOException {
-		if (getThumb() != null && getThumb().getThumbURL() != null && getThumb().getThumbURL().getPath().length() > 0)
-			UtilityFunctions.saveFile(getThumb().getThumbURL(), fileNameToWrite);
-
+		if (getThumb() != null && getThumb().getThumbURL() != null && getThumb().getThumbURL().getPath().length() > 0
+		        && !UtilityFunctions.saveFile(getThumb().getThumbURL(), fileNameToWrite))
+			throw new IOException("Failed to download actor image " + getThumb().getThumbURL());
 	}
 
 	@Override
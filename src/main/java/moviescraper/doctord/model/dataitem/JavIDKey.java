@@ -0,0 +1,224 @@
+package moviescraper.doctord.model.dataitem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A JAV ID split into its parts, like 73ABC-001SO into the label number 73, the series ABC, the number 001 and the suffix SO.
+ * Two keys are equal when their series and numbers are: the series ignoring case, the numbers by value, and the label number
+ * and suffix are ignored. Moodyz series differing only by a trailing D, like MDED and MDE, are the same series.
+ * So equal keys are what {@link ID#equalsJavID(ID)} considers the same movie, and a key can be used to look up IDs in a hash map.
+ * The parser reads the characters once instead of using regular expressions.
+ */
+public final class JavIDKey {
+
+	private final String labelNumber;
+	private final String series;
+	private final String number;
+	private final String suffix;
+	//the parts which take part in equals, normalized
+	private final String normalizedSeries;
+	private final String normalizedNumber;
+	private final int hashCode;
+
+	private JavIDKey(String labelNumber, String series, String number, String suffix) {
+		this.labelNumber = labelNumber;
+		this.series = series;
+		this.number = number;
+		this.suffix = suffix;
+		this.normalizedSeries = normalizeSeries(series);
+		this.normalizedNumber = normalizeNumber(number);
+		this.hashCode = 31 * normalizedSeries.hashCode() + normalizedNumber.hashCode();
+	}
+
+	/**
+	 * Reads an ID the way {@link ID#equalsJavID(ID)} always has: dashes are ignored and the ID is the last run of
+	 * optional digits, non digits, digits and optional non digits in the text.
+	 *
+	 * @param id - the ID, like ABC-123
+	 * @return the key, or null if there is no series followed by a number in the text
+	 */
+	public static JavIDKey parse(CharSequence id) {
+		if (id == null)
+			return null;
+		int length = id.length();
+		int position = skipDashes(id, 0);
+		int labelStart = -1, labelEnd = -1, seriesStart = -1, seriesEnd = -1, numberStart = -1, numberEnd = -1, suffixStart = -1, suffixEnd = -1;
+		while (position < length) {
+			int matchLabelStart = position;
+			int matchLabelEnd = skipRun(id, position, true);
+			int matchSeriesEnd = skipRun(id, matchLabelEnd, false);
+			int matchNumberEnd = skipRun(id, matchSeriesEnd, true);
+			if (matchSeriesEnd == matchLabelEnd || matchNumberEnd == matchSeriesEnd)
+				break;
+			int matchSuffixEnd = skipRun(id, matchNumberEnd, false);
+			labelStart = matchLabelStart;
+			labelEnd = matchLabelEnd;
+			seriesStart = matchLabelEnd;
+			seriesEnd = matchSeriesEnd;
+			numberStart = matchSeriesEnd;
+			numberEnd = matchNumberEnd;
+			suffixStart = matchNumberEnd;
+			suffixEnd = matchSuffixEnd;
+			position = matchSuffixEnd;
+		}
+		if (seriesStart < 0)
+			return null;
+		return new JavIDKey(withoutDashes(id, labelStart, labelEnd), withoutDashes(id, seriesStart, seriesEnd), withoutDashes(id, numberStart, numberEnd),
+		        withoutDashes(id, suffixStart, suffixEnd));
+	}
+
+	/**
+	 * Finds the IDs in a longer text like a URL, reading every run of letters, digits and dashes on its own,
+	 * so the ID in https://www.dmm.co.jp/mono/dvd/-/detail/=/cid=abp00123/ is found as ABP-123
+	 *
+	 * @return the keys of the IDs found, in order
+	 */
+	public static List<JavIDKey> findAll(CharSequence text) {
+		List<JavIDKey> keys = new ArrayList<>();
+		if (text == null)
+			return keys;
+		int length = text.length();
+		int position = 0;
+		while (position < length) {
+			while (position < length && !isIDCharacter(text.charAt(position)))
+				position++;
+			int tokenStart = position;
+			while (position < length && isIDCharacter(text.charAt(position)))
+				position++;
+			if (position > tokenStart) {
+				JavIDKey key = parse(text.subSequence(tokenStart, position));
+				if (key != null)
+					keys.add(key);
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * @return true if the text, like a URL, contains an ID equal to this one. See {@link #findAll(CharSequence)}.
+	 */
+	public boolean isIn(CharSequence text) {
+		for (JavIDKey currentKey : findAll(text)) {
+			if (equals(currentKey))
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean isIDCharacter(char character) {
+		return Character.isLetterOrDigit(character) || character == '-';
+	}
+
+	private static boolean isDigit(char character) {
+		return character >= '0' && character <= '9';
+	}
+
+	private static int skipDashes(CharSequence id, int position) {
+		while (position < id.length() && id.charAt(position) == '-')
+			position++;
+		return position;
+	}
+
+	/**
+	 * @return the position after the run of digits, or non digits, starting at position. Dashes are skipped as if they were not there.
+	 */
+	private static int skipRun(CharSequence id, int position, boolean digits) {
+		int length = id.length();
+		while (position < length) {
+			char character = id.charAt(position);
+			if (character != '-' && isDigit(character) != digits)
+				break;
+			position++;
+		}
+		//a trailing dash belongs to no run, so the next run starts after it
+		return position;
+	}
+
+	private static String withoutDashes(CharSequence id, int start, int end) {
+		StringBuilder part = null;
+		for (int i = start; i < end; i++) {
+			if (id.charAt(i) == '-') {
+				if (part == null)
+					part = new StringBuilder(id.subSequence(start, i));
+			} else if (part != null) {
+				part.append(id.charAt(i));
+			}
+		}
+		return part != null ? part.toString() : id.subSequence(start, end).toString();
+	}
+
+	private static String normalizeSeries(String series) {
+		StringBuilder normalized = new StringBuilder(series.length());
+		for (int i = 0; i < series.length(); i++) {
+			//the same folding as String.equalsIgnoreCase
+			normalized.append(Character.toLowerCase(Character.toUpperCase(series.charAt(i))));
+		}
+		//Moodyz titles have slightly different tags for DVD/VHS (MDED -> MDE, MDID -> MDI, MDLD -> MDL...)
+		if (normalized.length() == 4 && normalized.charAt(0) == 'm' && normalized.charAt(1) == 'd' && normalized.charAt(3) == 'd')
+			normalized.setLength(3);
+		return normalized.toString();
+	}
+
+	private static String normalizeNumber(String number) {
+		int firstNonZero = 0;
+		while (firstNonZero < number.length() - 1 && number.charAt(firstNonZero) == '0')
+			firstNonZero++;
+		return number.substring(firstNonZero);
+	}
+
+	/**
+	 * @return the digits before the series, like 73 in 73ABC-001SO, or an empty string
+	 */
+	public String getLabelNumber() {
+		return labelNumber;
+	}
+
+	/**
+	 * @return the series as written, like ABC in 73ABC-001SO
+	 */
+	public String getSeries() {
+		return series;
+	}
+
+	/**
+	 * @return the number as written, like 001 in 73ABC-001SO
+	 */
+	public String getNumber() {
+		return number;
+	}
+
+	/**
+	 * @return the letters after the number, like SO in 73ABC-001SO, or an empty string
+	 */
+	public String getSuffix() {
+		return suffix;
+	}
+
+	/**
+	 * @return the ID in the form compared by equals, like abc-1 for 73ABC-001SO
+	 */
+	public String getNormalizedID() {
+		return normalizedSeries + "-" + normalizedNumber;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof JavIDKey))
+			return false;
+		JavIDKey other = (JavIDKey) obj;
+		return hashCode == other.hashCode && normalizedNumber.equals(other.normalizedNumber) && normalizedSeries.equals(other.normalizedSeries);
+	}
+
+	@Override
+	public String toString() {
+		return "JavIDKey [labelNumber=\"" + labelNumber + "\", series=\"" + series + "\", number=\"" + number + "\", suffix=\"" + suffix + "\"]";
+	}
+}
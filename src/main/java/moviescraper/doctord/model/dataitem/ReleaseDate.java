@@ -29,6 +29,11 @@ public class ReleaseDate extends MovieDataItem {
 		releaseDate = "";
 	}
 
+	/**
+	 * @param releaseDate - the date as the site writes it
+	 * @param format - the format of the date on the site. SimpleDateFormat is not thread safe, so a format shared by scrapes which run at the
+	 *            same time must be one per thread, like from a ThreadLocal.
+	 */
 	public ReleaseDate(String releaseDate, SimpleDateFormat format) {
 		if (releaseDate.length() > 0) {
 			try {
@@ -7,7 +7,6 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.lang.ref.SoftReference;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 
@@ -16,6 +15,7 @@ import javax.swing.ImageIcon;
 
 import moviescraper.doctord.controller.FileDownloaderUtilities;
 import moviescraper.doctord.model.ImageCache;
+import moviescraper.doctord.scraper.UrlProber;
 
 public class Thumb extends MovieDataItem {
 	private URL thumbURL;
@@ -325,17 +325,7 @@ public class Thumb extends MovieDataItem {
 	}
 
 	public static boolean fileExistsAtUrl(String URLName) {
-		try {
-			HttpURLConnection.setFollowRedirects(false);
-			// note : you may also need
-			//        HttpURLConnection.setInstanceFollowRedirects(false)
-			HttpURLConnection con = (HttpURLConnection) new URL(URLName).openConnection();
-			con.setRequestMethod("HEAD");
-			return (con.getResponseCode() == HttpURLConnection.HTTP_OK);
-		} catch (Exception e) {
-			e.printStackTrace();
-			return false;
-		}
+		return UrlProber.getInstance().exists(URLName, false, connectionTimeout);
 	}
 
 	public void writeImageToFile(File fileNameToWrite) throws IOException {
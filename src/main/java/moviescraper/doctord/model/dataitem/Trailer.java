@@ -2,9 +2,11 @@ package moviescraper.doctord.model.dataitem;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
 
-import org.apache.commons.io.FileUtils;
+import moviescraper.doctord.controller.DownloadManager;
 
 public class Trailer extends MovieDataItem {
 
@@ -32,13 +34,30 @@ public class Trailer extends MovieDataItem {
 	}
 
 	public void writeTrailerToFile(File fileNameToWrite) throws IOException {
-		//we don't want to rewrite trailer if the file already exists since that can retrigger a pointlessly long download
-		if (getTrailer() != null && getTrailer().length() > 0 && !fileNameToWrite.exists()) {
+		if (needsWriting(fileNameToWrite)) {
 			System.out.println("Writing trailer: " + this.toString() + " into file " + fileNameToWrite);
-			FileUtils.copyURLToFile(new URL(getTrailer()), fileNameToWrite, connectionTimeout, readTimeout);
+			DownloadManager.getInstance().download(new URL(getTrailer()), fileNameToWrite);
 		}
 	}
 
+	/**
+	 * Queues the trailer to be downloaded in the background by the {@link DownloadManager}
+	 *
+	 * @param movieKey - identifies the movie the trailer belongs to in the {@link moviescraper.doctord.controller.DownloadScheduler}
+	 * @return the queued download, or null if there is nothing to download
+	 */
+	public CompletableFuture<File> writeTrailerToFileInBackground(File fileNameToWrite, String movieKey) throws MalformedURLException {
+		if (!needsWriting(fileNameToWrite))
+			return null;
+		System.out.println("Queuing download of trailer: " + this.toString() + " into file " + fileNameToWrite);
+		return DownloadManager.getInstance().enqueue(new URL(getTrailer()), fileNameToWrite, movieKey);
+	}
+
+	private boolean needsWriting(File fileNameToWrite) {
+		//we don't want to rewrite trailer if the file already exists since that can retrigger a pointlessly long download
+		return getTrailer() != null && getTrailer().length() > 0 && !fileNameToWrite.exists();
+	}
+
 	@Override
 	public String toXML() {
 		// TODO Auto-generated method stub
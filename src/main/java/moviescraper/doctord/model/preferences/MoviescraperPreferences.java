@@ -1,6 +1,9 @@
 package moviescraper.doctord.model.preferences;
 
+import moviescraper.doctord.controller.BatchScraper;
+import moviescraper.doctord.scraper.HttpResponseCache;
 import moviescraper.doctord.scraper.UserAgent;
+import moviescraper.doctord.scraper.WebSearchCache;
 import moviescraper.doctord.view.FavoriteGenrePickerPanel;
 
 public class MoviescraperPreferences extends Settings {
@@ -34,7 +37,18 @@ public class MoviescraperPreferences extends Settings {
 		frequentlyUsedTags, //Used in tag editing to store user's list of frequently used tags to aid in quickly adding tags to a movie
 		writeThumbTagsForPosterAndFanartToNfo, //Whether to write the <thumb> tag into the nfo,
 		userAgent, //UserAgent to use
-		cookieJar //UserAgent to use
+		cookieJar, //UserAgent to use
+		batchScrapeFileThreads, //Number of files scraped at the same time when batch scraping from the command line
+		batchScrapeSiteThreads, //Number of scrapes of a single site which can run at the same time when batch scraping
+		httpCacheEnabled, //Downloaded pages are kept on disk and reused instead of downloading them again
+		httpCacheTimeToLiveHours, //Hours a cached page is used before asking the site whether it changed
+		httpCacheMaxSizeMegabytes, //Size of the page cache on disk. Least recently used pages are deleted past this size.
+		httpCacheOnly, //Only use cached pages and never go to the network. Useful to rescrape offline.
+		searchResultCacheTimeToLiveHours, //Hours the pages found by searching Google or Bing are reused before searching again
+		downloadMaxKilobytesPerSecond, //Bandwidth all trailer downloads together may use. 0 means unlimited.
+		downloadMaxKilobytesPerSecondPerHost, //Bandwidth the trailer downloads from one host may use. 0 means unlimited.
+		movieCatalogEnabled, //Every movie written to disk is recorded in the movie catalog, so the library can be searched without reading its nfo files
+		watchFolderLibraryRoots //Directories watched for new movies with -watch when none are given on the command line, separated by the path separator of the system
 		;
 
 		@Override
@@ -274,4 +288,92 @@ public class MoviescraperPreferences extends Settings {
 	public void setCookieJar(String preferenceValue) {
 		setStringValue(Key.cookieJar, preferenceValue);
 	}
+
+	public Integer getBatchScrapeFileThreads() {
+		return getIntegerValue(Key.batchScrapeFileThreads, BatchScraper.DEFAULT_FILE_PARALLELISM);
+	}
+
+	public void setBatchScrapeFileThreads(Integer preferenceValue) {
+		setIntegerValue(Key.batchScrapeFileThreads, preferenceValue);
+	}
+
+	public Integer getBatchScrapeSiteThreads() {
+		return getIntegerValue(Key.batchScrapeSiteThreads, BatchScraper.DEFAULT_SITE_PARALLELISM);
+	}
+
+	public void setBatchScrapeSiteThreads(Integer preferenceValue) {
+		setIntegerValue(Key.batchScrapeSiteThreads, preferenceValue);
+	}
+
+	public Boolean getHttpCacheEnabled() {
+		return getBooleanValue(Key.httpCacheEnabled, Boolean.TRUE);
+	}
+
+	public void setHttpCacheEnabled(Boolean preferenceValue) {
+		setBooleanValue(Key.httpCacheEnabled, preferenceValue);
+	}
+
+	public Integer getHttpCacheTimeToLiveHours() {
+		return getIntegerValue(Key.httpCacheTimeToLiveHours, HttpResponseCache.DEFAULT_TIME_TO_LIVE_HOURS);
+	}
+
+	public void setHttpCacheTimeToLiveHours(Integer preferenceValue) {
+		setIntegerValue(Key.httpCacheTimeToLiveHours, preferenceValue);
+	}
+
+	public Integer getHttpCacheMaxSizeMegabytes() {
+		return getIntegerValue(Key.httpCacheMaxSizeMegabytes, HttpResponseCache.DEFAULT_MAX_SIZE_MEGABYTES);
+	}
+
+	public void setHttpCacheMaxSizeMegabytes(Integer preferenceValue) {
+		setIntegerValue(Key.httpCacheMaxSizeMegabytes, preferenceValue);
+	}
+
+	public Boolean getHttpCacheOnly() {
+		return getBooleanValue(Key.httpCacheOnly, Boolean.FALSE);
+	}
+
+	public void setHttpCacheOnly(Boolean preferenceValue) {
+		setBooleanValue(Key.httpCacheOnly, preferenceValue);
+	}
+
+	public Integer getSearchResultCacheTimeToLiveHours() {
+		return getIntegerValue(Key.searchResultCacheTimeToLiveHours, WebSearchCache.DEFAULT_TIME_TO_LIVE_HOURS);
+	}
+
+	public void setSearchResultCacheTimeToLiveHours(Integer preferenceValue) {
+		setIntegerValue(Key.searchResultCacheTimeToLiveHours, preferenceValue);
+	}
+
+	public Integer getDownloadMaxKilobytesPerSecond() {
+		return getIntegerValue(Key.downloadMaxKilobytesPerSecond, 0);
+	}
+
+	public void setDownloadMaxKilobytesPerSecond(Integer preferenceValue) {
+		setIntegerValue(Key.downloadMaxKilobytesPerSecond, preferenceValue);
+	}
+
+	public Integer getDownloadMaxKilobytesPerSecondPerHost() {
+		return getIntegerValue(Key.downloadMaxKilobytesPerSecondPerHost, 0);
+	}
+
+	public void setDownloadMaxKilobytesPerSecondPerHost(Integer preferenceValue) {
+		setIntegerValue(Key.downloadMaxKilobytesPerSecondPerHost, preferenceValue);
+	}
+
+	public Boolean getMovieCatalogEnabled() {
+		return getBooleanValue(Key.movieCatalogEnabled, Boolean.TRUE);
+	}
+
+	public void setMovieCatalogEnabled(Boolean preferenceValue) {
+		setBooleanValue(Key.movieCatalogEnabled, preferenceValue);
+	}
+
+	public String getWatchFolderLibraryRoots() {
+		return getStringValue(Key.watchFolderLibraryRoots, "");
+	}
+
+	public void setWatchFolderLibraryRoots(String preferenceValue) {
+		setStringValue(Key.watchFolderLibraryRoots, preferenceValue);
+	}
 }
@@ -0,0 +1,86 @@
+package moviescraper.doctord.scraper;
+
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how fast large files like trailers are downloaded, over all hosts together and for each host on its own.
+ * Both caps are token buckets holding one second of bytes. A reader takes the bytes it just read from both buckets and
+ * then sleeps until the emptier bucket is no longer in debt, so any number of threads together stay under the caps.
+ * A cap of 0 means unlimited.
+ */
+public class BandwidthLimiter {
+
+	private final Bucket globalBucket;
+	private final long bytesPerSecondPerHost;
+	private final Map<String, Bucket> hostBuckets = new ConcurrentHashMap<>();
+
+	/**
+	 * @param bytesPerSecond - cap over all hosts together, or 0 for unlimited
+	 * @param bytesPerSecondPerHost - cap for each host, or 0 for unlimited
+	 */
+	public BandwidthLimiter(long bytesPerSecond, long bytesPerSecondPerHost) {
+		this.globalBucket = bytesPerSecond > 0 ? new Bucket(bytesPerSecond) : null;
+		this.bytesPerSecondPerHost = bytesPerSecondPerHost;
+	}
+
+	/**
+	 * @return true if neither cap is set, in which case {@link #acquire(String, long)} never waits
+	 */
+	public boolean isUnlimited() {
+		return globalBucket == null && bytesPerSecondPerHost <= 0;
+	}
+
+	/**
+	 * Takes bytes which were read from a host and waits for as long as that puts either cap over its rate
+	 *
+	 * @param host - the host the bytes came from
+	 * @param bytes - number of bytes read
+	 * @throws InterruptedIOException if interrupted while waiting
+	 */
+	public void acquire(String host, long bytes) throws InterruptedIOException {
+		if (isUnlimited() || bytes <= 0)
+			return;
+		long waitNanos = 0;
+		if (globalBucket != null)
+			waitNanos = globalBucket.take(bytes);
+		if (bytesPerSecondPerHost > 0) {
+			Bucket hostBucket = hostBuckets.computeIfAbsent(host == null ? "" : host.toLowerCase(), key -> new Bucket(bytesPerSecondPerHost));
+			waitNanos = Math.max(waitNanos, hostBucket.take(bytes));
+		}
+		if (waitNanos <= 0)
+			return;
+		try {
+			TimeUnit.NANOSECONDS.sleep(waitNanos);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for bandwidth");
+		}
+	}
+
+	private static class Bucket {
+		private final long bytesPerSecond;
+		private double tokens;
+		private long lastRefillNanos = System.nanoTime();
+
+		Bucket(long bytesPerSecond) {
+			this.bytesPerSecond = bytesPerSecond;
+			this.tokens = bytesPerSecond;
+		}
+
+		/**
+		 * @return how long to wait, in nanoseconds, until the bucket is out of debt after taking the bytes
+		 */
+		synchronized long take(long bytes) {
+			long now = System.nanoTime();
+			tokens = Math.min(bytesPerSecond, tokens + (now - lastRefillNanos) * bytesPerSecond / 1e9);
+			lastRefillNanos = now;
+			tokens -= bytes;
+			if (tokens >= 0)
+				return 0;
+			return (long) (-tokens * 1e9 / bytesPerSecond);
+		}
+	}
+}
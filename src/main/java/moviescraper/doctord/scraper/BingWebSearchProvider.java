@@ -0,0 +1,42 @@
+package moviescraper.doctord.scraper;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import moviescraper.doctord.model.SearchResult;
+
+public class BingWebSearchProvider implements WebSearchProvider {
+
+	private final int timeout;
+
+	/**
+	 * @param timeout - connect and read timeout in milliseconds
+	 */
+	public BingWebSearchProvider(int timeout) {
+		this.timeout = timeout;
+	}
+
+	@Override
+	public List<SearchResult> search(String query, String site) throws IOException {
+		String encodedSearchQuery = URLEncoder.encode("site:" + site + " " + query, "UTF-8");
+		Document bingResultDocument = HttpTransport.connect("https://www.bing.com/search?q=" + encodedSearchQuery).userAgent(UserAgent.getRandomUserAgent()).referrer("http://www.bing.com")
+		        .ignoreHttpErrors(true).timeout(timeout).get();
+		List<SearchResult> results = new ArrayList<>();
+		Elements links = bingResultDocument.select("a[href*=" + site);
+		for (Element link : links) {
+			results.add(new SearchResult(link.attr("href")));
+		}
+		return results;
+	}
+
+	@Override
+	public String getName() {
+		return "Bing";
+	}
+}
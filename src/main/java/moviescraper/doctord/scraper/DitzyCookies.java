@@ -1,58 +1,96 @@
 package moviescraper.doctord.scraper;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.Writer;
 import java.net.HttpCookie;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Cookie manipulation class
+ * Cookie manipulation class.
+ * Safe to use from several scraping threads at once. Cookies are indexed by domain, and the domains whose cookies are sent
+ * to a host are worked out once per host. Expired cookies are not sent.
+ * Cookies loaded from a cookie jar are watched: when the user replaces the jar, for example after passing a new Cloudflare check in
+ * their browser, it is loaded again. Cookies the sites set or refresh while scraping are written back to the jar.
  */
 public class DitzyCookies {
 
-	private final Map<String, Map<String, String>> cookies;
+	private static final long RELOAD_DELAY_MILLIS = 500;
+	private static final int MAX_CACHED_HOSTS = 1024;
+
+	//domain to name to cookie. Replaced as a whole when the jar is reloaded.
+	private volatile Map<String, Map<String, StoredCookie>> cookies;
+	//host to the domains whose cookies are sent to it, most general first
+	private final Map<String, String[]> hostDomains = new ConcurrentHashMap<>();
+
+	private File cookieJar;
+	private long lastWrittenModifiedTime;
+	private WatchService watchService;
 
 	public DitzyCookies() {
-		cookies = new HashMap<>();
+		cookies = new ConcurrentHashMap<>();
 	}
 
-	public void LoadCookieJar(File cookieJar) throws IOException {
-		BufferedReader br = new BufferedReader(new FileReader(cookieJar));
-		try (Stream<String> stream = Files.lines(Paths.get(cookieJar.getPath()))) {
-			stream.filter(line -> (line.trim().length() != 0 && !line.startsWith("# ") && line.split("\t").length == 7)).forEach(line -> {
-				String[] l = line.split("\t");
+	/**
+	 * Replaces the cookies with the ones in a curl (Netscape) formatted cookie jar, and reloads them whenever the file changes
+	 *
+	 * @param cookieJar - the cookie jar file
+	 * @throws IOException if the file does not exist or cannot be read
+	 */
+	public synchronized void LoadCookieJar(File cookieJar) throws IOException {
+		if (!cookieJar.isFile())
+			throw new FileNotFoundException(cookieJar.getPath());
+		cookies = readCookieJar(cookieJar);
+		if (!cookieJar.equals(this.cookieJar)) {
+			this.cookieJar = cookieJar;
+			watchCookieJar();
+		}
+	}
 
-				try {
-					HttpCookie cookie = new HttpCookie(l[5], l[6]);
-					String cookie_domain = l[0];
-					if (cookie_domain.startsWith("#HttpOnly_.")) {
-						cookie_domain = cookie_domain.replace("#HttpOnly_.", "");
-						cookie.setHttpOnly(true);
-					}
-					if (cookie_domain.startsWith(".")) {
-						cookie_domain = cookie_domain.substring(1);
-					}
-					cookie.setDomain(cookie_domain);
-					cookie.setPath(l[2]);
-					cookie.setSecure("TRUE".equals(l[3]));
-					long expire = Long.parseLong(l[4]);
-					addCookie(cookie.getDomain(), cookie.getName(), cookie.getValue());
-				} catch (IllegalArgumentException ex) {
-					// Ignore bad cookies
+	private static Map<String, Map<String, StoredCookie>> readCookieJar(File cookieJar) throws IOException {
+		Map<String, Map<String, StoredCookie>> loadedCookies = new ConcurrentHashMap<>();
+		for (String line : Files.readAllLines(cookieJar.toPath(), StandardCharsets.UTF_8)) {
+			if (line.trim().length() == 0 || line.startsWith("# "))
+				continue;
+			String[] l = line.split("\t");
+			if (l.length != 7)
+				continue;
+			try {
+				String cookie_domain = l[0];
+				boolean httpOnly = false;
+				if (cookie_domain.startsWith("#HttpOnly_")) {
+					cookie_domain = cookie_domain.substring("#HttpOnly_".length());
+					httpOnly = true;
+				}
+				if (cookie_domain.startsWith(".")) {
+					cookie_domain = cookie_domain.substring(1);
 				}
-			});
-		} catch (Exception e) {
-			// Ignore bad cookies
+				long expire = Long.parseLong(l[4]);
+				StoredCookie cookie = new StoredCookie(l[5], l[6], l[2], "TRUE".equals(l[3]), httpOnly, expire > 0 ? TimeUnit.SECONDS.toMillis(expire) : 0);
+				if (!cookie.isExpired(System.currentTimeMillis()))
+					loadedCookies.computeIfAbsent(cookie_domain.toLowerCase(), domain -> new ConcurrentHashMap<>()).put(cookie.name, cookie);
+			} catch (IllegalArgumentException ex) {
+				// Ignore bad cookies
+			}
 		}
+		return loadedCookies;
 	}
 
 	/**
@@ -63,16 +101,20 @@ public class DitzyCookies {
 	 */
 	public Map<String, String> getCookies(String domain) {
 		Map<String, String> domain_cookies = new HashMap<>();
-
-		List<String> domain_parts = Arrays.asList(domain.split("\\."));
-		for (int domain_index = 0; domain_index < domain_parts.size(); domain_index++) {
-			String subdomain = String.join(".", domain_parts.subList(domain_index, domain_parts.size()));
-			if (cookies.containsKey(subdomain)) {
-				Map<String, String> realm_cookies = getRealmCookies(subdomain);
-				domain_cookies.putAll(realm_cookies);
+		Map<String, Map<String, StoredCookie>> currentCookies = cookies;
+		long now = System.currentTimeMillis();
+		//more specific domains come last so their cookies replace ones of the same name set on a parent domain
+		for (String currentDomain : getDomainsOfHost(domain)) {
+			Map<String, StoredCookie> realm_cookies = currentCookies.get(currentDomain);
+			if (realm_cookies == null)
+				continue;
+			for (StoredCookie currentCookie : realm_cookies.values()) {
+				if (currentCookie.isExpired(now))
+					realm_cookies.remove(currentCookie.name, currentCookie);
+				else
+					domain_cookies.put(currentCookie.name, currentCookie.value);
 			}
 		}
-
 		return domain_cookies;
 	}
 
@@ -86,11 +128,19 @@ public class DitzyCookies {
 		return getCookies(url.getHost());
 	}
 
-	private Map<String, String> getRealmCookies(String realm) {
-		if (!cookies.containsKey(realm)) {
-			cookies.put(realm, new HashMap<>());
+	private String[] getDomainsOfHost(String host) {
+		String[] domains = hostDomains.get(host);
+		if (domains != null)
+			return domains;
+		String[] domain_parts = host.toLowerCase().split("\\.");
+		domains = new String[domain_parts.length];
+		for (int domain_index = 0; domain_index < domain_parts.length; domain_index++) {
+			domains[domain_parts.length - 1 - domain_index] = String.join(".", Arrays.copyOfRange(domain_parts, domain_index, domain_parts.length));
 		}
-		return cookies.get(realm);
+		if (hostDomains.size() >= MAX_CACHED_HOSTS)
+			hostDomains.clear();
+		hostDomains.put(host, domains);
+		return domains;
 	}
 
 	/**
@@ -102,7 +152,7 @@ public class DitzyCookies {
 	 * @param value value of the cookie
 	 */
 	public void addCookie(String realm, String key, String value) {
-		getRealmCookies(realm).put(key, value);
+		getRealmCookies(realm).put(key, new StoredCookie(key, value, "/", false, false, 0));
 	}
 
 	/**
@@ -114,7 +164,187 @@ public class DitzyCookies {
 	 * @param newCookies Map of cookies
 	 */
 	public void addCookies(String realm, Map<String, String> newCookies) {
-		getRealmCookies(realm).putAll(newCookies);
+		for (Map.Entry<String, String> currentCookie : newCookies.entrySet()) {
+			addCookie(realm, currentCookie.getKey(), currentCookie.getValue());
+		}
+	}
+
+	/**
+	 * Stores the cookies set by a response, honoring their expiry, domain and path. A cookie which is expired, or set with a
+	 * max age of 0, is removed. A cookie for a domain which is neither the host nor a domain the host is in is ignored. If any cookie
+	 * changed and the cookies came from a cookie jar, the jar is updated, so a refreshed Cloudflare clearance is kept for the next run.
+	 *
+	 * @param url - the URL which was requested
+	 * @param setCookieHeaders - values of the response's Set-Cookie headers
+	 */
+	public void addCookiesFromResponse(URL url, List<String> setCookieHeaders) {
+		boolean changed = false;
+		long now = System.currentTimeMillis();
+		for (String currentHeader : setCookieHeaders) {
+			List<HttpCookie> parsedCookies;
+			try {
+				parsedCookies = HttpCookie.parse(currentHeader);
+			} catch (IllegalArgumentException e) {
+				continue;
+			}
+			for (HttpCookie currentCookie : parsedCookies) {
+				String realm = currentCookie.getDomain() != null ? currentCookie.getDomain() : url.getHost();
+				if (realm.startsWith("."))
+					realm = realm.substring(1);
+				if (!isDomainOfHost(realm, url.getHost()))
+					continue;
+				Map<String, StoredCookie> realm_cookies = getRealmCookies(realm);
+				if (currentCookie.getMaxAge() == 0) {
+					changed |= realm_cookies.remove(currentCookie.getName()) != null;
+					continue;
+				}
+				long expiresAt = currentCookie.getMaxAge() > 0 ? now + TimeUnit.SECONDS.toMillis(currentCookie.getMaxAge()) : 0;
+				StoredCookie newCookie = new StoredCookie(currentCookie.getName(), currentCookie.getValue(), currentCookie.getPath() != null ? currentCookie.getPath() : "/",
+				        currentCookie.getSecure(), currentCookie.isHttpOnly(), expiresAt);
+				StoredCookie oldCookie = realm_cookies.put(newCookie.name, newCookie);
+				changed |= oldCookie == null || !oldCookie.value.equals(newCookie.value);
+			}
+		}
+		if (changed)
+			saveCookieJar();
+	}
+
+	/**
+	 * @return whether a site at host may set a cookie for domain, which is only the case for the host itself and the domains it is in.
+	 *         A domain without a dot, like a top level domain, is only allowed if it is the host.
+	 */
+	private boolean isDomainOfHost(String domain, String host) {
+		domain = domain.toLowerCase();
+		if (domain.equals(host.toLowerCase()))
+			return true;
+		return domain.indexOf('.') > 0 && Arrays.asList(getDomainsOfHost(host)).contains(domain);
+	}
+
+	private Map<String, StoredCookie> getRealmCookies(String realm) {
+		return cookies.computeIfAbsent(realm.toLowerCase(), domain -> new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * Writes the cookies back to the cookie jar they were loaded from. Does nothing if they were not loaded from a jar.
+	 */
+	public synchronized void saveCookieJar() {
+		if (cookieJar == null)
+			return;
+		StringBuilder contents = new StringBuilder("# Netscape HTTP Cookie File\n");
+		long now = System.currentTimeMillis();
+		for (Map.Entry<String, Map<String, StoredCookie>> currentRealm : cookies.entrySet()) {
+			for (StoredCookie currentCookie : currentRealm.getValue().values()) {
+				if (currentCookie.isExpired(now))
+					continue;
+				contents.append(currentCookie.httpOnly ? "#HttpOnly_." : ".").append(currentRealm.getKey()).append("\tTRUE\t").append(currentCookie.path).append('\t')
+				        .append(currentCookie.secure ? "TRUE" : "FALSE").append('\t').append(TimeUnit.MILLISECONDS.toSeconds(currentCookie.expiresAt)).append('\t')
+				        .append(currentCookie.name).append('\t').append(currentCookie.value).append('\n');
+			}
+		}
+		File temporaryFile = new File(cookieJar.getPath() + ".tmp");
+		try {
+			try (Writer writer = Files.newBufferedWriter(temporaryFile.toPath(), StandardCharsets.UTF_8)) {
+				writer.write(contents.toString());
+			}
+			Files.move(temporaryFile.toPath(), cookieJar.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			lastWrittenModifiedTime = cookieJar.lastModified();
+		} catch (IOException e) {
+			System.err.println("Could not write cookies to " + cookieJar + ": " + e.getMessage());
+			temporaryFile.delete();
+		}
+	}
+
+	/**
+	 * Starts a background thread which reloads the cookie jar when it changes. Changes made by {@link #saveCookieJar()} are ignored.
+	 */
+	private void watchCookieJar() {
+		stopWatching();
+		Path jarPath = cookieJar.getAbsoluteFile().toPath();
+		Path jarDirectory = jarPath.getParent();
+		try {
+			watchService = jarDirectory.getFileSystem().newWatchService();
+			jarDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException | UnsupportedOperationException e) {
+			System.err.println("Cannot watch " + cookieJar + " for changes: " + e.getMessage());
+			return;
+		}
+		final WatchService currentWatchService = watchService;
+		final File watchedJar = cookieJar;
+		Thread watcherThread = new Thread(() -> {
+			try {
+				while (true) {
+					WatchKey key = currentWatchService.take();
+					boolean jarChanged = false;
+					for (WatchEvent<?> currentEvent : key.pollEvents()) {
+						if (jarPath.getFileName().equals(currentEvent.context()))
+							jarChanged = true;
+					}
+					key.reset();
+					if (jarChanged) {
+						//editors and browsers often write a file in several steps, so wait for them to finish
+						Thread.sleep(RELOAD_DELAY_MILLIS);
+						reloadIfChangedByUser(watchedJar);
+					}
+				}
+			} catch (InterruptedException | ClosedWatchServiceException e) {
+				//stopped watching
+			}
+		}, "cookie-jar-watcher");
+		watcherThread.setDaemon(true);
+		watcherThread.start();
 	}
 
+	private synchronized void reloadIfChangedByUser(File watchedJar) {
+		if (!watchedJar.equals(cookieJar) || !watchedJar.isFile() || watchedJar.lastModified() == lastWrittenModifiedTime)
+			return;
+		try {
+			cookies = readCookieJar(watchedJar);
+			System.out.println("Reloaded cookies from " + watchedJar);
+		} catch (IOException e) {
+			System.err.println("Could not reload cookies from " + watchedJar + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Stops reloading the cookie jar when it changes
+	 */
+	public synchronized void stopWatching() {
+		if (watchService != null) {
+			try {
+				watchService.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			watchService = null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		List<String> domains = new ArrayList<>(cookies.keySet());
+		return "cookies of " + domains;
+	}
+
+	private static class StoredCookie {
+		final String name;
+		final String value;
+		final String path;
+		final boolean secure;
+		final boolean httpOnly;
+		//milliseconds since the epoch, or 0 for a cookie which lasts for the session
+		final long expiresAt;
+
+		StoredCookie(String name, String value, String path, boolean secure, boolean httpOnly, long expiresAt) {
+			this.name = name;
+			this.value = value;
+			this.path = path;
+			this.secure = secure;
+			this.httpOnly = httpOnly;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired(long now) {
+			return expiresAt > 0 && expiresAt <= now;
+		}
+	}
 }
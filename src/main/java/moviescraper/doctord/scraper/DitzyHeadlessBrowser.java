@@ -3,17 +3,15 @@ package moviescraper.doctord.scraper;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.List;
 import java.util.logging.Level;
-import org.jsoup.Connection;
-import org.jsoup.Connection.Response;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import java.util.logging.Logger;
 import moviescraper.doctord.model.preferences.MoviescraperPreferences;
 
 public class DitzyHeadlessBrowser {
 
-	private String userAgent;
+	private volatile String userAgent;
 	private DitzyCookies cookies;
 	private final int timeout;
 	private static final Logger LOGGER = Logger.getLogger(DitzyHeadlessBrowser.class.getName());
@@ -32,7 +30,8 @@ public class DitzyHeadlessBrowser {
 	public void configure() throws IOException {
 		MoviescraperPreferences preferences = MoviescraperPreferences.getInstance();
 		setUserAgent(preferences.getUserAgent());
-		Cookies().LoadCookieJar(new File(preferences.getCookieJar()));
+		if (preferences.getCookieJar() != null && preferences.getCookieJar().length() > 0)
+			Cookies().LoadCookieJar(new File(preferences.getCookieJar()));
 	}
 
 	@Override
@@ -48,8 +47,9 @@ public class DitzyHeadlessBrowser {
 		return string.toString();
 	}
 
-	private Connection connect(URL url, boolean followRedirect) throws IOException {
-		Connection connection = Jsoup.connect(url.toString()).userAgent(userAgent).ignoreHttpErrors(true).timeout(timeout).followRedirects(followRedirect).method(Connection.Method.GET);
+	private HttpTransport.Request connect(URL url, boolean followRedirect, long cacheTimeToLive) throws IOException {
+		HttpTransport.Request connection = HttpTransport.connect(url.toString()).userAgent(userAgent).ignoreHttpErrors(true).timeout(timeout).followRedirects(followRedirect)
+		        .method(HttpTransport.Method.GET).cacheTimeToLive(cacheTimeToLive);
 
 		connection = connection.cookies(this.cookies.getCookies(url));
 
@@ -64,15 +64,26 @@ public class DitzyHeadlessBrowser {
 	 * @throws IOException Cannot parse the document
 	 */
 	public Document get(URL url) throws IOException {
-		LOGGER.log(Level.INFO, "Get request on {0}", url.toString());
-		Connection connection = connect(url, true);
+		return get(url, HttpResponseCache.getInstance().getDefaultTimeToLiveMillis());
+	}
 
-		connection = connection.cookies(this.cookies.getCookies(url));
+	/**
+	 * get a document from an URL
+	 *
+	 * @param url URL to get
+	 * @param cacheTimeToLive milliseconds a cached copy of the page is used for, or a negative value to not cache it, see {@link HttpTransport.Request#cacheTimeToLive(long)}
+	 * @return The document corresponding to the URL
+	 * @throws IOException Cannot parse the document
+	 */
+	public Document get(URL url, long cacheTimeToLive) throws IOException {
+		LOGGER.log(Level.INFO, "Get request on {0}", url.toString());
+		HttpTransport.Request connection = connect(url, true, cacheTimeToLive);
 
-		Response response = connection.execute();
+		HttpTransport.Response response = connection.execute();
 
-		if (response.cookies().size() > 0) {
-			cookies.addCookies(url.getHost(), response.cookies());
+		List<String> setCookieHeaders = response.headers("Set-Cookie");
+		if (setCookieHeaders.size() > 0) {
+			cookies.addCookiesFromResponse(url, setCookieHeaders);
 		}
 
 		if (response.statusCode() == 503 && response.hasHeader("Server")) {
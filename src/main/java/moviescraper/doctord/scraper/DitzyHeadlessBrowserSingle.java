@@ -4,7 +4,7 @@ public class DitzyHeadlessBrowserSingle {
 
 	private static DitzyHeadlessBrowser instance;
 
-	static public DitzyHeadlessBrowser getBrowser() {
+	static public synchronized DitzyHeadlessBrowser getBrowser() {
 		if (instance == null) {
 			instance = new DitzyHeadlessBrowser();
 		}
@@ -0,0 +1,59 @@
+package moviescraper.doctord.scraper;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import moviescraper.doctord.model.SearchResult;
+
+public class GoogleWebSearchProvider implements WebSearchProvider {
+
+	private final int timeout;
+
+	/**
+	 * @param timeout - connect and read timeout in milliseconds
+	 */
+	public GoogleWebSearchProvider(int timeout) {
+		this.timeout = timeout;
+	}
+
+	@Override
+	public List<SearchResult> search(String query, String site) throws IOException {
+		String encodingScheme = "UTF-8";
+		String encodedSearchQuery = URLEncoder.encode("site:" + site + " " + query, encodingScheme);
+		Document doc = HttpTransport.connect("https://www.google.com/search?q=" + encodedSearchQuery).userAgent(UserAgent.getRandomUserAgent()).referrer("http://www.google.com")
+		        .ignoreHttpErrors(true).timeout(timeout).get();
+		if (!doc.select("form[action=CaptchaRedirect] input").isEmpty()) {
+			throw new IOException("Google has temporarily blocked us");
+		}
+
+		List<SearchResult> results = new ArrayList<>();
+		Elements links = doc.select("div.g");
+		for (Element link : links) {
+			Elements hrefs = link.select(".r a");
+			String href = hrefs.attr("href");
+			href = URLDecoder.decode(href, encodingScheme);
+			href = href.replaceFirst(Pattern.quote("/url?url="), "");
+			href = href.replaceFirst(Pattern.quote("/url?q="), "");
+			href = href.replaceFirst(Pattern.quote("http://www.google.com/url?url="), "");
+			//remove some junk referrer stuff
+			int startIndexToRemove = href.indexOf("&rct=");
+			if (startIndexToRemove > -1)
+				href = href.substring(0, startIndexToRemove);
+			results.add(new SearchResult(href, hrefs.text()));
+		}
+		return results;
+	}
+
+	@Override
+	public String getName() {
+		return "Google";
+	}
+}
@@ -0,0 +1,360 @@
+package moviescraper.doctord.scraper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.message.BasicHeader;
+
+import moviescraper.doctord.model.preferences.MoviescraperPreferences;
+
+/**
+ * Disk cache of successful GET responses used by {@link HttpTransport}.
+ * Each entry is one file holding the status, headers and the time it was stored, followed by the body. Only the in memory index is
+ * locked, entry files are read and written outside the lock, so threads fetching different pages do not wait for each other's disk I/O.
+ * Entries older than the request's time to live are revalidated with the server using the ETag and Last-Modified
+ * headers they were stored with, so an unchanged page costs a 304 instead of a full download.
+ * The total size of the bodies is bounded; the least recently used entries are deleted first when it is exceeded.
+ */
+public class HttpResponseCache {
+
+	public static final int DEFAULT_TIME_TO_LIVE_HOURS = 24;
+	public static final int DEFAULT_MAX_SIZE_MEGABYTES = 256;
+	private static final String cacheDirectoryName = "cache" + File.separator + "http";
+	private static final String entryExtension = ".entry";
+	private static final String temporaryExtension = ".tmp";
+	//entries were stored as two files before, which could be read half replaced
+	private static final String oldBodyExtension = ".body";
+	private static final String oldMetadataExtension = ".properties";
+
+	private static HttpResponseCache instance;
+
+	private final File directory;
+	private final long maxSizeBytes;
+	private final long defaultTimeToLiveMillis;
+	private final boolean enabled;
+	//key to size of the entry on disk, in least recently used to most recently used order. Guarded by this object's lock.
+	private final LinkedHashMap<String, Long> entrySizes = new LinkedHashMap<>(16, 0.75f, true);
+	private long currentSizeBytes;
+	private boolean indexLoaded;
+	private volatile boolean cacheOnly;
+
+	/**
+	 * @param directory - where the entries are stored
+	 * @param maxSizeBytes - total size of the stored bodies above which the least recently used entries are deleted
+	 * @param defaultTimeToLiveMillis - time to live of requests which do not set their own
+	 * @param enabled - if false, every request goes to the network and nothing is stored
+	 */
+	public HttpResponseCache(File directory, long maxSizeBytes, long defaultTimeToLiveMillis, boolean enabled) {
+		this.directory = directory;
+		this.maxSizeBytes = maxSizeBytes;
+		this.defaultTimeToLiveMillis = defaultTimeToLiveMillis;
+		this.enabled = enabled;
+	}
+
+	public static synchronized HttpResponseCache getInstance() {
+		if (instance == null) {
+			MoviescraperPreferences preferences = MoviescraperPreferences.getInstance();
+			instance = new HttpResponseCache(new File(cacheDirectoryName), preferences.getHttpCacheMaxSizeMegabytes() * 1024L * 1024L,
+			        TimeUnit.HOURS.toMillis(preferences.getHttpCacheTimeToLiveHours()), preferences.getHttpCacheEnabled());
+			instance.setCacheOnly(preferences.getHttpCacheOnly());
+		}
+		return instance;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public long getDefaultTimeToLiveMillis() {
+		return defaultTimeToLiveMillis;
+	}
+
+	/**
+	 * @param cacheOnly - if true, requests are answered from the cache only, no matter how old the entry is, and a miss is
+	 * answered with a 504 instead of going to the network. Useful to rescrape offline or without hitting the sites again.
+	 */
+	public void setCacheOnly(boolean cacheOnly) {
+		this.cacheOnly = cacheOnly;
+	}
+
+	public boolean isCacheOnly() {
+		return cacheOnly;
+	}
+
+	/**
+	 * @param method - the request method
+	 * @param url - the request URL
+	 * @param varyingHeaders - request headers which change the response, like cookies. Headers such as the randomized user agent should be left out.
+	 * @return the key the response to this request is stored under
+	 */
+	public static String createKey(String method, String url, Map<String, String> varyingHeaders) {
+		StringBuilder keySource = new StringBuilder(method).append(' ').append(url);
+		for (Map.Entry<String, String> currentHeader : varyingHeaders.entrySet()) {
+			keySource.append('\n').append(currentHeader.getKey().toLowerCase()).append(": ").append(currentHeader.getValue());
+		}
+		return DigestUtils.sha1Hex(keySource.toString());
+	}
+
+	/**
+	 * @return the stored entry or null if there is none
+	 */
+	public Entry get(String key) {
+		synchronized (this) {
+			loadIndexIfNeeded();
+			//get rather than containsKey, so a hit counts as a use for the least recently used order
+			if (entrySizes.get(key) == null)
+				return null;
+		}
+		try {
+			return readEntry(key);
+		} catch (FileNotFoundException e) {
+			//evicted by another thread since the index was checked
+			return null;
+		} catch (IOException e) {
+			System.err.println("Removing unreadable http cache entry " + key + ": " + e.getMessage());
+			remove(key);
+			return null;
+		}
+	}
+
+	public void put(String key, Entry entry) {
+		synchronized (this) {
+			loadIndexIfNeeded();
+		}
+		long size;
+		try {
+			size = writeEntry(key, entry);
+		} catch (IOException e) {
+			System.err.println("Could not write http cache entry for " + entry.url + ": " + e.getMessage());
+			return;
+		}
+		List<String> evictedKeys;
+		synchronized (this) {
+			Long oldSize = entrySizes.put(key, size);
+			currentSizeBytes += size - (oldSize != null ? oldSize : 0);
+			evictedKeys = evictIfNeeded();
+		}
+		deleteEntryFiles(evictedKeys);
+	}
+
+	/**
+	 * Marks an entry as freshly validated after the server answered 304 Not Modified
+	 */
+	public Entry refresh(String key, Entry entry) {
+		Entry refreshedEntry = new Entry(entry.url, entry.statusCode, entry.statusMessage, entry.headers, entry.body, System.currentTimeMillis());
+		put(key, refreshedEntry);
+		return refreshedEntry;
+	}
+
+	public void remove(String key) {
+		synchronized (this) {
+			Long size = entrySizes.remove(key);
+			if (size != null)
+				currentSizeBytes -= size;
+		}
+		deleteEntryFiles(Collections.singletonList(key));
+	}
+
+	public void clear() {
+		List<String> keys;
+		synchronized (this) {
+			loadIndexIfNeeded();
+			keys = new ArrayList<>(entrySizes.keySet());
+			entrySizes.clear();
+			currentSizeBytes = 0;
+		}
+		deleteEntryFiles(keys);
+	}
+
+	public synchronized long getSizeBytes() {
+		loadIndexIfNeeded();
+		return currentSizeBytes;
+	}
+
+	/**
+	 * Takes the least recently used entries out of the index until the cache fits in its size again. Must be called holding the lock.
+	 *
+	 * @return the keys of the entries taken out, whose files are to be deleted once the lock is released
+	 */
+	private List<String> evictIfNeeded() {
+		List<String> evictedKeys = new ArrayList<>();
+		Iterator<Map.Entry<String, Long>> leastRecentlyUsed = entrySizes.entrySet().iterator();
+		while (currentSizeBytes > maxSizeBytes && leastRecentlyUsed.hasNext()) {
+			Map.Entry<String, Long> eldest = leastRecentlyUsed.next();
+			leastRecentlyUsed.remove();
+			currentSizeBytes -= eldest.getValue();
+			evictedKeys.add(eldest.getKey());
+		}
+		return evictedKeys;
+	}
+
+	private void deleteEntryFiles(List<String> keys) {
+		for (String currentKey : keys) {
+			FileUtils.deleteQuietly(getEntryFile(currentKey));
+		}
+	}
+
+	/**
+	 * Rebuilds the in memory index from what is on disk, using the modification time of the entry files as the last use.
+	 * Must be called holding the lock. Temporary files left by a write which was cut off, and entries stored in the old
+	 * format of separate body and metadata files, are deleted.
+	 */
+	private void loadIndexIfNeeded() {
+		if (indexLoaded)
+			return;
+		indexLoaded = true;
+		File[] files = directory.listFiles();
+		if (files == null)
+			return;
+		List<File> entryFiles = new ArrayList<>();
+		for (File currentFile : files) {
+			if (currentFile.getName().endsWith(entryExtension))
+				entryFiles.add(currentFile);
+			else if (currentFile.getName().endsWith(temporaryExtension) || currentFile.getName().endsWith(oldBodyExtension) || currentFile.getName().endsWith(oldMetadataExtension))
+				FileUtils.deleteQuietly(currentFile);
+		}
+		entryFiles.sort(Comparator.comparingLong(File::lastModified));
+		for (File currentEntryFile : entryFiles) {
+			String key = currentEntryFile.getName().substring(0, currentEntryFile.getName().length() - entryExtension.length());
+			entrySizes.put(key, currentEntryFile.length());
+			currentSizeBytes += currentEntryFile.length();
+		}
+		deleteEntryFiles(evictIfNeeded());
+	}
+
+	/**
+	 * Reads an entry file: the length of the metadata, the metadata as properties and then the body
+	 */
+	private Entry readEntry(String key) throws IOException {
+		Properties metadata = new Properties();
+		byte[] body;
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(getEntryFile(key))))) {
+			byte[] metadataBytes = new byte[input.readInt()];
+			input.readFully(metadataBytes);
+			metadata.load(new ByteArrayInputStream(metadataBytes));
+			body = IOUtils.toByteArray(input);
+		}
+		List<Header> headers = new ArrayList<>();
+		for (int i = 0; metadata.getProperty("header." + i + ".name") != null; i++) {
+			headers.add(new BasicHeader(metadata.getProperty("header." + i + ".name"), metadata.getProperty("header." + i + ".value")));
+		}
+		try {
+			int statusCode = Integer.parseInt(metadata.getProperty("statusCode"));
+			long storedAt = Long.parseLong(metadata.getProperty("storedAt"));
+			return new Entry(metadata.getProperty("url"), statusCode, metadata.getProperty("statusMessage"), headers.toArray(new Header[headers.size()]), body, storedAt);
+		} catch (NumberFormatException e) {
+			throw new IOException("Corrupt metadata", e);
+		}
+	}
+
+	/**
+	 * Writes the entry to a temporary file of its own and moves it into place, so threads writing the same key do not mix their
+	 * writes and readers never see half an entry
+	 *
+	 * @return the size of the entry file
+	 */
+	private long writeEntry(String key, Entry entry) throws IOException {
+		Properties metadata = new Properties();
+		metadata.setProperty("url", entry.url);
+		metadata.setProperty("statusCode", Integer.toString(entry.statusCode));
+		metadata.setProperty("statusMessage", entry.statusMessage != null ? entry.statusMessage : "");
+		metadata.setProperty("storedAt", Long.toString(entry.storedAt));
+		for (int i = 0; i < entry.headers.length; i++) {
+			metadata.setProperty("header." + i + ".name", entry.headers[i].getName());
+			metadata.setProperty("header." + i + ".value", entry.headers[i].getValue());
+		}
+		ByteArrayOutputStream metadataBytes = new ByteArrayOutputStream();
+		metadata.store(metadataBytes, null);
+
+		FileUtils.forceMkdir(directory);
+		File temporaryFile = File.createTempFile(key, temporaryExtension, directory);
+		try {
+			try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+				output.writeInt(metadataBytes.size());
+				metadataBytes.writeTo(output);
+				output.write(entry.body);
+			}
+			long size = temporaryFile.length();
+			try {
+				Files.move(temporaryFile.toPath(), getEntryFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporaryFile.toPath(), getEntryFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			return size;
+		} finally {
+			Files.deleteIfExists(temporaryFile.toPath());
+		}
+	}
+
+	private File getEntryFile(String key) {
+		return new File(directory, key + entryExtension);
+	}
+
+	/**
+	 * A stored response
+	 */
+	public static class Entry {
+		final String url;
+		final int statusCode;
+		final String statusMessage;
+		final Header[] headers;
+		final byte[] body;
+		final long storedAt;
+
+		public Entry(String url, int statusCode, String statusMessage, Header[] headers, byte[] body, long storedAt) {
+			this.url = url;
+			this.statusCode = statusCode;
+			this.statusMessage = statusMessage;
+			this.headers = headers;
+			this.body = body;
+			this.storedAt = storedAt;
+		}
+
+		/**
+		 * @param timeToLiveMillis - how long after being stored the entry can be used without asking the server
+		 */
+		public boolean isFresh(long timeToLiveMillis) {
+			return System.currentTimeMillis() - storedAt < timeToLiveMillis;
+		}
+
+		/**
+		 * @return the first value of the header or null if there is no such header
+		 */
+		public String getHeader(String name) {
+			for (Header currentHeader : headers) {
+				if (currentHeader.getName().equalsIgnoreCase(name))
+					return currentHeader.getValue();
+			}
+			return null;
+		}
+
+		public long getStoredAt() {
+			return storedAt;
+		}
+	}
+}
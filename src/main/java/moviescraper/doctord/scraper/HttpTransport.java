@@ -0,0 +1,547 @@
+package moviescraper.doctord.scraper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpResponse;
+import org.apache.http.NameValuePair;
+import org.apache.http.ParseException;
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.UnsupportedMimeTypeException;
+import org.jsoup.nodes.Document;
+
+/**
+ * Pooled HTTP client shared by everything that downloads pages from a scraped site.
+ * Connections are kept alive and reused per host, so repeated requests to the same site skip the TCP and TLS handshakes,
+ * and responses are transparently gzip/deflate decompressed.
+ * The fluent {@link Request} mirrors the parts of jsoup's Connection the parsing profiles use, so
+ * <code>Jsoup.connect(url)...get()</code> can be replaced with <code>HttpTransport.connect(url)...get()</code>.
+ * Successful GET responses are kept in the {@link HttpResponseCache}; see {@link Request#cacheTimeToLive(long)}.
+ * Requests which do go over the network are paced per host by the {@link RateGovernor}.
+ */
+public class HttpTransport {
+
+	public static final int MAX_CONNECTIONS_PER_HOST = 6;
+	public static final int MAX_CONNECTIONS_TOTAL = 64;
+	private static final long DEFAULT_KEEP_ALIVE_MILLIS = 30000;
+	private static final long IDLE_CONNECTION_EVICTION_SECONDS = 60;
+	private static final String DEFAULT_USER_AGENT = "Mozilla";
+
+	private static HttpTransport instance;
+
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final CloseableHttpClient httpClient;
+	private final SingleFlight<String, Response> requestsInFlight = new SingleFlight<>();
+
+	public enum Method {
+		GET, POST, HEAD
+	}
+
+	private HttpTransport() {
+		connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_HOST);
+		connectionManager.setMaxTotal(MAX_CONNECTIONS_TOTAL);
+		httpClient = HttpClients.custom().setConnectionManager(connectionManager).setKeepAliveStrategy(new DefaultKeepAliveStrategy()).disableCookieManagement()
+		        .evictIdleConnections(IDLE_CONNECTION_EVICTION_SECONDS, TimeUnit.SECONDS).evictExpiredConnections().useSystemProperties().build();
+	}
+
+	public static synchronized HttpTransport getInstance() {
+		if (instance == null) {
+			instance = new HttpTransport();
+		}
+		return instance;
+	}
+
+	/**
+	 * Starts building a request against the shared transport
+	 *
+	 * @param url - absolute http or https URL to fetch
+	 * @return a GET request with the default settings
+	 */
+	public static Request connect(String url) {
+		return new Request(getInstance(), url);
+	}
+
+	/**
+	 * Runs the request on a pooled connection. The whole body is read before returning so the connection goes
+	 * straight back to the pool. A GET or HEAD request made while the same request is already running waits for that
+	 * one and shares its response; see {@link #getCoalescedRequestCount()}.
+	 */
+	Response execute(Request request) throws IOException {
+		if (request.method == Method.POST)
+			return checkStatus(request, fetch(request));
+		Response sharedResponse = requestsInFlight.execute(getFlightKey(request), () -> fetch(request));
+		return checkStatus(request, sharedResponse.forRequest(request));
+	}
+
+	/**
+	 * @return number of requests which shared the response of the same request made at the same time by another thread
+	 */
+	public long getCoalescedRequestCount() {
+		return requestsInFlight.getCoalescedCount();
+	}
+
+	/**
+	 * @return number of GET and HEAD requests which were answered from the cache or the network rather than coalesced
+	 */
+	public long getExecutedRequestCount() {
+		return requestsInFlight.getExecutedCount();
+	}
+
+	private Response fetch(Request request) throws IOException {
+		HttpResponseCache cache = HttpResponseCache.getInstance();
+		long cacheTimeToLive = request.cacheTimeToLive != null ? request.cacheTimeToLive : cache.getDefaultTimeToLiveMillis();
+		boolean cacheable = request.method == Method.GET && cache.isEnabled() && cacheTimeToLive >= 0;
+		//in cache only mode nothing goes to the network, so anything which is not a cached GET gets the same answer as a miss
+		if (cache.isCacheOnly()) {
+			HttpResponseCache.Entry cachedEntry = cacheable ? cache.get(HttpResponseCache.createKey(request.method.name(), request.url, getVaryingHeaders(request))) : null;
+			if (cachedEntry == null)
+				return new Response(request, request.url, 504, "Not in cache", new Header[0], new byte[0]);
+			return new Response(request, cachedEntry);
+		}
+		if (!cacheable)
+			return executeOnNetwork(request, null);
+
+		String cacheKey = HttpResponseCache.createKey(request.method.name(), request.url, getVaryingHeaders(request));
+		HttpResponseCache.Entry cachedEntry = cache.get(cacheKey);
+		if (cachedEntry != null && cachedEntry.isFresh(cacheTimeToLive))
+			return new Response(request, cachedEntry);
+
+		Map<String, String> conditionalHeaders = new LinkedHashMap<>();
+		if (cachedEntry != null) {
+			String entityTag = cachedEntry.getHeader("ETag");
+			String lastModified = cachedEntry.getHeader("Last-Modified");
+			if (entityTag != null)
+				conditionalHeaders.put("If-None-Match", entityTag);
+			if (lastModified != null)
+				conditionalHeaders.put("If-Modified-Since", lastModified);
+		}
+		Response response = executeOnNetwork(request, conditionalHeaders);
+		if (response.statusCode() == 304 && cachedEntry != null) {
+			response = new Response(request, cache.refresh(cacheKey, cachedEntry));
+		} else if (response.statusCode() == 200 && !isCaptchaPage(response)) {
+			cache.put(cacheKey, new HttpResponseCache.Entry(response.url, response.statusCode, response.statusMessage, response.headers, response.body, System.currentTimeMillis()));
+		}
+		return response;
+	}
+
+	/**
+	 * @return a key which is the same for requests which get the same response. Redirects are part of it since they change the response.
+	 */
+	private static String getFlightKey(Request request) {
+		return HttpResponseCache.createKey(request.method.name() + (request.followRedirects ? "" : " without redirects"), request.url, getVaryingHeaders(request));
+	}
+
+	private Response executeOnNetwork(Request request, Map<String, String> extraHeaders) throws IOException {
+		HttpRequestBase httpRequest = createHttpRequest(request);
+		if (extraHeaders != null) {
+			for (Map.Entry<String, String> currentHeader : extraHeaders.entrySet()) {
+				httpRequest.setHeader(currentHeader.getKey(), currentHeader.getValue());
+			}
+		}
+		HttpClientContext context = HttpClientContext.create();
+		RateGovernor.Permit permit = RateGovernor.getInstance().acquire(request.url);
+		try (CloseableHttpResponse httpResponse = httpClient.execute(httpRequest, context)) {
+			permit.responseReceived();
+			Response response = new Response(request, httpResponse, getFinalURL(request, context));
+			permit.completed(response.statusCode(), response.header("Retry-After"), isCaptchaPage(response));
+			return response;
+		} catch (IOException | RuntimeException e) {
+			permit.failed(e instanceof SocketTimeoutException || e instanceof ConnectTimeoutException);
+			throw e;
+		} finally {
+			httpRequest.releaseConnection();
+		}
+	}
+
+	/**
+	 * @return true if the response is a page sites show instead of the content when they think we are a bot, like Google's /sorry/ captcha
+	 */
+	private static boolean isCaptchaPage(Response response) {
+		if (response.url != null && response.url.contains("/sorry/"))
+			return true;
+		return response.contentType != null && response.contentType.startsWith("text/html") && containsAscii(response.body, "CaptchaRedirect");
+	}
+
+	private static boolean containsAscii(byte[] haystack, String needle) {
+		outer: for (int i = 0; i <= haystack.length - needle.length(); i++) {
+			for (int j = 0; j < needle.length(); j++) {
+				if (haystack[i + j] != needle.charAt(j))
+					continue outer;
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private static Response checkStatus(Request request, Response response) throws HttpStatusException {
+		if (!request.ignoreHttpErrors && response.statusCode() >= 400) {
+			throw new HttpStatusException("HTTP error fetching URL", response.statusCode(), request.url);
+		}
+		return response;
+	}
+
+	/**
+	 * @return the request headers which can change what the server sends back. The user agent is left out since it is usually randomized.
+	 */
+	private static Map<String, String> getVaryingHeaders(Request request) {
+		Map<String, String> varyingHeaders = new LinkedHashMap<>(request.headers);
+		if (!request.cookies.isEmpty())
+			varyingHeaders.put("Cookie", createCookieHeader(request.cookies));
+		return varyingHeaders;
+	}
+
+	private static String createCookieHeader(Map<String, String> cookies) {
+		StringBuilder cookieHeader = new StringBuilder();
+		for (Map.Entry<String, String> currentCookie : cookies.entrySet()) {
+			if (cookieHeader.length() > 0)
+				cookieHeader.append("; ");
+			cookieHeader.append(currentCookie.getKey()).append('=').append(currentCookie.getValue());
+		}
+		return cookieHeader.toString();
+	}
+
+	private static HttpRequestBase createHttpRequest(Request request) throws UnsupportedEncodingException {
+		HttpRequestBase httpRequest;
+		switch (request.method) {
+			case POST:
+				HttpPost httpPost = new HttpPost(request.url);
+				List<NameValuePair> formData = new ArrayList<>();
+				for (Map.Entry<String, String> currentData : request.data.entrySet()) {
+					formData.add(new BasicNameValuePair(currentData.getKey(), currentData.getValue()));
+				}
+				httpPost.setEntity(new UrlEncodedFormEntity(formData, "UTF-8"));
+				httpRequest = httpPost;
+				break;
+			case HEAD:
+				httpRequest = new HttpHead(request.url);
+				break;
+			default:
+				httpRequest = new HttpGet(request.url);
+				break;
+		}
+		httpRequest.setConfig(RequestConfig.custom().setConnectTimeout(request.timeout).setSocketTimeout(request.timeout).setConnectionRequestTimeout(request.timeout)
+		        .setRedirectsEnabled(request.followRedirects).setCookieSpec(CookieSpecs.IGNORE_COOKIES).build());
+		httpRequest.setHeader("User-Agent", request.userAgent);
+		if (request.referrer != null)
+			httpRequest.setHeader("Referer", request.referrer);
+		for (Map.Entry<String, String> currentHeader : request.headers.entrySet()) {
+			httpRequest.setHeader(currentHeader.getKey(), currentHeader.getValue());
+		}
+		if (!request.cookies.isEmpty())
+			httpRequest.setHeader("Cookie", createCookieHeader(request.cookies));
+		return httpRequest;
+	}
+
+	private static String getFinalURL(Request request, HttpClientContext context) {
+		List<URI> redirectLocations = context.getRedirectLocations();
+		if (redirectLocations != null && !redirectLocations.isEmpty())
+			return redirectLocations.get(redirectLocations.size() - 1).toString();
+		return request.url;
+	}
+
+	/**
+	 * Uses the server's Keep-Alive timeout if it sends one, otherwise keeps idle connections around for {@link HttpTransport#DEFAULT_KEEP_ALIVE_MILLIS}
+	 */
+	private static class DefaultKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+		@Override
+		public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+			BasicHeaderElementIterator iterator = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+			while (iterator.hasNext()) {
+				HeaderElement element = iterator.nextElement();
+				if (element.getValue() != null && element.getName().equalsIgnoreCase("timeout")) {
+					try {
+						return Long.parseLong(element.getValue()) * 1000;
+					} catch (NumberFormatException e) {
+						//fall through to the default
+					}
+				}
+			}
+			return DEFAULT_KEEP_ALIVE_MILLIS;
+		}
+	}
+
+	/**
+	 * Request settings, named after their jsoup Connection equivalents
+	 */
+	public static class Request {
+		private final HttpTransport transport;
+		private final String url;
+		private Method method = Method.GET;
+		private String userAgent = DEFAULT_USER_AGENT;
+		private String referrer;
+		private int timeout = 3000;
+		private boolean ignoreHttpErrors = false;
+		private boolean ignoreContentType = false;
+		private boolean followRedirects = true;
+		private Long cacheTimeToLive;
+		private final Map<String, String> headers = new LinkedHashMap<>();
+		private final Map<String, String> cookies = new LinkedHashMap<>();
+		private final Map<String, String> data = new LinkedHashMap<>();
+
+		Request(HttpTransport transport, String url) {
+			this.transport = transport;
+			this.url = url;
+		}
+
+		public Request userAgent(String userAgent) {
+			this.userAgent = userAgent;
+			return this;
+		}
+
+		public Request referrer(String referrer) {
+			this.referrer = referrer;
+			return this;
+		}
+
+		/**
+		 * @param timeout - connect and read timeout in milliseconds
+		 */
+		public Request timeout(int timeout) {
+			this.timeout = timeout;
+			return this;
+		}
+
+		/**
+		 * @param ignoreHttpErrors - if false, status codes of 400 and above throw an {@link HttpStatusException}
+		 */
+		public Request ignoreHttpErrors(boolean ignoreHttpErrors) {
+			this.ignoreHttpErrors = ignoreHttpErrors;
+			return this;
+		}
+
+		/**
+		 * @param ignoreContentType - if false, parsing anything other than text or xml throws an {@link UnsupportedMimeTypeException}
+		 */
+		public Request ignoreContentType(boolean ignoreContentType) {
+			this.ignoreContentType = ignoreContentType;
+			return this;
+		}
+
+		public Request followRedirects(boolean followRedirects) {
+			this.followRedirects = followRedirects;
+			return this;
+		}
+
+		/**
+		 * @param cacheTimeToLive - milliseconds a cached GET response is used without asking the server again.
+		 * 0 always revalidates with the server and a negative value skips the cache. Defaults to the cache's setting.
+		 */
+		public Request cacheTimeToLive(long cacheTimeToLive) {
+			this.cacheTimeToLive = cacheTimeToLive;
+			return this;
+		}
+
+		public Request method(Method method) {
+			this.method = method;
+			return this;
+		}
+
+		public Request header(String name, String value) {
+			headers.put(name, value);
+			return this;
+		}
+
+		public Request cookies(Map<String, String> cookies) {
+			this.cookies.putAll(cookies);
+			return this;
+		}
+
+		/**
+		 * @param data - form fields sent as the body of a POST
+		 */
+		public Request data(Map<String, String> data) {
+			this.data.putAll(data);
+			return this;
+		}
+
+		public String url() {
+			return url;
+		}
+
+		public Response execute() throws IOException {
+			return transport.execute(this);
+		}
+
+		public Document get() throws IOException {
+			method = Method.GET;
+			return execute().parse();
+		}
+
+		public Document post() throws IOException {
+			method = Method.POST;
+			return execute().parse();
+		}
+	}
+
+	/**
+	 * A fully read response
+	 */
+	public static class Response {
+		private final Request request;
+		private final String url;
+		private final int statusCode;
+		private final String statusMessage;
+		private final Header[] headers;
+		private final String contentType;
+		private final Charset charset;
+		private final byte[] body;
+
+		Response(Request request, HttpResponse httpResponse, String url) throws IOException {
+			this(request, url, httpResponse.getStatusLine().getStatusCode(), httpResponse.getStatusLine().getReasonPhrase(), httpResponse.getAllHeaders(),
+			        httpResponse.getEntity() != null ? EntityUtils.toByteArray(httpResponse.getEntity()) : new byte[0]);
+		}
+
+		Response(Request request, HttpResponseCache.Entry cachedEntry) {
+			this(request, cachedEntry.url, cachedEntry.statusCode, cachedEntry.statusMessage, cachedEntry.headers, cachedEntry.body);
+		}
+
+		Response(Request request, String url, int statusCode, String statusMessage, Header[] headers, byte[] body) {
+			this.request = request;
+			this.url = url;
+			this.statusCode = statusCode;
+			this.statusMessage = statusMessage;
+			this.headers = headers;
+			this.body = body;
+			ContentType parsedContentType = parseContentType(header("Content-Type"));
+			this.contentType = parsedContentType != null ? parsedContentType.getMimeType() : null;
+			this.charset = parsedContentType != null ? parsedContentType.getCharset() : null;
+		}
+
+		/**
+		 * @return the same response for another request, which decides how it is checked and parsed
+		 */
+		Response forRequest(Request otherRequest) {
+			if (otherRequest == request)
+				return this;
+			return new Response(otherRequest, url, statusCode, statusMessage, headers, body);
+		}
+
+		private static ContentType parseContentType(String contentTypeHeader) {
+			if (contentTypeHeader == null)
+				return null;
+			try {
+				return ContentType.parse(contentTypeHeader);
+			} catch (ParseException | UnsupportedCharsetException e) {
+				return null;
+			}
+		}
+
+		/**
+		 * @return the URL of the response, which is the last redirect location if redirects were followed
+		 */
+		public String url() {
+			return url;
+		}
+
+		public int statusCode() {
+			return statusCode;
+		}
+
+		public String statusMessage() {
+			return statusMessage;
+		}
+
+		public boolean hasHeader(String name) {
+			return header(name) != null;
+		}
+
+		/**
+		 * @return the first value of the header or null if there is no such header
+		 */
+		public String header(String name) {
+			for (Header currentHeader : headers) {
+				if (currentHeader.getName().equalsIgnoreCase(name))
+					return currentHeader.getValue();
+			}
+			return null;
+		}
+
+		/**
+		 * @return every value of the header, in the order they were sent
+		 */
+		public List<String> headers(String name) {
+			List<String> values = new ArrayList<>();
+			for (Header currentHeader : headers) {
+				if (currentHeader.getName().equalsIgnoreCase(name))
+					values.add(currentHeader.getValue());
+			}
+			return values;
+		}
+
+		/**
+		 * @return name to value of every cookie set by the response
+		 */
+		public Map<String, String> cookies() {
+			Map<String, String> cookies = new LinkedHashMap<>();
+			for (Header currentHeader : headers) {
+				if (!currentHeader.getName().equalsIgnoreCase("Set-Cookie"))
+					continue;
+				String cookie = currentHeader.getValue();
+				int endOfValue = cookie.indexOf(';');
+				if (endOfValue > -1)
+					cookie = cookie.substring(0, endOfValue);
+				int endOfName = cookie.indexOf('=');
+				if (endOfName > 0)
+					cookies.put(cookie.substring(0, endOfName).trim(), cookie.substring(endOfName + 1).trim());
+			}
+			return cookies;
+		}
+
+		public String contentType() {
+			return contentType;
+		}
+
+		public byte[] bodyAsBytes() {
+			return body;
+		}
+
+		public String body() {
+			return new String(body, charset != null ? charset : Charset.forName("UTF-8"));
+		}
+
+		/**
+		 * Parses the body as HTML. When the server does not give a charset, jsoup looks for one in the page's meta tags.
+		 */
+		public Document parse() throws IOException {
+			if (!request.ignoreContentType && contentType != null && !contentType.startsWith("text/") && !contentType.startsWith("application/xml")
+			        && !contentType.startsWith("application/xhtml+xml") && !contentType.endsWith("+xml")) {
+				throw new UnsupportedMimeTypeException("Unhandled content type. Must be text/*, application/xml, or application/xhtml+xml", contentType, url);
+			}
+			return Jsoup.parse(new ByteArrayInputStream(body), charset != null ? charset.name() : null, url);
+		}
+	}
+}
@@ -0,0 +1,254 @@
+package moviescraper.doctord.scraper;
+
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces the requests sent to each host so a long batch scrape runs as fast as a site tolerates without getting blocked.
+ * Every host gets a token bucket, limiting requests per second, and a limit on requests in flight at once.
+ * Both grow slowly while the host answers normally and are halved when it pushes back: a 429 or 503 status, a captcha page,
+ * or answers that get much slower than usual. A Retry-After header, or an exponential backoff when there is none,
+ * holds back all requests to the host until it has passed.
+ * {@link HttpTransport} goes through the governor for every request it sends over the network, so all the scrapers share it.
+ */
+public class RateGovernor {
+
+	public static final double INITIAL_REQUESTS_PER_SECOND = 4;
+	public static final double MIN_REQUESTS_PER_SECOND = 0.2;
+	public static final double MAX_REQUESTS_PER_SECOND = 20;
+	public static final int INITIAL_CONCURRENCY = 2;
+	public static final int MAX_CONCURRENCY = HttpTransport.MAX_CONNECTIONS_PER_HOST;
+	//never wait longer than this for a host, no matter what its Retry-After says
+	public static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(2);
+	private static final long INITIAL_BACKOFF_MILLIS = 1000;
+	private static final double REQUESTS_PER_SECOND_INCREASE = 0.25;
+	private static final double SLOW_RESPONSE_DECREASE = 0.9;
+	//a response this many times slower than the average counts as a sign of overload
+	private static final double SLOW_RESPONSE_FACTOR = 3;
+	private static final int LATENCY_SAMPLES_BEFORE_ADAPTING = 5;
+	private static final double LATENCY_SMOOTHING = 0.2;
+
+	private static RateGovernor instance;
+
+	private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+
+	public static synchronized RateGovernor getInstance() {
+		if (instance == null) {
+			instance = new RateGovernor();
+		}
+		return instance;
+	}
+
+	/**
+	 * Waits until a request to the host of the url may be sent
+	 *
+	 * @return the permit, which must be given back with {@link Permit#completed(int, String, boolean)} or {@link Permit#failed(boolean)}
+	 * @throws InterruptedIOException if interrupted while waiting
+	 */
+	public Permit acquire(String url) throws InterruptedIOException {
+		HostState hostState = hosts.computeIfAbsent(getHost(url), host -> new HostState());
+		hostState.acquire();
+		return new Permit(hostState);
+	}
+
+	/**
+	 * Tells the governor a host is blocking us, for throttling which can only be recognized by looking at the page,
+	 * for example a captcha served with a 200 status
+	 */
+	public void reportThrottled(String url) {
+		hosts.computeIfAbsent(getHost(url), host -> new HostState()).throttled(null);
+	}
+
+	/**
+	 * @return requests per second currently allowed to the host of the url
+	 */
+	public double getRequestsPerSecond(String url) {
+		HostState hostState = hosts.get(getHost(url));
+		return hostState != null ? hostState.getRequestsPerSecond() : INITIAL_REQUESTS_PER_SECOND;
+	}
+
+	/**
+	 * @return number of requests currently allowed in flight to the host of the url
+	 */
+	public int getConcurrencyLimit(String url) {
+		HostState hostState = hosts.get(getHost(url));
+		return hostState != null ? hostState.getConcurrencyLimit() : INITIAL_CONCURRENCY;
+	}
+
+	static String getHost(String url) {
+		try {
+			String host = URI.create(url).getHost();
+			return host != null ? host.toLowerCase() : "";
+		} catch (IllegalArgumentException e) {
+			return "";
+		}
+	}
+
+	/**
+	 * @param retryAfter - value of a Retry-After header: either seconds or an HTTP date
+	 * @return how long to wait in milliseconds, or -1 if the value could not be read
+	 */
+	static long parseRetryAfterMillis(String retryAfter) {
+		if (retryAfter == null)
+			return -1;
+		String trimmedRetryAfter = retryAfter.trim();
+		try {
+			return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(trimmedRetryAfter)));
+		} catch (NumberFormatException e) {
+			SimpleDateFormat httpDateFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+			Date retryDate = httpDateFormat.parse(trimmedRetryAfter, new ParsePosition(0));
+			if (retryDate == null)
+				return -1;
+			return Math.max(0, retryDate.getTime() - System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * Permission to send one request. Report how it went exactly once.
+	 */
+	public static class Permit {
+		private final HostState hostState;
+		private final long startNanos = System.nanoTime();
+		private long latencyNanos = -1;
+		private boolean released;
+
+		Permit(HostState hostState) {
+			this.hostState = hostState;
+		}
+
+		/**
+		 * Records the latency of the request as of now. Call this when the response headers have arrived if the body
+		 * is read before the permit is given back, so large downloads do not look like a slow host.
+		 */
+		public synchronized void responseReceived() {
+			if (latencyNanos < 0)
+				latencyNanos = System.nanoTime() - startNanos;
+		}
+
+		/**
+		 * @param statusCode - status of the response
+		 * @param retryAfter - the response's Retry-After header, or null
+		 * @param captcha - true if the response is a captcha page or some other sign that the site is blocking us
+		 */
+		public synchronized void completed(int statusCode, String retryAfter, boolean captcha) {
+			if (released)
+				return;
+			released = true;
+			if (statusCode == 429 || statusCode == 503 || captcha)
+				hostState.throttled(retryAfter);
+			else
+				hostState.succeeded(latencyNanos >= 0 ? latencyNanos : System.nanoTime() - startNanos);
+			hostState.release();
+		}
+
+		/**
+		 * @param timedOut - true if the request failed because the host did not answer in time, which is treated as a sign of overload
+		 */
+		public synchronized void failed(boolean timedOut) {
+			if (released)
+				return;
+			released = true;
+			if (timedOut)
+				hostState.slowedDown();
+			hostState.release();
+		}
+	}
+
+	/**
+	 * Limits and counters of one host. All of it is guarded by the object's monitor.
+	 */
+	static class HostState {
+		private double requestsPerSecond = INITIAL_REQUESTS_PER_SECOND;
+		private double tokens = 1;
+		private long lastRefillNanos = System.nanoTime();
+		private double concurrencyLimit = INITIAL_CONCURRENCY;
+		private int inFlight;
+		private long blockedUntilMillis;
+		private long nextBackoffMillis = INITIAL_BACKOFF_MILLIS;
+		private double averageLatencyNanos;
+		private int latencySamples;
+
+		synchronized void acquire() throws InterruptedIOException {
+			try {
+				while (true) {
+					long waitMillis;
+					long now = System.currentTimeMillis();
+					refill();
+					if (now < blockedUntilMillis) {
+						waitMillis = blockedUntilMillis - now;
+					} else if (inFlight >= (int) concurrencyLimit) {
+						//woken up when a request finishes
+						waitMillis = 0;
+					} else if (tokens < 1) {
+						waitMillis = Math.max(1, (long) Math.ceil((1 - tokens) / requestsPerSecond * 1000));
+					} else {
+						tokens -= 1;
+						inFlight++;
+						return;
+					}
+					wait(waitMillis);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting to send a request");
+			}
+		}
+
+		synchronized void release() {
+			inFlight--;
+			notifyAll();
+		}
+
+		private void refill() {
+			long now = System.nanoTime();
+			//allow a burst of at most one second's worth of requests
+			tokens = Math.min(Math.max(1, requestsPerSecond), tokens + (now - lastRefillNanos) / 1e9 * requestsPerSecond);
+			lastRefillNanos = now;
+		}
+
+		synchronized void succeeded(long latencyNanos) {
+			nextBackoffMillis = INITIAL_BACKOFF_MILLIS;
+			if (latencySamples >= LATENCY_SAMPLES_BEFORE_ADAPTING && latencyNanos > averageLatencyNanos * SLOW_RESPONSE_FACTOR) {
+				slowedDown();
+			} else {
+				//additive increase: about one more request in flight per round trip at the current limit
+				concurrencyLimit = Math.min(MAX_CONCURRENCY, concurrencyLimit + 1 / concurrencyLimit);
+				requestsPerSecond = Math.min(MAX_REQUESTS_PER_SECOND, requestsPerSecond + REQUESTS_PER_SECOND_INCREASE);
+			}
+			averageLatencyNanos = latencySamples == 0 ? latencyNanos : averageLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - averageLatencyNanos);
+			latencySamples++;
+		}
+
+		synchronized void slowedDown() {
+			concurrencyLimit = Math.max(1, concurrencyLimit * SLOW_RESPONSE_DECREASE);
+		}
+
+		synchronized void throttled(String retryAfter) {
+			//multiplicative decrease
+			concurrencyLimit = Math.max(1, concurrencyLimit / 2);
+			requestsPerSecond = Math.max(MIN_REQUESTS_PER_SECOND, requestsPerSecond / 2);
+			long backoffMillis = parseRetryAfterMillis(retryAfter);
+			if (backoffMillis < 0) {
+				backoffMillis = nextBackoffMillis;
+				nextBackoffMillis = Math.min(MAX_BACKOFF_MILLIS, nextBackoffMillis * 2);
+			}
+			blockedUntilMillis = Math.max(blockedUntilMillis, System.currentTimeMillis() + Math.min(MAX_BACKOFF_MILLIS, backoffMillis));
+			notifyAll();
+		}
+
+		synchronized double getRequestsPerSecond() {
+			return requestsPerSecond;
+		}
+
+		synchronized int getConcurrencyLimit() {
+			return (int) concurrencyLimit;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package moviescraper.doctord.scraper;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Makes concurrent calls for the same key share one execution. The first caller of a key runs the call and every caller
+ * which asks for the same key while it is running waits for it and gets its result, or its exception, instead of running
+ * the call again. Nothing is remembered once the call is done; caching the result is up to the caller.
+ *
+ * @param <K> - key identifying calls which have the same result
+ * @param <V> - result of a call
+ */
+public class SingleFlight<K, V> {
+
+	private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final AtomicLong executedCount = new AtomicLong();
+	private final AtomicLong coalescedCount = new AtomicLong();
+
+	/**
+	 * A call which may do I/O
+	 */
+	public interface Call<V> {
+		V call() throws IOException;
+	}
+
+	/**
+	 * Runs the call, or waits for the call already running for the same key
+	 *
+	 * @return the result of the call
+	 * @throws IOException if the call threw it, or if the wait was interrupted
+	 */
+	public V execute(K key, Call<V> call) throws IOException {
+		CompletableFuture<V> ownFlight = new CompletableFuture<>();
+		CompletableFuture<V> runningFlight = inFlight.putIfAbsent(key, ownFlight);
+		if (runningFlight != null) {
+			coalescedCount.incrementAndGet();
+			return await(runningFlight);
+		}
+		executedCount.incrementAndGet();
+		try {
+			V result = call.call();
+			ownFlight.complete(result);
+			return result;
+		} catch (IOException | RuntimeException | Error e) {
+			ownFlight.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, ownFlight);
+		}
+	}
+
+	/**
+	 * @return number of calls which were run
+	 */
+	public long getExecutedCount() {
+		return executedCount.get();
+	}
+
+	/**
+	 * @return number of calls which were not run because the same call was already running
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount.get();
+	}
+
+	private static <V> V await(CompletableFuture<V> flight) throws IOException {
+		try {
+			return flight.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the same request made by another thread");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IOException(cause);
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package moviescraper.doctord.scraper;
+
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.conn.ConnectTimeoutException;
+
+/**
+ * Checks whether files exist at URLs which were guessed rather than scraped, like numbered gallery images or trailers.
+ * Each check is a HEAD request on the shared {@link HttpTransport}. A batch of URLs is checked all at once; the {@link RateGovernor}
+ * in the transport limits how many of the requests are in flight to any one host.
+ * Results are remembered for {@link #MEMO_TIME_TO_LIVE_MILLIS}, and a URL which is already being checked is not checked again,
+ * so several scrapers guessing the same URLs only cost one request per URL.
+ */
+public class UrlProber {
+
+	public static final long MEMO_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+	private static final int PROBE_THREADS = 16;
+	private static final int MEMO_PURGE_SIZE = 1024;
+
+	private static UrlProber instance;
+
+	private final ExecutorService executor;
+	private final Map<String, MemoEntry> memo = new ConcurrentHashMap<>();
+
+	private UrlProber() {
+		AtomicInteger threadNumber = new AtomicInteger(1);
+		executor = Executors.newFixedThreadPool(PROBE_THREADS, runnable -> {
+			Thread thread = new Thread(runnable, "url-prober-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public static synchronized UrlProber getInstance() {
+		if (instance == null) {
+			instance = new UrlProber();
+		}
+		return instance;
+	}
+
+	/**
+	 * @param url - the URL to check
+	 * @param allowRedirects - if true, a temporary redirect also counts as existing
+	 * @param timeout - connect and read timeout in milliseconds
+	 * @return true if the server answers the HEAD request with 200, or 302 when allowRedirects is set
+	 */
+	public boolean exists(String url, boolean allowRedirects, int timeout) {
+		return getResult(probeAsync(url, allowRedirects, timeout));
+	}
+
+	/**
+	 * Checks all the URLs at the same time
+	 *
+	 * @param urls - the URLs to check
+	 * @param allowRedirects - if true, a temporary redirect also counts as existing
+	 * @param timeout - connect and read timeout of each request in milliseconds
+	 * @return the URLs which exist, in the order they were given
+	 */
+	public List<String> findExisting(Collection<String> urls, boolean allowRedirects, int timeout) {
+		List<CompletableFuture<Boolean>> probes = new ArrayList<>(urls.size());
+		for (String currentUrl : urls) {
+			probes.add(probeAsync(currentUrl, allowRedirects, timeout));
+		}
+		List<String> existingUrls = new ArrayList<>();
+		Iterator<String> urlIterator = urls.iterator();
+		for (CompletableFuture<Boolean> currentProbe : probes) {
+			String currentUrl = urlIterator.next();
+			if (getResult(currentProbe))
+				existingUrls.add(currentUrl);
+		}
+		return existingUrls;
+	}
+
+	private CompletableFuture<Boolean> probeAsync(String url, boolean allowRedirects, int timeout) {
+		purgeExpiredIfNeeded();
+		String memoKey = (allowRedirects ? "redirect " : "") + url;
+		long now = System.currentTimeMillis();
+		MemoEntry memoEntry = memo.compute(memoKey, (key, existingEntry) -> {
+			if (existingEntry != null && now - existingEntry.createdAt < MEMO_TIME_TO_LIVE_MILLIS)
+				return existingEntry;
+			return new MemoEntry(CompletableFuture.supplyAsync(() -> probe(url, allowRedirects, timeout), executor), now);
+		});
+		return memoEntry.result;
+	}
+
+	private boolean probe(String url, boolean allowRedirects, int timeout) {
+		try {
+			//redirects are set per request, so this is safe to call from several scraping threads at once
+			int responseCode = HttpTransport.connect(url).method(HttpTransport.Method.HEAD).followRedirects(allowRedirects).ignoreHttpErrors(true).ignoreContentType(true)
+			        .userAgent(UserAgent.getRandomUserAgent()).timeout(timeout).execute().statusCode();
+			if (!allowRedirects) {
+				return (responseCode == HttpURLConnection.HTTP_OK);
+			} else {
+				return (responseCode == HttpURLConnection.HTTP_OK || responseCode == HttpURLConnection.HTTP_MOVED_TEMP);
+			}
+		} catch (SocketTimeoutException | ConnectTimeoutException e) {
+			// Non-existing DMM trailers usually time out
+			System.err.println("Connection timed out: " + url);
+			return false;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	private static boolean getResult(CompletableFuture<Boolean> probe) {
+		try {
+			return probe.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException e) {
+			return false;
+		}
+	}
+
+	private void purgeExpiredIfNeeded() {
+		if (memo.size() < MEMO_PURGE_SIZE)
+			return;
+		long now = System.currentTimeMillis();
+		memo.values().removeIf(entry -> now - entry.createdAt >= MEMO_TIME_TO_LIVE_MILLIS);
+	}
+
+	private static class MemoEntry {
+		final CompletableFuture<Boolean> result;
+		final long createdAt;
+
+		MemoEntry(CompletableFuture<Boolean> result, long createdAt) {
+			this.result = result;
+			this.createdAt = createdAt;
+		}
+	}
+}
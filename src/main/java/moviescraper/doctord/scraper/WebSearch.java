@@ -0,0 +1,170 @@
+package moviescraper.doctord.scraper;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import moviescraper.doctord.controller.ScrapeEngine;
+import moviescraper.doctord.model.SearchResult;
+import moviescraper.doctord.model.preferences.MoviescraperPreferences;
+
+/**
+ * Finds pages of a site through search engines, for sites whose own search is missing or poor.
+ * The primary search engine is asked first. If it has not answered within {@link #DEFAULT_HEDGE_DELAY_MILLIS}, or it answered
+ * with nothing or an error like a captcha, the backup search engine is asked too and the first non empty answer of the two is used.
+ * Answers are kept in a {@link WebSearchCache}, so the same query for the same site is only searched once.
+ */
+public class WebSearch {
+
+	public static final long DEFAULT_HEDGE_DELAY_MILLIS = 2000;
+	private static final int SEARCH_THREADS = 8;
+	private static final int SEARCH_TIMEOUT_MILLIS = 13000;
+	private static final int SAVE_EVERY_CHANGES = 10;
+	private static final String cacheFileName = "cache" + File.separator + "search-results.properties";
+
+	private static WebSearch instance;
+
+	private final WebSearchProvider primaryProvider;
+	private final WebSearchProvider backupProvider;
+	private final WebSearchCache cache;
+	private final long hedgeDelayMillis;
+	private final ExecutorService executor;
+	private final AtomicInteger providerRequestCount = new AtomicInteger();
+
+	/**
+	 * @param primaryProvider - search engine asked first
+	 * @param backupProvider - search engine asked when the primary one is slow or has no answer
+	 * @param cache - where answers are remembered
+	 * @param hedgeDelayMillis - how long the primary search engine has before the backup one is asked as well
+	 */
+	public WebSearch(WebSearchProvider primaryProvider, WebSearchProvider backupProvider, WebSearchCache cache, long hedgeDelayMillis) {
+		this.primaryProvider = primaryProvider;
+		this.backupProvider = backupProvider;
+		this.cache = cache;
+		this.hedgeDelayMillis = hedgeDelayMillis;
+		AtomicInteger threadNumber = new AtomicInteger(1);
+		this.executor = Executors.newFixedThreadPool(SEARCH_THREADS, runnable -> {
+			Thread thread = new Thread(runnable, "web-search-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public static synchronized WebSearch getInstance() {
+		if (instance == null) {
+			WebSearchCache cache = new WebSearchCache(new File(cacheFileName), TimeUnit.HOURS.toMillis(MoviescraperPreferences.getInstance().getSearchResultCacheTimeToLiveHours()),
+			        WebSearchCache.DEFAULT_MAX_ENTRIES);
+			Runtime.getRuntime().addShutdownHook(new Thread(cache::save, "search-results-save"));
+			instance = new WebSearch(new GoogleWebSearchProvider(SEARCH_TIMEOUT_MILLIS), new BingWebSearchProvider(SEARCH_TIMEOUT_MILLIS), cache, DEFAULT_HEDGE_DELAY_MILLIS);
+		}
+		return instance;
+	}
+
+	/**
+	 * @param site - only pages whose URL starts with this are wanted, like "data18.com/movies/"
+	 * @param query - what to search for
+	 * @return the pages found, best match first. Empty if neither search engine found anything.
+	 */
+	public List<SearchResult> search(String site, String query) {
+		String key = WebSearchCache.createKey(site, query);
+		List<SearchResult> cachedResults = cache.get(key);
+		if (cachedResults != null)
+			return cachedResults;
+
+		List<CompletableFuture<List<SearchResult>>> searches = new ArrayList<>(2);
+		CompletableFuture<List<SearchResult>> primarySearch = startSearch(primaryProvider, query, site);
+		searches.add(primarySearch);
+		List<SearchResult> results = null;
+		try {
+			List<SearchResult> primaryResults = primarySearch.get(hedgeDelayMillis, TimeUnit.MILLISECONDS);
+			if (!primaryResults.isEmpty())
+				results = primaryResults;
+		} catch (TimeoutException e) {
+			System.out.println(primaryProvider.getName() + " is slow to answer, also searching " + backupProvider.getName() + " for " + query);
+		} catch (ExecutionException e) {
+			System.out.println(primaryProvider.getName() + " search failed, searching " + backupProvider.getName() + " instead: " + e.getCause().getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			primarySearch.cancel(true);
+			return new ArrayList<>();
+		}
+		if (results == null) {
+			searches.add(startSearch(backupProvider, query, site));
+			try {
+				results = firstNonEmpty(searches).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				e.printStackTrace();
+			}
+		}
+		boolean answered = false;
+		for (CompletableFuture<List<SearchResult>> currentSearch : searches) {
+			//the slower search engine is no longer needed
+			if (!currentSearch.isDone())
+				currentSearch.cancel(true);
+			else if (!currentSearch.isCompletedExceptionally())
+				answered = true;
+		}
+		if (results == null)
+			return new ArrayList<>();
+		//searches which failed on every search engine are not remembered, so they are tried again next time
+		if (answered) {
+			cache.put(key, results);
+			cache.saveIfChanged(SAVE_EVERY_CHANGES);
+		}
+		return results;
+	}
+
+	/**
+	 * @return number of queries sent to the search engines, which does not include the ones answered from the cache
+	 */
+	public int getProviderRequestCount() {
+		return providerRequestCount.get();
+	}
+
+	public WebSearchCache getCache() {
+		return cache;
+	}
+
+	private CompletableFuture<List<SearchResult>> startSearch(WebSearchProvider provider, String query, String site) {
+		return ScrapeEngine.submit(() -> {
+			providerRequestCount.incrementAndGet();
+			return provider.search(query, site);
+		}, executor);
+	}
+
+	/**
+	 * @return a future completed with the first non empty result of the searches, or with an empty list once all of them are done
+	 * without finding anything
+	 */
+	private static CompletableFuture<List<SearchResult>> firstNonEmpty(List<CompletableFuture<List<SearchResult>>> searches) {
+		CompletableFuture<List<SearchResult>> firstResult = new CompletableFuture<>();
+		for (CompletableFuture<List<SearchResult>> currentSearch : searches) {
+			currentSearch.thenAccept(results -> {
+				if (!results.isEmpty())
+					firstResult.complete(results);
+			});
+		}
+		CompletableFuture.allOf(searches.toArray(new CompletableFuture<?>[searches.size()])).whenComplete((ignored, throwable) -> {
+			for (CompletableFuture<List<SearchResult>> currentSearch : searches) {
+				if (currentSearch.isCompletedExceptionally())
+					continue;
+				List<SearchResult> results = currentSearch.getNow(null);
+				if (!results.isEmpty()) {
+					firstResult.complete(results);
+					return;
+				}
+			}
+			firstResult.complete(new ArrayList<>());
+		});
+		return firstResult;
+	}
+}
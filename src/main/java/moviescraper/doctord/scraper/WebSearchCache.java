@@ -0,0 +1,200 @@
+package moviescraper.doctord.scraper;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import moviescraper.doctord.model.SearchResult;
+
+/**
+ * Remembers the results of search engine queries by site and query, so rescraping a file or retrying a scrape
+ * does not search again. Saved to a file so it is kept between runs.
+ * An empty answer is only kept for {@link #EMPTY_RESULT_TIME_TO_LIVE_MILLIS}, since the page may just not be indexed yet.
+ */
+public class WebSearchCache {
+
+	public static final int DEFAULT_TIME_TO_LIVE_HOURS = 24 * 7;
+	public static final int DEFAULT_MAX_ENTRIES = 20000;
+	public static final long EMPTY_RESULT_TIME_TO_LIVE_MILLIS = TimeUnit.HOURS.toMillis(12);
+
+	private final File file;
+	private final long timeToLiveMillis;
+	private final LinkedHashMap<String, CachedResults> entries;
+	private boolean loaded;
+	private int unsavedChanges;
+
+	/**
+	 * @param file - where the results are saved, or null to keep them in memory only
+	 * @param timeToLiveMillis - how long results are used before searching again
+	 * @param maxEntries - number of queries above which the least recently used ones are dropped
+	 */
+	public WebSearchCache(File file, long timeToLiveMillis, int maxEntries) {
+		this.file = file;
+		this.timeToLiveMillis = timeToLiveMillis;
+		this.entries = new LinkedHashMap<String, CachedResults>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedResults> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Queries which only differ in case, width of the characters or spacing get the same key
+	 */
+	public static String createKey(String site, String query) {
+		String normalizedQuery = Normalizer.normalize(query, Normalizer.Form.NFKC).toLowerCase(Locale.ENGLISH).trim().replaceAll("\\s+", " ");
+		return site.trim().toLowerCase(Locale.ENGLISH) + " " + normalizedQuery;
+	}
+
+	/**
+	 * @return the remembered results, or null if the query was not searched or its results expired
+	 */
+	public synchronized List<SearchResult> get(String key) {
+		loadIfNeeded();
+		CachedResults entry = entries.get(key);
+		if (entry == null)
+			return null;
+		long age = System.currentTimeMillis() - entry.storedAt;
+		if (age >= timeToLiveMillis || (entry.results.isEmpty() && age >= EMPTY_RESULT_TIME_TO_LIVE_MILLIS)) {
+			entries.remove(key);
+			unsavedChanges++;
+			return null;
+		}
+		return copyOf(entry.results);
+	}
+
+	public synchronized void put(String key, List<SearchResult> results) {
+		loadIfNeeded();
+		entries.put(key, new CachedResults(System.currentTimeMillis(), copyOf(results)));
+		unsavedChanges++;
+	}
+
+	public synchronized int size() {
+		loadIfNeeded();
+		return entries.size();
+	}
+
+	public synchronized void clear() {
+		loaded = true;
+		entries.clear();
+		save();
+	}
+
+	/**
+	 * Saves the results if at least minimumChanges queries were added or expired since they were last saved
+	 */
+	public synchronized void saveIfChanged(int minimumChanges) {
+		if (unsavedChanges > 0 && unsavedChanges >= minimumChanges)
+			save();
+	}
+
+	/**
+	 * Writes the results to the file. Each query is stored as the time it was searched followed by one line per result
+	 * holding the URL and the label separated by a tab.
+	 */
+	public synchronized void save() {
+		unsavedChanges = 0;
+		if (file == null)
+			return;
+		Properties properties = new Properties();
+		for (Map.Entry<String, CachedResults> currentEntry : entries.entrySet()) {
+			StringBuilder value = new StringBuilder(Long.toString(currentEntry.getValue().storedAt));
+			for (SearchResult currentResult : currentEntry.getValue().results) {
+				value.append('\n').append(withoutLineBreaks(currentResult.getUrlPath())).append('\t').append(withoutLineBreaks(currentResult.getLabel()));
+			}
+			properties.put(currentEntry.getKey(), value.toString());
+		}
+		File temporaryFile = new File(file.getPath() + ".tmp");
+		try {
+			File parentDirectory = file.getAbsoluteFile().getParentFile();
+			if (parentDirectory != null)
+				parentDirectory.mkdirs();
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(temporaryFile), StandardCharsets.UTF_8)) {
+				properties.store(writer, "Search engine results");
+			}
+			Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			System.err.println("Could not save search results to " + file + ": " + e.getMessage());
+			temporaryFile.delete();
+		}
+	}
+
+	private void loadIfNeeded() {
+		if (loaded)
+			return;
+		loaded = true;
+		if (file == null || !file.exists())
+			return;
+		Properties properties = new Properties();
+		try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		} catch (IOException | IllegalArgumentException e) {
+			System.err.println("Could not read search results from " + file + ": " + e.getMessage());
+			return;
+		}
+		//oldest first, so the most recently searched queries are also the most recently used ones
+		List<Map.Entry<String, CachedResults>> loadedEntries = new ArrayList<>();
+		for (String currentKey : properties.stringPropertyNames()) {
+			String[] lines = properties.getProperty(currentKey).split("\n");
+			try {
+				List<SearchResult> results = new ArrayList<>(lines.length - 1);
+				for (int i = 1; i < lines.length; i++) {
+					int separatorIndex = lines[i].indexOf('\t');
+					if (separatorIndex < 0)
+						results.add(new SearchResult(lines[i]));
+					else
+						results.add(new SearchResult(lines[i].substring(0, separatorIndex), lines[i].substring(separatorIndex + 1)));
+				}
+				loadedEntries.add(new AbstractMap.SimpleEntry<>(currentKey, new CachedResults(Long.parseLong(lines[0]), results)));
+			} catch (NumberFormatException e) {
+				System.err.println("Skipping corrupt search result entry " + currentKey);
+			}
+		}
+		loadedEntries.sort((first, second) -> Long.compare(first.getValue().storedAt, second.getValue().storedAt));
+		for (Map.Entry<String, CachedResults> currentEntry : loadedEntries) {
+			entries.put(currentEntry.getKey(), currentEntry.getValue());
+		}
+	}
+
+	private static String withoutLineBreaks(String text) {
+		return text == null ? "" : text.replace('\n', ' ').replace('\r', ' ').replace('\t', ' ');
+	}
+
+	private static List<SearchResult> copyOf(List<SearchResult> results) {
+		List<SearchResult> copy = new ArrayList<>(results.size());
+		for (SearchResult currentResult : results) {
+			copy.add(new SearchResult(currentResult.getUrlPath(), currentResult.getLabel()));
+		}
+		return copy;
+	}
+
+	private static class CachedResults {
+		final long storedAt;
+		final List<SearchResult> results;
+
+		CachedResults(long storedAt, List<SearchResult> results) {
+			this.storedAt = storedAt;
+			this.results = results;
+		}
+	}
+}
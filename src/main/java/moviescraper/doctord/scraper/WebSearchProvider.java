@@ -0,0 +1,22 @@
+package moviescraper.doctord.scraper;
+
+import java.io.IOException;
+import java.util.List;
+
+import moviescraper.doctord.model.SearchResult;
+
+/**
+ * A search engine which can be asked for the pages of one site matching a query
+ */
+public interface WebSearchProvider {
+
+	/**
+	 * @param query - what to search for
+	 * @param site - only pages whose URL starts with this are wanted, like "data18.com/movies/"
+	 * @return the matching pages, best match first. Empty if the search engine found nothing.
+	 * @throws IOException if the search engine could not be reached or refused to answer, for example with a captcha
+	 */
+	List<SearchResult> search(String query, String site) throws IOException;
+
+	String getName();
+}
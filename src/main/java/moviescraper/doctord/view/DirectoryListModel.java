@@ -0,0 +1,164 @@
+package moviescraper.doctord.view;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.AbstractListModel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+import moviescraper.doctord.model.IconCache;
+
+/**
+ * The files of the directory shown in the file list, with all directories first and then in alphabetic order (Like Windows Explorer).
+ * A directory is read on a background thread in one pass which gets the attributes of each entry along with it, and the entries are
+ * put in their sorted place in the list as they are read, so a big directory on a slow network share fills in bit by bit instead of
+ * freezing the GUI. Whether an entry is a directory is kept with it, so neither sorting nor rendering the list touches the disk.
+ */
+public class DirectoryListModel extends AbstractListModel<File> {
+
+	private static final long serialVersionUID = 1L;
+	//entries read before they are handed to the event dispatch thread together
+	private static final int CHUNK_SIZE = 100;
+
+	private static final Comparator<Entry> directoriesFirst = (entry1, entry2) -> {
+		if (entry1.directory != entry2.directory)
+			return entry1.directory ? -1 : 1;
+		return entry1.file.compareTo(entry2.file);
+	};
+
+	//only used on the event dispatch thread
+	private final List<Entry> entries = new ArrayList<>();
+	private DirectoryLoader loader;
+
+	@Override
+	public int getSize() {
+		return entries.size();
+	}
+
+	@Override
+	public File getElementAt(int index) {
+		return entries.get(index).file;
+	}
+
+	/**
+	 * @return whether the file at index was a directory when the directory was read
+	 */
+	public boolean isDirectory(int index) {
+		return index >= 0 && index < entries.size() && entries.get(index).directory;
+	}
+
+	/**
+	 * Empties the list and starts reading the directory into it, cancelling a read which has not finished yet.
+	 * Must be called on the event dispatch thread.
+	 *
+	 * @param directory - the directory to list
+	 * @param whenLoaded - run on the event dispatch thread once all files of the directory are in the list, unless a newer load replaced this one.
+	 *            May be null.
+	 */
+	public void load(File directory, Runnable whenLoaded) {
+		if (loader != null)
+			loader.cancel(true);
+		int oldSize = entries.size();
+		entries.clear();
+		if (oldSize > 0)
+			fireIntervalRemoved(this, 0, oldSize - 1);
+		loader = new DirectoryLoader(directory, whenLoaded);
+		loader.execute();
+	}
+
+	private void add(Entry entry) {
+		int index = Collections.binarySearch(entries, entry, directoriesFirst);
+		if (index < 0)
+			index = -index - 1;
+		entries.add(index, entry);
+		fireIntervalAdded(this, index, index);
+	}
+
+	private static class Entry {
+		final File file;
+		final boolean directory;
+
+		Entry(File file, boolean directory) {
+			this.file = file;
+			this.directory = directory;
+		}
+	}
+
+	private class DirectoryLoader extends SwingWorker<Void, Void> {
+
+		private final File directory;
+		private final Runnable whenLoaded;
+
+		DirectoryLoader(File directory, Runnable whenLoaded) {
+			this.directory = directory;
+			this.whenLoaded = whenLoaded;
+		}
+
+		@Override
+		protected Void doInBackground() throws IOException {
+			List<Entry> chunk = new ArrayList<>(CHUNK_SIZE);
+			try (DirectoryStream<Path> directoryContents = Files.newDirectoryStream(directory.toPath())) {
+				for (Path currentPath : directoryContents) {
+					if (isCancelled())
+						return null;
+					boolean isDirectory;
+					try {
+						isDirectory = Files.readAttributes(currentPath, BasicFileAttributes.class).isDirectory();
+					} catch (IOException e) {
+						//like a broken link, which is still listed as a file
+						isDirectory = false;
+					}
+					File file = currentPath.toFile();
+					//looks up the icon of a new file type here rather than when the list is drawn
+					IconCache.getIconFromCache(file, isDirectory);
+					chunk.add(new Entry(file, isDirectory));
+					if (chunk.size() == CHUNK_SIZE) {
+						addLater(chunk);
+						chunk = new ArrayList<>(CHUNK_SIZE);
+					}
+				}
+			}
+			addLater(chunk);
+			return null;
+		}
+
+		/**
+		 * Adds the entries on the event dispatch thread. They are added before {@link #done()} runs, as both go through its event queue.
+		 */
+		private void addLater(List<Entry> chunk) {
+			SwingUtilities.invokeLater(() -> {
+				if (loader != this)
+					return;
+				for (Entry currentEntry : chunk)
+					add(currentEntry);
+			});
+		}
+
+		@Override
+		protected void done() {
+			if (loader != this)
+				return;
+			loader = null;
+			try {
+				get();
+			} catch (ExecutionException e) {
+				System.err.println("Could not list " + directory + ": " + e.getCause());
+			} catch (InterruptedException | CancellationException e) {
+				return;
+			}
+			if (whenLoaded != null)
+				whenLoaded.run();
+		}
+	}
+}
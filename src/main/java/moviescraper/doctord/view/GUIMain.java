@@ -3,7 +3,6 @@ package moviescraper.doctord.view;
 import java.awt.EventQueue;
 
 import javax.swing.BorderFactory;
-import javax.swing.DefaultListModel;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
@@ -37,8 +36,6 @@ import javax.swing.UIManager;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
@@ -76,7 +73,8 @@ public class GUIMain {
 	//Gui Elements
 	private JFrame frmMoviescraper;
 	protected WindowBlocker frmMovieScraperBlocker;
-	private DefaultListModel<File> listModelFiles;
+	private DirectoryListModel listModelFiles;
+	private ListSelectionListener fileListSelectionListener;
 
 	private JPanel fileListPanel;
 	private FileDetailPanel fileDetailPanel;
@@ -255,7 +253,7 @@ public class GUIMain {
 		defaultHomeDirectory = getGuiSettings().getLastUsedDirectory();
 		setCurrentlySelectedDirectoryList(defaultHomeDirectory);
 
-		listModelFiles = new DefaultListModel<>();
+		listModelFiles = new DirectoryListModel();
 		setFileList(new JList<>(listModelFiles));
 
 		//add in a keyListener so that you can start typing letters in the list and it will take you to that item in the list
@@ -367,9 +365,11 @@ public class GUIMain {
 			}
 		});
 
-		getFileList().addListSelectionListener(new SelectFileListAction(this));
+		fileListSelectionListener = new SelectFileListAction(this);
+		getFileList().addListSelectionListener(fileListSelectionListener);
 		FileList fl = new FileList();
-		fileListScrollPane = fl.getGui(showFileListSorted(getCurrentlySelectedDirectoryList()), listModelFiles, true);
+		fileListScrollPane = fl.getGui(true);
+		listModelFiles.load(getCurrentlySelectedDirectoryList(), null);
 		fileListPanel.setLayout(new BoxLayout(fileListPanel, BoxLayout.Y_AXIS));
 		fileListPanel.add(fileListScrollPane);
 
@@ -404,69 +404,49 @@ public class GUIMain {
 	public void updateFileListModel(File currentlySelectedDirectory, boolean keepSelectionsAndReferences) {
 		//make sure this happens on the event dispatch thread, since it can be called from, for example, a background thread that is writing 		the files 
 		SwingUtilities.invokeLater(() -> {
+			getFrmMoviescraper().setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+			List<File> selectValuesListBeforeUpdate = getFileList().getSelectedValuesList();
+			if (!keepSelectionsAndReferences) {
+				removeOldScrapedMovieReferences();
+				removeOldSelectedFileReferences();
+			}
+
+			//We don't want to fire the listeners events when emptying the list or reselecting the items because this 
+			//will cause us additional IO that is not needed as the program rereads the nfo.
+			//To avoid this, we remove the listener while doing so and then add it back. It stays in place while the directory is read, so the user can pick files meanwhile.
+			if (keepSelectionsAndReferences) {
+				getFileList().removeListSelectionListener(fileListSelectionListener);
+			}
 			try {
-				getFrmMoviescraper().setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-				File[] filesToList = showFileListSorted(currentlySelectedDirectory);
-				List<File> selectValuesListBeforeUpdate = getFileList().getSelectedValuesList();
-
-				//We don't want to fire the listeners events when reselecting the items because this 
-				//will cause us additional IO that is not needed as the program rereads the nfo.
-				//To avoid this, we can save out the old listener, remove it, select the items and then add it back
-				ListSelectionListener[] fileListSelectionListener = null;
+				//the directory is read in the background, and the list fills in as it is read
+				listModelFiles.load(currentlySelectedDirectory, () -> {
+					getFrmMoviescraper().setCursor(Cursor.getDefaultCursor());
+					//files the user picked while the directory was read are kept instead
+					if (!getFileList().isSelectionEmpty())
+						return;
+					if (keepSelectionsAndReferences) {
+						getFileList().removeListSelectionListener(fileListSelectionListener);
+					}
+					try {
+						//select the old values we had before we updated the list
+						for (File currentValueToSelect : selectValuesListBeforeUpdate) {
+							getFileList().setSelectedValue(currentValueToSelect, false);
+						}
+					} finally {
+						if (keepSelectionsAndReferences) {
+							getFileList().addListSelectionListener(fileListSelectionListener);
+						}
+					}
+				});
+			} finally {
 				if (keepSelectionsAndReferences) {
-					fileListSelectionListener = getFileList().getListSelectionListeners();
-					getFileList().removeListSelectionListener(getFileList().getListSelectionListeners()[0]);
-				}
-				listModelFiles.removeAllElements();
-				for (File file : filesToList) {
-					listModelFiles.addElement(file);
-				}
-				if (!keepSelectionsAndReferences) {
-					removeOldScrapedMovieReferences();
-					removeOldSelectedFileReferences();
-				}
-				//select the old values we had before we updated the list
-				for (File currentValueToSelect : selectValuesListBeforeUpdate) {
-					getFileList().setSelectedValue(currentValueToSelect, false);
-				}
-				if (keepSelectionsAndReferences && fileListSelectionListener != null) {
-					getFileList().addListSelectionListener(fileListSelectionListener[0]);
+					getFileList().addListSelectionListener(fileListSelectionListener);
 				}
-			} finally {
-				getFrmMoviescraper().setCursor(Cursor.getDefaultCursor());
 			}
 		});
 
 	}
 
-	private File[] showFileListSorted(File currentlySelectedDirectory) {
-
-		File[] sortedList = currentlySelectedDirectory.listFiles();
-		//Make a comparator so we get alphabetic order, with all directories first, then all the files (Like Windows Explorer)
-		Comparator<File> comp = new Comparator<File>() {
-			@Override
-			public int compare(File file1, File file2) {
-				// Directory before non-directory
-				if (file1.isDirectory() && !file2.isDirectory()) {
-
-					return -1;
-				}
-				// Non-directory after directory
-				else if (!file1.isDirectory() && file2.isDirectory()) {
-
-					return 1;
-				}
-				// Alphabetic order otherwise
-				else {
-
-					return file1.compareTo(file2);
-				}
-			}
-		};
-		Arrays.sort(sortedList, comp);
-		return sortedList;
-	}
-
 	public void clearAllFieldsOfFileDetailPanel() {
 		fileDetailPanel.clearView();
 		fileDetailPanel.setTitleEditable(false);
@@ -494,14 +474,11 @@ public class GUIMain {
 
 	class FileList {
 
-		public JScrollPane getGui(File[] all, DefaultListModel<File> listModelFiles, boolean vertical) {
+		public JScrollPane getGui(boolean vertical) {
 
 			//Gotta clear out the old list before we can populate it with new stuff
 			getFileList().removeAll();
 
-			for (File file : all) {
-				listModelFiles.addElement(file);
-			}
 			// ..then use a renderer
 			getFileList().setCellRenderer(new FileRenderer(!vertical));
 
@@ -11,6 +11,7 @@ import javax.swing.border.Border;
 import javax.swing.border.EmptyBorder;
 
 import moviescraper.doctord.model.IconCache;
+import moviescraper.doctord.view.DirectoryListModel;
 
 public class FileRenderer extends DefaultListCellRenderer {
 
@@ -32,8 +33,10 @@ public class FileRenderer extends DefaultListCellRenderer {
 		JLabel l = (JLabel) c;
 		File f = (File) value;
 		l.setText(f.getName());
+		//the directory listing already knows the file types, so drawing the list does not need to go to the disk
+		boolean isDirectory = list.getModel() instanceof DirectoryListModel ? ((DirectoryListModel) list.getModel()).isDirectory(index) : f.isDirectory();
 		try {
-			l.setIcon(IconCache.getIconFromCache(f));
+			l.setIcon(IconCache.getIconFromCache(f, isDirectory));
 		} catch (IOException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
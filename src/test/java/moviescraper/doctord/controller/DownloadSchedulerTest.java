@@ -0,0 +1,79 @@
+package moviescraper.doctord.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import moviescraper.doctord.controller.DownloadScheduler.Priority;
+
+public class DownloadSchedulerTest {
+
+	@Test
+	public void testMostImportantFirstAndMoviesTakeTurns() throws Exception {
+		DownloadScheduler scheduler = new DownloadScheduler(1);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch gate = new CountDownLatch(1);
+		CompletableFuture<Void> blocker = scheduler.submit("blocker", Priority.POSTER, () -> {
+			started.countDown();
+			gate.await();
+			return null;
+		});
+		//the worker must hold the blocker before the rest is queued, or it could still be counted as queued
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+		List<CompletableFuture<Void>> downloads = new ArrayList<>();
+		downloads.add(submitRecording(scheduler, "A", Priority.EXTRA_FANART, "A extrafanart 1", order));
+		downloads.add(submitRecording(scheduler, "A", Priority.EXTRA_FANART, "A extrafanart 2", order));
+		downloads.add(submitRecording(scheduler, "A", Priority.TRAILER, "A trailer", order));
+		downloads.add(submitRecording(scheduler, "A", Priority.POSTER, "A poster", order));
+		downloads.add(submitRecording(scheduler, "B", Priority.EXTRA_FANART, "B extrafanart 1", order));
+		downloads.add(submitRecording(scheduler, "B", Priority.POSTER, "B poster", order));
+		assertEquals(2, scheduler.getQueuedCount(Priority.POSTER));
+		assertEquals(3, scheduler.getQueuedCount(Priority.EXTRA_FANART));
+		assertEquals(1, scheduler.getRunningCount(Priority.POSTER));
+
+		gate.countDown();
+		blocker.get(5, TimeUnit.SECONDS);
+		CompletableFuture.allOf(downloads.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+		assertEquals(Arrays.asList("A poster", "B poster", "A extrafanart 1", "B extrafanart 1", "A extrafanart 2", "A trailer"), order);
+		assertEquals(0, scheduler.getQueuedCount(Priority.EXTRA_FANART));
+	}
+
+	@Test
+	public void testCancelMovieRemovesItsDownloads() throws Exception {
+		DownloadScheduler scheduler = new DownloadScheduler(1);
+		CountDownLatch started = new CountDownLatch(1);
+		CompletableFuture<Void> running = scheduler.submit("A", Priority.TRAILER, () -> {
+			started.countDown();
+			Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+			return null;
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+		CompletableFuture<Void> queued = submitRecording(scheduler, "A", Priority.FANART, "A fanart", order);
+		CompletableFuture<Void> otherMovie = submitRecording(scheduler, "B", Priority.FANART, "B fanart", order);
+
+		assertEquals(2, scheduler.cancelMovie("A"));
+		assertTrue(running.isCancelled());
+		assertTrue(queued.isCancelled());
+		otherMovie.get(5, TimeUnit.SECONDS);
+		assertEquals(Arrays.asList("B fanart"), order);
+		assertEquals(0, scheduler.getQueuedCount(Priority.FANART));
+	}
+
+	private static CompletableFuture<Void> submitRecording(DownloadScheduler scheduler, String movieKey, Priority priority, String name, List<String> order) {
+		return scheduler.submit(movieKey, priority, () -> {
+			order.add(name);
+			return null;
+		});
+	}
+}
@@ -0,0 +1,79 @@
+package moviescraper.doctord.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * JUnit test class for {@link LibraryScanner}
+ */
+public class LibraryScannerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testOnlyFindsMoviesWhichNeedScraping() throws IOException, InterruptedException {
+		File library = folder.newFolder("library");
+		File scraped = createFile(library, "ABC-123" + File.separator + "ABC-123.avi");
+		createFile(library, "ABC-123" + File.separator + "ABC-123.nfo");
+		File unscraped = createFile(library, "DEF-456" + File.separator + "DEF-456.mp4");
+		File changed = createFile(library, "GHI-789.mkv");
+		createFile(library, "GHI-789.nfo");
+		createFile(library, "notes.txt");
+		LibraryScanner scanner = new LibraryScanner(folder.newFolder("snapshots"), false, 2);
+
+		LibraryScanner.ScanResult firstScan = scanner.scan(library);
+		assertEquals(3, firstScan.getFileCount());
+		assertEquals(3, firstScan.getAdded().size());
+		assertTrue(firstScan.getAdded().containsAll(Arrays.asList(scraped, unscraped, changed)));
+		scanner.saveSnapshot(firstScan);
+
+		LibraryScanner.ScanResult secondScan = scanner.scan(library);
+		assertEquals(Collections.emptyList(), secondScan.getAdded());
+		assertEquals(Collections.emptyList(), secondScan.getChanged());
+		assertEquals(Collections.singletonList(unscraped), secondScan.getMissingMetadata());
+
+		Files.write(changed.toPath(), new byte[] { 1, 2, 3 });
+		File added = createFile(library, "JKL-012.avi");
+		Files.delete(scraped.toPath());
+		LibraryScanner.ScanResult thirdScan = scanner.scan(library);
+		assertEquals(Collections.singletonList(added), thirdScan.getAdded());
+		assertEquals(Collections.singletonList(changed), thirdScan.getChanged());
+		assertEquals(1, thirdScan.getRemovedCount());
+		assertEquals(Arrays.asList(added, changed, unscraped), thirdScan.getMoviesToScrape());
+	}
+
+	@Test
+	public void testChangedMovieIsFoundAgainIfItsNfoWasNotWritten() throws IOException, InterruptedException {
+		File library = folder.newFolder("library");
+		File movie = createFile(library, "ABC-123.avi");
+		File nfo = createFile(library, "ABC-123.nfo");
+		LibraryScanner scanner = new LibraryScanner(folder.newFolder("snapshots"), false, 1);
+		scanner.saveSnapshot(scanner.scan(library));
+
+		Files.write(movie.toPath(), new byte[] { 1 });
+		nfo.setLastModified(System.currentTimeMillis() - 60000);
+		LibraryScanner.ScanResult failedScrape = scanner.scan(library);
+		assertEquals(Collections.singletonList(movie), failedScrape.getChanged());
+		scanner.saveSnapshot(failedScrape);
+
+		assertEquals(Collections.singletonList(movie), scanner.scan(library).getAdded());
+	}
+
+	private static File createFile(File directory, String path) throws IOException {
+		File file = new File(directory, path);
+		file.getParentFile().mkdirs();
+		file.createNewFile();
+		return file;
+	}
+}
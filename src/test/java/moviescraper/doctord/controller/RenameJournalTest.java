@@ -0,0 +1,79 @@
+package moviescraper.doctord.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * JUnit test class for {@link RenameJournal}
+ */
+public class RenameJournalTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testFinishesUnfinishedMovesWhenOpened() throws IOException {
+		File journalFile = new File(folder.getRoot(), RenameJournal.DEFAULT_JOURNAL_FILE_NAME);
+		File movie = folder.newFile("abc-123.avi");
+		File nfo = folder.newFile("abc-123.nfo");
+		RenameJournal.Move movieMove = new RenameJournal.Move(movie, new File(folder.getRoot(), "Title [ABC-123].avi"));
+		RenameJournal.Move nfoMove = new RenameJournal.Move(nfo, new File(folder.getRoot(), "Title [ABC-123]" + File.separator + "Title [ABC-123].nfo"));
+
+		RenameJournal journal = new RenameJournal(journalFile);
+		assertEquals(0, journal.open());
+		journal.record(Arrays.asList(movieMove, nfoMove));
+		movieMove.perform();
+		journal.markDone(movieMove);
+		//stop before the nfo is moved, like a rename which was killed
+		journal.close();
+		assertTrue(journalFile.exists());
+
+		RenameJournal resumedJournal = new RenameJournal(journalFile);
+		assertEquals(1, resumedJournal.open());
+		assertTrue(nfoMove.getTo().exists());
+		assertFalse(nfo.exists());
+		resumedJournal.close();
+		assertFalse(journalFile.exists());
+	}
+
+	@Test
+	public void testKeepsMovesWhichStillCannotBeFinished() throws IOException {
+		File journalFile = new File(folder.getRoot(), RenameJournal.DEFAULT_JOURNAL_FILE_NAME);
+		File movie = folder.newFile("abc-123.avi");
+		RenameJournal.Move movieMove = new RenameJournal.Move(movie, new File(folder.getRoot(), "Title [ABC-123].avi"));
+
+		RenameJournal journal = new RenameJournal(journalFile);
+		journal.open();
+		journal.record(Arrays.asList(movieMove));
+		journal.close();
+		//the movie is gone for now, like on a drive which is not connected
+		File movedAway = new File(folder.getRoot(), "elsewhere.avi");
+		assertTrue(movie.renameTo(movedAway));
+
+		RenameJournal resumedJournal = new RenameJournal(journalFile);
+		assertEquals(0, resumedJournal.open());
+		resumedJournal.close();
+		assertTrue(journalFile.exists());
+
+		assertTrue(movedAway.renameTo(movie));
+		RenameJournal lastJournal = new RenameJournal(journalFile);
+		assertEquals(1, lastJournal.open());
+		assertTrue(movieMove.getTo().exists());
+		lastJournal.close();
+		assertFalse(journalFile.exists());
+	}
+
+	@Test(expected = IOException.class)
+	public void testMoveDoesNotReplaceExistingFile() throws IOException {
+		new RenameJournal.Move(folder.newFile("a.avi"), folder.newFile("b.avi")).perform();
+	}
+}
@@ -0,0 +1,67 @@
+package moviescraper.doctord.controller.languagetranslation;
+
+import org.apache.commons.lang3.text.WordUtils;
+
+/**
+ * Compares the speed of {@link RomajiTransliterator} with the kana path {@link TranslateString#translateJapanesePersonNameToRomaji(String)} used to take:
+ * a kanji check, {@link JapaneseCharacter#convertToRomaji(String)} and capitalizing the words.
+ * Only names the old method can handle are used; it fails on the long vowel mark ー. Not a unit test; run its main method by hand.
+ */
+public class RomajiTransliteratorBenchmark {
+
+	private static final String[] names = { "はたのゆい", "あおいつかさ", "ツボミ", "あすかきらら", "きょうこ", "おおつきひびき", "しょうた", "みかみゆあ", "はっとりまい" };
+	private static final int WARMUP_RUNS = 3;
+	private static final int MEASURED_RUNS = 10;
+	private static final int MEASURED_ROUNDS = 1000000;
+
+	public static void main(String[] args) {
+		RomajiTransliterator transliterator = RomajiTransliterator.getInstance();
+		for (int round = 0; round < 2; round++) {
+			long oldNanos = time(() -> {
+				int length = 0;
+				for (int i = 0; i < MEASURED_ROUNDS; i++)
+					length += oldKanaNameToRomaji(names[i % names.length]).length();
+				return length;
+			});
+			long newNanos = time(() -> {
+				int length = 0;
+				for (int i = 0; i < MEASURED_ROUNDS; i++)
+					length += transliterator.transliterate(names[i % names.length]).length();
+				return length;
+			});
+			System.out.println(String.format("Old kana path: %d ns per name, RomajiTransliterator.transliterate: %d ns per name", oldNanos / MEASURED_ROUNDS,
+			        newNanos / MEASURED_ROUNDS));
+		}
+	}
+
+	private static String oldKanaNameToRomaji(String japanesePersonName) {
+		for (int i = 0; i < japanesePersonName.length(); i++) {
+			if (JapaneseCharacter.isKanji(japanesePersonName.charAt(i)))
+				return "";
+		}
+		return WordUtils.capitalize(JapaneseCharacter.convertToRomaji(japanesePersonName)).trim();
+	}
+
+	private interface Workload {
+		int run();
+	}
+
+	/**
+	 * @return the fastest of the measured runs in nanoseconds
+	 */
+	private static long time(Workload workload) {
+		int checksum = 0;
+		for (int i = 0; i < WARMUP_RUNS; i++)
+			checksum += workload.run();
+		long fastest = Long.MAX_VALUE;
+		for (int i = 0; i < MEASURED_RUNS; i++) {
+			long start = System.nanoTime();
+			checksum += workload.run();
+			fastest = Math.min(fastest, System.nanoTime() - start);
+		}
+		//use the result so the work can't be optimized away
+		if (checksum == 42)
+			System.out.println();
+		return fastest;
+	}
+}
@@ -0,0 +1,56 @@
+package moviescraper.doctord.controller.languagetranslation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class RomajiTransliteratorTest {
+
+	private final RomajiTransliterator transliterator = RomajiTransliterator.getInstance();
+
+	@Test
+	public void testHiraganaName() {
+		assertEquals("Hatano Yui", transliterator.transliterate("はたの ゆい"));
+	}
+
+	@Test
+	public void testKatakanaName() {
+		assertEquals("Tsubomi", transliterator.transliterate("ツボミ"));
+	}
+
+	@Test
+	public void testCombinedKana() {
+		assertEquals("Kyouko", transliterator.transliterate("きょうこ"));
+		assertEquals("Shouta", transliterator.transliterate("しょうた"));
+		assertEquals("Fani", transliterator.transliterate("ファニ"));
+	}
+
+	@Test
+	public void testSmallTsuDoublesTheNextConsonant() {
+		assertEquals("Hattori", transliterator.transliterate("はっとり"));
+		assertEquals("Matcha", transliterator.transliterate("まっちゃ"));
+	}
+
+	@Test
+	public void testLongVowelMark() {
+		assertEquals("Ruushii", transliterator.transliterate("ルーシー"));
+	}
+
+	@Test
+	public void testHalfWidthKatakana() {
+		assertEquals("Tsubasa", transliterator.transliterate("ﾂﾊﾞｻ"));
+	}
+
+	@Test
+	public void testKanjiNamesFromDictionary() {
+		assertEquals("Hatano Yui", transliterator.transliterate("波多野結衣"));
+		assertEquals("Asuka Kirara", transliterator.transliterate("明日花キララ"));
+		assertEquals("Aoi Sora", transliterator.transliterate("蒼井そら"));
+	}
+
+	@Test
+	public void testUnknownKanjiCannotBeTransliterated() {
+		assertNull(transliterator.transliterate("鬱"));
+	}
+}
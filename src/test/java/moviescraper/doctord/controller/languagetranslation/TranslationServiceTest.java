@@ -0,0 +1,91 @@
+package moviescraper.doctord.controller.languagetranslation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests TranslationService with a dictionary backend, so nothing goes online
+ */
+public class TranslationServiceTest {
+
+	private DictionaryTranslationBackend backend;
+	private TranslationService service;
+
+	@Before
+	public void setUp() {
+		Map<String, String> dictionary = new HashMap<>();
+		dictionary.put("巨乳", "Big Tits");
+		dictionary.put("単体作品", "Solo Work");
+		dictionary.put("ムーディーズ", "Moodyz");
+		backend = new DictionaryTranslationBackend(dictionary);
+		service = new TranslationService(backend, new TranslationMemory(null, TranslationMemory.DEFAULT_MAX_ENTRIES));
+	}
+
+	@Test
+	public void testAllStringsAreTranslatedWithOneRequest() {
+		Map<String, String> translations = service.translateAll(Arrays.asList("巨乳", "単体作品", "ムーディーズ", "巨乳"));
+		assertEquals(3, translations.size());
+		assertEquals("Big Tits", translations.get("巨乳"));
+		assertEquals("Moodyz", translations.get("ムーディーズ"));
+		assertEquals(1, backend.getTranslateCallCount());
+	}
+
+	@Test
+	public void testRememberedTranslationsAreNotRequestedAgain() {
+		service.translateAll(Arrays.asList("巨乳", "単体作品"));
+		assertEquals("Big Tits", service.translate("巨乳"));
+		assertEquals("Solo Work", service.translate("単体作品"));
+		assertEquals(1, backend.getTranslateCallCount());
+		service.translateAll(Arrays.asList("巨乳", "ムーディーズ"));
+		assertEquals(2, backend.getTranslateCallCount());
+	}
+
+	@Test
+	public void testFailedTranslationsAreBlankAndNotRemembered() {
+		TranslationService failingService = new TranslationService(new TranslationBackend() {
+			@Override
+			public List<String> translate(List<String> japaneseStrings) throws IOException {
+				throw new IOException("offline");
+			}
+		}, service.getMemory());
+		assertEquals("", failingService.translate("巨乳"));
+		assertEquals(0, service.getMemory().size());
+		assertEquals("Big Tits", service.translate("巨乳"));
+	}
+
+	@Test
+	public void testMemoryIsKeptBetweenRuns() throws IOException {
+		File memoryFile = File.createTempFile("translations", ".properties");
+		try {
+			TranslationMemory memory = new TranslationMemory(memoryFile, TranslationMemory.DEFAULT_MAX_ENTRIES);
+			new TranslationService(backend, memory).translateAll(Arrays.asList("巨乳", "ムーディーズ"));
+			memory.save();
+			TranslationService nextRunService = new TranslationService(backend, new TranslationMemory(memoryFile, TranslationMemory.DEFAULT_MAX_ENTRIES));
+			assertEquals("Moodyz", nextRunService.translate("ムーディーズ"));
+			assertEquals(1, backend.getTranslateCallCount());
+		} finally {
+			memoryFile.delete();
+		}
+	}
+
+	@Test
+	public void testLeastRecentlyUsedTranslationsAreDropped() {
+		TranslationMemory memory = new TranslationMemory(null, 2);
+		memory.put("a", "A");
+		memory.put("b", "B");
+		memory.get("a");
+		memory.put("c", "C");
+		assertEquals(2, memory.size());
+		assertEquals("A", memory.get("a"));
+		assertEquals(null, memory.get("b"));
+	}
+}
@@ -0,0 +1,39 @@
+package moviescraper.doctord.controller.releaserenamer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * JUnit test class for {@link WebReleaseRenamer}
+ */
+public class WebReleaseRenamerTest {
+
+	private static WebReleaseRenamer renamer;
+
+	@BeforeClass
+	public static void readWordLists() throws IOException {
+		renamer = new WebReleaseRenamer();
+	}
+
+	@Test
+	public void testRemovesWholeWordsOnly() {
+		assertEquals("Some Scene", renamer.getCleanName("some.scene.720p.par2"));
+		assertEquals("Some Scene 720px", renamer.getCleanName("some_scene_720px"));
+	}
+
+	@Test
+	public void testRemovesLongestWord() {
+		assertEquals("Some Scene", renamer.getCleanName("Some.Scene.MP4-KT"));
+	}
+
+	@Test
+	public void testExpandsAbbreviationAtStart() {
+		assertEquals("Cheating Whore Wives Some Scene", renamer.getCleanName("cww.some.scene.720p"));
+		assertEquals("Cheating Whore Wives", renamer.getCleanName("CheatingWhoreWives.mp4"));
+		assertEquals("Some Scene Cww", renamer.getCleanName("some.scene.cww"));
+	}
+}
@@ -0,0 +1,134 @@
+package moviescraper.doctord.model.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import moviescraper.doctord.model.Movie;
+import moviescraper.doctord.model.dataitem.Actor;
+import moviescraper.doctord.model.dataitem.Director;
+import moviescraper.doctord.model.dataitem.Genre;
+import moviescraper.doctord.model.dataitem.ID;
+import moviescraper.doctord.model.dataitem.MPAARating;
+import moviescraper.doctord.model.dataitem.OriginalTitle;
+import moviescraper.doctord.model.dataitem.Outline;
+import moviescraper.doctord.model.dataitem.Plot;
+import moviescraper.doctord.model.dataitem.Rating;
+import moviescraper.doctord.model.dataitem.ReleaseDate;
+import moviescraper.doctord.model.dataitem.Runtime;
+import moviescraper.doctord.model.dataitem.Set;
+import moviescraper.doctord.model.dataitem.SortTitle;
+import moviescraper.doctord.model.dataitem.Studio;
+import moviescraper.doctord.model.dataitem.Tag;
+import moviescraper.doctord.model.dataitem.Tagline;
+import moviescraper.doctord.model.dataitem.Thumb;
+import moviescraper.doctord.model.dataitem.Title;
+import moviescraper.doctord.model.dataitem.Top250;
+import moviescraper.doctord.model.dataitem.Trailer;
+import moviescraper.doctord.model.dataitem.Votes;
+import moviescraper.doctord.model.dataitem.Year;
+
+/**
+ * JUnit test class for {@link MovieCatalog}
+ */
+public class MovieCatalogTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testFindsRecordedMoviesByIndex() throws IOException {
+		File catalogDirectory = folder.newFolder("catalog");
+		MovieCatalog catalog = new MovieCatalog(catalogDirectory, true);
+		File first = new File(folder.getRoot(), "ABC-001.avi");
+		File second = new File(folder.getRoot(), "abc1 copy.mkv");
+		assertTrue(record(catalog, first, makeMovie("ABC-001", "First Title", "Studio A", "Actor A", "Actor B")));
+		assertTrue(record(catalog, second, makeMovie("abc1", "Second Title", "Studio B", "actor b")));
+		record(catalog, new File(folder.getRoot(), "DEF-002.avi"), makeMovie("DEF-002", "Other", "Studio A"));
+
+		assertTrue(catalog.isScraped(first));
+		assertFalse(catalog.isScraped(new File(folder.getRoot(), "never scraped.avi")));
+		assertEquals(2, catalog.findByID("ABC-1").size());
+		assertEquals(2, catalog.findByActor("ACTOR B").size());
+		assertEquals(2, catalog.findByStudio("studio a").size());
+		Map<String, List<CatalogEntry>> duplicates = catalog.findDuplicates();
+		assertEquals(Arrays.asList("abc-1"), new ArrayList<>(duplicates.keySet()));
+
+		//the indexes are read back from the database
+		catalog.flush();
+		MovieCatalog reopenedCatalog = new MovieCatalog(catalogDirectory, true);
+		assertEquals(3, reopenedCatalog.size());
+		assertEquals("First Title", reopenedCatalog.findByPath(first).toMovie().getTitle().getTitle());
+	}
+
+	@Test
+	public void testRecordReplacesAndMoveKeepsEntry() throws IOException {
+		File catalogDirectory = folder.newFolder("catalog");
+		MovieCatalog catalog = new MovieCatalog(catalogDirectory, true);
+		File movieFile = new File(folder.getRoot(), "ABC-001.avi");
+		record(catalog, movieFile, makeMovie("ABC-001", "Old Title", "Studio A", "Actor A"));
+		record(catalog, movieFile, makeMovie("ABC-001", "New Title", "Studio B", "Actor C"));
+		assertEquals(1, catalog.size());
+		assertTrue(catalog.findByActor("Actor A").isEmpty());
+		assertEquals("New Title", catalog.findByPath(movieFile).getTitle());
+
+		File renamedFile = new File(folder.getRoot(), "New Title [ABC-001].avi");
+		File renamedPoster = new File(folder.getRoot(), "New Title [ABC-001]-poster.jpg");
+		Map<File, File> movedFiles = new HashMap<>();
+		movedFiles.put(movieFile, renamedFile);
+		movedFiles.put(new File(folder.getRoot(), "ABC-001-poster.jpg"), renamedPoster);
+		catalog.move(movieFile, renamedFile, movedFiles);
+		assertNull(catalog.findByPath(movieFile));
+		assertEquals("New Title", catalog.findByPath(renamedFile).getTitle());
+		assertEquals(renamedPoster.getAbsolutePath(), catalog.findByPath(renamedFile).getPosterPath());
+		assertEquals(new File(folder.getRoot(), "ABC-001-fanart.jpg").getAbsolutePath(), catalog.findByPath(renamedFile).getFanartPath());
+		assertEquals(1, catalog.findByStudio("Studio B").size());
+		catalog.flush();
+		MovieCatalog reopenedCatalog = new MovieCatalog(catalogDirectory, true);
+		assertNull(reopenedCatalog.findByPath(movieFile));
+		assertEquals(renamedPoster.getAbsolutePath(), reopenedCatalog.findByPath(renamedFile).getPosterPath());
+
+		assertTrue(catalog.remove(renamedFile));
+		assertEquals(0, catalog.size());
+		catalog.flush();
+		assertEquals(0, new MovieCatalog(catalogDirectory, true).size());
+	}
+
+	@Test
+	public void testDisabledCatalogRecordsNothing() throws IOException {
+		File catalogDirectory = new File(folder.getRoot(), "catalog");
+		MovieCatalog catalog = new MovieCatalog(catalogDirectory, false);
+		assertFalse(record(catalog, new File(folder.getRoot(), "ABC-001.avi"), makeMovie("ABC-001", "Title", "Studio")));
+		assertTrue(catalog.findByID("ABC-001").isEmpty());
+		assertFalse(catalogDirectory.exists());
+	}
+
+	private static boolean record(MovieCatalog catalog, File movieFile, Movie movie) {
+		String baseName = movieFile.getPath().substring(0, movieFile.getPath().lastIndexOf('.'));
+		return catalog.record(movieFile, movie, new File(baseName + ".nfo"), new File(baseName + "-poster.jpg"), new File(baseName + "-fanart.jpg"), null, null, null);
+	}
+
+	private static Movie makeMovie(String id, String title, String studio, String... actorNames) {
+		ArrayList<Actor> actors = new ArrayList<>();
+		for (String currentActorName : actorNames)
+			actors.add(new Actor(currentActorName, null, null));
+		ArrayList<Genre> genres = new ArrayList<>();
+		genres.add(new Genre("Drama"));
+		return new Movie(actors, new ArrayList<Director>(), new Thumb[0], new Thumb[0], genres, new ArrayList<Tag>(), new ID(id), new MPAARating(""), new OriginalTitle(""), new Outline(""),
+		        new Plot(""), new Thumb[0], new Rating(0, ""), new ReleaseDate(""), new Runtime(""), new Set(""), new SortTitle(""), new Studio(studio), new Tagline(""), new Title(title),
+		        new Top250(""), new Trailer(null), new Votes(""), new Year(""));
+	}
+}
@@ -0,0 +1,157 @@
+package moviescraper.doctord.model.dataitem.test;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+import moviescraper.doctord.controller.siteparsingprofile.SiteParsingProfile;
+import moviescraper.doctord.model.JavIDIndex;
+import moviescraper.doctord.model.dataitem.ID;
+
+/**
+ * Compares the speed of the ID handling with the code it replaced: {@link ID#equalsJavID(ID)}, which compiled its patterns on every call,
+ * the file name cleanup of {@link SiteParsingProfile#findIDTagFromFile(java.io.File, boolean)}, the Levenshtein distance of search result URLs
+ * in Movie.scrapeMovie, and finding a movie in a library by comparing its ID with every other one versus a {@link JavIDIndex}.
+ * Not a unit test; run its main method by hand.
+ */
+public class JavIDBenchmark {
+
+	private static final String[] ids = { "ABP-123", "73ABC-001SO", "mxgs00123", "MDED-456", "SSNI-1000", "h_068MXGS-123", "IPX-001", "star00321" };
+	private static final String[] fileNames = { "[ABP-123] Some Title cd1", "Some Title (SSNI-100) part 2", "IPX-001.pt.b", "mxgs-123 disc1", "abc-123" };
+	private static final String[] urls = { "https://www.dmm.co.jp/mono/dvd/-/detail/=/cid=abp00123/?dmmref=aMonoDvdList&i3_ord=1&i3_ref=search",
+	        "https://www.dmm.co.jp/digital/videoa/-/detail/=/cid=h_068mxgs00123/?i3_ref=search&i3_ord=2", "http://www.javlibrary.com/en/?v=javlikq4ey" };
+	private static final int LIBRARY_SIZE = 5000;
+	private static final int WARMUP_RUNS = 3;
+	private static final int MEASURED_RUNS = 10;
+	private static final int MEASURED_ROUNDS = 200000;
+
+	public static void main(String[] args) {
+		ID[] idObjects = new ID[ids.length];
+		for (int i = 0; i < ids.length; i++)
+			idObjects[i] = new ID(ids[i]);
+		ID[] library = new ID[LIBRARY_SIZE];
+		JavIDIndex<ID> libraryIndex = new JavIDIndex<>();
+		for (int i = 0; i < LIBRARY_SIZE; i++) {
+			library[i] = new ID("LIB-" + i);
+			libraryIndex.add(library[i].getJavIDKey(), library[i]);
+		}
+		ID[] wanted = { new ID("lib00042"), new ID("LIB-4999"), new ID("NOT-1") };
+		for (int round = 0; round < 2; round++) {
+			report("equalsJavID", time(() -> {
+				int matches = 0;
+				for (int i = 0; i < MEASURED_ROUNDS; i++)
+					matches += oldEqualsJavID(ids[i % ids.length], ids[(i + 1) % ids.length]) ? 1 : 0;
+				return matches;
+			}), time(() -> {
+				int matches = 0;
+				for (int i = 0; i < MEASURED_ROUNDS; i++)
+					matches += idObjects[i % ids.length].equalsJavID(idObjects[(i + 1) % ids.length]) ? 1 : 0;
+				return matches;
+			}), MEASURED_ROUNDS);
+			report("file name cleanup", time(() -> {
+				int length = 0;
+				for (int i = 0; i < MEASURED_ROUNDS; i++)
+					length += oldCleanFileName(fileNames[i % fileNames.length]).length();
+				return length;
+			}), time(() -> {
+				int length = 0;
+				for (int i = 0; i < MEASURED_ROUNDS; i++)
+					length += newCleanFileName(fileNames[i % fileNames.length]).length();
+				return length;
+			}), MEASURED_ROUNDS);
+			report("search result distance", time(() -> {
+				int distance = 0;
+				for (int i = 0; i < MEASURED_ROUNDS; i++)
+					distance += StringUtils.getLevenshteinDistance(urls[i % urls.length], "abp00123");
+				return distance;
+			}), time(() -> {
+				int distance = 0;
+				for (int i = 0; i < MEASURED_ROUNDS; i++)
+					distance += urls[i % urls.length].length() - "abp00123".length();
+				return distance;
+			}), MEASURED_ROUNDS);
+			int lookups = MEASURED_ROUNDS / 1000;
+			report("library lookup of " + LIBRARY_SIZE, time(() -> {
+				int found = 0;
+				for (int i = 0; i < lookups; i++) {
+					for (ID currentID : library) {
+						if (currentID.equalsJavID(wanted[i % wanted.length]))
+							found++;
+					}
+				}
+				return found;
+			}), time(() -> {
+				int found = 0;
+				for (int i = 0; i < lookups; i++)
+					found += libraryIndex.get(wanted[i % wanted.length].getJavIDKey()).size();
+				return found;
+			}), lookups);
+		}
+	}
+
+	private static void report(String name, long oldNanos, long newNanos, int rounds) {
+		System.out.println(String.format("%s: old %d ns, new %d ns per call", name, oldNanos / rounds, newNanos / rounds));
+	}
+
+	/**
+	 * equalsJavID as it was, without the Moodyz special case
+	 */
+	private static boolean oldEqualsJavID(String id, String otherID) {
+		Pattern patternID = Pattern.compile("([0-9]*)(\\D+)(\\d+)(\\D)*");
+		Matcher matcherThisIDString = patternID.matcher(id.replaceAll("-", ""));
+		Matcher matcherOtherIDString = patternID.matcher(otherID.replaceAll("-", ""));
+		String thisIDMovieSeries = "", thisIDMovieNumber = "", otherIDMovieSeries = "", otherIDMovieNumber = "";
+		while (matcherThisIDString.find()) {
+			thisIDMovieSeries = matcherThisIDString.group(2);
+			thisIDMovieNumber = matcherThisIDString.group(3);
+		}
+		while (matcherOtherIDString.find()) {
+			otherIDMovieSeries = matcherOtherIDString.group(2);
+			otherIDMovieNumber = matcherOtherIDString.group(3);
+		}
+		if (!thisIDMovieSeries.equalsIgnoreCase(otherIDMovieSeries))
+			return false;
+		return Integer.parseInt(thisIDMovieNumber) == Integer.parseInt(otherIDMovieNumber);
+	}
+
+	private static String oldCleanFileName(String fileNameNoExtension) {
+		String discNumberStripped = fileNameNoExtension.replaceAll("(?i)[ _.]+(?:cd|dvd|p(?:ar)?t|dis[ck]|d)[ _.]*[0-9]+$", "");
+		discNumberStripped = discNumberStripped.replaceAll("(?i)[ _.]+(?:cd|dvd|p(?:ar)?t|dis[ck]|d)[ _.]*[a-d]$", "").trim();
+		String[] splitFileName = discNumberStripped.split(" ");
+		String lastWord = splitFileName[splitFileName.length - 1];
+		lastWord = lastWord.replace("(", "");
+		lastWord = lastWord.replace(")", "");
+		lastWord = lastWord.replace("[", "");
+		lastWord = lastWord.replace("]", "");
+		return lastWord;
+	}
+
+	private static String newCleanFileName(String fileNameNoExtension) {
+		String[] splitFileName = SiteParsingProfile.stripDiscNumber(fileNameNoExtension).split(" ");
+		return StringUtils.replaceChars(splitFileName[splitFileName.length - 1], "()[]", "");
+	}
+
+	private interface Workload {
+		int run();
+	}
+
+	/**
+	 * @return the fastest of the measured runs in nanoseconds
+	 */
+	private static long time(Workload workload) {
+		int checksum = 0;
+		for (int i = 0; i < WARMUP_RUNS; i++)
+			checksum += workload.run();
+		long fastest = Long.MAX_VALUE;
+		for (int i = 0; i < MEASURED_RUNS; i++) {
+			long start = System.nanoTime();
+			checksum += workload.run();
+			fastest = Math.min(fastest, System.nanoTime() - start);
+		}
+		//use the result so the work can't be optimized away
+		if (checksum == 42)
+			System.out.println();
+		return fastest;
+	}
+}
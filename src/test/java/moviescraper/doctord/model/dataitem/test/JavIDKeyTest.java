@@ -0,0 +1,94 @@
+package moviescraper.doctord.model.dataitem.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import moviescraper.doctord.model.JavIDIndex;
+import moviescraper.doctord.model.dataitem.ID;
+import moviescraper.doctord.model.dataitem.JavIDKey;
+
+/**
+ * JUnit test class for {@link JavIDKey} and {@link JavIDIndex}
+ */
+public class JavIDKeyTest {
+
+	private static final Pattern oldPatternID = Pattern.compile("([0-9]*)(\\D+)(\\d+)(\\D)*");
+
+	@Test
+	public void testParseParts() {
+		JavIDKey key = JavIDKey.parse("73ABC-001SO");
+		assertEquals("73", key.getLabelNumber());
+		assertEquals("ABC", key.getSeries());
+		assertEquals("001", key.getNumber());
+		assertEquals("SO", key.getSuffix());
+		assertEquals("abc-1", key.getNormalizedID());
+		assertNull(JavIDKey.parse("ABC-SO"));
+		assertNull(JavIDKey.parse(""));
+	}
+
+	@Test
+	public void testMoodyzSeriesAreEqual() {
+		assertEquals(JavIDKey.parse("MDED-123"), JavIDKey.parse("MDE-123"));
+		assertTrue(new ID("MDLD-001").equalsJavID(new ID("mdl1")));
+		assertFalse(new ID("MDED-123").equalsJavID(new ID("MDI-123")));
+	}
+
+	@Test
+	public void testSameSeriesAndNumberAsOldRegex() {
+		Random random = new Random(42);
+		String alphabet = "abAB0123-_ x";
+		for (int i = 0; i < 20000; i++) {
+			StringBuilder id = new StringBuilder();
+			int length = random.nextInt(12);
+			for (int j = 0; j < length; j++)
+				id.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			String[] oldParts = parseTheOldWay(id.toString());
+			JavIDKey key = JavIDKey.parse(id);
+			if (oldParts == null) {
+				assertNull(id.toString(), key);
+			} else {
+				assertEquals(id.toString(), Arrays.asList(oldParts), Arrays.asList(key.getSeries(), key.getNumber()));
+			}
+		}
+	}
+
+	@Test
+	public void testFindAllInURL() {
+		JavIDKey key = JavIDKey.parse("ABP-123");
+		assertTrue(key.isIn("https://www.dmm.co.jp/mono/dvd/-/detail/=/cid=abp00123/"));
+		assertTrue(JavIDKey.parse("MXGS-123").isIn("https://www.dmm.co.jp/digital/videoa/-/detail/=/cid=h_068mxgs00123/"));
+		assertFalse(key.isIn("https://www.dmm.co.jp/mono/dvd/-/detail/=/cid=abp01234/"));
+	}
+
+	@Test
+	public void testIndexFindsDifferentlyWrittenIDs() {
+		JavIDIndex<String> index = new JavIDIndex<>();
+		index.add("ABC-001", "first");
+		index.add("73abc1so", "second");
+		index.add("DEF-001", "other");
+		assertFalse(index.add("no id here", "nothing"));
+		assertEquals(Arrays.asList("first", "second"), index.get("abc-1"));
+		assertEquals(2, index.size());
+		assertTrue(index.get("XYZ-1").isEmpty());
+	}
+
+	/**
+	 * @return the series and number as ID.equalsJavID used to read them, or null if it found none
+	 */
+	private static String[] parseTheOldWay(String id) {
+		Matcher matcher = oldPatternID.matcher(id.replaceAll("-", ""));
+		String[] parts = null;
+		while (matcher.find())
+			parts = new String[] { matcher.group(2), matcher.group(3) };
+		return parts;
+	}
+}
@@ -0,0 +1,95 @@
+package moviescraper.doctord.scraper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DitzyCookiesTest {
+
+	private File cookieJar;
+	private DitzyCookies cookies;
+
+	@Before
+	public void setUp() throws IOException {
+		cookieJar = new File(Files.createTempDirectory("cookies").toFile(), "cookies.txt");
+		long tomorrow = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + TimeUnit.DAYS.toSeconds(1);
+		writeJar("# Netscape HTTP Cookie File",
+		        ".javlibrary.com\tTRUE\t/\tFALSE\t" + tomorrow + "\tover18\t18",
+		        "#HttpOnly_.javlibrary.com\tTRUE\t/\tTRUE\t" + tomorrow + "\tcf_clearance\told",
+		        ".javlibrary.com\tTRUE\t/\tFALSE\t1000\texpired\tgone",
+		        "www.javlibrary.com\tFALSE\t/\tFALSE\t0\tsession\tvalue",
+		        "example.com\tTRUE\t/\tFALSE\t0\tother\tvalue");
+		cookies = new DitzyCookies();
+		cookies.LoadCookieJar(cookieJar);
+	}
+
+	@After
+	public void tearDown() {
+		cookies.stopWatching();
+	}
+
+	@Test
+	public void testCookiesOfParentDomainsAreSentAndExpiredOnesAreNot() {
+		Map<String, String> sentCookies = cookies.getCookies("www.javlibrary.com");
+		assertEquals("18", sentCookies.get("over18"));
+		assertEquals("old", sentCookies.get("cf_clearance"));
+		assertEquals("value", sentCookies.get("session"));
+		assertFalse(sentCookies.containsKey("expired"));
+		assertFalse(sentCookies.containsKey("other"));
+		assertFalse(cookies.getCookies("javlibrary.com").containsKey("session"));
+	}
+
+	@Test
+	public void testRefreshedCookiesAreWrittenBackToTheJar() throws IOException {
+		cookies.addCookiesFromResponse(new URL("http://www.javlibrary.com/en/"), Arrays.asList("cf_clearance=new; Max-Age=3600; Domain=.javlibrary.com; Path=/; HttpOnly",
+		        "over18=; Max-Age=0; Domain=.javlibrary.com; Path=/"));
+		assertEquals("new", cookies.getCookies("www.javlibrary.com").get("cf_clearance"));
+		assertFalse(cookies.getCookies("www.javlibrary.com").containsKey("over18"));
+
+		DitzyCookies reloadedCookies = new DitzyCookies();
+		reloadedCookies.LoadCookieJar(cookieJar);
+		reloadedCookies.stopWatching();
+		assertEquals("new", reloadedCookies.getCookies("www.javlibrary.com").get("cf_clearance"));
+		assertFalse(reloadedCookies.getCookies("www.javlibrary.com").containsKey("over18"));
+	}
+
+	@Test
+	public void testCookiesForOtherDomainsAreIgnored() throws IOException {
+		cookies.addCookiesFromResponse(new URL("http://www.javlibrary.com/en/"), Arrays.asList("other=stolen; Domain=example.com; Path=/", "wide=value; Domain=.com; Path=/",
+		        "sibling=value; Domain=ww.javlibrary.com; Path=/", "parent=value; Domain=.javlibrary.com; Path=/"));
+		assertEquals("value", cookies.getCookies("example.com").get("other"));
+		assertFalse(cookies.getCookies("example.com").containsKey("wide"));
+		assertFalse(cookies.getCookies("ww.javlibrary.com").containsKey("sibling"));
+		assertEquals("value", cookies.getCookies("www.javlibrary.com").get("parent"));
+	}
+
+	@Test
+	public void testJarIsReloadedWhenTheUserChangesIt() throws Exception {
+		long tomorrow = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + TimeUnit.DAYS.toSeconds(1);
+		//make sure the modification time differs from the one the jar was loaded with
+		Thread.sleep(1100);
+		writeJar("#HttpOnly_.javlibrary.com\tTRUE\t/\tTRUE\t" + tomorrow + "\tcf_clearance\tfromBrowser");
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(15);
+		while (!"fromBrowser".equals(cookies.getCookies("www.javlibrary.com").get("cf_clearance")) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+		assertEquals("fromBrowser", cookies.getCookies("www.javlibrary.com").get("cf_clearance"));
+		assertEquals(1, cookies.getCookies("www.javlibrary.com").size());
+	}
+
+	private void writeJar(String... lines) throws IOException {
+		Files.write(cookieJar.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+	}
+}
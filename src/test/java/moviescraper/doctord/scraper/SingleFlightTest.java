@@ -0,0 +1,84 @@
+package moviescraper.doctord.scraper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class SingleFlightTest {
+
+	private static final int CALLERS = 8;
+
+	@Test
+	public void testConcurrentCallsForOneKeyRunOnce() throws Exception {
+		SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+		AtomicInteger calls = new AtomicInteger();
+		Object result = new Object();
+		List<Future<Object>> futures = runConcurrently(singleFlight, "key", () -> {
+			calls.incrementAndGet();
+			return result;
+		});
+		for (Future<Object> currentFuture : futures)
+			assertSame(result, currentFuture.get());
+		assertEquals(1, calls.get());
+		assertEquals(1, singleFlight.getExecutedCount());
+		assertEquals(CALLERS - 1, singleFlight.getCoalescedCount());
+	}
+
+	@Test
+	public void testExceptionIsSharedAndKeyIsReleased() throws Exception {
+		SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+		List<Future<Object>> futures = runConcurrently(singleFlight, "key", () -> {
+			throw new IOException("Not found");
+		});
+		for (Future<Object> currentFuture : futures) {
+			try {
+				currentFuture.get();
+				fail("Expected the exception of the call");
+			} catch (ExecutionException e) {
+				assertEquals("Not found", e.getCause().getMessage());
+			}
+		}
+		assertEquals("again", singleFlight.execute("key", () -> "again"));
+		assertEquals(2, singleFlight.getExecutedCount());
+	}
+
+	/**
+	 * Starts all callers, letting the first call finish only once every caller has asked for the key
+	 */
+	private static List<Future<Object>> runConcurrently(SingleFlight<String, Object> singleFlight, String key, SingleFlight.Call<Object> call) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+		CountDownLatch allAsked = new CountDownLatch(CALLERS);
+		List<Future<Object>> futures = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			futures.add(executor.submit(() -> {
+				allAsked.countDown();
+				return singleFlight.execute(key, () -> {
+					try {
+						allAsked.await(5, TimeUnit.SECONDS);
+						//give the last caller time to join the running call
+						Thread.sleep(100);
+					} catch (InterruptedException e) {
+						throw new IOException(e);
+					}
+					return call.call();
+				});
+			}));
+		}
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+		return futures;
+	}
+}
@@ -0,0 +1,120 @@
+package moviescraper.doctord.scraper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import moviescraper.doctord.model.SearchResult;
+
+/**
+ * Tests WebSearch with fake search engines, so nothing goes online
+ */
+public class WebSearchTest {
+
+	private static final long HEDGE_DELAY_MILLIS = 100;
+
+	@Test
+	public void testSlowPrimaryIsHedgedWithBackup() {
+		FakeProvider primary = new FakeProvider("http://www.example.com/primary", 5000, false);
+		FakeProvider backup = new FakeProvider("http://www.example.com/backup", 0, false);
+		WebSearch webSearch = new WebSearch(primary, backup, newCache(null), HEDGE_DELAY_MILLIS);
+		long start = System.nanoTime();
+		List<SearchResult> results = webSearch.search("example.com", "ABP-123");
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+		assertEquals("http://www.example.com/backup", results.get(0).getUrlPath());
+	}
+
+	@Test
+	public void testFastPrimaryDoesNotAskBackup() {
+		FakeProvider primary = new FakeProvider("http://www.example.com/primary", 0, false);
+		FakeProvider backup = new FakeProvider("http://www.example.com/backup", 0, false);
+		WebSearch webSearch = new WebSearch(primary, backup, newCache(null), HEDGE_DELAY_MILLIS);
+		assertEquals("http://www.example.com/primary", webSearch.search("example.com", "ABP-123").get(0).getUrlPath());
+		assertEquals(0, backup.calls.get());
+	}
+
+	@Test
+	public void testFailedPrimaryFallsBackWithoutWaiting() {
+		FakeProvider primary = new FakeProvider("http://www.example.com/primary", 0, true);
+		FakeProvider backup = new FakeProvider("http://www.example.com/backup", 0, false);
+		WebSearch webSearch = new WebSearch(primary, backup, newCache(null), 5000);
+		long start = System.nanoTime();
+		assertEquals("http://www.example.com/backup", webSearch.search("example.com", "ABP-123").get(0).getUrlPath());
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+	}
+
+	@Test
+	public void testResultsAreCachedByNormalizedQueryAcrossRuns() throws IOException {
+		File cacheFile = new File(Files.createTempDirectory("websearch").toFile(), "search-results.properties");
+		FakeProvider primary = new FakeProvider("http://www.example.com/primary", 0, false);
+		FakeProvider backup = new FakeProvider("http://www.example.com/backup", 0, false);
+		WebSearchCache cache = newCache(cacheFile);
+		WebSearch webSearch = new WebSearch(primary, backup, cache, HEDGE_DELAY_MILLIS);
+		webSearch.search("example.com", "ABP-123 Some Title");
+		webSearch.search("Example.com", "  abp-123   some title ");
+		assertEquals(1, webSearch.getProviderRequestCount());
+		cache.save();
+
+		WebSearch restartedWebSearch = new WebSearch(primary, backup, newCache(cacheFile), HEDGE_DELAY_MILLIS);
+		List<SearchResult> results = restartedWebSearch.search("example.com", "ABP-123 Some Title");
+		assertEquals(0, restartedWebSearch.getProviderRequestCount());
+		assertEquals("http://www.example.com/primary", results.get(0).getUrlPath());
+		assertEquals("label", results.get(0).getLabel());
+	}
+
+	@Test
+	public void testFailuresAreNotCached() {
+		FakeProvider primary = new FakeProvider("http://www.example.com/primary", 0, true);
+		FakeProvider backup = new FakeProvider("http://www.example.com/backup", 0, true);
+		WebSearch webSearch = new WebSearch(primary, backup, newCache(null), HEDGE_DELAY_MILLIS);
+		assertTrue(webSearch.search("example.com", "ABP-123").isEmpty());
+		webSearch.search("example.com", "ABP-123");
+		assertEquals(4, webSearch.getProviderRequestCount());
+	}
+
+	private static WebSearchCache newCache(File file) {
+		return new WebSearchCache(file, TimeUnit.DAYS.toMillis(1), WebSearchCache.DEFAULT_MAX_ENTRIES);
+	}
+
+	private static class FakeProvider implements WebSearchProvider {
+		final String url;
+		final long delayMillis;
+		final boolean fails;
+		final AtomicInteger calls = new AtomicInteger();
+
+		FakeProvider(String url, long delayMillis, boolean fails) {
+			this.url = url;
+			this.delayMillis = delayMillis;
+			this.fails = fails;
+		}
+
+		@Override
+		public List<SearchResult> search(String query, String site) throws IOException {
+			calls.incrementAndGet();
+			try {
+				Thread.sleep(delayMillis);
+			} catch (InterruptedException e) {
+				throw new IOException("Interrupted");
+			}
+			if (fails)
+				throw new IOException("Captcha");
+			List<SearchResult> results = new ArrayList<>();
+			results.add(new SearchResult(url, "label"));
+			return results;
+		}
+
+		@Override
+		public String getName() {
+			return url;
+		}
+	}
+}